@@ -0,0 +1,179 @@
+package com.santander.rht.bankentitiesapi.application.cache;
+
+import com.santander.rht.bankentitiesapi.domain.model.Bank;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Results of the bank list queries, keyed by filter and argument.
+ * <p>
+ * Every entry is stamped with the directory version it was read at, and any write bumps the version, so
+ * a stale entry is told by one comparison on read, without working out which lists a write touched. The
+ * version is read before the query runs: a list read while a write commits is stamped with the version
+ * before the write, and so is stale as soon as the write bumps it.
+ * <p>
+ * Banks are mutable, so entries keep copies of the banks read, and hand out copies of their own.
+ */
+@Component
+public class BankListCache {
+    
+    /**
+     * The list queries whose results are cached
+     */
+    public enum Filter {
+        COUNTRY, COUNTRY_CODE, ACTIVE
+    }
+    
+    private record Key(Filter filter, String argument) {
+    }
+    
+    private record Entry(long version, List<Bank> banks) {
+    }
+    
+    private final Map<Key, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicLong version = new AtomicLong();
+    private final boolean enabled;
+    private final int maxEntries;
+    private final Map<Filter, FilterMetrics> metrics = new EnumMap<>(Filter.class);
+    
+    public BankListCache(MeterRegistry meterRegistry,
+                         @Value("${app.list-cache.enabled:true}") boolean enabled,
+                         @Value("${app.list-cache.max-entries:1000}") int maxEntries) {
+        this.enabled = enabled;
+        this.maxEntries = maxEntries;
+        for (Filter filter : Filter.values()) {
+            metrics.put(filter, new FilterMetrics(filter, meterRegistry));
+        }
+        Gauge.builder("bank.list.cache.size", entries, Map::size)
+                .description("Number of cached bank lists")
+                .register(meterRegistry);
+        Gauge.builder("bank.list.cache.version", version, AtomicLong::get)
+                .description("Directory version cached lists are checked against, bumped by every write")
+                .register(meterRegistry);
+    }
+    
+    /**
+     * The cached list for the filter and argument if no write happened since it was read, otherwise the
+     * list read by the loader, which is cached in its place
+     */
+    public List<Bank> get(Filter filter, String argument, Supplier<List<Bank>> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+        Key key = new Key(filter, argument);
+        long current = version.get();
+        Entry entry = entries.get(key);
+        if (entry != null && entry.version() == current) {
+            metrics.get(filter).hit();
+            return copies(entry.banks());
+        }
+        metrics.get(filter).miss();
+        List<Bank> banks = List.copyOf(loader.get());
+        evictIfFull(key);
+        entries.put(key, new Entry(current, copies(banks)));
+        return banks;
+    }
+    
+    /**
+     * Makes every cached list stale once the surrounding transaction has committed, right away when
+     * there is none
+     */
+    public void written() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            invalidateAll();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    invalidateAll();
+                }
+            }
+        });
+    }
+    
+    /**
+     * Makes every cached list stale, for writes that have already committed
+     */
+    public void invalidateAll() {
+        version.incrementAndGet();
+    }
+    
+    public double hitRatio(Filter filter) {
+        return metrics.get(filter).hitRatio();
+    }
+    
+    private void evictIfFull(Key incomingKey) {
+        if (entries.size() < maxEntries || entries.containsKey(incomingKey)) {
+            return;
+        }
+        // Evict stale entries first, then arbitrary ones, until there is room
+        long current = version.get();
+        entries.values().removeIf(entry -> entry.version() != current);
+        Iterator<Key> keys = entries.keySet().iterator();
+        while (entries.size() >= maxEntries && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+        }
+    }
+    
+    private static List<Bank> copies(List<Bank> banks) {
+        return banks.stream().map(bank -> bank.toBuilder().build()).toList();
+    }
+    
+    private static final class FilterMetrics {
+        
+        private final AtomicLong hits = new AtomicLong();
+        private final AtomicLong lookups = new AtomicLong();
+        private final Counter hitCounter;
+        private final Counter missCounter;
+        
+        FilterMetrics(Filter filter, MeterRegistry meterRegistry) {
+            String tag = filter.name().toLowerCase().replace('_', '-');
+            this.hitCounter = lookupCounter(meterRegistry, tag, "hit");
+            this.missCounter = lookupCounter(meterRegistry, tag, "miss");
+            Gauge.builder("bank.list.cache.hit.ratio", this, FilterMetrics::hitRatio)
+                    .description("Share of bank list lookups answered from cache, by filter")
+                    .tag("filter", tag)
+                    .register(meterRegistry);
+        }
+        
+        void hit() {
+            lookups.incrementAndGet();
+            hits.incrementAndGet();
+            hitCounter.increment();
+        }
+        
+        void miss() {
+            lookups.incrementAndGet();
+            missCounter.increment();
+        }
+        
+        double hitRatio() {
+            long total = lookups.get();
+            return total == 0 ? 0.0 : (double) hits.get() / total;
+        }
+        
+        private static Counter lookupCounter(MeterRegistry meterRegistry, String filter, String result) {
+            return Counter.builder("bank.list.cache.lookups")
+                    .description("Bank list cache lookups by filter and result")
+                    .tag("filter", filter)
+                    .tag("result", result)
+                    .register(meterRegistry);
+        }
+    }
+}
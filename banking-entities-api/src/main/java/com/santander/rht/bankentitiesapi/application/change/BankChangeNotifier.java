@@ -0,0 +1,57 @@
+package com.santander.rht.bankentitiesapi.application.change;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Wakes whoever follows the change feed when a write has committed, so pushed changes do not wait
+ * for the next poll. Signals coalesce: any number of commits while the follower is busy wake it once.
+ */
+@Component
+public class BankChangeNotifier {
+    
+    private final Semaphore signal = new Semaphore(0);
+    
+    /**
+     * Signals once the surrounding transaction has committed, right away when there is none.
+     * Call after the write, so the signal follows the write's own completion callbacks.
+     */
+    public void written() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            signal();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    signal();
+                }
+            }
+        });
+    }
+    
+    /**
+     * Waits for a signal since the last call
+     *
+     * @return false if none arrived within the timeout
+     */
+    public boolean awaitChange(Duration timeout) throws InterruptedException {
+        if (!signal.tryAcquire(timeout.toNanos(), TimeUnit.NANOSECONDS)) {
+            return false;
+        }
+        signal.drainPermits();
+        return true;
+    }
+    
+    private void signal() {
+        if (signal.availablePermits() == 0) {
+            signal.release();
+        }
+    }
+}
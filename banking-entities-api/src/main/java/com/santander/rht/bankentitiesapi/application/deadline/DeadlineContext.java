@@ -0,0 +1,58 @@
+package com.santander.rht.bankentitiesapi.application.deadline;
+
+import com.santander.rht.bankentitiesapi.domain.exception.DeadlineExceededException;
+import com.santander.rht.bankentitiesapi.domain.model.RequestDeadline;
+
+import java.util.Optional;
+import java.util.concurrent.Callable;
+
+/**
+ * Holds the deadline of the request being processed by the current thread,
+ * so the service layer and the outbound adapters can see how much budget is left
+ */
+public final class DeadlineContext {
+    
+    private static final ThreadLocal<RequestDeadline> CURRENT = new ThreadLocal<>();
+    
+    private DeadlineContext() {
+    }
+    
+    public static Optional<RequestDeadline> current() {
+        return Optional.ofNullable(CURRENT.get());
+    }
+    
+    public static void set(RequestDeadline deadline) {
+        CURRENT.set(deadline);
+    }
+    
+    public static void clear() {
+        CURRENT.remove();
+    }
+    
+    /**
+     * Abandons the current work if the request deadline has already passed
+     */
+    public static void checkNotExpired(String stage) {
+        RequestDeadline deadline = CURRENT.get();
+        if (deadline != null && deadline.isExpired()) {
+            throw DeadlineExceededException.during(stage);
+        }
+    }
+    
+    /**
+     * Runs a call on the current thread with the given deadline, restoring the previous one afterwards
+     */
+    public static <T> T callWithin(RequestDeadline deadline, Callable<T> call) throws Exception {
+        RequestDeadline previous = CURRENT.get();
+        CURRENT.set(deadline);
+        try {
+            return call.call();
+        } finally {
+            if (previous != null) {
+                CURRENT.set(previous);
+            } else {
+                CURRENT.remove();
+            }
+        }
+    }
+}
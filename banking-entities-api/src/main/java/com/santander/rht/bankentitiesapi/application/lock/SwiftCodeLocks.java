@@ -0,0 +1,176 @@
+package com.santander.rht.bankentitiesapi.application.lock;
+
+import com.santander.rht.bankentitiesapi.application.deadline.DeadlineContext;
+import com.santander.rht.bankentitiesapi.domain.exception.DeadlineExceededException;
+import com.santander.rht.bankentitiesapi.domain.model.RequestDeadline;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Striped in-process locks keyed by normalized SWIFT code. Writes to the same code run one at a
+ * time on this node instead of racing each other into constraint violations and rollbacks, while
+ * writes to codes on other stripes proceed in parallel.
+ * <p>
+ * Inside a transaction the lock is held until the transaction completes, so the next writer only
+ * starts once the previous one is committed or rolled back. A transaction writing several codes takes
+ * all their locks up front, in stripe order, with {@link #withLocks}: a transaction never waits for a
+ * lock while holding database locks of its own writes, so stripe and row locks cannot wait on each
+ * other in a cycle.
+ */
+@Component
+public class SwiftCodeLocks {
+    
+    private final boolean enabled;
+    private final ReentrantLock[] stripes;
+    private final Timer uncontendedWait;
+    private final Timer contendedWait;
+    
+    @Autowired
+    public SwiftCodeLocks(MeterRegistry meterRegistry,
+                          @Value("${app.write-lock.enabled:true}") boolean enabled,
+                          @Value("${app.write-lock.stripes:64}") int stripes) {
+        this.enabled = enabled;
+        this.stripes = new ReentrantLock[powerOfTwoAtLeast(stripes)];
+        for (int i = 0; i < this.stripes.length; i++) {
+            this.stripes[i] = new ReentrantLock();
+        }
+        this.uncontendedWait = waitTimer(meterRegistry, "false");
+        this.contendedWait = waitTimer(meterRegistry, "true");
+    }
+    
+    /**
+     * Runs the write holding the lock for the given SWIFT code. A null code runs unlocked.
+     * Waiting for the lock is bounded by the request deadline, if any.
+     */
+    public <T> T withLock(String swiftCode, Supplier<T> write) {
+        if (!enabled || swiftCode == null) {
+            return write.get();
+        }
+        
+        ReentrantLock lock = stripeFor(swiftCode);
+        acquire(lock);
+        return holding(List.of(lock), write);
+    }
+    
+    /**
+     * Runs a group of writes holding the locks for all their SWIFT codes, taken in stripe order before
+     * any of them runs; null codes are skipped. The writes may take the same locks again with
+     * {@link #withLock}, which then does not wait. Waiting is bounded by the request deadline, if any.
+     */
+    public <T> T withLocks(Collection<String> swiftCodes, Supplier<T> writes) {
+        if (!enabled) {
+            return writes.get();
+        }
+        
+        int[] indexes = swiftCodes.stream()
+                .filter(Objects::nonNull)
+                .mapToInt(this::stripeIndex)
+                .distinct()
+                .sorted()
+                .toArray();
+        List<ReentrantLock> held = new ArrayList<>(indexes.length);
+        try {
+            for (int index : indexes) {
+                acquire(stripes[index]);
+                held.add(stripes[index]);
+            }
+        } catch (RuntimeException e) {
+            unlock(held);
+            throw e;
+        }
+        return holding(held, writes);
+    }
+    
+    int stripeCount() {
+        return stripes.length;
+    }
+    
+    ReentrantLock stripeFor(String swiftCode) {
+        return stripes[stripeIndex(swiftCode)];
+    }
+    
+    private int stripeIndex(String swiftCode) {
+        int hash = swiftCode.trim().toUpperCase(Locale.ROOT).hashCode();
+        // Spread the high bits so codes that differ only in their branch suffix land on different stripes
+        hash ^= hash >>> 16;
+        return hash & (stripes.length - 1);
+    }
+    
+    /**
+     * Runs the writes with the locks held, then releases them, once the transaction completes if in one
+     */
+    private static <T> T holding(List<ReentrantLock> locks, Supplier<T> writes) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    unlock(locks);
+                }
+            });
+            return writes.get();
+        }
+        
+        try {
+            return writes.get();
+        } finally {
+            unlock(locks);
+        }
+    }
+    
+    private static void unlock(List<ReentrantLock> locks) {
+        for (int i = locks.size() - 1; i >= 0; i--) {
+            locks.get(i).unlock();
+        }
+    }
+    
+    private void acquire(ReentrantLock lock) {
+        if (lock.tryLock()) {
+            uncontendedWait.record(0, TimeUnit.NANOSECONDS);
+            return;
+        }
+        
+        long start = System.nanoTime();
+        try {
+            RequestDeadline deadline = DeadlineContext.current().orElse(null);
+            if (deadline == null) {
+                lock.lockInterruptibly();
+            } else if (!lock.tryLock(deadline.remaining().toNanos(), TimeUnit.NANOSECONDS)) {
+                throw DeadlineExceededException.during("lock");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a SWIFT code lock", e);
+        } finally {
+            contendedWait.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+    
+    private static Timer waitTimer(MeterRegistry meterRegistry, String contended) {
+        return Timer.builder("bank.write.lock.wait")
+                .description("Time spent waiting for the per-SWIFT-code write lock")
+                .tag("contended", contended)
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+    }
+    
+    private static int powerOfTwoAtLeast(int value) {
+        if (value < 1) {
+            throw new IllegalArgumentException("app.write-lock.stripes must be positive: " + value);
+        }
+        return value == 1 ? 1 : Integer.highestOneBit(value - 1) << 1;
+    }
+}
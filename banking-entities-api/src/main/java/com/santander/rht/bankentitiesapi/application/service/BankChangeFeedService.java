@@ -0,0 +1,124 @@
+package com.santander.rht.bankentitiesapi.application.service;
+
+import com.santander.rht.bankentitiesapi.domain.exception.ChangeCursorExpiredException;
+import com.santander.rht.bankentitiesapi.domain.exception.InvalidBankDataException;
+import com.santander.rht.bankentitiesapi.domain.model.BankChange;
+import com.santander.rht.bankentitiesapi.domain.model.BankChangePage;
+import com.santander.rht.bankentitiesapi.domain.port.in.BankChangeFeedPort;
+import com.santander.rht.bankentitiesapi.domain.port.out.BankRepositoryPort;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serves the bank change feed in pages, and compacts away the tombstones of banks deleted longer ago
+ * than the retention window. A consumer that has not synced within that window can no longer learn about
+ * every deletion, and is told to start over from 0.
+ */
+@Service
+@Slf4j
+public class BankChangeFeedService implements BankChangeFeedPort {
+    
+    private final BankRepositoryPort bankRepositoryPort;
+    private final TransactionTemplate transactionTemplate;
+    private final int maxLimit;
+    private final Duration tombstoneRetention;
+    private final ScheduledExecutorService compactor;
+    private final Counter purgedTombstones;
+    
+    public BankChangeFeedService(BankRepositoryPort bankRepositoryPort,
+                                 PlatformTransactionManager transactionManager,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${app.change-feed.max-limit:1000}") int maxLimit,
+                                 @Value("${app.change-feed.tombstone-retention:7d}") Duration tombstoneRetention,
+                                 @Value("${app.change-feed.compaction-interval:1h}") Duration compactionInterval) {
+        this.bankRepositoryPort = bankRepositoryPort;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maxLimit = maxLimit;
+        this.tombstoneRetention = tombstoneRetention;
+        this.purgedTombstones = Counter.builder("bank.changes.tombstones.purged")
+                .description("Tombstones of deleted banks compacted out of the change feed")
+                .register(meterRegistry);
+        
+        if (compactionInterval.isPositive()) {
+            compactor = Executors.newSingleThreadScheduledExecutor(
+                    Thread.ofPlatform().name("bank-tombstone-compaction").daemon().factory());
+            compactor.scheduleWithFixedDelay(this::scheduledCompaction,
+                    compactionInterval.toMillis(), compactionInterval.toMillis(), TimeUnit.MILLISECONDS);
+        } else {
+            compactor = null;
+        }
+    }
+    
+    @PreDestroy
+    void stop() {
+        if (compactor != null) {
+            compactor.shutdownNow();
+        }
+    }
+    
+    @Override
+    public BankChangePage getChanges(long since, int limit) {
+        if (since < 0) {
+            throw InvalidBankDataException.invalidField("since", "must not be negative");
+        }
+        int pageSize = Math.clamp(limit, 1, maxLimit);
+        log.debug("Getting up to {} bank changes since {}", pageSize, since);
+        
+        // One extra change tells whether there are more. Read from the primary, as a replica may not have
+        // caught up with every change below the visible bound yet, which the feed would then skip for good
+        List<BankChange> changes = transactionTemplate.execute(
+                status -> bankRepositoryPort.findChangesSince(since, pageSize + 1));
+        
+        // Checked after reading, so tombstones compacted away while reading cannot go unnoticed
+        long purgedThrough = bankRepositoryPort.purgedThrough();
+        if (since > 0 && since < purgedThrough) {
+            throw ChangeCursorExpiredException.since(since, purgedThrough);
+        }
+        
+        boolean hasMore = changes.size() > pageSize;
+        List<BankChange> page = hasMore ? changes.subList(0, pageSize) : changes;
+        long next = page.isEmpty() ? since : page.getLast().seq();
+        return new BankChangePage(List.copyOf(page), next, hasMore);
+    }
+    
+    @Override
+    public long latestSeq() {
+        return bankRepositoryPort.latestChangeSeq();
+    }
+    
+    /**
+     * Removes the tombstones of banks deleted longer ago than the retention window
+     *
+     * @return number of tombstones removed
+     */
+    public int compactTombstones() {
+        LocalDateTime deletedBefore = LocalDateTime.now().minus(tombstoneRetention);
+        Integer purged = transactionTemplate.execute(status -> bankRepositoryPort.purgeTombstones(deletedBefore));
+        if (purged != null && purged > 0) {
+            purgedTombstones.increment(purged);
+            log.info("Compacted {} tombstones of banks deleted before {}", purged, deletedBefore);
+        }
+        return purged != null ? purged : 0;
+    }
+    
+    private void scheduledCompaction() {
+        try {
+            compactTombstones();
+        } catch (RuntimeException e) {
+            log.error("Tombstone compaction failed", e);
+        }
+    }
+}
@@ -0,0 +1,330 @@
+package com.santander.rht.bankentitiesapi.application.service;
+
+import com.santander.rht.bankentitiesapi.application.change.BankChangeNotifier;
+import com.santander.rht.bankentitiesapi.domain.exception.DomainException;
+import com.santander.rht.bankentitiesapi.domain.exception.ImportCapacityException;
+import com.santander.rht.bankentitiesapi.domain.model.Bank;
+import com.santander.rht.bankentitiesapi.domain.model.BankImportError;
+import com.santander.rht.bankentitiesapi.domain.model.BankImportJob;
+import com.santander.rht.bankentitiesapi.domain.model.BankImportRow;
+import com.santander.rht.bankentitiesapi.domain.model.BankInvalidation;
+import com.santander.rht.bankentitiesapi.domain.port.in.BankImportPort;
+import com.santander.rht.bankentitiesapi.domain.port.out.BankInvalidationPort;
+import com.santander.rht.bankentitiesapi.domain.port.out.BankRepositoryPort;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Runs bulk imports: rows are pulled from their source in batches of bounded size, validated, and
+ * upserted by SWIFT code one transaction per batch. The next batch is only read once the previous
+ * one is written, so a slow database slows the source down instead of rows piling up in memory.
+ * <p>
+ * If a batch fails to write it is replayed one row per transaction, so only the offending rows are
+ * rejected. Rejected rows are appended to a per-job spill file rather than kept in memory, and read
+ * back on demand. Only the most recent jobs, and their spill files, are retained.
+ */
+@Service
+@Slf4j
+public class BankImportService implements BankImportPort {
+    
+    private final BankRepositoryPort bankRepositoryPort;
+    private final TransactionTemplate transactionTemplate;
+    private final BankInvalidationPort bankInvalidationPort;
+    private final BankChangeNotifier bankChangeNotifier;
+    private final int batchSize;
+    private final int maxConcurrent;
+    private final int jobRetention;
+    private final ThreadPoolExecutor importers;
+    
+    private final AtomicLong jobIds = new AtomicLong();
+    private final Map<Long, BankImportJob> jobs = new ConcurrentHashMap<>();
+    private final Map<Long, Path> errorFiles = new ConcurrentHashMap<>();
+    private final Queue<Long> jobOrder = new ConcurrentLinkedQueue<>();
+    
+    private final Counter writtenRows;
+    private final Counter unchangedRows;
+    private final Counter rejectedRows;
+    private final Timer batchTimer;
+    
+    public BankImportService(BankRepositoryPort bankRepositoryPort,
+                             PlatformTransactionManager transactionManager,
+                             BankInvalidationPort bankInvalidationPort,
+                             BankChangeNotifier bankChangeNotifier,
+                             MeterRegistry meterRegistry,
+                             @Value("${app.import.batch-size:500}") int batchSize,
+                             @Value("${app.import.max-concurrent:2}") int maxConcurrent,
+                             @Value("${app.import.job-retention:100}") int jobRetention) {
+        this.bankRepositoryPort = bankRepositoryPort;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.bankInvalidationPort = bankInvalidationPort;
+        this.bankChangeNotifier = bankChangeNotifier;
+        this.batchSize = batchSize;
+        this.maxConcurrent = maxConcurrent;
+        this.jobRetention = jobRetention;
+        this.importers = new ThreadPoolExecutor(maxConcurrent, maxConcurrent, 60, TimeUnit.SECONDS,
+                new SynchronousQueue<>(), Thread.ofPlatform().name("bank-import-", 0).daemon().factory());
+        this.importers.allowCoreThreadTimeOut(true);
+        
+        this.writtenRows = rowCounter(meterRegistry, "written");
+        this.unchangedRows = rowCounter(meterRegistry, "unchanged");
+        this.rejectedRows = rowCounter(meterRegistry, "rejected");
+        this.batchTimer = Timer.builder("bank.import.batch")
+                .description("Time to write one batch of imported banks")
+                .register(meterRegistry);
+    }
+    
+    @PreDestroy
+    void stop() {
+        importers.shutdownNow();
+        errorFiles.values().forEach(BankImportService::deleteQuietly);
+    }
+    
+    @Override
+    public BankImportJob startImport(String format, Iterator<BankImportRow> rows) {
+        BankImportJob job = new BankImportJob(jobIds.incrementAndGet(), format, Instant.now());
+        try {
+            importers.execute(() -> run(job, rows));
+        } catch (RejectedExecutionException e) {
+            throw ImportCapacityException.withRunning(maxConcurrent);
+        }
+        jobs.put(job.getId(), job);
+        jobOrder.add(job.getId());
+        evictOldJobs();
+        return job;
+    }
+    
+    @Override
+    public Optional<BankImportJob> findJob(long id) {
+        return Optional.ofNullable(jobs.get(id));
+    }
+    
+    @Override
+    public Optional<Stream<BankImportError>> streamErrors(long id) {
+        if (!jobs.containsKey(id)) {
+            return Optional.empty();
+        }
+        Path file = errorFiles.get(id);
+        if (file == null) {
+            return Optional.of(Stream.empty());
+        }
+        try {
+            return Optional.of(Files.lines(file, StandardCharsets.UTF_8)
+                    .map(BankImportService::parseError)
+                    .filter(Objects::nonNull));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read errors of import " + id, e);
+        }
+    }
+    
+    private void run(BankImportJob job, Iterator<BankImportRow> rows) {
+        try (ErrorLog errors = new ErrorLog(job.getId())) {
+            List<BankImportRow> batch = new ArrayList<>(batchSize);
+            String sourceFailure = null;
+            try {
+                while (rows.hasNext()) {
+                    BankImportRow row = rows.next();
+                    job.rowRead();
+                    String problem = validate(row);
+                    if (problem != null) {
+                        reject(job, errors, row, problem);
+                    } else {
+                        batch.add(row);
+                    }
+                    if (batch.size() == batchSize) {
+                        write(job, errors, batch);
+                        batch.clear();
+                    }
+                }
+            } catch (RuntimeException e) {
+                // The source broke off (malformed input, dropped upload): keep the rows read up to there
+                sourceFailure = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+            }
+            write(job, errors, batch);
+            if (sourceFailure != null) {
+                fail(job, sourceFailure);
+                return;
+            }
+            job.complete();
+            log.info("Import {} completed: {} rows read, {} written, {} unchanged, {} rejected", job.getId(),
+                    job.getRowsRead(), job.getRowsWritten(), job.getRowsUnchanged(), job.getRowsRejected());
+        } catch (RuntimeException | IOException e) {
+            fail(job, e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName());
+        }
+    }
+    
+    private static void fail(BankImportJob job, String reason) {
+        log.warn("Import {} failed after {} rows: {}", job.getId(), job.getRowsRead(), reason);
+        job.fail(reason);
+    }
+    
+    private static String validate(BankImportRow row) {
+        if (row.error() != null) {
+            return row.error();
+        }
+        try {
+            BankService.validateBankData(row.bank());
+            return null;
+        } catch (DomainException e) {
+            return e.getMessage();
+        }
+    }
+    
+    private void write(BankImportJob job, ErrorLog errors, List<BankImportRow> batch) throws IOException {
+        if (batch.isEmpty()) {
+            return;
+        }
+        List<Bank> banks = batch.stream().map(BankImportRow::bank).toList();
+        long start = System.nanoTime();
+        try {
+            count(job, transactionTemplate.execute(status -> bankRepositoryPort.upsertBySwiftCode(banks)));
+        } catch (DataAccessException | DomainException e) {
+            log.debug("Import {} batch failed, retrying row by row: {}", job.getId(), e.getMessage());
+            for (BankImportRow row : batch) {
+                try {
+                    count(job, transactionTemplate.execute(status -> bankRepositoryPort.upsertBySwiftCode(List.of(row.bank()))));
+                } catch (DataAccessException | DomainException rowFailure) {
+                    reject(job, errors, row, rowFailure.getMessage());
+                }
+            }
+        }
+        batchTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        errors.flush();
+    }
+    
+    /**
+     * Counts the rows of a committed batch. If any was written, wakes the change feed followers and drops
+     * every cached bank, on this node and the others, since the counts do not tell which banks changed.
+     */
+    private void count(BankImportJob job, int[] counts) {
+        boolean written = false;
+        for (int count : counts) {
+            if (count > 0) {
+                job.rowWritten();
+                writtenRows.increment();
+                written = true;
+            } else {
+                job.rowUnchanged();
+                unchangedRows.increment();
+            }
+        }
+        if (written) {
+            bankChangeNotifier.written();
+            bankInvalidationPort.publish(BankInvalidation.allBanks());
+        }
+    }
+    
+    private void reject(BankImportJob job, ErrorLog errors, BankImportRow row, String message) throws IOException {
+        job.rowRejected();
+        rejectedRows.increment();
+        errors.append(new BankImportError(row.line(), row.bank() != null ? row.bank().getSwiftCode() : null, message));
+    }
+    
+    private void evictOldJobs() {
+        while (jobOrder.size() > jobRetention) {
+            Long oldest = jobOrder.peek();
+            BankImportJob job = oldest != null ? jobs.get(oldest) : null;
+            if (job != null && !job.getCompletion().isDone()) {
+                return;
+            }
+            jobOrder.poll();
+            if (oldest != null) {
+                jobs.remove(oldest);
+                Path file = errorFiles.remove(oldest);
+                if (file != null) {
+                    deleteQuietly(file);
+                }
+            }
+        }
+    }
+    
+    private static Counter rowCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("bank.import.rows")
+                .description("Rows processed by bulk imports")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+    
+    private static BankImportError parseError(String line) {
+        String[] fields = line.split("\t", 3);
+        if (fields.length < 3) {
+            return null;
+        }
+        return new BankImportError(Long.parseLong(fields[0]), fields[1].isEmpty() ? null : fields[1], fields[2]);
+    }
+    
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.debug("Cannot delete import error file {}: {}", file, e.getMessage());
+        }
+    }
+    
+    /**
+     * Spill file of rejected rows, one tab-separated line each, created on the first rejection
+     */
+    private final class ErrorLog implements AutoCloseable {
+        
+        private final long jobId;
+        private BufferedWriter writer;
+        
+        private ErrorLog(long jobId) {
+            this.jobId = jobId;
+        }
+        
+        void append(BankImportError error) throws IOException {
+            if (writer == null) {
+                Path file = Files.createTempFile("bank-import-" + jobId + "-", ".errors");
+                writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8);
+                errorFiles.put(jobId, file);
+            }
+            writer.write(error.line() + "\t" + Objects.toString(error.swiftCode(), "") + "\t"
+                    + Objects.toString(error.message(), "").replaceAll("[\\t\\r\\n]+", " "));
+            writer.newLine();
+        }
+        
+        void flush() throws IOException {
+            if (writer != null) {
+                writer.flush();
+            }
+        }
+        
+        @Override
+        public void close() throws IOException {
+            if (writer != null) {
+                writer.close();
+            }
+        }
+    }
+}
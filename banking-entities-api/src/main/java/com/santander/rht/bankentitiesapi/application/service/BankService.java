@@ -0,0 +1,310 @@
+package com.santander.rht.bankentitiesapi.application.service;
+
+import com.santander.rht.bankentitiesapi.application.cache.BankListCache;
+import com.santander.rht.bankentitiesapi.application.change.BankChangeNotifier;
+import com.santander.rht.bankentitiesapi.application.deadline.DeadlineContext;
+import com.santander.rht.bankentitiesapi.application.lock.SwiftCodeLocks;
+import com.santander.rht.bankentitiesapi.domain.exception.BankNotFoundException;
+import com.santander.rht.bankentitiesapi.domain.exception.BankVersionConflictException;
+import com.santander.rht.bankentitiesapi.domain.exception.InvalidBankDataException;
+import com.santander.rht.bankentitiesapi.domain.model.Bank;
+import com.santander.rht.bankentitiesapi.domain.model.BankField;
+import com.santander.rht.bankentitiesapi.domain.model.BankInvalidation;
+import com.santander.rht.bankentitiesapi.domain.model.BankLookupResult;
+import com.santander.rht.bankentitiesapi.domain.model.BankPatch;
+import com.santander.rht.bankentitiesapi.domain.model.SwiftCodeValidator;
+import com.santander.rht.bankentitiesapi.domain.port.in.BankServicePort;
+import com.santander.rht.bankentitiesapi.domain.port.out.BankHttpClientPort;
+import com.santander.rht.bankentitiesapi.domain.port.out.BankInvalidationPort;
+import com.santander.rht.bankentitiesapi.domain.port.out.BankRepositoryPort;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Application service implementing bank business logic
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional
+public class BankService implements BankServicePort {
+    
+    private final BankRepositoryPort bankRepositoryPort;
+    private final BankHttpClientPort bankHttpClientPort;
+    private final SwiftCodeLocks swiftCodeLocks;
+    private final BankChangeNotifier bankChangeNotifier;
+    private final BankInvalidationPort bankInvalidationPort;
+    private final BankListCache bankListCache;
+    
+    @Override
+    public Bank createBank(Bank bank) {
+        log.info("Creating new bank with SWIFT code: {}", bank.getSwiftCode());
+        
+        // Validate bank data
+        validateBankData(bank);
+        
+        // Give up before writing if the caller has already stopped waiting
+        DeadlineContext.checkNotExpired("createBank");
+        
+        // Set creation timestamp and ensure active status
+        bank.setCreatedAt(LocalDateTime.now());
+        bank.setUpdatedAt(LocalDateTime.now());
+        if (bank.getActive() == null) {
+            bank.setActive(true);
+        }
+        
+        // Single insert: duplicates are detected by the unique SWIFT code constraint,
+        // concurrent creates of the same code on this node queue up instead of racing
+        Bank savedBank = swiftCodeLocks.withLock(bank.getSwiftCode(), () -> bankRepositoryPort.save(bank));
+        bankChangeNotifier.written();
+        bankListCache.written();
+        bankInvalidationPort.publish(new BankInvalidation(savedBank.getId(), savedBank.getSwiftCode()));
+        log.info("Bank created successfully with ID: {}", savedBank.getId());
+        return savedBank;
+    }
+    
+    @Override
+    public Bank updateBank(Long id, Bank bank, Long expectedVersion) {
+        log.info("Updating bank with ID: {}", id);
+        
+        // Validate bank data
+        validateBankData(bank);
+        
+        // Give up before writing if the caller has already stopped waiting
+        DeadlineContext.checkNotExpired("updateBank");
+        
+        // Single conditional update: no pre-read, duplicates are detected by the unique SWIFT code constraint
+        bank.setId(id);
+        bank.setUpdatedAt(LocalDateTime.now());
+        int updated = swiftCodeLocks.withLock(bank.getSwiftCode(), () -> bankRepositoryPort.update(bank, expectedVersion));
+        if (updated == 0) {
+            throw missingOrConflicting(id, expectedVersion);
+        }
+        bankChangeNotifier.written();
+        bankListCache.written();
+        bankInvalidationPort.publish(new BankInvalidation(id, bank.getSwiftCode()));
+        
+        Bank updatedBank = bankRepositoryPort.findById(id)
+                .orElseThrow(() -> BankNotFoundException.byId(id));
+        log.info("Bank updated successfully with ID: {}", id);
+        return updatedBank;
+    }
+    
+    @Override
+    public Bank patchBank(Long id, BankPatch patch, Long expectedVersion) {
+        log.info("Patching {} of bank with ID: {}", patch.getChanges().keySet(), id);
+        
+        validatePatch(patch);
+        
+        if (!patch.isEmpty()) {
+            DeadlineContext.checkNotExpired("patchBank");
+            // Only patches that move the SWIFT code can collide with other writers on its constraint
+            String swiftCode = (String) patch.get(BankField.SWIFT_CODE);
+            int patched = patch.contains(BankField.SWIFT_CODE) || patch.contains(BankField.COUNTRY_CODE)
+                    ? patchCheckingCountry(id, patch, expectedVersion, swiftCode)
+                    : swiftCodeLocks.withLock(swiftCode, () -> bankRepositoryPort.patch(id, patch, expectedVersion));
+            if (patched > 0) {
+                bankChangeNotifier.written();
+                bankListCache.written();
+                bankInvalidationPort.publish(new BankInvalidation(id, swiftCode));
+                log.info("Bank patched successfully with ID: {}", id);
+                return bankRepositoryPort.findById(id)
+                        .orElseThrow(() -> BankNotFoundException.byId(id));
+            }
+        }
+        
+        // Nothing was written: either nothing changed, or the bank is missing or at another version
+        Bank current = bankRepositoryPort.findById(id)
+                .orElseThrow(() -> BankNotFoundException.byId(id));
+        if (expectedVersion != null && !expectedVersion.equals(current.getVersion())) {
+            throw BankVersionConflictException.forId(id, expectedVersion);
+        }
+        log.debug("Patch of bank {} changed nothing, skipped the write", id);
+        return current;
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<Bank> getBankById(Long id) {
+        log.debug("Getting bank by ID: {}", id);
+        return bankRepositoryPort.findById(id);
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<Bank> getBankBySwiftCode(String swiftCode) {
+        log.debug("Getting bank by SWIFT code: {}", swiftCode);
+        return bankRepositoryPort.findBySwiftCode(swiftCode);
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public List<Bank> getAllBanks() {
+        log.debug("Getting all banks");
+        return bankRepositoryPort.findAll();
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public List<Bank> getBanksByCountry(String country) {
+        log.debug("Getting banks by country: {}", country);
+        return bankListCache.get(BankListCache.Filter.COUNTRY, country, () -> bankRepositoryPort.findByCountry(country));
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public List<Bank> getBanksByCountryCode(String countryCode) {
+        log.debug("Getting banks by country code: {}", countryCode);
+        return bankListCache.get(BankListCache.Filter.COUNTRY_CODE, countryCode,
+                () -> bankRepositoryPort.findByCountryCode(countryCode));
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public List<Bank> searchBanksByName(String name) {
+        log.debug("Searching banks by name: {}", name);
+        return bankRepositoryPort.findByNameContainingIgnoreCase(name);
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public List<Bank> getActiveBanks() {
+        log.debug("Getting active banks");
+        return bankListCache.get(BankListCache.Filter.ACTIVE, null, bankRepositoryPort::findByActiveTrue);
+    }
+    
+    @Override
+    public void deleteBank(Long id, Long expectedVersion) {
+        log.info("Deleting bank with ID: {}", id);
+        
+        DeadlineContext.checkNotExpired("deleteBank");
+        if (bankRepositoryPort.delete(id, expectedVersion) == 0) {
+            throw missingOrConflicting(id, expectedVersion);
+        }
+        bankChangeNotifier.written();
+        bankListCache.written();
+        bankInvalidationPort.publish(new BankInvalidation(id, null));
+        log.info("Bank deleted successfully with ID: {}", id);
+    }
+    
+    // Self-calls only wait on HTTP, so they hold no connection the loopback requests they make would need
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Optional<Bank> selfCallGetBankById(Long id) {
+        log.info("Self-calling to get bank by ID: {}", id);
+        return bankHttpClientPort.getBankById(id);
+    }
+    
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Optional<Bank> selfCallGetBankBySwiftCode(String swiftCode) {
+        log.info("Self-calling to get bank by SWIFT code: {}", swiftCode);
+        return bankHttpClientPort.getBankBySwiftCode(swiftCode);
+    }
+    
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<BankLookupResult> selfCallGetBanksByIds(List<Long> ids) {
+        log.info("Self-calling to get {} banks by ID", ids.size());
+        return bankHttpClientPort.getBanksByIds(ids);
+    }
+    
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<BankLookupResult> selfCallGetBanksBySwiftCodes(List<String> swiftCodes) {
+        log.info("Self-calling to get {} banks by SWIFT code", swiftCodes.size());
+        return bankHttpClientPort.getBanksBySwiftCodes(swiftCodes);
+    }
+    
+    /**
+     * A conditional write that touched no rows either missed the bank or lost a version race;
+     * only this failure path pays for the extra lookup that tells them apart
+     */
+    private RuntimeException missingOrConflicting(Long id, Long expectedVersion) {
+        if (expectedVersion != null && bankRepositoryPort.existsById(id)) {
+            return BankVersionConflictException.forId(id, expectedVersion);
+        }
+        return BankNotFoundException.byId(id);
+    }
+    
+    /**
+     * Writes a patch of the SWIFT code or country code only if the stored bank, once patched, still has the two
+     * agree. The write is conditional on the version checked, and a version written meanwhile is checked again.
+     */
+    private int patchCheckingCountry(Long id, BankPatch patch, Long expectedVersion, String swiftCode) {
+        Optional<Bank> stored = bankRepositoryPort.findById(id);
+        while (stored.isPresent()) {
+            Long version = stored.get().getVersion();
+            if (expectedVersion != null && !expectedVersion.equals(version)) {
+                return 0;
+            }
+            Bank patched = stored.get().toBuilder().build();
+            patch.applyTo(patched);
+            checkCountry(patched.getSwiftCode(), patched.getCountryCode());
+            int written = swiftCodeLocks.withLock(swiftCode, () -> bankRepositoryPort.patch(id, patch, version));
+            if (written > 0 || expectedVersion != null) {
+                return written;
+            }
+            // Nothing changed, or another writer got in between: only the latter is worth checking again
+            Optional<Bank> latest = bankRepositoryPort.findById(id);
+            if (latest.isPresent() && version != null && version.equals(latest.get().getVersion())) {
+                return 0;
+            }
+            stored = latest;
+        }
+        return 0;
+    }
+    
+    private void validatePatch(BankPatch patch) {
+        for (BankField field : patch.getChanges().keySet()) {
+            Object value = patch.get(field);
+            if (field.isRequired() && (value == null || value.toString().trim().isEmpty())) {
+                throw InvalidBankDataException.missingRequiredField(field.getProperty());
+            }
+        }
+        
+        if (patch.contains(BankField.SWIFT_CODE)) {
+            String swiftCode = (String) patch.get(BankField.SWIFT_CODE);
+            String normalized = SwiftCodeValidator.normalize(swiftCode);
+            if (normalized == null) {
+                throw InvalidBankDataException.invalidSwiftCode(swiftCode);
+            }
+            patch.set(BankField.SWIFT_CODE, normalized);
+        }
+    }
+    
+    static void validateBankData(Bank bank) {
+        if (bank.getSwiftCode() == null || bank.getSwiftCode().trim().isEmpty()) {
+            throw InvalidBankDataException.missingRequiredField("swiftCode");
+        }
+        
+        if (bank.getName() == null || bank.getName().trim().isEmpty()) {
+            throw InvalidBankDataException.missingRequiredField("name");
+        }
+        
+        // Validate and normalize the SWIFT code in one pass
+        String swiftCode = SwiftCodeValidator.normalize(bank.getSwiftCode());
+        if (swiftCode == null) {
+            throw InvalidBankDataException.invalidSwiftCode(bank.getSwiftCode());
+        }
+        bank.setSwiftCode(swiftCode);
+        
+        checkCountry(swiftCode, bank.getCountryCode());
+    }
+    
+    /**
+     * The country segment of the SWIFT code must agree with the bank's country code, when it has one
+     */
+    private static void checkCountry(String swiftCode, String countryCode) {
+        if (countryCode != null && !SwiftCodeValidator.hasCountry(swiftCode, countryCode)) {
+            throw InvalidBankDataException.countryMismatch(swiftCode, countryCode);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,287 @@
+package com.santander.rht.bankentitiesapi.application.service;
+
+import com.santander.rht.bankentitiesapi.application.deadline.DeadlineContext;
+import com.santander.rht.bankentitiesapi.application.lock.SwiftCodeLocks;
+import com.santander.rht.bankentitiesapi.domain.exception.WriteQueueFullException;
+import com.santander.rht.bankentitiesapi.domain.model.Bank;
+import com.santander.rht.bankentitiesapi.domain.model.BankWriteToken;
+import com.santander.rht.bankentitiesapi.domain.model.RequestDeadline;
+import com.santander.rht.bankentitiesapi.domain.port.in.BankServicePort;
+import com.santander.rht.bankentitiesapi.domain.port.in.BankWriteBehindPort;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Write-behind mode for bulk writers such as directory refreshes: writes are validated and
+ * acknowledged immediately, then a single writer thread drains the queue and applies them in
+ * groups, one transaction and one commit per group.
+ * <p>
+ * A group is closed when it reaches the max batch size or when the linger time has passed since
+ * its first write. If any write of a group fails, the group is rolled back and its writes are
+ * replayed one transaction each, so only the offending write is reported as failed.
+ * <p>
+ * A group takes the SWIFT code locks of all its writes, in stripe order, before its first write, and
+ * holds them until it commits. Taking them write by write, in queue order, would leave the group
+ * holding some stripes and the row locks of its earlier writes while it waits for the next stripe,
+ * which a synchronous writer may hold while it waits for one of those rows.
+ */
+@Service
+@Slf4j
+public class BankWriteBehindService implements BankWriteBehindPort {
+    
+    private final BankServicePort bankServicePort;
+    private final SwiftCodeLocks swiftCodeLocks;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int queueCapacity;
+    private final int maxBatchSize;
+    private final Duration linger;
+    private final int tokenRetention;
+    
+    private final BlockingQueue<PendingWrite> queue;
+    private final AtomicLong tokenIds = new AtomicLong();
+    private final Map<Long, BankWriteToken> tokens = new ConcurrentHashMap<>();
+    private final Queue<Long> completedTokens = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger completedTokenCount = new AtomicInteger();
+    
+    private final DistributionSummary batchSizes;
+    private final Timer commitTimer;
+    private final Timer durabilityLag;
+    private final Counter batchFallbacks;
+    
+    private volatile boolean running;
+    private Thread writer;
+    
+    public BankWriteBehindService(BankServicePort bankServicePort,
+                                  SwiftCodeLocks swiftCodeLocks,
+                                  PlatformTransactionManager transactionManager,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${app.write-behind.enabled:false}") boolean enabled,
+                                  @Value("${app.write-behind.queue-capacity:10000}") int queueCapacity,
+                                  @Value("${app.write-behind.max-batch-size:200}") int maxBatchSize,
+                                  @Value("${app.write-behind.linger:5ms}") Duration linger,
+                                  @Value("${app.write-behind.token-retention:10000}") int tokenRetention) {
+        this.bankServicePort = bankServicePort;
+        this.swiftCodeLocks = swiftCodeLocks;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.queueCapacity = queueCapacity;
+        this.maxBatchSize = maxBatchSize;
+        this.linger = linger;
+        this.tokenRetention = tokenRetention;
+        this.queue = new LinkedBlockingQueue<>(queueCapacity);
+        
+        Gauge.builder("bank.write.behind.queue.depth", queue, Queue::size)
+                .description("Writes acknowledged but not yet committed")
+                .register(meterRegistry);
+        this.batchSizes = DistributionSummary.builder("bank.write.behind.batch.size")
+                .description("Writes committed per transaction")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.commitTimer = Timer.builder("bank.write.behind.commit")
+                .description("Time to apply and commit one group of writes")
+                .register(meterRegistry);
+        this.durabilityLag = Timer.builder("bank.write.behind.lag")
+                .description("Time from acknowledgement to commit")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.batchFallbacks = Counter.builder("bank.write.behind.batch.fallbacks")
+                .description("Groups rolled back and replayed write by write because one write failed")
+                .register(meterRegistry);
+    }
+    
+    @PostConstruct
+    void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        writer = Thread.ofPlatform().name("bank-write-behind").daemon().start(this::drain);
+        log.info("Write-behind enabled: max batch size {}, linger {}", maxBatchSize, linger);
+    }
+    
+    /**
+     * Stops accepting writes and commits everything already acknowledged
+     */
+    @PreDestroy
+    void stop() throws InterruptedException {
+        if (writer == null) {
+            return;
+        }
+        running = false;
+        writer.join(TimeUnit.SECONDS.toMillis(30));
+    }
+    
+    @Override
+    public BankWriteToken submitCreate(Bank bank) {
+        BankService.validateBankData(bank);
+        return submit(bank.getSwiftCode(), service -> service.createBank(bank));
+    }
+    
+    @Override
+    public BankWriteToken submitUpdate(Long id, Bank bank, Long expectedVersion) {
+        BankService.validateBankData(bank);
+        return submit(bank.getSwiftCode(), service -> service.updateBank(id, bank, expectedVersion));
+    }
+    
+    @Override
+    public BankWriteToken submitDelete(Long id, Long expectedVersion) {
+        // Deletes take no SWIFT code lock
+        return submit(null, service -> {
+            service.deleteBank(id, expectedVersion);
+            return null;
+        });
+    }
+    
+    @Override
+    public Optional<BankWriteToken> findToken(long id) {
+        return Optional.ofNullable(tokens.get(id));
+    }
+    
+    private BankWriteToken submit(String swiftCode, Function<BankServicePort, Bank> write) {
+        long id = tokenIds.incrementAndGet();
+        if (!enabled) {
+            // Synchronous mode: failures surface to the caller directly
+            return remember(BankWriteToken.committed(id, write.apply(bankServicePort)));
+        }
+        if (!running) {
+            throw new IllegalStateException("Write-behind queue is shut down");
+        }
+        
+        BankWriteToken token = new BankWriteToken(id);
+        PendingWrite pending = new PendingWrite(token, swiftCode, write, System.nanoTime());
+        long waitNanos = DeadlineContext.current()
+                .map(RequestDeadline::remaining)
+                .map(Duration::toNanos)
+                .orElse(0L);
+        try {
+            if (!queue.offer(pending, Math.max(waitNanos, 0), TimeUnit.NANOSECONDS)) {
+                throw WriteQueueFullException.withCapacity(queueCapacity);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw WriteQueueFullException.withCapacity(queueCapacity);
+        }
+        return remember(token);
+    }
+    
+    private BankWriteToken remember(BankWriteToken token) {
+        tokens.put(token.getId(), token);
+        token.getCompletion().whenComplete((bank, failure) -> {
+            completedTokens.add(token.getId());
+            if (completedTokenCount.incrementAndGet() > tokenRetention) {
+                Long oldest = completedTokens.poll();
+                if (oldest != null) {
+                    completedTokenCount.decrementAndGet();
+                    tokens.remove(oldest);
+                }
+            }
+        });
+        return token;
+    }
+    
+    private void drain() {
+        List<PendingWrite> batch = new ArrayList<>(maxBatchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingWrite first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                
+                // Linger briefly so writes arriving right behind the first share its commit
+                long lingerEnd = System.nanoTime() + linger.toNanos();
+                while (batch.size() < maxBatchSize) {
+                    queue.drainTo(batch, maxBatchSize - batch.size());
+                    long remaining = lingerEnd - System.nanoTime();
+                    if (batch.size() >= maxBatchSize || remaining <= 0) {
+                        break;
+                    }
+                    PendingWrite next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                
+                commit(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                running = false;
+            } catch (RuntimeException e) {
+                log.error("Write-behind writer failed on a batch of {} writes", batch.size(), e);
+                batch.forEach(write -> write.token().fail(e));
+            } finally {
+                batch.clear();
+            }
+        }
+        log.info("Write-behind writer stopped");
+    }
+    
+    private void commit(List<PendingWrite> batch) {
+        batchSizes.record(batch.size());
+        List<Bank> results;
+        try {
+            List<String> swiftCodes = batch.stream().map(PendingWrite::swiftCode).toList();
+            results = commitTimer.record(() -> transactionTemplate.execute(status ->
+                    swiftCodeLocks.withLocks(swiftCodes, () -> {
+                        List<Bank> written = new ArrayList<>(batch.size());
+                        for (PendingWrite write : batch) {
+                            written.add(write.write().apply(bankServicePort));
+                        }
+                        return written;
+                    })));
+        } catch (RuntimeException e) {
+            log.debug("Group of {} writes rolled back ({}), replaying them one by one", batch.size(), e.getMessage());
+            batchFallbacks.increment();
+            batch.forEach(this::commitAlone);
+            return;
+        }
+        for (int i = 0; i < batch.size(); i++) {
+            completed(batch.get(i), results.get(i));
+        }
+    }
+    
+    private void commitAlone(PendingWrite write) {
+        try {
+            completed(write, transactionTemplate.execute(status -> write.write().apply(bankServicePort)));
+        } catch (RuntimeException e) {
+            write.token().fail(e);
+        }
+    }
+    
+    private void completed(PendingWrite write, Bank bank) {
+        durabilityLag.record(System.nanoTime() - write.acceptedAt(), TimeUnit.NANOSECONDS);
+        write.token().complete(bank);
+    }
+    
+    private record PendingWrite(BankWriteToken token, String swiftCode, Function<BankServicePort, Bank> write,
+                                long acceptedAt) {
+    }
+}
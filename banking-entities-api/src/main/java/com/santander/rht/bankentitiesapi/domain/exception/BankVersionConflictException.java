@@ -0,0 +1,16 @@
+package com.santander.rht.bankentitiesapi.domain.exception;
+
+/**
+ * Exception thrown when a bank was modified by someone else since the version the caller expected
+ */
+public class BankVersionConflictException extends DomainException {
+    
+    public BankVersionConflictException(String message) {
+        super(message);
+    }
+    
+    public static BankVersionConflictException forId(Long id, Long expectedVersion) {
+        return new BankVersionConflictException(
+                "Bank with id " + id + " is no longer at version " + expectedVersion);
+    }
+}
@@ -0,0 +1,17 @@
+package com.santander.rht.bankentitiesapi.domain.exception;
+
+/**
+ * Exception thrown when a change feed consumer asks for changes since a point whose tombstones have
+ * already been compacted away, so it can no longer learn about every deletion and must start over
+ */
+public class ChangeCursorExpiredException extends DomainException {
+    
+    public ChangeCursorExpiredException(String message) {
+        super(message);
+    }
+    
+    public static ChangeCursorExpiredException since(long since, long purgedThrough) {
+        return new ChangeCursorExpiredException("Changes since " + since + " are no longer available (tombstones "
+                + "compacted through " + purgedThrough + "), sync again from 0");
+    }
+}
@@ -0,0 +1,25 @@
+package com.santander.rht.bankentitiesapi.domain.exception;
+
+/**
+ * Exception thrown when work is abandoned because the request deadline has passed
+ */
+public class DeadlineExceededException extends DomainException {
+    
+    private final String stage;
+    
+    public DeadlineExceededException(String stage, String message) {
+        super(message);
+        this.stage = stage;
+    }
+    
+    /**
+     * Where the work was abandoned, e.g. transaction, query or self-call
+     */
+    public String getStage() {
+        return stage;
+    }
+    
+    public static DeadlineExceededException during(String stage) {
+        return new DeadlineExceededException(stage, "Request deadline exceeded during " + stage);
+    }
+}
@@ -0,0 +1,15 @@
+package com.santander.rht.bankentitiesapi.domain.exception;
+
+/**
+ * Exception thrown when a bulk import cannot start because the maximum number of imports is already running
+ */
+public class ImportCapacityException extends DomainException {
+    
+    public ImportCapacityException(String message) {
+        super(message);
+    }
+    
+    public static ImportCapacityException withRunning(int running) {
+        return new ImportCapacityException("Too many imports running (" + running + "), retry later");
+    }
+}
@@ -13,7 +13,19 @@ public class InvalidBankDataException extends DomainException {
         return new InvalidBankDataException("Invalid SWIFT code format: " + swiftCode);
     }
     
+    public static InvalidBankDataException countryMismatch(String swiftCode, String countryCode) {
+        return new InvalidBankDataException("SWIFT code " + swiftCode + " does not belong to country " + countryCode);
+    }
+    
     public static InvalidBankDataException missingRequiredField(String fieldName) {
         return new InvalidBankDataException("Required field is missing or empty: " + fieldName);
     }
+    
+    public static InvalidBankDataException invalidField(String fieldName, String reason) {
+        return new InvalidBankDataException("Invalid value for " + fieldName + ": " + reason);
+    }
+    
+    public static InvalidBankDataException unknownField(String fieldName) {
+        return new InvalidBankDataException("Unknown or read-only field: " + fieldName);
+    }
 }
\ No newline at end of file
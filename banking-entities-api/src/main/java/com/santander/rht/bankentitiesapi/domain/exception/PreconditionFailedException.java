@@ -0,0 +1,15 @@
+package com.santander.rht.bankentitiesapi.domain.exception;
+
+/**
+ * Exception thrown when a conditional write names no version the bank is at, or could ever be at
+ */
+public class PreconditionFailedException extends DomainException {
+    
+    public PreconditionFailedException(String message) {
+        super(message);
+    }
+    
+    public static PreconditionFailedException ifMatch(Long id, String ifMatch) {
+        return new PreconditionFailedException("Bank with id " + id + " matches none of If-Match: " + ifMatch);
+    }
+}
@@ -0,0 +1,25 @@
+package com.santander.rht.bankentitiesapi.domain.exception;
+
+import com.santander.rht.bankentitiesapi.domain.model.LookupOutcome;
+
+/**
+ * Exception thrown when a self-call could not tell whether the bank exists,
+ * because the target timed out, failed or was short-circuited
+ */
+public class SelfCallFailedException extends DomainException {
+    
+    private final LookupOutcome outcome;
+    
+    public SelfCallFailedException(LookupOutcome outcome, String message) {
+        super(message);
+        this.outcome = outcome;
+    }
+    
+    public LookupOutcome getOutcome() {
+        return outcome;
+    }
+    
+    public static SelfCallFailedException forKey(String key, LookupOutcome outcome, String reason) {
+        return new SelfCallFailedException(outcome, "Self-call for " + key + " failed with " + outcome + ": " + reason);
+    }
+}
@@ -0,0 +1,15 @@
+package com.santander.rht.bankentitiesapi.domain.exception;
+
+/**
+ * Exception thrown when an asynchronous write cannot be accepted because the write-behind queue is full
+ */
+public class WriteQueueFullException extends DomainException {
+    
+    public WriteQueueFullException(String message) {
+        super(message);
+    }
+    
+    public static WriteQueueFullException withCapacity(int capacity) {
+        return new WriteQueueFullException("Write queue is full (" + capacity + " pending writes), retry later");
+    }
+}
@@ -0,0 +1,24 @@
+package com.santander.rht.bankentitiesapi.domain.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * One entry of the bank change feed: the current state of a bank, or the tombstone of a deleted one.
+ * Only a bank's latest change is kept, so a consumer applying the entries in order converges on the
+ * current directory.
+ *
+ * @param seq       position in the feed, increasing with every write
+ * @param swiftCode SWIFT code the bank had, also for deleted banks
+ * @param bank      the bank's state, null for a deleted bank
+ */
+public record BankChange(long seq, BankChangeType type, long bankId, String swiftCode, LocalDateTime changedAt, Bank bank) {
+    
+    public static BankChange upserted(Bank bank) {
+        return new BankChange(bank.getChangeSeq(), BankChangeType.UPSERTED, bank.getId(), bank.getSwiftCode(),
+                bank.getUpdatedAt() != null ? bank.getUpdatedAt() : bank.getCreatedAt(), bank);
+    }
+    
+    public static BankChange deleted(long seq, long bankId, String swiftCode, LocalDateTime deletedAt) {
+        return new BankChange(seq, BankChangeType.DELETED, bankId, swiftCode, deletedAt, null);
+    }
+}
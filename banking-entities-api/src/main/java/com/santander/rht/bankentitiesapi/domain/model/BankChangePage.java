@@ -0,0 +1,12 @@
+package com.santander.rht.bankentitiesapi.domain.model;
+
+import java.util.List;
+
+/**
+ * A page of the bank change feed
+ *
+ * @param next    sequence number to pass as {@code since} for the following page
+ * @param hasMore whether more changes were already available after this page
+ */
+public record BankChangePage(List<BankChange> changes, long next, boolean hasMore) {
+}
@@ -0,0 +1,9 @@
+package com.santander.rht.bankentitiesapi.domain.model;
+
+/**
+ * Kind of change recorded in the bank change feed
+ */
+public enum BankChangeType {
+    UPSERTED,
+    DELETED
+}
@@ -0,0 +1,52 @@
+package com.santander.rht.bankentitiesapi.domain.model;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * Bank attributes that clients may change, with the property name used in the API and persistence model
+ */
+public enum BankField {
+    SWIFT_CODE("swiftCode", String.class, true),
+    NAME("name", String.class, true),
+    ADDRESS("address", String.class, false),
+    CITY("city", String.class, false),
+    COUNTRY("country", String.class, false),
+    COUNTRY_CODE("countryCode", String.class, false),
+    PHONE_NUMBER("phoneNumber", String.class, false),
+    EMAIL("email", String.class, false),
+    WEBSITE("website", String.class, false),
+    BANK_TYPE("bankType", BankType.class, false),
+    ACTIVE("active", Boolean.class, false);
+    
+    private final String property;
+    private final Class<?> type;
+    private final boolean required;
+    
+    BankField(String property, Class<?> type, boolean required) {
+        this.property = property;
+        this.type = type;
+        this.required = required;
+    }
+    
+    public String getProperty() {
+        return property;
+    }
+    
+    public Class<?> getType() {
+        return type;
+    }
+    
+    /**
+     * Whether the field may not be removed (set to null)
+     */
+    public boolean isRequired() {
+        return required;
+    }
+    
+    public static Optional<BankField> fromProperty(String property) {
+        return Arrays.stream(values())
+                .filter(field -> field.property.equals(property))
+                .findFirst();
+    }
+}
@@ -0,0 +1,9 @@
+package com.santander.rht.bankentitiesapi.domain.model;
+
+/**
+ * A row of a bulk import that was not imported
+ *
+ * @param swiftCode SWIFT code of the row, if it could be read
+ */
+public record BankImportError(long line, String swiftCode, String message) {
+}
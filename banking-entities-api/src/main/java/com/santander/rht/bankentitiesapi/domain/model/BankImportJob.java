@@ -0,0 +1,116 @@
+package com.santander.rht.bankentitiesapi.domain.model;
+
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Progress of a bulk bank import. Counters are updated by the importing thread and may be read at any time.
+ */
+public class BankImportJob {
+    
+    private final long id;
+    private final String format;
+    private final Instant startedAt;
+    private final AtomicLong rowsRead = new AtomicLong();
+    private final AtomicLong rowsWritten = new AtomicLong();
+    private final AtomicLong rowsUnchanged = new AtomicLong();
+    private final AtomicLong rowsRejected = new AtomicLong();
+    private final CompletableFuture<BankImportJob> completion = new CompletableFuture<>();
+    private volatile Instant finishedAt;
+    private volatile String failure;
+    
+    public BankImportJob(long id, String format, Instant startedAt) {
+        this.id = id;
+        this.format = format;
+        this.startedAt = startedAt;
+    }
+    
+    public long getId() {
+        return id;
+    }
+    
+    public String getFormat() {
+        return format;
+    }
+    
+    public Instant getStartedAt() {
+        return startedAt;
+    }
+    
+    public Instant getFinishedAt() {
+        return finishedAt;
+    }
+    
+    public ImportStatus getStatus() {
+        if (!completion.isDone()) {
+            return ImportStatus.RUNNING;
+        }
+        return failure != null ? ImportStatus.FAILED : ImportStatus.COMPLETED;
+    }
+    
+    /**
+     * Why the import stopped before the end of its input, if it did
+     */
+    public String getFailure() {
+        return failure;
+    }
+    
+    public long getRowsRead() {
+        return rowsRead.get();
+    }
+    
+    /**
+     * Rows inserted or changed
+     */
+    public long getRowsWritten() {
+        return rowsWritten.get();
+    }
+    
+    /**
+     * Rows identical to the stored bank
+     */
+    public long getRowsUnchanged() {
+        return rowsUnchanged.get();
+    }
+    
+    /**
+     * Rows that could not be read, failed validation or could not be written
+     */
+    public long getRowsRejected() {
+        return rowsRejected.get();
+    }
+    
+    /**
+     * Completes with this job once it has completed or failed
+     */
+    public CompletableFuture<BankImportJob> getCompletion() {
+        return completion;
+    }
+    
+    public void rowRead() {
+        rowsRead.incrementAndGet();
+    }
+    
+    public void rowWritten() {
+        rowsWritten.incrementAndGet();
+    }
+    
+    public void rowUnchanged() {
+        rowsUnchanged.incrementAndGet();
+    }
+    
+    public void rowRejected() {
+        rowsRejected.incrementAndGet();
+    }
+    
+    public void complete() {
+        finishedAt = Instant.now();
+        completion.complete(this);
+    }
+    
+    public void fail(String reason) {
+        failure = reason;
+        complete();
+    }
+}
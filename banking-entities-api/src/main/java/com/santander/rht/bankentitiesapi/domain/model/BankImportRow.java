@@ -0,0 +1,19 @@
+package com.santander.rht.bankentitiesapi.domain.model;
+
+/**
+ * One row of a bulk import: the bank it describes, or why it could not be read
+ *
+ * @param line  1-based line (CSV, NDJSON) or record number the row came from
+ * @param bank  the parsed bank, null when the row could not be read
+ * @param error why the row could not be read, null when it was
+ */
+public record BankImportRow(long line, Bank bank, String error) {
+    
+    public static BankImportRow of(long line, Bank bank) {
+        return new BankImportRow(line, bank, null);
+    }
+    
+    public static BankImportRow unreadable(long line, String error) {
+        return new BankImportRow(line, null, error);
+    }
+}
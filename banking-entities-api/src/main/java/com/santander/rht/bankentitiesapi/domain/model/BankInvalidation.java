@@ -0,0 +1,23 @@
+package com.santander.rht.bankentitiesapi.domain.model;
+
+/**
+ * A bank whose cached copies are out of date after a write
+ *
+ * @param bankId    ID of the written bank, or {@link #ALL_BANKS}
+ * @param swiftCode SWIFT code the bank has after the write, null when unknown (for instance on delete)
+ */
+public record BankInvalidation(long bankId, String swiftCode) {
+    
+    /**
+     * Bank ID standing for every bank, after bulk writes that do not tell which banks they changed
+     */
+    public static final long ALL_BANKS = -1;
+    
+    public static BankInvalidation allBanks() {
+        return new BankInvalidation(ALL_BANKS, null);
+    }
+    
+    public boolean isAllBanks() {
+        return bankId == ALL_BANKS;
+    }
+}
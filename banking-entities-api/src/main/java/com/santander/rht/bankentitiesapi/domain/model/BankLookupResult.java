@@ -0,0 +1,92 @@
+package com.santander.rht.bankentitiesapi.domain.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Optional;
+
+/**
+ * Result of a single item of a batch bank lookup.
+ * Keeps the requested key so callers can correlate failures with their input.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BankLookupResult {
+    
+    /**
+     * Key used for the lookup (bank ID or SWIFT code)
+     */
+    private String key;
+    
+    /**
+     * Outcome of the lookup
+     */
+    private LookupOutcome outcome;
+    
+    /**
+     * Bank returned by the lookup, only present when the outcome is FOUND
+     */
+    private Bank bank;
+    
+    /**
+     * Failure description, only present when the lookup did not complete normally
+     */
+    private String errorMessage;
+    
+    public static BankLookupResult found(String key, Bank bank) {
+        return BankLookupResult.builder()
+                .key(key)
+                .outcome(LookupOutcome.FOUND)
+                .bank(bank)
+                .build();
+    }
+    
+    public static BankLookupResult notFound(String key) {
+        return BankLookupResult.builder()
+                .key(key)
+                .outcome(LookupOutcome.NOT_FOUND)
+                .build();
+    }
+    
+    public static BankLookupResult timedOut(String key, String errorMessage) {
+        return BankLookupResult.builder()
+                .key(key)
+                .outcome(LookupOutcome.TIMEOUT)
+                .errorMessage(errorMessage)
+                .build();
+    }
+    
+    public static BankLookupResult rejected(String key) {
+        return BankLookupResult.builder()
+                .key(key)
+                .outcome(LookupOutcome.REJECTED)
+                .errorMessage("Circuit breaker is open")
+                .build();
+    }
+    
+    public static BankLookupResult failed(String key, String errorMessage) {
+        return BankLookupResult.builder()
+                .key(key)
+                .outcome(LookupOutcome.ERROR)
+                .errorMessage(errorMessage)
+                .build();
+    }
+    
+    /**
+     * Whether the target gave a definitive found / not found answer
+     */
+    public boolean isConclusive() {
+        return outcome != null && outcome.isConclusive();
+    }
+    
+    /**
+     * Returns the bank when the lookup found one
+     */
+    public Optional<Bank> asOptional() {
+        return outcome == LookupOutcome.FOUND ? Optional.ofNullable(bank) : Optional.empty();
+    }
+}
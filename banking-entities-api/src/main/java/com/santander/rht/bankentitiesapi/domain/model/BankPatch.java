@@ -0,0 +1,64 @@
+package com.santander.rht.bankentitiesapi.domain.model;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Partial update of a bank with JSON Merge Patch semantics:
+ * fields that are absent stay untouched, fields present with a null value are cleared
+ */
+@Data
+@NoArgsConstructor
+public class BankPatch {
+    
+    private final Map<BankField, Object> changes = new EnumMap<>(BankField.class);
+    
+    public BankPatch set(BankField field, Object value) {
+        if (value != null && !field.getType().isInstance(value)) {
+            throw new IllegalArgumentException("Invalid value type for " + field.getProperty());
+        }
+        changes.put(field, value);
+        return this;
+    }
+    
+    public boolean contains(BankField field) {
+        return changes.containsKey(field);
+    }
+    
+    public Object get(BankField field) {
+        return changes.get(field);
+    }
+    
+    public boolean isEmpty() {
+        return changes.isEmpty();
+    }
+    
+    public Map<BankField, Object> getChanges() {
+        return Collections.unmodifiableMap(changes);
+    }
+    
+    /**
+     * Sets the patched fields of the bank, leaving the others untouched
+     */
+    public void applyTo(Bank bank) {
+        changes.forEach((field, value) -> {
+            switch (field) {
+                case SWIFT_CODE -> bank.setSwiftCode((String) value);
+                case NAME -> bank.setName((String) value);
+                case ADDRESS -> bank.setAddress((String) value);
+                case CITY -> bank.setCity((String) value);
+                case COUNTRY -> bank.setCountry((String) value);
+                case COUNTRY_CODE -> bank.setCountryCode((String) value);
+                case PHONE_NUMBER -> bank.setPhoneNumber((String) value);
+                case EMAIL -> bank.setEmail((String) value);
+                case WEBSITE -> bank.setWebsite((String) value);
+                case BANK_TYPE -> bank.setBankType((BankType) value);
+                case ACTIVE -> bank.setActive((Boolean) value);
+            }
+        });
+    }
+}
@@ -0,0 +1,97 @@
+package com.santander.rht.bankentitiesapi.domain.model;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Completion token for a write acknowledged before it was committed.
+ * Callers that need durability wait on it; the others can drop it.
+ */
+public class BankWriteToken {
+    
+    private final long id;
+    private final CompletableFuture<Bank> completion;
+    
+    public BankWriteToken(long id) {
+        this(id, new CompletableFuture<>());
+    }
+    
+    private BankWriteToken(long id, CompletableFuture<Bank> completion) {
+        this.id = id;
+        this.completion = completion;
+    }
+    
+    /**
+     * Token for a write that was applied synchronously
+     */
+    public static BankWriteToken committed(long id, Bank bank) {
+        return new BankWriteToken(id, CompletableFuture.completedFuture(bank));
+    }
+    
+    public long getId() {
+        return id;
+    }
+    
+    /**
+     * Completes with the written bank (null for deletes) once the write is committed,
+     * or exceptionally with the domain exception that rejected it
+     */
+    public CompletableFuture<Bank> getCompletion() {
+        return completion;
+    }
+    
+    public WriteStatus getStatus() {
+        if (!completion.isDone()) {
+            return WriteStatus.PENDING;
+        }
+        return completion.isCompletedExceptionally() ? WriteStatus.FAILED : WriteStatus.COMMITTED;
+    }
+    
+    /**
+     * The committed bank, if the write has committed and produced one
+     */
+    public Bank getBank() {
+        return getStatus() == WriteStatus.COMMITTED ? completion.join() : null;
+    }
+    
+    /**
+     * Why the write failed, if it did
+     */
+    public RuntimeException getFailure() {
+        if (getStatus() != WriteStatus.FAILED) {
+            return null;
+        }
+        try {
+            completion.join();
+            return null;
+        } catch (CompletionException e) {
+            return e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+    
+    /**
+     * Waits up to the given time for the write to commit or fail
+     *
+     * @return the status once done, or PENDING if the wait ran out
+     */
+    public WriteStatus await(Duration timeout) throws InterruptedException {
+        try {
+            completion.get(timeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (ExecutionException | TimeoutException e) {
+            // reported through the status
+        }
+        return getStatus();
+    }
+    
+    public void complete(Bank bank) {
+        completion.complete(bank);
+    }
+    
+    public void fail(RuntimeException failure) {
+        completion.completeExceptionally(failure);
+    }
+}
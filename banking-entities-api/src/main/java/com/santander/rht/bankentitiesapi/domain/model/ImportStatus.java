@@ -0,0 +1,10 @@
+package com.santander.rht.bankentitiesapi.domain.model;
+
+/**
+ * Lifecycle of a bulk bank import
+ */
+public enum ImportStatus {
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
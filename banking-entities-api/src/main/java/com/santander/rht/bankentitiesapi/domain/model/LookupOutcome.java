@@ -0,0 +1,28 @@
+package com.santander.rht.bankentitiesapi.domain.model;
+
+/**
+ * Outcome of a single bank lookup performed through the HTTP client port
+ */
+public enum LookupOutcome {
+    FOUND,
+    NOT_FOUND,
+    /**
+     * The target did not answer within the configured timeout
+     */
+    TIMEOUT,
+    /**
+     * The call failed for any other reason (connection refused, 5xx, unreadable body...)
+     */
+    ERROR,
+    /**
+     * The call was not attempted because the circuit breaker is open
+     */
+    REJECTED;
+    
+    /**
+     * Whether the target gave a definitive answer, as opposed to failing to answer at all
+     */
+    public boolean isConclusive() {
+        return this == FOUND || this == NOT_FOUND;
+    }
+}
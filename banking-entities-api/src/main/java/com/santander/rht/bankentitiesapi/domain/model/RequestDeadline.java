@@ -0,0 +1,26 @@
+package com.santander.rht.bankentitiesapi.domain.model;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Point in time after which the caller is no longer interested in the result of a request
+ */
+public record RequestDeadline(Instant expiresAt) {
+    
+    public static RequestDeadline after(Duration timeout) {
+        return new RequestDeadline(Instant.now().plus(timeout));
+    }
+    
+    public Duration remaining() {
+        return Duration.between(Instant.now(), expiresAt);
+    }
+    
+    public boolean isExpired() {
+        return !Instant.now().isBefore(expiresAt);
+    }
+    
+    public RequestDeadline earliest(RequestDeadline other) {
+        return other.expiresAt.isBefore(expiresAt) ? other : this;
+    }
+}
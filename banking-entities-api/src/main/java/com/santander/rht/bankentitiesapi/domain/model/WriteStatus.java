@@ -0,0 +1,16 @@
+package com.santander.rht.bankentitiesapi.domain.model;
+
+/**
+ * Durability state of a write accepted by the write-behind queue
+ */
+public enum WriteStatus {
+    /**
+     * Accepted and queued, not yet committed
+     */
+    PENDING,
+    COMMITTED,
+    /**
+     * Rejected when applied, e.g. a duplicate SWIFT code or a version mismatch
+     */
+    FAILED
+}
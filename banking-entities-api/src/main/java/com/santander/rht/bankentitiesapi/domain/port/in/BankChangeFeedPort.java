@@ -0,0 +1,24 @@
+package com.santander.rht.bankentitiesapi.domain.port.in;
+
+import com.santander.rht.bankentitiesapi.domain.model.BankChangePage;
+
+/**
+ * Input port for incremental directory sync: the banks changed or deleted since a point in the change feed
+ */
+public interface BankChangeFeedPort {
+    
+    /**
+     * The changes after the given sequence number, oldest first. Since 0 returns every bank
+     * and every tombstone still retained.
+     *
+     * @param limit maximum number of changes, capped by the configured maximum
+     * @throws com.santander.rht.bankentitiesapi.domain.exception.ChangeCursorExpiredException
+     *         if tombstones after the given sequence number have been compacted away
+     */
+    BankChangePage getChanges(long since, int limit);
+    
+    /**
+     * Sequence number of the latest change visible in the feed, 0 if there is none
+     */
+    long latestSeq();
+}
@@ -0,0 +1,36 @@
+package com.santander.rht.bankentitiesapi.domain.port.in;
+
+import com.santander.rht.bankentitiesapi.domain.model.BankImportError;
+import com.santander.rht.bankentitiesapi.domain.model.BankImportJob;
+import com.santander.rht.bankentitiesapi.domain.model.BankImportRow;
+
+import java.util.Iterator;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Input port for bulk imports that upsert banks by SWIFT code from a stream of rows
+ */
+public interface BankImportPort {
+    
+    /**
+     * Start importing the rows in the background. Rows are pulled from the iterator only as fast
+     * as they are written, so a source backed by an upload slows the upload down to the write rate.
+     *
+     * @param format description of the source format, reported on the job
+     * @throws com.santander.rht.bankentitiesapi.domain.exception.ImportCapacityException
+     *         if the maximum number of imports is already running
+     */
+    BankImportJob startImport(String format, Iterator<BankImportRow> rows);
+    
+    /**
+     * Look up a recent import by its ID
+     */
+    Optional<BankImportJob> findJob(long id);
+    
+    /**
+     * The rows of an import that were not imported, in input order, read back lazily.
+     * The stream must be closed.
+     */
+    Optional<Stream<BankImportError>> streamErrors(long id);
+}
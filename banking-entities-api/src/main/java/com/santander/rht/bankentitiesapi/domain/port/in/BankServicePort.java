@@ -1,6 +1,8 @@
 package com.santander.rht.bankentitiesapi.domain.port.in;
 
 import com.santander.rht.bankentitiesapi.domain.model.Bank;
+import com.santander.rht.bankentitiesapi.domain.model.BankLookupResult;
+import com.santander.rht.bankentitiesapi.domain.model.BankPatch;
 
 import java.util.List;
 import java.util.Optional;
@@ -18,8 +20,17 @@ public interface BankServicePort {
     
     /**
      * Update an existing bank
+     *
+     * @param expectedVersion version the caller last saw, or null to update unconditionally
      */
-    Bank updateBank(Long id, Bank bank);
+    Bank updateBank(Long id, Bank bank, Long expectedVersion);
+    
+    /**
+     * Partially update a bank, writing only the fields present in the patch
+     *
+     * @param expectedVersion version the caller last saw, or null to update unconditionally
+     */
+    Bank patchBank(Long id, BankPatch patch, Long expectedVersion);
     
     /**
      * Get a bank by its ID
@@ -58,8 +69,10 @@ public interface BankServicePort {
     
     /**
      * Delete a bank by its ID
+     *
+     * @param expectedVersion version the caller last saw, or null to delete unconditionally
      */
-    void deleteBank(Long id);
+    void deleteBank(Long id, Long expectedVersion);
     
     /**
      * Self-call to get bank by ID using HTTP client
@@ -70,4 +83,14 @@ public interface BankServicePort {
      * Self-call to get bank by SWIFT code using HTTP client
      */
     Optional<Bank> selfCallGetBankBySwiftCode(String swiftCode);
+    
+    /**
+     * Self-call to get several banks by ID using HTTP client, keeping input order
+     */
+    List<BankLookupResult> selfCallGetBanksByIds(List<Long> ids);
+    
+    /**
+     * Self-call to get several banks by SWIFT code using HTTP client, keeping input order
+     */
+    List<BankLookupResult> selfCallGetBanksBySwiftCodes(List<String> swiftCodes);
 }
\ No newline at end of file
@@ -0,0 +1,37 @@
+package com.santander.rht.bankentitiesapi.domain.port.in;
+
+import com.santander.rht.bankentitiesapi.domain.model.Bank;
+import com.santander.rht.bankentitiesapi.domain.model.BankWriteToken;
+
+import java.util.Optional;
+
+/**
+ * Input port for writes that are acknowledged once validated and committed later in groups.
+ * When write-behind is disabled the writes are applied immediately and the returned token is already complete.
+ */
+public interface BankWriteBehindPort {
+    
+    /**
+     * Validate and queue the creation of a bank
+     */
+    BankWriteToken submitCreate(Bank bank);
+    
+    /**
+     * Validate and queue the update of a bank
+     *
+     * @param expectedVersion version the caller last saw, or null to update unconditionally
+     */
+    BankWriteToken submitUpdate(Long id, Bank bank, Long expectedVersion);
+    
+    /**
+     * Queue the deletion of a bank
+     *
+     * @param expectedVersion version the caller last saw, or null to delete unconditionally
+     */
+    BankWriteToken submitDelete(Long id, Long expectedVersion);
+    
+    /**
+     * Look up a token of a recent write by its ID
+     */
+    Optional<BankWriteToken> findToken(long id);
+}
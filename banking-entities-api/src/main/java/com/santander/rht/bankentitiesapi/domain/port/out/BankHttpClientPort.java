@@ -1,7 +1,9 @@
 package com.santander.rht.bankentitiesapi.domain.port.out;
 
 import com.santander.rht.bankentitiesapi.domain.model.Bank;
+import com.santander.rht.bankentitiesapi.domain.model.BankLookupResult;
 
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -19,4 +21,16 @@ public interface BankHttpClientPort {
      * Call the GET /banks/swift/{swiftCode} endpoint of this same service
      */
     Optional<Bank> getBankBySwiftCode(String swiftCode);
-}
\ No newline at end of file
+    
+    /**
+     * Call the GET /banks/{id} endpoint for several banks at once.
+     * Results are returned in the same order as the given IDs, one per ID.
+     */
+    List<BankLookupResult> getBanksByIds(List<Long> ids);
+    
+    /**
+     * Call the GET /banks/swift/{swiftCode} endpoint for several banks at once.
+     * Results are returned in the same order as the given SWIFT codes, one per code.
+     */
+    List<BankLookupResult> getBanksBySwiftCodes(List<String> swiftCodes);
+}
@@ -0,0 +1,16 @@
+package com.santander.rht.bankentitiesapi.domain.port.out;
+
+import com.santander.rht.bankentitiesapi.domain.model.BankInvalidation;
+
+/**
+ * Output port telling every instance's caches that a bank was written
+ * This interface is implemented by the infrastructure layer
+ */
+public interface BankInvalidationPort {
+    
+    /**
+     * Invalidates the bank's cached copies on this and the other instances once the surrounding
+     * transaction has committed, right away when there is none. Call after the write.
+     */
+    void publish(BankInvalidation invalidation);
+}
@@ -0,0 +1,143 @@
+package com.santander.rht.bankentitiesapi.domain.port.out;
+
+import com.santander.rht.bankentitiesapi.domain.model.Bank;
+import com.santander.rht.bankentitiesapi.domain.model.BankChange;
+import com.santander.rht.bankentitiesapi.domain.model.BankPatch;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Output port for Bank repository operations
+ * This interface is implemented by the infrastructure layer
+ */
+public interface BankRepositoryPort {
+    
+    /**
+     * Save a new bank or update an existing one.
+     * Relies on the unique SWIFT code constraint instead of a prior lookup, so it is race-free.
+     *
+     * @throws com.santander.rht.bankentitiesapi.domain.exception.DuplicateBankException
+     *         if another bank already has the same SWIFT code
+     */
+    Bank save(Bank bank);
+    
+    /**
+     * Update an existing bank in a single statement, optionally only if it is still at the expected version.
+     * Relies on the unique SWIFT code constraint instead of a prior lookup.
+     *
+     * @param expectedVersion version the caller last saw, or null to update unconditionally
+     * @return number of rows updated, 0 when the bank does not exist or is at another version
+     * @throws com.santander.rht.bankentitiesapi.domain.exception.DuplicateBankException
+     *         if another bank already has the same SWIFT code
+     */
+    int update(Bank bank, Long expectedVersion);
+    
+    /**
+     * Apply a partial update in a single statement that sets only the patched columns,
+     * and only if at least one of them actually changes
+     *
+     * @param expectedVersion version the caller last saw, or null to update unconditionally
+     * @return number of rows updated, 0 when nothing changed, or the bank does not exist or is at another version
+     * @throws com.santander.rht.bankentitiesapi.domain.exception.DuplicateBankException
+     *         if another bank already has the same SWIFT code
+     */
+    int patch(Long id, BankPatch patch, Long expectedVersion);
+    
+    /**
+     * Delete a bank in a single statement, optionally only if it is still at the expected version.
+     * The bank is replaced by a tombstone in the change feed, and its SWIFT code is free for reuse.
+     *
+     * @param expectedVersion version the caller last saw, or null to delete unconditionally
+     * @return number of rows deleted, 0 when the bank does not exist or is at another version
+     */
+    int delete(Long id, Long expectedVersion);
+    
+    /**
+     * Insert or update banks keyed by SWIFT code, as one batch. New codes are inserted, existing banks
+     * whose values differ are updated and get a new version, and unchanged banks are left alone.
+     *
+     * @return for each bank in order, 1 if it was inserted or updated, 0 if it was unchanged
+     */
+    int[] upsertBySwiftCode(List<Bank> banks);
+    
+    /**
+     * Check if a bank exists by ID
+     */
+    boolean existsById(Long id);
+    
+    /**
+     * Find a bank by its ID
+     */
+    Optional<Bank> findById(Long id);
+    
+    /**
+     * Find a bank by its SWIFT code
+     */
+    Optional<Bank> findBySwiftCode(String swiftCode);
+    
+    /**
+     * Find all banks
+     */
+    List<Bank> findAll();
+    
+    /**
+     * Find banks by country
+     */
+    List<Bank> findByCountry(String country);
+    
+    /**
+     * Find banks by country code
+     */
+    List<Bank> findByCountryCode(String countryCode);
+    
+    /**
+     * Find banks by name (case-insensitive partial match)
+     */
+    List<Bank> findByNameContainingIgnoreCase(String name);
+    
+    /**
+     * Find only active banks
+     */
+    List<Bank> findByActiveTrue();
+    
+    /**
+     * Check if a bank exists by SWIFT code
+     */
+    boolean existsBySwiftCode(String swiftCode);
+    
+    /**
+     * Delete a bank by its ID
+     */
+    void deleteById(Long id);
+    
+    /**
+     * Count total number of banks
+     */
+    long count();
+    
+    /**
+     * The latest change of every bank changed or deleted after the given sequence number, ordered by
+     * sequence number. Stops before any change that may still be followed by an earlier-numbered one,
+     * so a consumer resuming from the last sequence number it saw never misses a change.
+     */
+    List<BankChange> findChangesSince(long since, int limit);
+    
+    /**
+     * Highest sequence number up to which every change is visible to {@link #findChangesSince}
+     */
+    long latestChangeSeq();
+    
+    /**
+     * Remove the tombstones of banks deleted before the given time
+     *
+     * @return number of tombstones removed
+     */
+    int purgeTombstones(LocalDateTime deletedBefore);
+    
+    /**
+     * Highest sequence number whose tombstone may have been removed, 0 if none was
+     */
+    long purgedThrough();
+}
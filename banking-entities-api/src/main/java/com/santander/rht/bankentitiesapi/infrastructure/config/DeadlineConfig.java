@@ -0,0 +1,43 @@
+package com.santander.rht.bankentitiesapi.infrastructure.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.santander.rht.bankentitiesapi.infrastructure.persistence.transaction.DeadlineAwareJpaTransactionManager;
+import com.santander.rht.bankentitiesapi.infrastructure.web.filter.RequestDeadlineFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.transaction.TransactionManagerCustomizers;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+
+/**
+ * Configuration for request deadlines: the filter that reads them and the
+ * transaction manager that turns the remaining budget into query timeouts
+ */
+@Configuration
+public class DeadlineConfig {
+
+    @Bean
+    public FilterRegistrationBean<RequestDeadlineFilter> requestDeadlineFilter(
+            MeterRegistry meterRegistry,
+            ObjectMapper objectMapper,
+            @Value("${app.deadline.max-timeout:30s}") Duration maxTimeout) {
+        FilterRegistrationBean<RequestDeadlineFilter> registration =
+                new FilterRegistrationBean<>(new RequestDeadlineFilter(meterRegistry, objectMapper, maxTimeout));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+
+    @Bean
+    public PlatformTransactionManager transactionManager(
+            ObjectProvider<TransactionManagerCustomizers> transactionManagerCustomizers) {
+        DeadlineAwareJpaTransactionManager transactionManager = new DeadlineAwareJpaTransactionManager();
+        transactionManagerCustomizers.ifAvailable(customizers -> customizers.customize(transactionManager));
+        return transactionManager;
+    }
+}
@@ -0,0 +1,91 @@
+package com.santander.rht.bankentitiesapi.infrastructure.config;
+
+import com.santander.rht.bankentitiesapi.infrastructure.persistence.routing.MeteredDataSource;
+import com.santander.rht.bankentitiesapi.infrastructure.persistence.routing.ReplicaRoutingDataSource;
+import com.santander.rht.bankentitiesapi.infrastructure.persistence.routing.ReplicaSelection;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Configuration for sending read-only transactions to read replicas, when any are configured.
+ * <p>
+ * The data source used by JPA fetches its connection on the first statement rather than at transaction
+ * begin, by which point the transaction manager has marked it read-only: read-only connections come from
+ * the replicas, all others from the primary. Reads in a read-write transaction thus still see its writes.
+ */
+@Configuration
+@ConditionalOnExpression("!'${app.datasource.replicas:}'.isBlank()")
+public class ReadReplicaConfig {
+    
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+    
+    @Bean(destroyMethod = "close")
+    public ReplicaRoutingDataSource replicaRoutingDataSource(
+            HikariDataSource primaryDataSource,
+            MeterRegistry meterRegistry,
+            @Value("${app.datasource.replicas}") List<String> urls,
+            @Value("${app.datasource.replica-username:${spring.datasource.username:}}") String username,
+            @Value("${app.datasource.replica-password:${spring.datasource.password:}}") String password,
+            @Value("${app.datasource.replica-pool-size:10}") int poolSize,
+            @Value("${app.datasource.replica-connection-timeout:1s}") Duration connectionTimeout,
+            @Value("${app.datasource.replica-selection:round-robin}") String selection,
+            @Value("${app.datasource.replica-max-lag:5s}") Duration maxLag,
+            @Value("${app.datasource.replica-check-interval:1s}") Duration checkInterval) {
+        List<HikariDataSource> replicas = new ArrayList<>(urls.size());
+        for (String url : urls) {
+            HikariDataSource replica = new HikariDataSource();
+            replica.setPoolName("replica-" + (replicas.size() + 1));
+            replica.setJdbcUrl(url.trim());
+            replica.setUsername(username);
+            replica.setPassword(password);
+            replica.setMaximumPoolSize(poolSize);
+            // A replica that cannot hand out a connection quickly is ejected and the read goes elsewhere
+            replica.setConnectionTimeout(connectionTimeout.toMillis());
+            replica.setReadOnly(true);
+            replicas.add(replica);
+        }
+        return new ReplicaRoutingDataSource(new MeteredDataSource("primary", primaryDataSource, meterRegistry),
+                replicas, ReplicaSelection.valueOf(selection.trim().replace('-', '_').toUpperCase()),
+                maxLag, checkInterval, meterRegistry);
+    }
+    
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource,
+                                 ReplicaRoutingDataSource replicaRoutingDataSource,
+                                 MeterRegistry meterRegistry) {
+        LazyConnectionDataSourceProxy dataSource =
+                new LazyConnectionDataSourceProxy(new MeteredDataSource("primary", primaryDataSource, meterRegistry));
+        dataSource.setReadOnlyDataSource(replicaRoutingDataSource);
+        return dataSource;
+    }
+    
+    /**
+     * Replicas are checked once the schema exists, and read from only after passing a check
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void startReplicaChecks(ApplicationReadyEvent event) {
+        event.getApplicationContext().getBean(ReplicaRoutingDataSource.class).start();
+    }
+}
@@ -0,0 +1,102 @@
+package com.santander.rht.bankentitiesapi.infrastructure.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import com.santander.rht.bankentitiesapi.infrastructure.persistence.entity.BankEntity;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.jcache.MissingCacheStrategy;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.time.Duration;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+/**
+ * Configuration for Hibernate's second-level and query caches, kept in Caffeine through JCache.
+ * <p>
+ * Every region is created up front with its configured size, and Hibernate fails on any other, so a region
+ * cannot silently grow unbounded. Cache statistics are collected and exported to Micrometer by Spring Boot's
+ * Hibernate metrics, as {@code hibernate.second.level.cache.requests} and the like, tagged by region.
+ */
+@Configuration
+public class SecondLevelCacheConfig {
+    
+    private static final String ENABLED = "app.second-level-cache.enabled";
+    
+    /**
+     * A cache manager of its own per application context, so contexts in one JVM never share cached banks
+     */
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(name = ENABLED, havingValue = "true", matchIfMissing = true)
+    public CacheManager hibernateCacheManager(
+            @Value("${app.second-level-cache.entity-max-entries:10000}") long entityMaxEntries,
+            @Value("${app.second-level-cache.query-max-entries:1000}") long queryMaxEntries,
+            @Value("${app.second-level-cache.time-to-live:1h}") Duration timeToLive) {
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("bank-second-level-cache-" + UUID.randomUUID()),
+                        SecondLevelCacheConfig.class.getClassLoader());
+        cacheManager.createCache(BankEntity.CACHE_REGION, region(entityMaxEntries, timeToLive));
+        cacheManager.createCache(BankEntity.NATURAL_ID_CACHE_REGION, region(entityMaxEntries, timeToLive));
+        cacheManager.createCache(BankEntity.COUNTRY_CODE_QUERY_REGION, region(queryMaxEntries, timeToLive));
+        cacheManager.createCache(BankEntity.ACTIVE_QUERY_REGION, region(queryMaxEntries, timeToLive));
+        cacheManager.createCache(RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME,
+                region(queryMaxEntries, timeToLive));
+        // One entry per table, which must outlive the query results it validates
+        cacheManager.createCache(RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME,
+                region(0, Duration.ZERO));
+        return cacheManager;
+    }
+    
+    @Bean
+    @ConditionalOnProperty(name = ENABLED, havingValue = "true", matchIfMissing = true)
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> {
+            properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            properties.put(AvailableSettings.USE_QUERY_CACHE, true);
+            properties.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+            properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+            properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, MissingCacheStrategy.FAIL.getExternalRepresentation());
+            properties.put(AvailableSettings.GENERATE_STATISTICS, true);
+            // Statistics are for the metrics, not for a log line at the end of every session
+            properties.put(AvailableSettings.LOG_SESSION_METRICS, false);
+        };
+    }
+    
+    /**
+     * Turned off explicitly, as Hibernate would otherwise find the JCache region factory on the classpath
+     */
+    @Bean
+    @ConditionalOnProperty(name = ENABLED, havingValue = "false")
+    public HibernatePropertiesCustomizer secondLevelCacheDisabler() {
+        return properties -> {
+            properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, false);
+            properties.put(AvailableSettings.USE_QUERY_CACHE, false);
+        };
+    }
+    
+    /**
+     * @param maxEntries largest number of entries, 0 for no limit
+     * @param timeToLive how long an entry is kept after being written, 0 to keep it until evicted
+     */
+    private static CaffeineConfiguration<Object, Object> region(long maxEntries, Duration timeToLive) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        // Hibernate caches immutable entries, there is no need to copy them in and out
+        configuration.setStoreByValue(false);
+        if (maxEntries > 0) {
+            configuration.setMaximumSize(OptionalLong.of(maxEntries));
+        }
+        if (!timeToLive.isZero()) {
+            configuration.setExpireAfterWrite(OptionalLong.of(timeToLive.toNanos()));
+        }
+        return configuration;
+    }
+}
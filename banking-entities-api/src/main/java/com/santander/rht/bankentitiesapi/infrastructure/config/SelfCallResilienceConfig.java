@@ -0,0 +1,57 @@
+package com.santander.rht.bankentitiesapi.infrastructure.config;
+
+import com.santander.rht.bankentitiesapi.infrastructure.http.resilience.CircuitBreaker;
+import com.santander.rht.bankentitiesapi.infrastructure.http.resilience.LatencyTracker;
+import com.santander.rht.bankentitiesapi.infrastructure.http.resilience.RetryBudget;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Clock;
+import java.time.Duration;
+
+/**
+ * Configuration for the resilience policies applied to self-calls
+ */
+@Configuration
+public class SelfCallResilienceConfig {
+
+    @Bean
+    public CircuitBreaker selfCallCircuitBreaker(
+            MeterRegistry meterRegistry,
+            @Value("${app.self-call.circuit-breaker.failure-rate-threshold:0.5}") double failureRateThreshold,
+            @Value("${app.self-call.circuit-breaker.minimum-calls:20}") int minimumCalls,
+            @Value("${app.self-call.circuit-breaker.window-size:100}") int windowSize,
+            @Value("${app.self-call.circuit-breaker.open-duration:10s}") Duration openDuration,
+            @Value("${app.self-call.circuit-breaker.half-open-calls:5}") int halfOpenCalls) {
+        CircuitBreaker circuitBreaker = new CircuitBreaker("bank-self-call", failureRateThreshold, minimumCalls,
+                windowSize, openDuration, halfOpenCalls, Clock.systemUTC());
+        for (CircuitBreaker.State state : CircuitBreaker.State.values()) {
+            Gauge.builder("bank.selfcall.circuit.state", circuitBreaker, cb -> cb.getState() == state ? 1 : 0)
+                    .description("Current state of the self-call circuit breaker")
+                    .tag("state", state.name())
+                    .register(meterRegistry);
+        }
+        return circuitBreaker;
+    }
+
+    @Bean
+    public RetryBudget selfCallRetryBudget(
+            MeterRegistry meterRegistry,
+            @Value("${app.self-call.retry.budget-ratio:0.1}") double ratio,
+            @Value("${app.self-call.retry.budget-max-balance:10}") int maxBalance) {
+        RetryBudget retryBudget = new RetryBudget(ratio, maxBalance);
+        Gauge.builder("bank.selfcall.retry.budget", retryBudget, RetryBudget::available)
+                .description("Extra self-call attempts (retries and hedges) currently allowed")
+                .register(meterRegistry);
+        return retryBudget;
+    }
+
+    @Bean
+    public LatencyTracker selfCallLatencyTracker(
+            @Value("${app.self-call.hedging.percentile:0.95}") double percentile) {
+        return new LatencyTracker(1024, percentile, 64);
+    }
+}
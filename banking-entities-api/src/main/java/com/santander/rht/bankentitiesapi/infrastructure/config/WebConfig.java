@@ -0,0 +1,47 @@
+package com.santander.rht.bankentitiesapi.infrastructure.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+
+/**
+ * Configuration for web-related beans
+ */
+@Configuration
+public class WebConfig {
+    
+    @Bean
+    public WebClient.Builder webClientBuilder() {
+        return WebClient.builder();
+    }
+    
+    /**
+     * Connection pool shared by every self-call, so batch lookups reuse
+     * keep-alive connections instead of opening one per request
+     */
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider selfCallConnectionProvider(
+            @Value("${app.self-call.max-connections:50}") int maxConnections,
+            @Value("${app.self-call.pending-acquire-timeout:5s}") Duration pendingAcquireTimeout) {
+        return ConnectionProvider.builder("bank-self-call")
+                .maxConnections(maxConnections)
+                .pendingAcquireTimeout(pendingAcquireTimeout)
+                .build();
+    }
+    
+    @Bean
+    public WebClient selfCallWebClient(WebClient.Builder webClientBuilder,
+                                       ConnectionProvider selfCallConnectionProvider,
+                                       @Value("${app.base-url:http://localhost:8080}") String baseUrl) {
+        return webClientBuilder.clone()
+                .baseUrl(baseUrl)
+                .clientConnector(new ReactorClientHttpConnector(HttpClient.create(selfCallConnectionProvider)))
+                .build();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,418 @@
+package com.santander.rht.bankentitiesapi.infrastructure.http.adapter;
+
+import com.santander.rht.bankentitiesapi.application.deadline.DeadlineContext;
+import com.santander.rht.bankentitiesapi.domain.exception.DeadlineExceededException;
+import com.santander.rht.bankentitiesapi.domain.exception.SelfCallFailedException;
+import com.santander.rht.bankentitiesapi.domain.model.Bank;
+import com.santander.rht.bankentitiesapi.domain.model.BankLookupResult;
+import com.santander.rht.bankentitiesapi.domain.model.LookupOutcome;
+import com.santander.rht.bankentitiesapi.domain.model.RequestDeadline;
+import com.santander.rht.bankentitiesapi.domain.port.out.BankHttpClientPort;
+import com.santander.rht.bankentitiesapi.infrastructure.http.cache.SelfCallResponseCache;
+import com.santander.rht.bankentitiesapi.infrastructure.http.resilience.CircuitBreaker;
+import com.santander.rht.bankentitiesapi.infrastructure.http.resilience.LatencyTracker;
+import com.santander.rht.bankentitiesapi.infrastructure.http.resilience.RetryBudget;
+import com.santander.rht.bankentitiesapi.infrastructure.http.transport.HttpSelfCallTransport;
+import com.santander.rht.bankentitiesapi.infrastructure.http.transport.LoopbackSelfCallTransport;
+import com.santander.rht.bankentitiesapi.infrastructure.http.transport.SelfCallMode;
+import com.santander.rht.bankentitiesapi.infrastructure.http.transport.SelfCallResponse;
+import com.santander.rht.bankentitiesapi.infrastructure.http.transport.SelfCallTargetDetector;
+import com.santander.rht.bankentitiesapi.infrastructure.http.transport.SelfCallTransport;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+import reactor.util.context.ContextView;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Adapter that implements the BankHttpClientPort using WebClient,
+ * or an in-process loopback transport when the target is this same instance.
+ * Every call goes through a circuit breaker, and retries and hedged requests are
+ * limited by a shared retry budget.
+ * Responses are cached client-side and served stale while they are revalidated in the background,
+ * or while the target is failing.
+ * When the current request has a deadline, no attempt is given more than the remaining budget
+ * and no attempt or retry starts once it has passed.
+ */
+@Component
+@Slf4j
+public class BankHttpClientAdapter implements BankHttpClientPort {
+
+    private final HttpSelfCallTransport httpTransport;
+    private final LoopbackSelfCallTransport loopbackTransport;
+    private final SelfCallTargetDetector targetDetector;
+    private final CircuitBreaker circuitBreaker;
+    private final RetryBudget retryBudget;
+    private final LatencyTracker latencyTracker;
+    private final SelfCallResponseCache responseCache;
+    private final MeterRegistry meterRegistry;
+    private final SelfCallMode mode;
+    private final Duration timeout;
+    private final int batchConcurrency;
+    private final int maxRetries;
+    private final Duration retryBackoff;
+    private final boolean hedgingEnabled;
+    private final Duration minHedgeDelay;
+
+    public BankHttpClientAdapter(HttpSelfCallTransport httpTransport,
+                                 LoopbackSelfCallTransport loopbackTransport,
+                                 SelfCallTargetDetector targetDetector,
+                                 CircuitBreaker selfCallCircuitBreaker,
+                                 RetryBudget selfCallRetryBudget,
+                                 LatencyTracker selfCallLatencyTracker,
+                                 SelfCallResponseCache responseCache,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${app.self-call.mode:auto}") String mode,
+                                 @Value("${app.self-call.timeout:5s}") Duration timeout,
+                                 @Value("${app.self-call.batch-concurrency:16}") int batchConcurrency,
+                                 @Value("${app.self-call.retry.max-retries:1}") int maxRetries,
+                                 @Value("${app.self-call.retry.backoff:50ms}") Duration retryBackoff,
+                                 @Value("${app.self-call.hedging.enabled:false}") boolean hedgingEnabled,
+                                 @Value("${app.self-call.hedging.min-delay:5ms}") Duration minHedgeDelay) {
+        this.httpTransport = httpTransport;
+        this.loopbackTransport = loopbackTransport;
+        this.targetDetector = targetDetector;
+        this.circuitBreaker = selfCallCircuitBreaker;
+        this.retryBudget = selfCallRetryBudget;
+        this.latencyTracker = selfCallLatencyTracker;
+        this.responseCache = responseCache;
+        this.meterRegistry = meterRegistry;
+        this.mode = SelfCallMode.valueOf(mode.trim().toUpperCase());
+        this.timeout = timeout;
+        this.batchConcurrency = batchConcurrency;
+        this.maxRetries = maxRetries;
+        this.retryBackoff = retryBackoff;
+        this.hedgingEnabled = hedgingEnabled;
+        this.minHedgeDelay = minHedgeDelay;
+    }
+
+    @Override
+    public Optional<Bank> getBankById(Long id) {
+        log.debug("Self-calling GET /api/v1/banks/{} endpoint", id);
+
+        BankLookupResult result = withDeadline(lookupById(transport(), id)).block();
+        logResult(result);
+        return unwrap(result);
+    }
+
+    @Override
+    public Optional<Bank> getBankBySwiftCode(String swiftCode) {
+        log.debug("Self-calling GET /api/v1/banks/swift/{} endpoint", swiftCode);
+
+        BankLookupResult result = withDeadline(lookupBySwiftCode(transport(), swiftCode)).block();
+        logResult(result);
+        return unwrap(result);
+    }
+
+    @Override
+    public List<BankLookupResult> getBanksByIds(List<Long> ids) {
+        log.debug("Self-calling GET /api/v1/banks/{{id}} endpoint for {} banks", ids.size());
+        SelfCallTransport transport = transport();
+        return lookupAll(transport, "id", ids, id -> lookupById(transport, id));
+    }
+
+    @Override
+    public List<BankLookupResult> getBanksBySwiftCodes(List<String> swiftCodes) {
+        log.debug("Self-calling GET /api/v1/banks/swift/{{swiftCode}} endpoint for {} banks", swiftCodes.size());
+        SelfCallTransport transport = transport();
+        return lookupAll(transport, "swift", swiftCodes, swiftCode -> lookupBySwiftCode(transport, swiftCode));
+    }
+
+    /**
+     * Fans the lookups out with at most {@code batchConcurrency} requests in flight.
+     * flatMapSequential keeps the results in input order even though responses arrive out of order.
+     */
+    private <K> List<BankLookupResult> lookupAll(SelfCallTransport transport, String lookupType, List<K> keys,
+                                                 Function<K, Mono<BankLookupResult>> lookup) {
+        if (keys.isEmpty()) {
+            return List.of();
+        }
+
+        Timer.Sample sample = Timer.start(meterRegistry);
+        List<BankLookupResult> results = withDeadline(Flux.fromIterable(keys)
+                .flatMapSequential(lookup, batchConcurrency)
+                .collectList())
+                .block();
+        long elapsedNanos = sample.stop(Timer.builder("bank.selfcall.batch")
+                .description("Total time taken for a batch of self-calls")
+                .tag("lookup", lookupType)
+                .tag("mode", transport.mode())
+                .register(meterRegistry));
+        DistributionSummary.builder("bank.selfcall.batch.size")
+                .description("Number of banks requested per self-call batch")
+                .tag("lookup", lookupType)
+                .tag("mode", transport.mode())
+                .register(meterRegistry)
+                .record(keys.size());
+
+        log.debug("Self-call batch of {} banks by {} over {} completed in {} ms",
+                keys.size(), lookupType, transport.mode(), Duration.ofNanos(elapsedNanos).toMillis());
+        return results;
+    }
+
+    /**
+     * Makes the deadline of the calling request visible to the reactive pipeline, which runs on other threads
+     */
+    private static <T> Mono<T> withDeadline(Mono<T> mono) {
+        return DeadlineContext.current()
+                .map(deadline -> mono.contextWrite(Context.of(RequestDeadline.class, deadline)))
+                .orElse(mono);
+    }
+
+    private static Optional<RequestDeadline> deadline(ContextView context) {
+        return context.getOrEmpty(RequestDeadline.class);
+    }
+
+    private SelfCallTransport transport() {
+        return switch (mode) {
+            case HTTP -> httpTransport;
+            case LOOPBACK -> loopbackTransport;
+            case AUTO -> targetDetector.isLocalTarget() ? loopbackTransport : httpTransport;
+        };
+    }
+
+    private Mono<BankLookupResult> lookupById(SelfCallTransport transport, Long id) {
+        return cached(transport, "id", String.valueOf(id), etag -> transport.getBankById(id, etag));
+    }
+
+    private Mono<BankLookupResult> lookupBySwiftCode(SelfCallTransport transport, String swiftCode) {
+        return cached(transport, "swift", swiftCode, etag -> transport.getBankBySwiftCode(swiftCode, etag));
+    }
+
+    /**
+     * Answers from the response cache when possible: fresh entries are returned directly,
+     * entries within their stale-while-revalidate window are returned while a single background
+     * refresh runs, and entries within their stale-if-error window cover for a failing target
+     */
+    private Mono<BankLookupResult> cached(SelfCallTransport transport, String lookupType, String key,
+                                          Function<String, Mono<SelfCallResponse>> call) {
+        if (!responseCache.isEnabled()) {
+            return lookup(transport, lookupType, key, null, call);
+        }
+        return Mono.defer(() -> {
+            String cacheKey = lookupType + ":" + key;
+            SelfCallResponseCache.Entry entry = responseCache.get(cacheKey).orElse(null);
+            long now = responseCache.now();
+
+            if (entry != null && now < entry.freshUntil()) {
+                responseCache.recordFreshHit();
+                return Mono.just(BankLookupResult.found(key, entry.bank()));
+            }
+            if (entry != null && now < entry.staleWhileRevalidateUntil()) {
+                responseCache.recordStaleHit(entry, false);
+                revalidateInBackground(transport, lookupType, key, cacheKey, entry, call);
+                return Mono.just(BankLookupResult.found(key, entry.bank()));
+            }
+
+            responseCache.recordMiss();
+            return lookup(transport, lookupType, key, entry, call).map(result -> {
+                if (!result.isConclusive() && entry != null && responseCache.now() < entry.staleIfErrorUntil()) {
+                    log.warn("Serving stale bank for key {} after self-call {}", key, result.getOutcome());
+                    responseCache.recordStaleHit(entry, true);
+                    return BankLookupResult.found(key, entry.bank());
+                }
+                return result;
+            });
+        });
+    }
+
+    private void revalidateInBackground(SelfCallTransport transport, String lookupType, String key, String cacheKey,
+                                        SelfCallResponseCache.Entry entry,
+                                        Function<String, Mono<SelfCallResponse>> call) {
+        if (!responseCache.tryBeginRevalidation(cacheKey)) {
+            return;
+        }
+        lookup(transport, lookupType, key, entry, call)
+                .doFinally(signal -> responseCache.endRevalidation(cacheKey))
+                .subscribe(
+                        result -> log.debug("Revalidated cached bank for key {}: {}", key, result.getOutcome()),
+                        error -> log.warn("Background revalidation failed for key {}", key, error));
+    }
+
+    /**
+     * Applies the same resilience policies, outcome mapping and metrics whatever the transport,
+     * so loopback and HTTP self-calls are observably equivalent
+     */
+    private Mono<BankLookupResult> lookup(SelfCallTransport transport, String lookupType, String key,
+                                          SelfCallResponseCache.Entry cached,
+                                          Function<String, Mono<SelfCallResponse>> call) {
+        return Mono.defer(() -> {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            retryBudget.recordRequest();
+            Supplier<Mono<BankLookupResult>> attempt = () -> attempt(lookupType, key, cached, call);
+            return withRetries(() -> hedged(attempt, transport, lookupType), transport, lookupType, maxRetries)
+                    .doOnNext(result -> sample.stop(Timer.builder("bank.selfcall")
+                            .description("Time taken for a single self-call")
+                            .tag("lookup", lookupType)
+                            .tag("mode", transport.mode())
+                            .tag("outcome", result.getOutcome().name())
+                            .register(meterRegistry)));
+        });
+    }
+
+    /**
+     * A single physical attempt, guarded by the circuit breaker.
+     * Revalidates the cached copy with If-None-Match when there is one with an ETag.
+     */
+    private Mono<BankLookupResult> attempt(String lookupType, String key, SelfCallResponseCache.Entry cached,
+                                           Function<String, Mono<SelfCallResponse>> call) {
+        return Mono.deferContextual(context -> {
+            Duration budget = deadline(context)
+                    .map(deadline -> deadline.remaining().compareTo(timeout) < 0 ? deadline.remaining() : timeout)
+                    .orElse(timeout);
+            if (budget.isNegative() || budget.isZero()) {
+                deadlineCancelledCounter(lookupType).increment();
+                return Mono.just(BankLookupResult.timedOut(key, "Request deadline exceeded"));
+            }
+            // A timeout caused by the caller's deadline says nothing about the target's health
+            boolean boundByDeadline = budget.compareTo(timeout) < 0;
+
+            if (!circuitBreaker.tryAcquirePermission()) {
+                return Mono.just(BankLookupResult.rejected(key));
+            }
+            long start = System.nanoTime();
+            return call.apply(cached != null ? cached.etag() : null)
+                    .timeout(budget)
+                    .map(response -> toResult(lookupType + ":" + key, key, cached, response))
+                    .switchIfEmpty(Mono.fromSupplier(() -> BankLookupResult.failed(key, "Empty self-call response")))
+                    .onErrorResume(e -> Mono.just(isTimeout(e)
+                            ? BankLookupResult.timedOut(key, e.getMessage())
+                            : BankLookupResult.failed(key, e.getMessage())))
+                    .doOnNext(result -> {
+                        if (result.isConclusive()) {
+                            circuitBreaker.onSuccess();
+                            latencyTracker.record(Duration.ofNanos(System.nanoTime() - start));
+                        } else if (boundByDeadline && result.getOutcome() == LookupOutcome.TIMEOUT) {
+                            circuitBreaker.releasePermission();
+                            deadlineCancelledCounter(lookupType).increment();
+                        } else {
+                            circuitBreaker.onFailure();
+                        }
+                    })
+                    .doOnCancel(circuitBreaker::releasePermission);
+        });
+    }
+
+    /**
+     * Maps a transport response to a lookup result and keeps the response cache in step with it
+     */
+    private BankLookupResult toResult(String cacheKey, String key, SelfCallResponseCache.Entry cached,
+                                      SelfCallResponse response) {
+        if (response.isNotModified()) {
+            if (cached == null) {
+                return BankLookupResult.failed(key, "Not modified without a cached copy");
+            }
+            if (responseCache.isEnabled()) {
+                responseCache.revalidated(cacheKey, cached, response.getEtag(), response.getCacheControl());
+            }
+            return BankLookupResult.found(key, cached.bank());
+        }
+        if (response.getBank() == null) {
+            if (responseCache.isEnabled()) {
+                responseCache.remove(cacheKey);
+            }
+            return BankLookupResult.notFound(key);
+        }
+        if (responseCache.isEnabled()) {
+            responseCache.put(cacheKey, response.getBank(), response.getEtag(), response.getCacheControl());
+        }
+        return BankLookupResult.found(key, response.getBank());
+    }
+
+    /**
+     * Sends a second attempt if the first has not answered after the observed latency percentile,
+     * and keeps whichever gives a conclusive answer first
+     */
+    private Mono<BankLookupResult> hedged(Supplier<Mono<BankLookupResult>> attempt,
+                                          SelfCallTransport transport, String lookupType) {
+        Optional<Duration> hedgeDelay = hedgingEnabled ? latencyTracker.estimate() : Optional.empty();
+        if (hedgeDelay.isEmpty()) {
+            return attempt.get();
+        }
+
+        Duration delay = hedgeDelay.get().compareTo(minHedgeDelay) < 0 ? minHedgeDelay : hedgeDelay.get();
+        Mono<BankLookupResult> hedge = Mono.delay(delay)
+                .filter(tick -> retryBudget.tryAcquire())
+                .flatMap(tick -> {
+                    extraAttemptCounter("bank.selfcall.hedges", transport, lookupType).increment();
+                    return attempt.get();
+                });
+        return Flux.merge(attempt.get(), hedge)
+                .takeUntil(BankLookupResult::isConclusive)
+                .reduce((first, next) -> first.isConclusive() ? first : next);
+    }
+
+    private Mono<BankLookupResult> withRetries(Supplier<Mono<BankLookupResult>> call,
+                                               SelfCallTransport transport, String lookupType, int retriesLeft) {
+        return call.get().flatMap(result -> Mono.deferContextual(context -> {
+            if (result.isConclusive()
+                    || result.getOutcome() == LookupOutcome.REJECTED
+                    || retriesLeft <= 0
+                    || deadline(context).map(RequestDeadline::isExpired).orElse(false)
+                    || !retryBudget.tryAcquire()) {
+                return Mono.just(result);
+            }
+            extraAttemptCounter("bank.selfcall.retries", transport, lookupType).increment();
+            return Mono.delay(retryBackoff)
+                    .then(withRetries(call, transport, lookupType, retriesLeft - 1));
+        }));
+    }
+
+    private Counter extraAttemptCounter(String name, SelfCallTransport transport, String lookupType) {
+        return Counter.builder(name)
+                .tag("lookup", lookupType)
+                .tag("mode", transport.mode())
+                .register(meterRegistry);
+    }
+
+    private Counter deadlineCancelledCounter(String lookupType) {
+        return Counter.builder("bank.selfcall.deadline.cancelled")
+                .description("Self-call attempts skipped or cut short because the request deadline passed")
+                .tag("lookup", lookupType)
+                .register(meterRegistry);
+    }
+
+    private static boolean isTimeout(Throwable error) {
+        for (Throwable current = error; current != null; current = current.getCause()) {
+            if (current instanceof TimeoutException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Empty means the bank does not exist; any inconclusive outcome is surfaced as an exception
+     */
+    private static Optional<Bank> unwrap(BankLookupResult result) {
+        if (!result.isConclusive() && DeadlineContext.current().map(RequestDeadline::isExpired).orElse(false)) {
+            throw DeadlineExceededException.during("self-call");
+        }
+        if (!result.isConclusive()) {
+            throw SelfCallFailedException.forKey(result.getKey(), result.getOutcome(), result.getErrorMessage());
+        }
+        return result.asOptional();
+    }
+
+    private void logResult(BankLookupResult result) {
+        switch (result.getOutcome()) {
+            case FOUND -> log.debug("Self-call successful for key: {}", result.getKey());
+            case NOT_FOUND -> log.debug("Self-call found no bank for key: {}", result.getKey());
+            case TIMEOUT, ERROR, REJECTED -> log.error("Error during self-call for key {}: {} ({})",
+                    result.getKey(), result.getOutcome(), result.getErrorMessage());
+        }
+    }
+}
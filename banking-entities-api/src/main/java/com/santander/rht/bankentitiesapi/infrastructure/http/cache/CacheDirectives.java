@@ -0,0 +1,47 @@
+package com.santander.rht.bankentitiesapi.infrastructure.http.cache;
+
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * Freshness rules for a cached self-call response, taken from the Cache-Control header
+ * when the target sends one and from the configured defaults otherwise
+ */
+public record CacheDirectives(boolean noStore, Duration maxAge, Duration staleWhileRevalidate, Duration staleIfError) {
+    
+    public static CacheDirectives parse(String cacheControl, Duration defaultTtl,
+                                        Duration defaultStaleWhileRevalidate, Duration defaultStaleIfError) {
+        boolean noStore = false;
+        Duration maxAge = defaultTtl;
+        Duration staleWhileRevalidate = defaultStaleWhileRevalidate;
+        Duration staleIfError = defaultStaleIfError;
+        
+        if (cacheControl != null) {
+            for (String directive : cacheControl.split(",")) {
+                String[] parts = directive.trim().toLowerCase(Locale.ROOT).split("=", 2);
+                switch (parts[0]) {
+                    case "no-store" -> noStore = true;
+                    case "no-cache" -> maxAge = Duration.ZERO;
+                    case "max-age" -> maxAge = seconds(parts, maxAge);
+                    case "stale-while-revalidate" -> staleWhileRevalidate = seconds(parts, staleWhileRevalidate);
+                    case "stale-if-error" -> staleIfError = seconds(parts, staleIfError);
+                    default -> {
+                        // other directives do not affect a private client cache
+                    }
+                }
+            }
+        }
+        return new CacheDirectives(noStore, maxAge, staleWhileRevalidate, staleIfError);
+    }
+    
+    private static Duration seconds(String[] parts, Duration fallback) {
+        if (parts.length < 2) {
+            return fallback;
+        }
+        try {
+            return Duration.ofSeconds(Long.parseLong(parts[1].replace("\"", "").trim()));
+        } catch (NumberFormatException e) {
+            return fallback;
+        }
+    }
+}
@@ -0,0 +1,222 @@
+package com.santander.rht.bankentitiesapi.infrastructure.http.cache;
+
+import com.santander.rht.bankentitiesapi.domain.model.Bank;
+import com.santander.rht.bankentitiesapi.domain.model.BankInvalidation;
+import com.santander.rht.bankentitiesapi.infrastructure.invalidation.BankInvalidationListener;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Client-side cache of self-call responses.
+ * Entries are fresh for the Cache-Control max-age (or the configured TTL), may then be served
+ * stale while a background revalidation runs, and may be served stale for a bounded time
+ * when the target is failing. Entries of banks written on any node are dropped as soon as the write
+ * is known here.
+ */
+@Component
+@Slf4j
+public class SelfCallResponseCache implements BankInvalidationListener {
+    
+    /**
+     * A cached bank together with its validator and freshness deadlines (epoch millis).
+     * Banks are mutable, so the entry keeps a copy of the bank it is given, and hands out copies of its own.
+     */
+    public record Entry(Bank bank, String etag, long storedAt, long freshUntil,
+                        long staleWhileRevalidateUntil, long staleIfErrorUntil) {
+        
+        public Entry {
+            bank = bank.toBuilder().build();
+        }
+        
+        @Override
+        public Bank bank() {
+            return bank.toBuilder().build();
+        }
+    }
+    
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Set<String> revalidating = ConcurrentHashMap.newKeySet();
+    private final boolean enabled;
+    private final Duration ttl;
+    private final Duration staleWhileRevalidate;
+    private final Duration staleIfError;
+    private final int maxEntries;
+    private final Clock clock;
+    
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong lookups = new AtomicLong();
+    private final Counter freshHits;
+    private final Counter staleHits;
+    private final Counter staleIfErrorHits;
+    private final Counter misses;
+    private final DistributionSummary staleness;
+    
+    @Autowired
+    public SelfCallResponseCache(MeterRegistry meterRegistry,
+                                 @Value("${app.self-call.cache.enabled:true}") boolean enabled,
+                                 @Value("${app.self-call.cache.ttl:5s}") Duration ttl,
+                                 @Value("${app.self-call.cache.stale-while-revalidate:30s}") Duration staleWhileRevalidate,
+                                 @Value("${app.self-call.cache.stale-if-error:5m}") Duration staleIfError,
+                                 @Value("${app.self-call.cache.max-entries:10000}") int maxEntries) {
+        this(meterRegistry, enabled, ttl, staleWhileRevalidate, staleIfError, maxEntries, Clock.systemUTC());
+    }
+    
+    public SelfCallResponseCache(MeterRegistry meterRegistry, boolean enabled, Duration ttl,
+                                 Duration staleWhileRevalidate, Duration staleIfError, int maxEntries, Clock clock) {
+        this.enabled = enabled;
+        this.ttl = ttl;
+        this.staleWhileRevalidate = staleWhileRevalidate;
+        this.staleIfError = staleIfError;
+        this.maxEntries = maxEntries;
+        this.clock = clock;
+        
+        this.freshHits = lookupCounter(meterRegistry, "hit");
+        this.staleHits = lookupCounter(meterRegistry, "stale");
+        this.staleIfErrorHits = lookupCounter(meterRegistry, "stale-if-error");
+        this.misses = lookupCounter(meterRegistry, "miss");
+        this.staleness = DistributionSummary.builder("bank.selfcall.cache.staleness")
+                .description("Age beyond freshness of stale self-call responses served from cache")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+        Gauge.builder("bank.selfcall.cache.hit.ratio", this, SelfCallResponseCache::hitRatio)
+                .description("Share of self-call lookups answered from cache")
+                .register(meterRegistry);
+        Gauge.builder("bank.selfcall.cache.size", entries, Map::size)
+                .description("Number of cached self-call responses")
+                .register(meterRegistry);
+    }
+    
+    public boolean isEnabled() {
+        return enabled;
+    }
+    
+    public long now() {
+        return clock.millis();
+    }
+    
+    public Optional<Entry> get(String key) {
+        return Optional.ofNullable(entries.get(key));
+    }
+    
+    /**
+     * Stores a fresh response unless the target asked for it not to be stored
+     */
+    public void put(String key, Bank bank, String etag, String cacheControl) {
+        CacheDirectives directives = CacheDirectives.parse(cacheControl, ttl, staleWhileRevalidate, staleIfError);
+        if (directives.noStore()) {
+            entries.remove(key);
+            return;
+        }
+        long now = clock.millis();
+        long freshUntil = now + directives.maxAge().toMillis();
+        evictIfFull(key);
+        entries.put(key, new Entry(bank, etag, now, freshUntil,
+                freshUntil + directives.staleWhileRevalidate().toMillis(),
+                freshUntil + directives.staleIfError().toMillis()));
+    }
+    
+    /**
+     * Extends the freshness of an entry the target confirmed as not modified
+     */
+    public void revalidated(String key, Entry entry, String etag, String cacheControl) {
+        put(key, entry.bank(), etag != null ? etag : entry.etag(), cacheControl);
+    }
+    
+    public void remove(String key) {
+        entries.remove(key);
+    }
+    
+    /**
+     * Drops the entries of the banks however they were looked up, including under a SWIFT code a bank
+     * has since moved away from, in one pass over the cache per batch. Bulk writes drop every entry.
+     */
+    @Override
+    public void invalidate(Collection<BankInvalidation> invalidations) {
+        if (invalidations.stream().anyMatch(BankInvalidation::isAllBanks)) {
+            entries.clear();
+            return;
+        }
+        Set<Long> ids = new HashSet<>();
+        Set<String> swiftCodes = new HashSet<>();
+        for (BankInvalidation invalidation : invalidations) {
+            ids.add(invalidation.bankId());
+            if (invalidation.swiftCode() != null) {
+                swiftCodes.add(invalidation.swiftCode());
+            }
+        }
+        entries.values().removeIf(entry -> ids.contains(entry.bank().getId())
+                || swiftCodes.contains(entry.bank().getSwiftCode()));
+    }
+    
+    /**
+     * Claims the background revalidation of a key, so only one refresh per key runs at a time
+     */
+    public boolean tryBeginRevalidation(String key) {
+        return revalidating.add(key);
+    }
+    
+    public void endRevalidation(String key) {
+        revalidating.remove(key);
+    }
+    
+    public void recordFreshHit() {
+        lookups.incrementAndGet();
+        hits.incrementAndGet();
+        freshHits.increment();
+    }
+    
+    public void recordStaleHit(Entry entry, boolean becauseOfError) {
+        lookups.incrementAndGet();
+        hits.incrementAndGet();
+        (becauseOfError ? staleIfErrorHits : staleHits).increment();
+        staleness.record(Math.max(0, clock.millis() - entry.freshUntil()));
+    }
+    
+    public void recordMiss() {
+        lookups.incrementAndGet();
+        misses.increment();
+    }
+    
+    public double hitRatio() {
+        long total = lookups.get();
+        return total == 0 ? 0.0 : (double) hits.get() / total;
+    }
+    
+    private void evictIfFull(String incomingKey) {
+        if (entries.size() < maxEntries || entries.containsKey(incomingKey)) {
+            return;
+        }
+        // Evict expired entries first, then arbitrary ones, until there is room
+        long now = clock.millis();
+        entries.values().removeIf(entry -> entry.staleIfErrorUntil() < now);
+        Iterator<String> keys = entries.keySet().iterator();
+        while (entries.size() >= maxEntries && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+        }
+    }
+    
+    private static Counter lookupCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("bank.selfcall.cache.lookups")
+                .description("Self-call cache lookups by result")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
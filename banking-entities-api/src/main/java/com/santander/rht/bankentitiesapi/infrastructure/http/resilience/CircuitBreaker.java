@@ -0,0 +1,137 @@
+package com.santander.rht.bankentitiesapi.infrastructure.http.resilience;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Clock;
+import java.time.Duration;
+
+/**
+ * Count-based circuit breaker.
+ * Trips OPEN when the failure rate over the last {@code windowSize} calls reaches the threshold,
+ * fails fast while open, then lets a few trial calls through (HALF_OPEN) to decide whether to close again.
+ */
+@Slf4j
+public class CircuitBreaker {
+    
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+    
+    private final String name;
+    private final double failureRateThreshold;
+    private final int minimumCalls;
+    private final long openDurationMillis;
+    private final int halfOpenCalls;
+    private final Clock clock;
+    
+    private final boolean[] window;
+    private int windowPosition;
+    private int windowCalls;
+    private int windowFailures;
+    
+    private State state = State.CLOSED;
+    private long openedAt;
+    private int halfOpenPermitted;
+    private int halfOpenCompleted;
+    
+    public CircuitBreaker(String name, double failureRateThreshold, int minimumCalls, int windowSize,
+                          Duration openDuration, int halfOpenCalls, Clock clock) {
+        this.name = name;
+        this.failureRateThreshold = failureRateThreshold;
+        this.minimumCalls = Math.min(minimumCalls, windowSize);
+        this.window = new boolean[windowSize];
+        this.openDurationMillis = openDuration.toMillis();
+        this.halfOpenCalls = halfOpenCalls;
+        this.clock = clock;
+    }
+    
+    /**
+     * Returns whether a call may proceed. Every permitted call must be followed by
+     * {@link #onSuccess()} or {@link #onFailure()}.
+     */
+    public synchronized boolean tryAcquirePermission() {
+        if (state == State.OPEN) {
+            if (clock.millis() - openedAt < openDurationMillis) {
+                return false;
+            }
+            transitionTo(State.HALF_OPEN);
+        }
+        if (state == State.HALF_OPEN) {
+            if (halfOpenPermitted >= halfOpenCalls) {
+                return false;
+            }
+            halfOpenPermitted++;
+        }
+        return true;
+    }
+    
+    /**
+     * Gives back a permission whose call was abandoned (e.g. the losing side of a hedged request)
+     * without producing a result
+     */
+    public synchronized void releasePermission() {
+        if (state == State.HALF_OPEN && halfOpenPermitted > halfOpenCompleted) {
+            halfOpenPermitted--;
+        }
+    }
+    
+    public synchronized void onSuccess() {
+        record(false);
+    }
+    
+    public synchronized void onFailure() {
+        record(true);
+    }
+    
+    public synchronized State getState() {
+        return state;
+    }
+    
+    private void record(boolean failure) {
+        if (state == State.HALF_OPEN) {
+            if (failure) {
+                transitionTo(State.OPEN);
+            } else if (++halfOpenCompleted >= halfOpenCalls) {
+                transitionTo(State.CLOSED);
+            }
+            return;
+        }
+        if (state == State.OPEN) {
+            return; // late result of a call started before the breaker opened
+        }
+        
+        if (windowCalls == window.length) {
+            if (window[windowPosition]) {
+                windowFailures--;
+            }
+        } else {
+            windowCalls++;
+        }
+        window[windowPosition] = failure;
+        if (failure) {
+            windowFailures++;
+        }
+        windowPosition = (windowPosition + 1) % window.length;
+        
+        if (windowCalls >= minimumCalls && (double) windowFailures / windowCalls >= failureRateThreshold) {
+            transitionTo(State.OPEN);
+        }
+    }
+    
+    private void transitionTo(State newState) {
+        log.warn("Circuit breaker '{}' changed state from {} to {}", name, state, newState);
+        state = newState;
+        switch (newState) {
+            case OPEN -> openedAt = clock.millis();
+            case HALF_OPEN -> {
+                halfOpenPermitted = 0;
+                halfOpenCompleted = 0;
+            }
+            case CLOSED -> {
+                windowPosition = 0;
+                windowCalls = 0;
+                windowFailures = 0;
+            }
+        }
+    }
+}
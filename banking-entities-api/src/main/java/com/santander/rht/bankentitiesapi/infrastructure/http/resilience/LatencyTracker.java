@@ -0,0 +1,52 @@
+package com.santander.rht.bankentitiesapi.infrastructure.http.resilience;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * Keeps the most recent call latencies and estimates a percentile over them.
+ * The estimate is refreshed every {@code refreshEvery} samples to keep recording cheap.
+ */
+public class LatencyTracker {
+    
+    private final long[] samples;
+    private final double percentile;
+    private final int refreshEvery;
+    
+    private int position;
+    private int count;
+    private int sinceRefresh;
+    private volatile long estimateNanos = -1;
+    
+    public LatencyTracker(int sampleSize, double percentile, int refreshEvery) {
+        this.samples = new long[sampleSize];
+        this.percentile = percentile;
+        this.refreshEvery = refreshEvery;
+    }
+    
+    public void record(Duration latency) {
+        long[] snapshot = null;
+        synchronized (this) {
+            samples[position] = latency.toNanos();
+            position = (position + 1) % samples.length;
+            count = Math.min(count + 1, samples.length);
+            if (++sinceRefresh >= refreshEvery) {
+                sinceRefresh = 0;
+                snapshot = Arrays.copyOf(samples, count);
+            }
+        }
+        if (snapshot != null) {
+            Arrays.sort(snapshot);
+            estimateNanos = snapshot[(int) Math.min(snapshot.length - 1, Math.ceil(percentile * snapshot.length) - 1)];
+        }
+    }
+    
+    /**
+     * Current percentile estimate, empty until enough samples have been recorded
+     */
+    public Optional<Duration> estimate() {
+        long nanos = estimateNanos;
+        return nanos < 0 ? Optional.empty() : Optional.of(Duration.ofNanos(nanos));
+    }
+}
@@ -0,0 +1,55 @@
+package com.santander.rht.bankentitiesapi.infrastructure.http.resilience;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket limiting extra attempts (retries and hedges) to a fraction of the regular traffic.
+ * Every original request deposits {@code ratio} tokens and every extra attempt withdraws one,
+ * so a failing target cannot be hammered with a multiple of the normal load.
+ */
+public class RetryBudget {
+    
+    private static final long SCALE = 1_000;
+    
+    private final long depositPerRequest;
+    private final long maxBalance;
+    private final AtomicLong balance;
+    
+    /**
+     * @param ratio      extra attempts allowed per original request, e.g. 0.1 for 10%
+     * @param maxBalance maximum number of extra attempts that can be saved up for a burst
+     */
+    public RetryBudget(double ratio, int maxBalance) {
+        this.depositPerRequest = Math.round(ratio * SCALE);
+        this.maxBalance = maxBalance * SCALE;
+        this.balance = new AtomicLong(this.maxBalance);
+    }
+    
+    /**
+     * Records an original request, earning credit for future extra attempts
+     */
+    public void recordRequest() {
+        balance.getAndUpdate(current -> Math.min(maxBalance, current + depositPerRequest));
+    }
+    
+    /**
+     * Withdraws one extra attempt from the budget if there is enough credit
+     */
+    public boolean tryAcquire() {
+        long current;
+        do {
+            current = balance.get();
+            if (current < SCALE) {
+                return false;
+            }
+        } while (!balance.compareAndSet(current, current - SCALE));
+        return true;
+    }
+    
+    /**
+     * Number of extra attempts currently available
+     */
+    public double available() {
+        return (double) balance.get() / SCALE;
+    }
+}
@@ -0,0 +1,71 @@
+package com.santander.rht.bankentitiesapi.infrastructure.http.transport;
+
+import com.santander.rht.bankentitiesapi.domain.model.Bank;
+import com.santander.rht.bankentitiesapi.domain.model.RequestDeadline;
+import com.santander.rht.bankentitiesapi.infrastructure.web.filter.RequestDeadlineFilter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+/**
+ * Transport that performs real HTTP requests through the pooled self-call WebClient
+ */
+@Component
+@RequiredArgsConstructor
+public class HttpSelfCallTransport implements SelfCallTransport {
+    
+    private final WebClient selfCallWebClient;
+    
+    @Override
+    public String mode() {
+        return "http";
+    }
+    
+    @Override
+    public Mono<SelfCallResponse> getBankById(Long id, String ifNoneMatch) {
+        return get("/api/v1/banks/{id}", id, ifNoneMatch);
+    }
+    
+    @Override
+    public Mono<SelfCallResponse> getBankBySwiftCode(String swiftCode, String ifNoneMatch) {
+        return get("/api/v1/banks/swift/{swiftCode}", swiftCode, ifNoneMatch);
+    }
+    
+    /**
+     * Forwards the caller's deadline, when there is one in the subscriber context, so the target
+     * abandons the work as soon as this side stops waiting for it
+     */
+    private Mono<SelfCallResponse> get(String uriTemplate, Object uriVariable, String ifNoneMatch) {
+        return Mono.deferContextual(context -> selfCallWebClient
+                .get()
+                .uri(uriTemplate, uriVariable)
+                .headers(headers -> {
+                    if (ifNoneMatch != null) {
+                        headers.setIfNoneMatch(ifNoneMatch);
+                    }
+                    context.<RequestDeadline>getOrEmpty(RequestDeadline.class).ifPresent(deadline -> headers.set(
+                            RequestDeadlineFilter.DEADLINE_HEADER, String.valueOf(deadline.expiresAt().toEpochMilli())));
+                })
+                .exchangeToMono(this::toResponse));
+    }
+    
+    private Mono<SelfCallResponse> toResponse(ClientResponse response) {
+        HttpHeaders headers = response.headers().asHttpHeaders();
+        if (response.statusCode().isSameCodeAs(HttpStatus.NOT_FOUND)) {
+            return response.releaseBody().thenReturn(SelfCallResponse.notFound());
+        }
+        if (response.statusCode().isSameCodeAs(HttpStatus.NOT_MODIFIED)) {
+            return response.releaseBody().thenReturn(
+                    SelfCallResponse.notModified(headers.getETag(), headers.getCacheControl()));
+        }
+        if (response.statusCode().is2xxSuccessful()) {
+            return response.bodyToMono(Bank.class)
+                    .map(bank -> SelfCallResponse.ok(bank, headers.getETag(), headers.getCacheControl()));
+        }
+        return response.createError();
+    }
+}
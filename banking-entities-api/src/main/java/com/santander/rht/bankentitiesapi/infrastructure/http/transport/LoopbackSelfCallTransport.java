@@ -0,0 +1,59 @@
+package com.santander.rht.bankentitiesapi.infrastructure.http.transport;
+
+import com.santander.rht.bankentitiesapi.application.deadline.DeadlineContext;
+import com.santander.rht.bankentitiesapi.domain.model.RequestDeadline;
+import com.santander.rht.bankentitiesapi.infrastructure.web.controller.BankController;
+import com.santander.rht.bankentitiesapi.infrastructure.web.dto.BankResponse;
+import com.santander.rht.bankentitiesapi.infrastructure.web.mapper.BankWebMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Transport that dispatches self-calls straight to the BankController in-process,
+ * skipping JSON serialization and the TCP/Tomcat round trip.
+ * Calls run on a separate worker so they get their own transaction and honour the
+ * adapter timeout, just like a real HTTP request would. The caller's deadline, when there is
+ * one in the subscriber context, is installed on the worker for the duration of the call.
+ * Conditional requests are not needed in-process, so the full response is always returned.
+ */
+@Component
+@RequiredArgsConstructor
+public class LoopbackSelfCallTransport implements SelfCallTransport {
+    
+    // Looked up lazily: the controller depends on the service, which depends on this transport
+    private final ObjectProvider<BankController> bankController;
+    private final BankWebMapper bankWebMapper;
+    
+    @Override
+    public String mode() {
+        return "loopback";
+    }
+    
+    @Override
+    public Mono<SelfCallResponse> getBankById(Long id, String ifNoneMatch) {
+        return dispatch(() -> bankController.getObject().getBankById(id));
+    }
+    
+    @Override
+    public Mono<SelfCallResponse> getBankBySwiftCode(String swiftCode, String ifNoneMatch) {
+        return dispatch(() -> bankController.getObject().getBankBySwiftCode(swiftCode));
+    }
+    
+    private Mono<SelfCallResponse> dispatch(Callable<ResponseEntity<BankResponse>> call) {
+        return Mono.deferContextual(context -> Mono.fromCallable(() -> {
+                    RequestDeadline deadline = context.<RequestDeadline>getOrEmpty(RequestDeadline.class).orElse(null);
+                    return deadline != null ? DeadlineContext.callWithin(deadline, call) : call.call();
+                }))
+                .subscribeOn(Schedulers.boundedElastic())
+                .map(response -> response.getStatusCode().is2xxSuccessful() && response.getBody() != null
+                        ? SelfCallResponse.ok(bankWebMapper.toDomain(response.getBody()),
+                                response.getHeaders().getETag(), response.getHeaders().getCacheControl())
+                        : SelfCallResponse.notFound());
+    }
+}
@@ -0,0 +1,19 @@
+package com.santander.rht.bankentitiesapi.infrastructure.http.transport;
+
+/**
+ * How self-calls reach the bank endpoints
+ */
+public enum SelfCallMode {
+    /**
+     * Always go through HTTP
+     */
+    HTTP,
+    /**
+     * Always dispatch in-process to the controller
+     */
+    LOOPBACK,
+    /**
+     * Dispatch in-process when the base URL points at this instance, use HTTP otherwise
+     */
+    AUTO
+}
@@ -0,0 +1,57 @@
+package com.santander.rht.bankentitiesapi.infrastructure.http.transport;
+
+import com.santander.rht.bankentitiesapi.domain.model.Bank;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Answer of a self-call transport, with the caching headers sent by the target
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SelfCallResponse {
+    
+    /**
+     * Bank returned by the target, null when not found or not modified
+     */
+    private Bank bank;
+    
+    /**
+     * Whether the target answered 304 to a conditional request
+     */
+    private boolean notModified;
+    
+    /**
+     * ETag header sent by the target, if any
+     */
+    private String etag;
+    
+    /**
+     * Cache-Control header sent by the target, if any
+     */
+    private String cacheControl;
+    
+    public static SelfCallResponse ok(Bank bank, String etag, String cacheControl) {
+        return SelfCallResponse.builder()
+                .bank(bank)
+                .etag(etag)
+                .cacheControl(cacheControl)
+                .build();
+    }
+    
+    public static SelfCallResponse notModified(String etag, String cacheControl) {
+        return SelfCallResponse.builder()
+                .notModified(true)
+                .etag(etag)
+                .cacheControl(cacheControl)
+                .build();
+    }
+    
+    public static SelfCallResponse notFound() {
+        return SelfCallResponse.builder().build();
+    }
+}
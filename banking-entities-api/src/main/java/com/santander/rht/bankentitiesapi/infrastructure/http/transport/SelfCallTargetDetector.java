@@ -0,0 +1,68 @@
+package com.santander.rht.bankentitiesapi.infrastructure.http.transport;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.context.WebServerInitializedEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.net.NetworkInterface;
+import java.net.URI;
+
+/**
+ * Detects whether the configured self-call base URL points at this very instance,
+ * i.e. a local address on the port the embedded web server is listening on
+ */
+@Component
+@Slf4j
+public class SelfCallTargetDetector implements ApplicationListener<WebServerInitializedEvent> {
+    
+    private final URI baseUrl;
+    private volatile Boolean localTarget;
+    
+    public SelfCallTargetDetector(@Value("${app.base-url:http://localhost:8080}") String baseUrl) {
+        this.baseUrl = URI.create(baseUrl);
+    }
+    
+    @Override
+    public void onApplicationEvent(WebServerInitializedEvent event) {
+        if (event.getApplicationContext().getParent() != null) {
+            return; // ignore the management server child context
+        }
+        int localPort = event.getWebServer().getPort();
+        localTarget = targetPort() == localPort && isLocalHost(baseUrl.getHost());
+        log.info("Self-call target {} {} this instance (local port {})",
+                 baseUrl, localTarget ? "is" : "is not", localPort);
+    }
+    
+    /**
+     * True once the web server is up and the base URL resolves to it.
+     * Without an embedded web server the target can never be this instance.
+     */
+    public boolean isLocalTarget() {
+        return Boolean.TRUE.equals(localTarget);
+    }
+    
+    private int targetPort() {
+        if (baseUrl.getPort() != -1) {
+            return baseUrl.getPort();
+        }
+        return "https".equalsIgnoreCase(baseUrl.getScheme()) ? 443 : 80;
+    }
+    
+    private static boolean isLocalHost(String host) {
+        if (host == null) {
+            return false;
+        }
+        try {
+            InetAddress address = InetAddress.getByName(host);
+            return address.isLoopbackAddress()
+                    || address.isAnyLocalAddress()
+                    || NetworkInterface.getByInetAddress(address) != null;
+        } catch (Exception e) {
+            log.debug("Could not resolve self-call host {}: {}", host, e.getMessage());
+            return false;
+        }
+    }
+}
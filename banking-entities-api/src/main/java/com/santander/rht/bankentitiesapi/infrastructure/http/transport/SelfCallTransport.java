@@ -0,0 +1,30 @@
+package com.santander.rht.bankentitiesapi.infrastructure.http.transport;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Transport used by the HTTP client adapter to reach the bank endpoints.
+ * Implementations emit a response without a bank when the bank does not exist
+ * and signal an error on any other failure.
+ */
+public interface SelfCallTransport {
+    
+    /**
+     * Name of the transport, used as the mode tag on self-call metrics
+     */
+    String mode();
+    
+    /**
+     * Equivalent of GET /api/v1/banks/{id}
+     *
+     * @param ifNoneMatch ETag of a cached copy to revalidate, or null for an unconditional request
+     */
+    Mono<SelfCallResponse> getBankById(Long id, String ifNoneMatch);
+    
+    /**
+     * Equivalent of GET /api/v1/banks/swift/{swiftCode}
+     *
+     * @param ifNoneMatch ETag of a cached copy to revalidate, or null for an unconditional request
+     */
+    Mono<SelfCallResponse> getBankBySwiftCode(String swiftCode, String ifNoneMatch);
+}
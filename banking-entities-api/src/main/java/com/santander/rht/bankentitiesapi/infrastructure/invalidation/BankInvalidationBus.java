@@ -0,0 +1,166 @@
+package com.santander.rht.bankentitiesapi.infrastructure.invalidation;
+
+import com.santander.rht.bankentitiesapi.domain.model.BankInvalidation;
+import com.santander.rht.bankentitiesapi.domain.port.out.BankInvalidationPort;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * Keeps the node-local bank caches of instances sharing one database consistent with each other.
+ * <p>
+ * Once a write commits, the caches on this node are invalidated right away and the invalidation is queued
+ * for the transports, which a background sender hands it to in batches, so writes never wait on other nodes.
+ * The transports deliver what other nodes sent back to the same caches. No broker is needed: by default
+ * invalidations go through a table every node polls, optionally also through UDP multicast for delivery
+ * well within the poll interval.
+ */
+@Component
+@Slf4j
+public class BankInvalidationBus implements BankInvalidationPort {
+    
+    private final List<BankInvalidationListener> listeners;
+    private final List<BankInvalidationTransport> transports;
+    private final int batchSize;
+    private final String nodeId = UUID.randomUUID().toString();
+    private final BlockingQueue<BankInvalidation> outbox = new LinkedBlockingQueue<>();
+    private final Counter published;
+    private final Counter received;
+    private final Counter failed;
+    private volatile Thread sender;
+    
+    public BankInvalidationBus(List<BankInvalidationListener> listeners,
+                               List<BankInvalidationTransport> transports,
+                               MeterRegistry meterRegistry,
+                               @Value("${app.invalidation.batch-size:500}") int batchSize) {
+        this.listeners = listeners;
+        this.transports = transports;
+        this.batchSize = batchSize;
+        this.published = invalidationCounter(meterRegistry, "published");
+        this.received = invalidationCounter(meterRegistry, "received");
+        this.failed = invalidationCounter(meterRegistry, "failed");
+        Gauge.builder("bank.invalidations.pending", outbox, BlockingQueue::size)
+                .description("Invalidations committed on this node and not yet sent to the others")
+                .register(meterRegistry);
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        transports.forEach(transport -> transport.start(nodeId, this::receive));
+        sender = Thread.ofPlatform().name("bank-invalidation-sender").daemon().start(this::send);
+        log.info("Bank invalidation bus started on node {} with {} transport(s)", nodeId, transports.size());
+    }
+    
+    @PreDestroy
+    void stop() throws InterruptedException {
+        Thread thread = sender;
+        if (thread != null) {
+            thread.interrupt();
+            thread.join();
+        }
+        // Whatever was committed before shutdown still reaches the other nodes
+        List<BankInvalidation> remaining = new ArrayList<>();
+        outbox.drainTo(remaining);
+        if (!remaining.isEmpty()) {
+            send(remaining);
+        }
+        transports.forEach(BankInvalidationTransport::stop);
+    }
+    
+    public String nodeId() {
+        return nodeId;
+    }
+    
+    @Override
+    public void publish(BankInvalidation invalidation) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            committed(invalidation);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    committed(invalidation);
+                }
+            }
+        });
+    }
+    
+    private void committed(BankInvalidation invalidation) {
+        // Invalidated only after commit, so a concurrent read cannot cache the old state again
+        deliver(List.of(invalidation));
+        if (!transports.isEmpty()) {
+            outbox.add(invalidation);
+        }
+        published.increment();
+    }
+    
+    /**
+     * Delivers invalidations sent by other nodes to the caches of this one
+     */
+    private void receive(Collection<BankInvalidation> invalidations) {
+        received.increment(invalidations.size());
+        deliver(invalidations);
+    }
+    
+    private void deliver(Collection<BankInvalidation> invalidations) {
+        for (BankInvalidationListener listener : listeners) {
+            try {
+                listener.invalidate(invalidations);
+            } catch (RuntimeException e) {
+                log.warn("Bank cache {} failed to apply {} invalidation(s)", listener.getClass().getSimpleName(),
+                        invalidations.size(), e);
+            }
+        }
+    }
+    
+    private void send() {
+        List<BankInvalidation> batch = new ArrayList<>(batchSize);
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                batch.add(outbox.take());
+                outbox.drainTo(batch, batchSize - 1);
+                send(batch);
+                batch.clear();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    private void send(List<BankInvalidation> batch) {
+        for (BankInvalidationTransport transport : transports) {
+            try {
+                transport.send(batch);
+            } catch (RuntimeException e) {
+                // Other nodes serve these banks from cache until their entries expire
+                failed.increment(batch.size());
+                log.warn("Could not send {} bank invalidation(s) through {}", batch.size(),
+                        transport.getClass().getSimpleName(), e);
+            }
+        }
+    }
+    
+    private static Counter invalidationCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("bank.invalidations")
+                .description("Bank cache invalidations by result")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,17 @@
+package com.santander.rht.bankentitiesapi.infrastructure.invalidation;
+
+import com.santander.rht.bankentitiesapi.domain.model.BankInvalidation;
+
+import java.util.Collection;
+
+/**
+ * A node-local cache of banks, told by the {@link BankInvalidationBus} which banks were written on any node
+ */
+public interface BankInvalidationListener {
+    
+    /**
+     * Drops the cached copies of the banks. Called with writes from this node and from others, possibly
+     * more than once for the same write, so it must be idempotent.
+     */
+    void invalidate(Collection<BankInvalidation> invalidations);
+}
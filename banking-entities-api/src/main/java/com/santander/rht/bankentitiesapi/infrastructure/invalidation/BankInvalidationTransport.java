@@ -0,0 +1,26 @@
+package com.santander.rht.bankentitiesapi.infrastructure.invalidation;
+
+import com.santander.rht.bankentitiesapi.domain.model.BankInvalidation;
+
+import java.util.List;
+
+/**
+ * Carries invalidations between the instances of the service.
+ * Transports may deliver late or more than once; the table transport is the one that guarantees delivery.
+ */
+public interface BankInvalidationTransport {
+    
+    /**
+     * Starts delivering the invalidations sent by other nodes to the receiver
+     *
+     * @param nodeId ID of this node, to tell its own invalidations from those of others
+     */
+    void start(String nodeId, BankInvalidationListener receiver);
+    
+    /**
+     * Sends invalidations committed on this node to the others, from a single thread
+     */
+    void send(List<BankInvalidation> invalidations);
+    
+    void stop();
+}
@@ -0,0 +1,25 @@
+package com.santander.rht.bankentitiesapi.infrastructure.invalidation;
+
+import com.santander.rht.bankentitiesapi.application.cache.BankListCache;
+import com.santander.rht.bankentitiesapi.domain.model.BankInvalidation;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+
+/**
+ * Makes the cached bank lists stale on writes from other nodes, which the lists cannot be told apart by
+ */
+@Component
+@RequiredArgsConstructor
+public class BankListCacheInvalidationListener implements BankInvalidationListener {
+    
+    private final BankListCache bankListCache;
+    
+    @Override
+    public void invalidate(Collection<BankInvalidation> invalidations) {
+        if (!invalidations.isEmpty()) {
+            bankListCache.invalidateAll();
+        }
+    }
+}
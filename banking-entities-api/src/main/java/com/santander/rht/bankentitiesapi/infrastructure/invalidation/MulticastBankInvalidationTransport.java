@@ -0,0 +1,162 @@
+package com.santander.rht.bankentitiesapi.infrastructure.invalidation;
+
+import com.santander.rht.bankentitiesapi.domain.model.BankInvalidation;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.DatagramPacket;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.MulticastSocket;
+import java.net.NetworkInterface;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Sends invalidations to the other nodes as UDP multicast datagrams, typically delivered within a millisecond
+ * on the same network. Datagrams may be lost, so this transport only speeds up delivery: the table transport
+ * still guarantees it within its poll interval.
+ */
+@Component
+@ConditionalOnProperty(name = "app.invalidation.multicast.enabled", havingValue = "true")
+@Slf4j
+public class MulticastBankInvalidationTransport implements BankInvalidationTransport {
+    
+    private static final byte VERSION = 1;
+    
+    /**
+     * Keeps datagrams well under a typical 1500 byte MTU, so they are never fragmented
+     */
+    static final int MAX_PER_DATAGRAM = 40;
+    
+    private final InetAddress group;
+    private final int port;
+    private final String networkInterface;
+    private final int timeToLive;
+    
+    private volatile String nodeId;
+    private volatile MulticastSocket socket;
+    private volatile Thread receiver;
+    
+    public MulticastBankInvalidationTransport(@Value("${app.invalidation.multicast.group:239.255.42.99}") String group,
+                                              @Value("${app.invalidation.multicast.port:45678}") int port,
+                                              @Value("${app.invalidation.multicast.interface:}") String networkInterface,
+                                              @Value("${app.invalidation.multicast.ttl:1}") int timeToLive) throws UnknownHostException {
+        this.group = InetAddress.getByName(group);
+        this.port = port;
+        this.networkInterface = networkInterface;
+        this.timeToLive = timeToLive;
+    }
+    
+    @Override
+    public void start(String nodeId, BankInvalidationListener listener) {
+        this.nodeId = nodeId;
+        try {
+            NetworkInterface joinOn = networkInterface.isBlank() ? null : NetworkInterface.getByName(networkInterface);
+            MulticastSocket joined = new MulticastSocket(port);
+            if (joinOn != null) {
+                joined.setNetworkInterface(joinOn);
+            }
+            joined.setTimeToLive(timeToLive);
+            joined.joinGroup(new InetSocketAddress(group, port), joinOn);
+            socket = joined;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not join multicast group " + group + ":" + port, e);
+        }
+        receiver = Thread.ofPlatform().name("bank-invalidation-multicast").daemon().start(() -> receive(listener));
+    }
+    
+    @Override
+    public void send(List<BankInvalidation> invalidations) {
+        try {
+            for (int from = 0; from < invalidations.size(); from += MAX_PER_DATAGRAM) {
+                byte[] datagram = encode(nodeId,
+                        invalidations.subList(from, Math.min(from + MAX_PER_DATAGRAM, invalidations.size())));
+                socket.send(new DatagramPacket(datagram, datagram.length, group, port));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not send bank invalidations to " + group + ":" + port, e);
+        }
+    }
+    
+    @Override
+    public void stop() {
+        Thread thread = receiver;
+        if (thread != null) {
+            thread.interrupt();
+        }
+        MulticastSocket current = socket;
+        if (current != null) {
+            current.close();
+        }
+    }
+    
+    private void receive(BankInvalidationListener listener) {
+        byte[] buffer = new byte[2048];
+        while (!socket.isClosed()) {
+            DatagramPacket packet = new DatagramPacket(buffer, buffer.length);
+            try {
+                socket.receive(packet);
+                Datagram datagram = decode(packet.getData(), packet.getLength());
+                // Multicast loops back to the sender, which has already invalidated its own caches
+                if (datagram != null && !datagram.nodeId().equals(nodeId)) {
+                    listener.invalidate(datagram.invalidations());
+                }
+            } catch (IOException e) {
+                if (!socket.isClosed()) {
+                    log.warn("Could not receive bank invalidations: {}", e.getMessage());
+                }
+            }
+        }
+    }
+    
+    static byte[] encode(String nodeId, List<BankInvalidation> invalidations) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 + invalidations.size() * 24);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(VERSION);
+            out.writeUTF(nodeId);
+            out.writeShort(invalidations.size());
+            for (BankInvalidation invalidation : invalidations) {
+                out.writeLong(invalidation.bankId());
+                out.writeUTF(invalidation.swiftCode() != null ? invalidation.swiftCode() : "");
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+    
+    /**
+     * @return null for a datagram of another version, or not sent by this transport at all
+     */
+    static Datagram decode(byte[] data, int length) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(data, 0, length))) {
+            if (in.readByte() != VERSION) {
+                return null;
+            }
+            String nodeId = in.readUTF();
+            int count = in.readUnsignedShort();
+            List<BankInvalidation> invalidations = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                long bankId = in.readLong();
+                String swiftCode = in.readUTF();
+                invalidations.add(new BankInvalidation(bankId, swiftCode.isEmpty() ? null : swiftCode));
+            }
+            return new Datagram(nodeId, invalidations);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+    
+    record Datagram(String nodeId, List<BankInvalidation> invalidations) {
+    }
+}
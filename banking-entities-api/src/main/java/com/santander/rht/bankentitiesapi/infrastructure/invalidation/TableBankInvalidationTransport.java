@@ -0,0 +1,170 @@
+package com.santander.rht.bankentitiesapi.infrastructure.invalidation;
+
+import com.santander.rht.bankentitiesapi.domain.model.BankInvalidation;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Sends invalidations through the {@code bank_invalidations} table of the shared database, which every node
+ * polls for rows added since its last poll.
+ * <p>
+ * Row IDs are handed out at insert but become visible at commit, so a poll may see a row before one with a
+ * lower ID. Skipped IDs are looked up again on every poll until they show up or the gap timeout passes, when
+ * they are taken for rolled back inserts. Rows older than the retention are deleted by whichever node gets
+ * there first. Plain JDBC keeps the polling out of the persistence context and its statistics.
+ */
+@Component
+@ConditionalOnProperty(name = "app.invalidation.table.enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class TableBankInvalidationTransport implements BankInvalidationTransport {
+    
+    private static final String SELECT = "SELECT id, bank_id, swift_code, node_id FROM bank_invalidations";
+    private static final String INSERT =
+            "INSERT INTO bank_invalidations (bank_id, swift_code, node_id, created_at) VALUES (?, ?, ?, ?)";
+    private static final RowMapper<Row> ROW_MAPPER = (rs, rowNum) -> new Row(rs.getLong("id"),
+            new BankInvalidation(rs.getLong("bank_id"), rs.getString("swift_code")), rs.getString("node_id"));
+    
+    /**
+     * Most skipped IDs tracked at once; larger jumps, like identity caches lost on a database restart, are not gaps
+     */
+    private static final int MAX_SKIPPED = 1000;
+    private static final Duration CLEANUP_INTERVAL = Duration.ofMinutes(1);
+    
+    private final JdbcTemplate jdbcTemplate;
+    private final Duration pollInterval;
+    private final Duration gapTimeout;
+    private final Duration retention;
+    private final int batchSize;
+    
+    // Poll state, only touched by the poller thread
+    private final Map<Long, Long> skipped = new HashMap<>();
+    private long highestRead = -1;
+    private long lastCleanup;
+    
+    private volatile String nodeId;
+    private volatile Thread poller;
+    
+    public TableBankInvalidationTransport(JdbcTemplate jdbcTemplate,
+                                          @Value("${app.invalidation.poll-interval:1s}") Duration pollInterval,
+                                          @Value("${app.invalidation.gap-timeout:10s}") Duration gapTimeout,
+                                          @Value("${app.invalidation.retention:1h}") Duration retention,
+                                          @Value("${app.invalidation.batch-size:500}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.pollInterval = pollInterval;
+        this.gapTimeout = gapTimeout;
+        this.retention = retention;
+        this.batchSize = batchSize;
+    }
+    
+    @Override
+    public void start(String nodeId, BankInvalidationListener receiver) {
+        this.nodeId = nodeId;
+        this.lastCleanup = System.nanoTime();
+        poller = Thread.ofPlatform().name("bank-invalidation-poller").daemon().start(() -> follow(receiver));
+    }
+    
+    @Override
+    public void send(List<BankInvalidation> invalidations) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(INSERT, invalidations, invalidations.size(), (statement, invalidation) -> {
+            statement.setLong(1, invalidation.bankId());
+            statement.setString(2, invalidation.swiftCode());
+            statement.setString(3, nodeId);
+            statement.setTimestamp(4, now);
+        });
+    }
+    
+    @Override
+    public void stop() {
+        Thread thread = poller;
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+    
+    private void follow(BankInvalidationListener receiver) {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                List<BankInvalidation> received = poll();
+                if (!received.isEmpty()) {
+                    receiver.invalidate(received);
+                }
+                cleanUpIfDue();
+            } catch (DataAccessException e) {
+                log.warn("Could not poll bank invalidations: {}", e.getMessage());
+            }
+            try {
+                Thread.sleep(pollInterval);
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+    
+    /**
+     * Reads the rows added by other nodes since the last poll, and those skipped by earlier polls
+     */
+    List<BankInvalidation> poll() {
+        if (highestRead < 0) {
+            // Caches start empty, so there is nothing from before this node started to catch up on
+            highestRead = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM bank_invalidations", Long.class);
+            return List.of();
+        }
+        long now = System.nanoTime();
+        List<Row> rows = new ArrayList<>();
+        if (!skipped.isEmpty()) {
+            String ids = String.join(",", Collections.nCopies(skipped.size(), "?"));
+            List<Row> late = jdbcTemplate.query(SELECT + " WHERE id IN (" + ids + ")", ROW_MAPPER, skipped.keySet().toArray());
+            late.forEach(row -> skipped.remove(row.id()));
+            skipped.values().removeIf(since -> now - since > gapTimeout.toNanos());
+            rows.addAll(late);
+        }
+        List<Row> page;
+        do {
+            page = jdbcTemplate.query(SELECT + " WHERE id > ? ORDER BY id FETCH FIRST ? ROWS ONLY", ROW_MAPPER,
+                    highestRead, batchSize);
+            for (Row row : page) {
+                if (row.id() - highestRead - 1 <= MAX_SKIPPED - skipped.size()) {
+                    for (long id = highestRead + 1; id < row.id(); id++) {
+                        skipped.put(id, now);
+                    }
+                }
+                highestRead = row.id();
+            }
+            rows.addAll(page);
+        } while (page.size() == batchSize);
+        return rows.stream()
+                .filter(row -> !row.nodeId().equals(nodeId))
+                .map(Row::invalidation)
+                .toList();
+    }
+    
+    private void cleanUpIfDue() {
+        if (System.nanoTime() - lastCleanup < CLEANUP_INTERVAL.toNanos()) {
+            return;
+        }
+        lastCleanup = System.nanoTime();
+        int deleted = jdbcTemplate.update("DELETE FROM bank_invalidations WHERE created_at < ?",
+                Timestamp.valueOf(LocalDateTime.now().minus(retention)));
+        if (deleted > 0) {
+            log.debug("Deleted {} bank invalidation(s) older than {}", deleted, retention);
+        }
+    }
+    
+    private record Row(long id, BankInvalidation invalidation, String nodeId) {
+    }
+}
@@ -0,0 +1,285 @@
+package com.santander.rht.bankentitiesapi.infrastructure.persistence.adapter;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.Ordered;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.TransientDataAccessResourceException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.function.LongFunction;
+import java.util.function.LongSupplier;
+
+/**
+ * Hands out change sequence numbers from the {@code bank_change_seq} sequence of a database, shared by
+ * every instance writing to it, and tells up to which number every change has committed.
+ * <p>
+ * Numbers are drawn without holding any lock, and are never handed out twice, whether their write
+ * commits or not; so writes run in parallel, on any instance, and may commit out of order. Each instance
+ * keeps track of the numbers of its writes in flight, from drawing them until their transaction
+ * completes, and every heartbeat publishes the lowest of them to {@code bank_change_watermark}, or, when
+ * it has none, one past a number it draws for the purpose. Readers see the changes below the lowest
+ * number in flight on any instance, so a change that commits late is never skipped. An instance sees its
+ * own changes as soon as they commit, those of other instances within a heartbeat.
+ * <p>
+ * An instance that has not published for the timeout is taken for dead, and no longer holds readers back.
+ * So that it cannot commit below what readers have moved past, an instance rolls back writes that would
+ * commit more than half the timeout after its last heartbeat; this relies on clocks agreeing to well
+ * within the other half.
+ */
+@Slf4j
+public final class BankChangeSequence implements AutoCloseable {
+    
+    private static final String CREATE = "CREATE SEQUENCE IF NOT EXISTS bank_change_seq";
+    private static final String DRAW = "SELECT NEXT VALUE FOR bank_change_seq FROM SYSTEM_RANGE(1, ?)";
+    private static final String UPDATE_WATERMARK =
+            "UPDATE bank_change_watermark SET in_flight_from = ?, beat_at = ? WHERE instance_id = ?";
+    private static final String INSERT_WATERMARK =
+            "INSERT INTO bank_change_watermark (instance_id, in_flight_from, beat_at) VALUES (?, ?, ?)";
+    private static final String DELETE_WATERMARK = "DELETE FROM bank_change_watermark WHERE instance_id = ?";
+    private static final String DELETE_EXPIRED = "DELETE FROM bank_change_watermark WHERE beat_at < ?";
+    private static final String OTHERS_IN_FLIGHT_FROM =
+            "SELECT MIN(in_flight_from) FROM bank_change_watermark WHERE instance_id <> ? AND beat_at >= ?";
+    private static final int CATCH_UP_CHUNK = 10_000;
+    
+    private final String instanceId = UUID.randomUUID().toString();
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate publishTransactionTemplate;
+    private final LongSupplier highestInUse;
+    private final Duration heartbeatInterval;
+    private final Duration timeout;
+    private final Object publishLock = new Object();
+    
+    /**
+     * Numbers of this instance's writes in flight, each with the number of writes holding it, guarded by this
+     */
+    private final TreeMap<Long, Integer> inFlight = new TreeMap<>();
+    private long highestDrawn;
+    
+    private volatile long publishedAt;
+    private volatile boolean seeded;
+    private volatile boolean closed;
+    private volatile Thread heartbeat;
+    
+    /**
+     * @param dataSource         database holding the sequence and the watermarks
+     * @param transactionManager manager of transactions on that database, in which watermarks are published
+     * @param highestInUse       highest number found in the data, which the sequence is moved past on first use
+     * @param heartbeatInterval  how often this instance publishes its watermark
+     * @param timeout            how long after its last heartbeat an instance is taken for dead
+     */
+    public BankChangeSequence(DataSource dataSource, PlatformTransactionManager transactionManager,
+                              LongSupplier highestInUse, Duration heartbeatInterval, Duration timeout) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.publishTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.publishTransactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.highestInUse = highestInUse;
+        this.heartbeatInterval = heartbeatInterval;
+        this.timeout = timeout;
+    }
+    
+    /**
+     * Runs a write with one sequence number, which stays in flight until the surrounding transaction
+     * completes, or until the write returns when there is none
+     */
+    public <T> T withNumber(LongFunction<T> write) {
+        return withNumbers(1, numbers -> write.apply(numbers[0]));
+    }
+    
+    /**
+     * Runs a write with {@code count} ascending sequence numbers, which stay in flight until the
+     * surrounding transaction completes, or until the write returns when there is none
+     */
+    public <T> T withNumbers(int count, Function<long[], T> write) {
+        seed();
+        if (isLate()) {
+            publish();
+        }
+        long reserved = reserve();
+        long[] numbers;
+        try {
+            numbers = draw(count);
+        } catch (RuntimeException e) {
+            release(reserved);
+            throw e;
+        }
+        drawn(reserved, numbers[0], numbers[numbers.length - 1]);
+        boolean completesWithTransaction = TransactionSynchronizationManager.isSynchronizationActive();
+        if (completesWithTransaction) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                /**
+                 * Checked before anything the write depends on commits
+                 */
+                @Override
+                public int getOrder() {
+                    return Ordered.HIGHEST_PRECEDENCE;
+                }
+                
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    if (isLate()) {
+                        throw new TransientDataAccessResourceException("Last change sequence heartbeat of this "
+                                + "instance is too old for readers to wait for write " + numbers[0]);
+                    }
+                }
+                
+                @Override
+                public void afterCompletion(int status) {
+                    release(numbers[0]);
+                }
+            });
+        }
+        try {
+            return write.apply(numbers);
+        } finally {
+            if (!completesWithTransaction) {
+                release(numbers[0]);
+            }
+        }
+    }
+    
+    /**
+     * Highest sequence number up to which every change has committed, or never will
+     */
+    public long visibleThrough() {
+        seed();
+        long local = localInFlightFrom();
+        Long others = jdbcTemplate.queryForObject(OTHERS_IN_FLIGHT_FROM, Long.class,
+                instanceId, System.currentTimeMillis() - timeout.toMillis());
+        return Math.min(local, others != null ? others : Long.MAX_VALUE) - 1;
+    }
+    
+    /**
+     * Stops the heartbeat, and withdraws the watermark so other instances need not wait for it to expire
+     */
+    @Override
+    public void close() {
+        closed = true;
+        Thread thread = heartbeat;
+        if (thread != null) {
+            thread.interrupt();
+        }
+        if (seeded) {
+            try {
+                jdbcTemplate.update(DELETE_WATERMARK, instanceId);
+            } catch (DataAccessException e) {
+                log.warn("Could not withdraw the change sequence watermark of this instance: {}", e.getMessage());
+            }
+        }
+    }
+    
+    /**
+     * Creates the sequence when missing and moves it past the numbers handed out before it existed, and
+     * publishes this instance's watermark before its first write draws a number, then keeps publishing it
+     */
+    private void seed() {
+        if (seeded) {
+            return;
+        }
+        synchronized (publishLock) {
+            if (seeded) {
+                return;
+            }
+            jdbcTemplate.execute(CREATE);
+            long highest = highestInUse.getAsLong();
+            long drawn = draw(1)[0];
+            // Only ever moves the sequence forward, whichever instance gets there first
+            while (drawn <= highest) {
+                long[] skipped = draw((int) Math.min(highest - drawn, CATCH_UP_CHUNK));
+                drawn = skipped[skipped.length - 1];
+            }
+            synchronized (this) {
+                highestDrawn = Math.max(highestDrawn, drawn);
+            }
+            publish();
+            heartbeat = Thread.ofPlatform().name("bank-change-heartbeat").daemon().start(this::beat);
+            seeded = true;
+        }
+    }
+    
+    private void beat() {
+        while (!closed) {
+            try {
+                Thread.sleep(heartbeatInterval);
+            } catch (InterruptedException e) {
+                return;
+            }
+            try {
+                publish();
+            } catch (DataAccessException e) {
+                log.warn("Could not publish the change sequence watermark of this instance: {}", e.getMessage());
+            }
+        }
+    }
+    
+    /**
+     * Publishes the lowest number this instance may still commit. A number drawn for the purpose moves it
+     * forward while nothing is in flight, as no number drawn after it can be lower.
+     */
+    private void publish() {
+        synchronized (publishLock) {
+            long startedAt = System.currentTimeMillis();
+            long drawn = draw(1)[0];
+            long from;
+            synchronized (this) {
+                highestDrawn = Math.max(highestDrawn, drawn);
+                from = localInFlightFrom();
+            }
+            publishTransactionTemplate.executeWithoutResult(status -> {
+                if (jdbcTemplate.update(UPDATE_WATERMARK, from, startedAt, instanceId) == 0) {
+                    jdbcTemplate.update(INSERT_WATERMARK, instanceId, from, startedAt);
+                }
+                jdbcTemplate.update(DELETE_EXPIRED, startedAt - 2 * timeout.toMillis());
+            });
+            publishedAt = startedAt;
+        }
+    }
+    
+    /**
+     * Whether a commit now could come after readers stopped waiting for this instance
+     */
+    private boolean isLate() {
+        return System.currentTimeMillis() - publishedAt > timeout.toMillis() / 2;
+    }
+    
+    private long[] draw(int count) {
+        List<Long> drawn = jdbcTemplate.queryForList(DRAW, Long.class, count);
+        return drawn.stream().mapToLong(Long::longValue).sorted().toArray();
+    }
+    
+    /**
+     * Holds back the watermark while numbers are being drawn, at a number none of them can be below
+     */
+    private synchronized long reserve() {
+        long reserved = highestDrawn + 1;
+        inFlight.merge(reserved, 1, Integer::sum);
+        return reserved;
+    }
+    
+    /**
+     * Replaces a reservation by the lowest of the numbers drawn for it
+     */
+    private synchronized void drawn(long reserved, long lowest, long highest) {
+        inFlight.merge(lowest, 1, Integer::sum);
+        highestDrawn = Math.max(highestDrawn, highest);
+        release(reserved);
+    }
+    
+    private synchronized void release(long number) {
+        inFlight.computeIfPresent(number, (key, holders) -> holders > 1 ? holders - 1 : null);
+    }
+    
+    private synchronized long localInFlightFrom() {
+        return inFlight.isEmpty() ? highestDrawn + 1 : inFlight.firstKey();
+    }
+}
@@ -0,0 +1,272 @@
+package com.santander.rht.bankentitiesapi.infrastructure.persistence.adapter;
+
+import com.santander.rht.bankentitiesapi.domain.exception.DuplicateBankException;
+import com.santander.rht.bankentitiesapi.domain.model.Bank;
+import com.santander.rht.bankentitiesapi.domain.model.BankChange;
+import com.santander.rht.bankentitiesapi.domain.model.BankField;
+import com.santander.rht.bankentitiesapi.domain.model.BankPatch;
+import com.santander.rht.bankentitiesapi.domain.port.out.BankRepositoryPort;
+import com.santander.rht.bankentitiesapi.infrastructure.persistence.entity.BankEntity;
+import com.santander.rht.bankentitiesapi.infrastructure.persistence.mapper.BankEntityMapper;
+import com.santander.rht.bankentitiesapi.infrastructure.persistence.repository.JpaBankRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Adapter that implements the BankRepositoryPort using JPA.
+ * Every write stamps the rows it changes with a number from the {@link BankChangeSequence}, drawn from a
+ * database sequence shared by every instance; the feed reads up to the lowest number still in flight.
+ */
+@Component
+@ConditionalOnProperty(name = "app.repository.type", havingValue = "jpa", matchIfMissing = true)
+@Slf4j
+public class BankRepositoryAdapter implements BankRepositoryPort {
+    
+    private final JpaBankRepository jpaBankRepository;
+    private final BankEntityMapper bankEntityMapper;
+    private final BankChangeSequence changeSequence;
+    
+    public BankRepositoryAdapter(JpaBankRepository jpaBankRepository, BankEntityMapper bankEntityMapper,
+                                 DataSource dataSource, PlatformTransactionManager transactionManager,
+                                 @Value("${app.change-feed.heartbeat-interval:200ms}") Duration heartbeatInterval,
+                                 @Value("${app.change-feed.instance-timeout:10s}") Duration instanceTimeout) {
+        this.jpaBankRepository = jpaBankRepository;
+        this.bankEntityMapper = bankEntityMapper;
+        this.changeSequence = new BankChangeSequence(dataSource, transactionManager, this::highestChangeSeqInUse,
+                heartbeatInterval, instanceTimeout);
+    }
+    
+    @PreDestroy
+    public void close() {
+        changeSequence.close();
+    }
+    
+    @Override
+    public Bank save(Bank bank) {
+        log.debug("Saving bank with SWIFT code: {}", bank.getSwiftCode());
+        BankEntity entity = bankEntityMapper.toEntity(bank);
+        BankEntity savedEntity;
+        try {
+            // Flush so a unique constraint violation surfaces here rather than at commit
+            savedEntity = changeSequence.withNumber(changeSeq -> {
+                entity.setChangeSeq(changeSeq);
+                return jpaBankRepository.saveAndFlush(entity);
+            });
+        } catch (DataIntegrityViolationException e) {
+            if (isSwiftCodeViolation(e)) {
+                throw DuplicateBankException.bySwiftCode(bank.getSwiftCode());
+            }
+            throw e;
+        }
+        Bank savedBank = bankEntityMapper.toDomain(savedEntity);
+        log.debug("Bank saved with ID: {}", savedBank.getId());
+        return savedBank;
+    }
+    
+    @Override
+    public int update(Bank bank, Long expectedVersion) {
+        log.debug("Updating bank {} at version {}", bank.getId(), expectedVersion);
+        try {
+            BankEntity entity = bankEntityMapper.toEntity(bank);
+            return evictIfWritten(bank.getId(), changeSequence.withNumber(changeSeq -> {
+                entity.setChangeSeq(changeSeq);
+                return jpaBankRepository.updateIfVersionMatches(entity, expectedVersion);
+            }));
+        } catch (DataIntegrityViolationException e) {
+            if (isSwiftCodeViolation(e)) {
+                throw DuplicateBankException.bySwiftCode(bank.getSwiftCode());
+            }
+            throw e;
+        }
+    }
+    
+    @Override
+    public int patch(Long id, BankPatch patch, Long expectedVersion) {
+        log.debug("Patching {} of bank {} at version {}", patch.getChanges().keySet(), id, expectedVersion);
+        try {
+            return changeSequence.withNumber(changeSeq ->
+                    jpaBankRepository.patch(id, patch.getChanges(), expectedVersion, changeSeq, LocalDateTime.now()));
+        } catch (DataIntegrityViolationException e) {
+            if (isSwiftCodeViolation(e)) {
+                throw DuplicateBankException.bySwiftCode((String) patch.get(BankField.SWIFT_CODE));
+            }
+            throw e;
+        }
+    }
+    
+    @Override
+    public int[] upsertBySwiftCode(List<Bank> banks) {
+        log.debug("Upserting {} banks by SWIFT code", banks.size());
+        List<BankEntity> entities = banks.stream().map(bankEntityMapper::toEntity).toList();
+        return changeSequence.withNumbers(entities.size(), changeSeqs -> {
+            for (int i = 0; i < entities.size(); i++) {
+                entities.get(i).setChangeSeq(changeSeqs[i]);
+            }
+            return jpaBankRepository.upsertBySwiftCode(entities, LocalDateTime.now());
+        });
+    }
+    
+    @Override
+    public int delete(Long id, Long expectedVersion) {
+        log.debug("Deleting bank {} at version {}", id, expectedVersion);
+        return evictIfWritten(id, changeSequence.withNumber(changeSeq ->
+                jpaBankRepository.deleteIfVersionMatches(id, expectedVersion, changeSeq, LocalDateTime.now())));
+    }
+    
+    @Override
+    public boolean existsById(Long id) {
+        log.debug("Checking if bank exists by ID: {}", id);
+        return jpaBankRepository.existsById(id);
+    }
+    
+    @Override
+    public Optional<Bank> findById(Long id) {
+        log.debug("Finding bank by ID: {}", id);
+        return jpaBankRepository.findById(id)
+                .map(bankEntityMapper::toDomain);
+    }
+    
+    @Override
+    public Optional<Bank> findBySwiftCode(String swiftCode) {
+        log.debug("Finding bank by SWIFT code: {}", swiftCode);
+        return jpaBankRepository.findBySwiftCode(swiftCode)
+                .map(bankEntityMapper::toDomain);
+    }
+    
+    @Override
+    public List<Bank> findAll() {
+        log.debug("Finding all banks");
+        return jpaBankRepository.findAll()
+                .stream()
+                .map(bankEntityMapper::toDomain)
+                .toList();
+    }
+    
+    @Override
+    public List<Bank> findByCountry(String country) {
+        log.debug("Finding banks by country: {}", country);
+        return jpaBankRepository.findByCountry(country)
+                .stream()
+                .map(bankEntityMapper::toDomain)
+                .toList();
+    }
+    
+    @Override
+    public List<Bank> findByCountryCode(String countryCode) {
+        log.debug("Finding banks by country code: {}", countryCode);
+        return jpaBankRepository.findByCountryCode(countryCode)
+                .stream()
+                .map(bankEntityMapper::toDomain)
+                .toList();
+    }
+    
+    @Override
+    public List<Bank> findByNameContainingIgnoreCase(String name) {
+        log.debug("Finding banks by name containing: {}", name);
+        return jpaBankRepository.findByNameContainingIgnoreCase(name)
+                .stream()
+                .map(bankEntityMapper::toDomain)
+                .toList();
+    }
+    
+    @Override
+    public List<Bank> findByActiveTrue() {
+        log.debug("Finding active banks");
+        return jpaBankRepository.findByActiveTrue()
+                .stream()
+                .map(bankEntityMapper::toDomain)
+                .toList();
+    }
+    
+    @Override
+    public boolean existsBySwiftCode(String swiftCode) {
+        log.debug("Checking if bank exists by SWIFT code: {}", swiftCode);
+        return jpaBankRepository.existsBySwiftCode(swiftCode);
+    }
+    
+    @Override
+    public void deleteById(Long id) {
+        log.debug("Deleting bank by ID: {}", id);
+        delete(id, null);
+        log.debug("Bank deleted with ID: {}", id);
+    }
+    
+    @Override
+    public long count() {
+        log.debug("Counting total banks");
+        return jpaBankRepository.count();
+    }
+    
+    @Override
+    public List<BankChange> findChangesSince(long since, int limit) {
+        log.debug("Finding up to {} changes since {}", limit, since);
+        return jpaBankRepository.findChangesSince(since, changeSequence.visibleThrough(), limit)
+                .stream()
+                .map(this::toChange)
+                .toList();
+    }
+    
+    @Override
+    public int purgeTombstones(LocalDateTime deletedBefore) {
+        log.debug("Purging tombstones of banks deleted before {}", deletedBefore);
+        return jpaBankRepository.purgeTombstones(deletedBefore);
+    }
+    
+    @Override
+    public long latestChangeSeq() {
+        return changeSequence.visibleThrough();
+    }
+    
+    @Override
+    public long purgedThrough() {
+        return jpaBankRepository.purgedThrough();
+    }
+    
+    private BankChange toChange(BankEntity entity) {
+        if (entity.getDeletedAt() != null) {
+            return BankChange.deleted(entity.getChangeSeq(), entity.getId(), entity.getDeletedSwiftCode(),
+                    entity.getDeletedAt());
+        }
+        return BankChange.upserted(bankEntityMapper.toDomain(entity));
+    }
+    
+    /**
+     * Evicts the bank a bulk update wrote, so the rest of the transaction reads the new row
+     */
+    private int evictIfWritten(Long id, int updated) {
+        if (updated > 0) {
+            jpaBankRepository.evictCached(id);
+        }
+        return updated;
+    }
+    
+    private static boolean isSwiftCodeViolation(DataIntegrityViolationException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation
+                    && violation.getConstraintName() != null
+                    && violation.getConstraintName().toLowerCase().contains(BankEntity.SWIFT_CODE_CONSTRAINT)) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * Seeds the sequence past every number handed out so far, including those of purged tombstones
+     */
+    private long highestChangeSeqInUse() {
+        return Math.max(jpaBankRepository.findMaxChangeSeq(), jpaBankRepository.purgedThrough());
+    }
+}
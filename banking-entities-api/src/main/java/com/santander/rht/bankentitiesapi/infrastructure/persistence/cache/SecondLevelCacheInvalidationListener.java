@@ -0,0 +1,47 @@
+package com.santander.rht.bankentitiesapi.infrastructure.persistence.cache;
+
+import com.santander.rht.bankentitiesapi.domain.model.BankInvalidation;
+import com.santander.rht.bankentitiesapi.infrastructure.invalidation.BankInvalidationListener;
+import com.santander.rht.bankentitiesapi.infrastructure.persistence.entity.BankEntity;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+
+/**
+ * Evicts banks written on other nodes from Hibernate's second-level cache. Writes made here through
+ * Hibernate have already been evicted by it, evicting them again is harmless.
+ * <p>
+ * Banks are evicted by ID, or all at once after a bulk write. Natural-ID resolutions and query results cannot be told apart by bank, so
+ * their regions are cleared whole.
+ */
+@Component
+@ConditionalOnProperty(name = "app.second-level-cache.enabled", havingValue = "true", matchIfMissing = true)
+public class SecondLevelCacheInvalidationListener implements BankInvalidationListener {
+    
+    private final Cache cache;
+    
+    public SecondLevelCacheInvalidationListener(EntityManagerFactory entityManagerFactory) {
+        this.cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+    }
+    
+    @Override
+    public void invalidate(Collection<BankInvalidation> invalidations) {
+        if (invalidations.isEmpty()) {
+            return;
+        }
+        if (invalidations.stream().anyMatch(BankInvalidation::isAllBanks)) {
+            cache.evictEntityData(BankEntity.class);
+        } else {
+            for (BankInvalidation invalidation : invalidations) {
+                cache.evictEntityData(BankEntity.class, invalidation.bankId());
+            }
+        }
+        cache.evictNaturalIdData(BankEntity.class);
+        cache.evictQueryRegion(BankEntity.COUNTRY_CODE_QUERY_REGION);
+        cache.evictQueryRegion(BankEntity.ACTIVE_QUERY_REGION);
+    }
+}
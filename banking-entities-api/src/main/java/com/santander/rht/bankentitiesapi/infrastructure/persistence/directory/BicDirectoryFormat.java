@@ -0,0 +1,161 @@
+package com.santander.rht.bankentitiesapi.infrastructure.persistence.directory;
+
+import com.santander.rht.bankentitiesapi.domain.model.Bank;
+import com.santander.rht.bankentitiesapi.domain.model.BankField;
+import com.santander.rht.bankentitiesapi.domain.model.BankType;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * Layout of a BIC directory file: delimited with a header line naming the columns, or fixed-width
+ * with the columns given by configuration. Column names are {@link BankField} properties, matched
+ * ignoring case and underscores; unknown columns are skipped.
+ */
+public final class BicDirectoryFormat {
+    
+    private final Character delimiter;
+    private final List<Column> columns;
+    
+    private BicDirectoryFormat(Character delimiter, List<Column> columns) {
+        this.delimiter = delimiter;
+        this.columns = columns;
+    }
+    
+    /**
+     * Delimited format whose columns are read from the header line, see {@link #withHeader(String)}
+     */
+    public static BicDirectoryFormat csv(char delimiter) {
+        return new BicDirectoryFormat(delimiter, null);
+    }
+    
+    /**
+     * Fixed-width format without a header line
+     *
+     * @param layout comma-separated {@code column:width} pairs in file order, e.g. {@code swiftCode:11,name:70}
+     */
+    public static BicDirectoryFormat fixedWidth(String layout) {
+        List<Column> columns = new ArrayList<>();
+        for (String entry : layout.split(",")) {
+            String[] parts = entry.trim().split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Fixed-width column must be name:width, got '" + entry + "'");
+            }
+            columns.add(new Column(field(parts[0]).orElse(null), Integer.parseInt(parts[1].trim())));
+        }
+        requireSwiftCode(columns);
+        return new BicDirectoryFormat(null, List.copyOf(columns));
+    }
+    
+    /**
+     * Whether the first line names the columns and must be passed to {@link #withHeader(String)}
+     */
+    public boolean hasHeader() {
+        return columns == null;
+    }
+    
+    public BicDirectoryFormat withHeader(String headerLine) {
+        List<Column> header = split(headerLine).stream()
+                .map(name -> new Column(field(name).orElse(null), 0))
+                .toList();
+        requireSwiftCode(header);
+        return new BicDirectoryFormat(delimiter, header);
+    }
+    
+    /**
+     * Parses one line into a bank without ID or timestamps
+     *
+     * @throws IllegalArgumentException if a value cannot be converted
+     */
+    public Bank parse(String line) {
+        Bank bank = new Bank();
+        bank.setActive(true);
+        if (delimiter != null) {
+            List<String> values = split(line);
+            for (int i = 0; i < columns.size() && i < values.size(); i++) {
+                set(bank, columns.get(i).field(), values.get(i));
+            }
+        } else {
+            int start = 0;
+            for (Column column : columns) {
+                int end = Math.min(line.length(), start + column.width());
+                set(bank, column.field(), start < end ? line.substring(start, end) : "");
+                start = end;
+            }
+        }
+        return bank;
+    }
+    
+    /**
+     * Splits a delimited line, honouring double-quoted values with doubled quotes as escapes
+     */
+    private List<String> split(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder value = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    value.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    value.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == delimiter) {
+                values.add(value.toString());
+                value.setLength(0);
+            } else {
+                value.append(c);
+            }
+        }
+        values.add(value.toString());
+        return values;
+    }
+    
+    private static void set(Bank bank, BankField field, String raw) {
+        if (field == null) {
+            return;
+        }
+        String value = raw.strip();
+        if (value.isEmpty()) {
+            return;
+        }
+        switch (field) {
+            case SWIFT_CODE -> bank.setSwiftCode(value.toUpperCase(Locale.ROOT));
+            case NAME -> bank.setName(value);
+            case ADDRESS -> bank.setAddress(value);
+            case CITY -> bank.setCity(value);
+            case COUNTRY -> bank.setCountry(value);
+            case COUNTRY_CODE -> bank.setCountryCode(value.toUpperCase(Locale.ROOT));
+            case PHONE_NUMBER -> bank.setPhoneNumber(value);
+            case EMAIL -> bank.setEmail(value);
+            case WEBSITE -> bank.setWebsite(value);
+            case BANK_TYPE -> bank.setBankType(BankType.valueOf(value.toUpperCase(Locale.ROOT)));
+            case ACTIVE -> bank.setActive(value.equalsIgnoreCase("true") || value.equalsIgnoreCase("Y") || value.equals("1"));
+        }
+    }
+    
+    private static Optional<BankField> field(String name) {
+        String normalized = name.strip().replace("_", "");
+        return Arrays.stream(BankField.values())
+                .filter(field -> field.getProperty().equalsIgnoreCase(normalized))
+                .findFirst();
+    }
+    
+    private static void requireSwiftCode(List<Column> columns) {
+        if (columns.stream().noneMatch(column -> column.field() == BankField.SWIFT_CODE)) {
+            throw new IllegalArgumentException("BIC directory layout has no swiftCode column");
+        }
+    }
+    
+    private record Column(BankField field, int width) {
+    }
+}
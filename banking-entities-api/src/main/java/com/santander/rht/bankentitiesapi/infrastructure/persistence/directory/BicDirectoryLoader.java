@@ -0,0 +1,214 @@
+package com.santander.rht.bankentitiesapi.infrastructure.persistence.directory;
+
+import com.santander.rht.bankentitiesapi.application.change.BankChangeNotifier;
+import com.santander.rht.bankentitiesapi.domain.model.BankInvalidation;
+import com.santander.rht.bankentitiesapi.domain.port.out.BankInvalidationPort;
+import com.santander.rht.bankentitiesapi.domain.port.out.BankRepositoryPort;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Loads a BIC directory file into the repository in the background once the application is ready,
+ * so startup is not held up by large directories.
+ * <p>
+ * The file is parsed in parallel by a {@link BicDirectoryReader} and written in batches, one
+ * transaction each, through {@link BankRepositoryPort#upsertBySwiftCode}: new banks are inserted,
+ * changed ones updated with their version bumped, and unchanged ones left alone, so reloading the
+ * same file is harmless. Each batch that changed anything invalidates the bank caches of every node and
+ * wakes the change feed followers. Progress and throughput are logged periodically.
+ */
+@Component
+@Slf4j
+public class BicDirectoryLoader {
+    
+    private final BankRepositoryPort bankRepositoryPort;
+    private final TransactionTemplate transactionTemplate;
+    private final BankInvalidationPort bankInvalidationPort;
+    private final BankChangeNotifier bankChangeNotifier;
+    private final ResourceLoader resourceLoader;
+    private final String location;
+    private final BicDirectoryFormat format;
+    private final int batchSize;
+    private final int parallelism;
+    private final Duration progressInterval;
+    private final Counter loadedRows;
+    private final Counter rejectedRows;
+    private final Counter failedRows;
+    private final Timer loadTimer;
+    private final CompletableFuture<LoadResult> completion = new CompletableFuture<>();
+    
+    public BicDirectoryLoader(BankRepositoryPort bankRepositoryPort,
+                              PlatformTransactionManager transactionManager,
+                              BankInvalidationPort bankInvalidationPort,
+                              BankChangeNotifier bankChangeNotifier,
+                              ResourceLoader resourceLoader,
+                              MeterRegistry meterRegistry,
+                              @Value("${app.directory.file:}") String location,
+                              @Value("${app.directory.format:csv}") String format,
+                              @Value("${app.directory.csv-delimiter:,}") char csvDelimiter,
+                              @Value("${app.directory.fixed-width-layout:swiftCode:11,name:105,city:35,countryCode:2}") String fixedWidthLayout,
+                              @Value("${app.directory.batch-size:1000}") int batchSize,
+                              @Value("${app.directory.parallelism:0}") int parallelism,
+                              @Value("${app.directory.progress-interval:5s}") Duration progressInterval) {
+        this.bankRepositoryPort = bankRepositoryPort;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.bankInvalidationPort = bankInvalidationPort;
+        this.bankChangeNotifier = bankChangeNotifier;
+        this.resourceLoader = resourceLoader;
+        this.location = location;
+        this.format = switch (format) {
+            case "csv" -> BicDirectoryFormat.csv(csvDelimiter);
+            case "fixed-width" -> BicDirectoryFormat.fixedWidth(fixedWidthLayout);
+            default -> throw new IllegalArgumentException("Unknown BIC directory format: " + format);
+        };
+        this.batchSize = batchSize;
+        this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        this.progressInterval = progressInterval;
+        this.loadedRows = Counter.builder("bank.directory.load.rows")
+                .description("BIC directory rows processed by the loader")
+                .tag("outcome", "loaded")
+                .register(meterRegistry);
+        this.rejectedRows = Counter.builder("bank.directory.load.rows")
+                .description("BIC directory rows processed by the loader")
+                .tag("outcome", "rejected")
+                .register(meterRegistry);
+        this.failedRows = Counter.builder("bank.directory.load.rows")
+                .description("BIC directory rows processed by the loader")
+                .tag("outcome", "failed")
+                .register(meterRegistry);
+        this.loadTimer = Timer.builder("bank.directory.load")
+                .description("Time to load the BIC directory file")
+                .register(meterRegistry);
+    }
+    
+    /**
+     * Outcome of a directory load
+     *
+     * @param rows     lines parsed into banks
+     * @param rejected lines skipped as unparseable or invalid
+     * @param failed   banks whose batch could not be written
+     */
+    public record LoadResult(long rows, long rejected, long failed, Duration elapsed) {
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void startLoading() {
+        if (location.isBlank()) {
+            completion.complete(new LoadResult(0, 0, 0, Duration.ZERO));
+            return;
+        }
+        Thread.ofPlatform().name("bic-directory-loader").daemon().start(() -> {
+            try {
+                completion.complete(load());
+            } catch (Exception e) {
+                log.error("Loading BIC directory {} failed", location, e);
+                completion.completeExceptionally(e);
+            }
+        });
+    }
+    
+    /**
+     * Completes when the background load triggered at startup has finished
+     */
+    public CompletableFuture<LoadResult> completion() {
+        return completion;
+    }
+    
+    /**
+     * Loads the configured file on the calling thread
+     */
+    public LoadResult load() throws IOException {
+        Resource resource = resourceLoader.getResource(location);
+        Path temporary = null;
+        Path file;
+        if (resource.isFile()) {
+            file = resource.getFile().toPath();
+        } else {
+            // Memory mapping needs a real file, so copy resources packaged in the jar out first
+            temporary = Files.createTempFile("bic-directory", ".tmp");
+            try (InputStream in = resource.getInputStream()) {
+                Files.copy(in, temporary, StandardCopyOption.REPLACE_EXISTING);
+            }
+            file = temporary;
+        }
+        try {
+            return load(file);
+        } finally {
+            if (temporary != null) {
+                Files.deleteIfExists(temporary);
+            }
+        }
+    }
+    
+    private LoadResult load(Path file) throws IOException {
+        long totalBytes = Files.size(file);
+        log.info("Loading BIC directory {} ({} bytes, {} workers)", location, totalBytes, parallelism);
+        
+        long start = System.nanoTime();
+        AtomicLong bytesDone = new AtomicLong();
+        AtomicLong written = new AtomicLong();
+        AtomicLong failed = new AtomicLong();
+        AtomicLong nextReport = new AtomicLong(start + progressInterval.toNanos());
+        
+        BicDirectoryReader.Result parsed = new BicDirectoryReader(format, batchSize, parallelism).read(file, (batch, bytes) -> {
+            if (!batch.isEmpty()) {
+                try {
+                    int[] counts = transactionTemplate.execute(status -> bankRepositoryPort.upsertBySwiftCode(batch));
+                    if (Arrays.stream(counts).anyMatch(count -> count > 0)) {
+                        // Batches do not tell which banks changed, so every cache of banks is dropped, on every node
+                        bankChangeNotifier.written();
+                        bankInvalidationPort.publish(BankInvalidation.allBanks());
+                    }
+                    written.addAndGet(batch.size());
+                    loadedRows.increment(batch.size());
+                } catch (DataAccessException e) {
+                    log.warn("Failed to write {} BIC directory rows starting at {}: {}",
+                            batch.size(), batch.get(0).getSwiftCode(), e.getMessage());
+                    failed.addAndGet(batch.size());
+                    failedRows.increment(batch.size());
+                }
+            }
+            long done = bytesDone.addAndGet(bytes);
+            long now = System.nanoTime();
+            long report = nextReport.get();
+            if (now >= report && nextReport.compareAndSet(report, now + progressInterval.toNanos())) {
+                log.info("BIC directory load {}% done: {} rows written, {} rows/s",
+                        totalBytes > 0 ? done * 100 / totalBytes : 100, written.get(), rate(written.get(), now - start));
+            }
+        });
+        
+        long elapsed = System.nanoTime() - start;
+        loadTimer.record(elapsed, TimeUnit.NANOSECONDS);
+        rejectedRows.increment(parsed.rejected());
+        log.info("Loaded BIC directory {}: {} rows written, {} rejected, {} failed in {} ms ({} rows/s)",
+                location, written.get(), parsed.rejected(), failed.get(),
+                TimeUnit.NANOSECONDS.toMillis(elapsed), rate(written.get(), elapsed));
+        return new LoadResult(parsed.rows(), parsed.rejected(), failed.get(), Duration.ofNanos(elapsed));
+    }
+    
+    private static long rate(long rows, long nanos) {
+        return nanos > 0 ? rows * 1_000_000_000L / nanos : rows;
+    }
+}
@@ -0,0 +1,222 @@
+package com.santander.rht.bankentitiesapi.infrastructure.persistence.directory;
+
+import com.santander.rht.bankentitiesapi.domain.model.Bank;
+import com.santander.rht.bankentitiesapi.domain.model.SwiftCodeValidator;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Parses a BIC directory file in parallel: the file is split into newline-aligned chunks, each
+ * memory-mapped and parsed by its own worker into batches of banks handed to a {@link BatchHandler}.
+ * <p>
+ * Lines that do not parse, or that lack a valid SWIFT code or a name, are counted as rejected
+ * and skipped. The handler is called concurrently from the worker threads.
+ */
+@Slf4j
+public final class BicDirectoryReader {
+    
+    private static final int MIN_CHUNK_BYTES = 1 << 20;
+    private static final int MAX_LOGGED_REJECTIONS = 10;
+    private static final byte[] UTF8_BOM = {(byte) 0xEF, (byte) 0xBB, (byte) 0xBF};
+    
+    private final BicDirectoryFormat format;
+    private final int batchSize;
+    private final int parallelism;
+    
+    public BicDirectoryReader(BicDirectoryFormat format, int batchSize, int parallelism) {
+        this.format = format;
+        this.batchSize = batchSize;
+        this.parallelism = parallelism;
+    }
+    
+    /**
+     * Receives the banks parsed from a run of lines
+     */
+    @FunctionalInterface
+    public interface BatchHandler {
+        
+        /**
+         * @param bytes size of the lines the batch was parsed from, including rejected ones
+         */
+        void handle(List<Bank> batch, long bytes);
+    }
+    
+    public record Result(long rows, long rejected) {
+    }
+    
+    public Result read(Path file, BatchHandler handler) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long start = skipBom(channel);
+            BicDirectoryFormat fileFormat = format;
+            if (format.hasHeader()) {
+                long headerEnd = nextLineStart(channel, start, size);
+                fileFormat = format.withHeader(decode(channel, start, headerEnd));
+                start = headerEnd;
+            }
+            
+            List<long[]> chunks = chunks(channel, start, size);
+            AtomicLong rows = new AtomicLong();
+            AtomicLong rejected = new AtomicLong();
+            ExecutorService workers = Executors.newFixedThreadPool(Math.min(parallelism, Math.max(1, chunks.size())),
+                    Thread.ofPlatform().name("bic-directory-", 0).daemon().factory());
+            try {
+                List<Future<?>> parsed = new ArrayList<>(chunks.size());
+                for (long[] chunk : chunks) {
+                    BicDirectoryFormat chunkFormat = fileFormat;
+                    parsed.add(workers.submit(() -> {
+                        readChunk(channel, chunk[0], chunk[1], chunkFormat, handler, rows, rejected);
+                        return null;
+                    }));
+                }
+                for (Future<?> chunk : parsed) {
+                    chunk.get();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while reading " + file, e);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof IOException io) {
+                    throw io;
+                }
+                if (e.getCause() instanceof RuntimeException runtime) {
+                    throw runtime;
+                }
+                throw new IOException("Cannot read " + file, e.getCause());
+            } finally {
+                workers.shutdownNow();
+            }
+            return new Result(rows.get(), rejected.get());
+        }
+    }
+    
+    /**
+     * Splits [start, size) into ranges that each begin at a line start
+     */
+    private List<long[]> chunks(FileChannel channel, long start, long size) throws IOException {
+        long chunkBytes = Math.max(MIN_CHUNK_BYTES, (size - start) / (parallelism * 4L) + 1);
+        List<long[]> chunks = new ArrayList<>();
+        long chunkStart = start;
+        while (chunkStart < size) {
+            long chunkEnd = chunkStart + chunkBytes >= size ? size : nextLineStart(channel, chunkStart + chunkBytes, size);
+            chunks.add(new long[]{chunkStart, chunkEnd});
+            chunkStart = chunkEnd;
+        }
+        return chunks;
+    }
+    
+    private void readChunk(FileChannel channel, long start, long end, BicDirectoryFormat chunkFormat,
+                           BatchHandler handler, AtomicLong rows, AtomicLong rejected) throws IOException {
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+        byte[] line = new byte[256];
+        List<Bank> batch = new ArrayList<>(batchSize);
+        int batchStart = 0;
+        int lineStart = 0;
+        int limit = buffer.limit();
+        for (int position = 0; position <= limit; position++) {
+            if (position < limit && buffer.get(position) != '\n') {
+                continue;
+            }
+            int length = position - lineStart;
+            if (length > 0 && buffer.get(lineStart + length - 1) == '\r') {
+                length--;
+            }
+            if (length > 0) {
+                if (line.length < length) {
+                    line = new byte[Math.max(length, line.length * 2)];
+                }
+                buffer.get(lineStart, line, 0, length);
+                Bank bank = parse(chunkFormat, new String(line, 0, length, StandardCharsets.UTF_8), rejected);
+                if (bank != null) {
+                    batch.add(bank);
+                    rows.incrementAndGet();
+                }
+            }
+            lineStart = position + 1;
+            if (batch.size() == batchSize) {
+                handler.handle(batch, Math.min(lineStart, limit) - batchStart);
+                batch = new ArrayList<>(batchSize);
+                batchStart = Math.min(lineStart, limit);
+            }
+        }
+        if (!batch.isEmpty() || batchStart < limit) {
+            handler.handle(batch, limit - batchStart);
+        }
+    }
+    
+    private static Bank parse(BicDirectoryFormat chunkFormat, String line, AtomicLong rejected) {
+        Bank bank;
+        try {
+            bank = chunkFormat.parse(line);
+        } catch (IllegalArgumentException e) {
+            reject(line, e.getMessage(), rejected);
+            return null;
+        }
+        String swiftCode = SwiftCodeValidator.normalize(bank.getSwiftCode());
+        if (swiftCode == null || bank.getName() == null) {
+            reject(line, "missing or invalid SWIFT code or name", rejected);
+            return null;
+        }
+        // Layouts with a country code column must agree with the country segment of the SWIFT code
+        if (bank.getCountryCode() != null && !SwiftCodeValidator.hasCountry(swiftCode, bank.getCountryCode())) {
+            reject(line, "SWIFT code of another country than " + bank.getCountryCode(), rejected);
+            return null;
+        }
+        bank.setSwiftCode(swiftCode);
+        return bank;
+    }
+    
+    private static void reject(String line, String reason, AtomicLong rejected) {
+        if (rejected.incrementAndGet() <= MAX_LOGGED_REJECTIONS) {
+            log.warn("Skipping BIC directory line ({}): {}", reason, line);
+        }
+    }
+    
+    private static long skipBom(FileChannel channel) throws IOException {
+        if (channel.size() < UTF8_BOM.length) {
+            return 0;
+        }
+        MappedByteBuffer head = channel.map(FileChannel.MapMode.READ_ONLY, 0, UTF8_BOM.length);
+        for (byte b : UTF8_BOM) {
+            if (head.get() != b) {
+                return 0;
+            }
+        }
+        return UTF8_BOM.length;
+    }
+    
+    /**
+     * Position just after the first newline at or after {@code from}, or {@code size} if there is none
+     */
+    private static long nextLineStart(FileChannel channel, long from, long size) throws IOException {
+        long window = 1 << 16;
+        for (long position = from; position < size; position += window) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(window, size - position));
+            for (int i = 0; i < buffer.limit(); i++) {
+                if (buffer.get(i) == '\n') {
+                    return position + i + 1;
+                }
+            }
+        }
+        return size;
+    }
+    
+    private static String decode(FileChannel channel, long start, long end) throws IOException {
+        byte[] bytes = new byte[(int) (end - start)];
+        channel.map(FileChannel.MapMode.READ_ONLY, start, end - start).get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8).strip();
+    }
+}
@@ -0,0 +1,31 @@
+package com.santander.rht.bankentitiesapi.infrastructure.persistence.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Single-row table holding the state of the change feed that the banks table alone cannot tell
+ */
+@Entity
+@Table(name = "bank_change_feed")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BankChangeFeedEntity {
+    
+    public static final long ID = 1L;
+    
+    @Id
+    private Long id;
+    
+    /**
+     * Highest change sequence number whose tombstone may have been compacted away
+     */
+    @Column(name = "purged_through", nullable = false)
+    private long purgedThrough;
+}
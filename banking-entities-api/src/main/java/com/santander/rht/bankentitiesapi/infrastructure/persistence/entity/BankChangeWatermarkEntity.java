@@ -0,0 +1,37 @@
+package com.santander.rht.bankentitiesapi.infrastructure.persistence.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One row per instance writing banks, holding the lowest change sequence number it may still commit.
+ * Written and read with plain JDBC by the change sequence; the entity only declares the table.
+ */
+@Entity
+@Table(name = "bank_change_watermark")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BankChangeWatermarkEntity {
+    
+    @Id
+    @Column(name = "instance_id", length = 36)
+    private String instanceId;
+    
+    /**
+     * Lowest number of the instance's writes in flight, or the one after the last it drew when it has none
+     */
+    @Column(name = "in_flight_from", nullable = false)
+    private long inFlightFrom;
+    
+    /**
+     * Epoch milliseconds of the instance's last heartbeat
+     */
+    @Column(name = "beat_at", nullable = false)
+    private long beatAt;
+}
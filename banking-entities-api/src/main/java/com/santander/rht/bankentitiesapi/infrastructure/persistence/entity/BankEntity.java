@@ -0,0 +1,117 @@
+package com.santander.rht.bankentitiesapi.infrastructure.persistence.entity;
+
+import com.santander.rht.bankentitiesapi.domain.model.BankType;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
+import org.hibernate.annotations.SQLRestriction;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * JPA Entity for Bank table.
+ * Deleted banks stay behind as tombstones for the change feed until compacted; entity queries never see them.
+ * Banks are kept in the second-level cache, and looked up by SWIFT code through the natural-ID cache.
+ */
+@Entity
+@Table(name = "banks",
+       uniqueConstraints = @UniqueConstraint(name = BankEntity.SWIFT_CODE_CONSTRAINT, columnNames = "swift_code"),
+       indexes = @Index(name = "idx_banks_change_seq", columnList = "change_seq"))
+@SQLRestriction("deleted_at IS NULL")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = BankEntity.CACHE_REGION)
+@NaturalIdCache(region = BankEntity.NATURAL_ID_CACHE_REGION)
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BankEntity {
+    
+    /**
+     * Name of the unique constraint on swift_code, used to recognise duplicate inserts
+     */
+    public static final String SWIFT_CODE_CONSTRAINT = "uk_banks_swift_code";
+    
+    public static final String CACHE_REGION = "bank";
+    public static final String NATURAL_ID_CACHE_REGION = "bank-by-swift-code";
+    public static final String COUNTRY_CODE_QUERY_REGION = "bank-queries-by-country-code";
+    public static final String ACTIVE_QUERY_REGION = "bank-queries-active";
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    /**
+     * Null on tombstones, so a deleted bank's SWIFT code can be taken by a new bank straight away
+     */
+    @NaturalId(mutable = true)
+    @Column(name = "swift_code", length = 11)
+    private String swiftCode;
+    
+    @Column(name = "name", nullable = false, length = 255)
+    private String name;
+    
+    @Column(name = "address", length = 500)
+    private String address;
+    
+    @Column(name = "city", length = 100)
+    private String city;
+    
+    @Column(name = "country", length = 100)
+    private String country;
+    
+    @Column(name = "country_code", length = 2)
+    private String countryCode;
+    
+    @Column(name = "phone_number", length = 20)
+    private String phoneNumber;
+    
+    @Column(name = "email", length = 100)
+    private String email;
+    
+    @Column(name = "website", length = 255)
+    private String website;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(name = "bank_type")
+    private BankType bankType;
+    
+    @Column(name = "active")
+    @Builder.Default
+    private Boolean active = true;
+    
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+    
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+    
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+    
+    @Column(name = "change_seq", nullable = false)
+    private Long changeSeq;
+    
+    /**
+     * Set when the bank is deleted, turning the row into a tombstone
+     */
+    @Column(name = "deleted_at")
+    private LocalDateTime deletedAt;
+    
+    /**
+     * SWIFT code the bank had when it was deleted
+     */
+    @Column(name = "deleted_swift_code", length = 11)
+    private String deletedSwiftCode;
+}
\ No newline at end of file
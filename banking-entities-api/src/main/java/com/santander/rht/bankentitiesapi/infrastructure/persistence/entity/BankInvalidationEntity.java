@@ -0,0 +1,46 @@
+package com.santander.rht.bankentitiesapi.infrastructure.persistence.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Recent bank invalidations, polled by every instance to invalidate its caches after writes made on others.
+ * Rows are written and read with plain JDBC by the table transport; the entity only declares the table.
+ */
+@Entity
+@Table(name = "bank_invalidations",
+       indexes = @Index(name = "idx_bank_invalidations_created_at", columnList = "created_at"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BankInvalidationEntity {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "bank_id", nullable = false)
+    private long bankId;
+    
+    @Column(name = "swift_code", length = 11)
+    private String swiftCode;
+    
+    /**
+     * Instance that made the write, which skips its own rows
+     */
+    @Column(name = "node_id", nullable = false, length = 36)
+    private String nodeId;
+    
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,32 @@
+package com.santander.rht.bankentitiesapi.infrastructure.persistence.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Single-row table the primary stamps with the current time, so a replica's lag can be read from how old
+ * its copy of the row is. Written and read with plain JDBC by the replica routing; the entity only declares the table.
+ */
+@Entity
+@Table(name = "replication_heartbeat")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReplicationHeartbeatEntity {
+    
+    public static final long ID = 1L;
+    
+    @Id
+    private Long id;
+    
+    /**
+     * Epoch milliseconds of the primary's last heartbeat
+     */
+    @Column(name = "beat_at", nullable = false)
+    private long beatAt;
+}
@@ -0,0 +1,310 @@
+package com.santander.rht.bankentitiesapi.infrastructure.persistence.journal;
+
+import com.santander.rht.bankentitiesapi.domain.model.Bank;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only journal of the bank mutations made since the last {@link BankSnapshot}.
+ * <p>
+ * Each record is framed as {@code [int length][int crc32][payload]}, the payload being the bank's full
+ * state or its tombstone, with the change sequence number of the write. Records carry whole states, so
+ * replaying a record that is already reflected in the snapshot is harmless. On recovery the journal is
+ * replayed up to the first torn or corrupt record, where it is truncated.
+ * <p>
+ * Appends must be serialized by the caller. {@link #sync} may be called concurrently: callers that
+ * arrive while a force is in progress are covered by the next one, so one force serves many writes.
+ */
+@Slf4j
+class BankJournal implements Closeable {
+    
+    static final String JOURNAL_FILE = "banks.journal";
+    
+    private static final byte PUT = 3;
+    private static final byte TOMBSTONE = 4;
+    private static final int FRAME_HEADER_BYTES = 8;
+    private static final int MAX_PAYLOAD_BYTES = 1 << 20;
+    
+    /**
+     * Receives the state rebuilt during recovery
+     */
+    @FunctionalInterface
+    interface Visitor {
+        
+        /**
+         * A bank's new state, or a {@link BankTombstone}
+         */
+        void put(Bank bank);
+    }
+    
+    private final boolean fsync;
+    private final FileChannel channel;
+    private final Object forceLock = new Object();
+    
+    private final Timer forceTimer;
+    private final DistributionSummary recordsPerForce;
+    private final Counter compactions;
+    
+    // Logical positions, counted in bytes appended since open, so they survive compaction
+    private volatile long appended;
+    private volatile long appendedRecords;
+    private long forced;
+    private long forcedRecords;
+    private volatile long journalBytes;
+    
+    private BankJournal(Path directory, boolean fsync, MeterRegistry meterRegistry, long journalBytes) throws IOException {
+        this.fsync = fsync;
+        this.journalBytes = journalBytes;
+        this.channel = FileChannel.open(directory.resolve(JOURNAL_FILE), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        this.channel.position(journalBytes);
+        
+        this.forceTimer = Timer.builder("bank.journal.force")
+                .description("Time spent forcing the bank journal to disk")
+                .register(meterRegistry);
+        this.recordsPerForce = DistributionSummary.builder("bank.journal.force.records")
+                .description("Journal records made durable by a single force")
+                .register(meterRegistry);
+        this.compactions = Counter.builder("bank.journal.compactions")
+                .description("Journal compactions into a snapshot")
+                .register(meterRegistry);
+        Gauge.builder("bank.journal.size", this, journal -> journal.journalBytes)
+                .description("Bytes in the journal since the last snapshot")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+    
+    /**
+     * Opens the journal in the given directory, replaying its records into the visitor
+     *
+     * @return the journal, positioned after its last intact record
+     */
+    static BankJournal open(Path directory, boolean fsync, MeterRegistry meterRegistry, Visitor visitor) throws IOException {
+        Files.createDirectories(directory);
+        Replay replay = replayJournal(directory.resolve(JOURNAL_FILE), visitor);
+        if (replay.torn()) {
+            log.warn("Bank journal ends with a torn or corrupt record, truncating it from {} to {} bytes",
+                    replay.fileBytes(), replay.validBytes());
+            try (FileChannel truncate = FileChannel.open(directory.resolve(JOURNAL_FILE), StandardOpenOption.WRITE)) {
+                truncate.truncate(replay.validBytes());
+                truncate.force(true);
+            }
+        }
+        log.info("Replayed {} bank journal records", replay.records());
+        return new BankJournal(directory, fsync, meterRegistry, replay.validBytes());
+    }
+    
+    /**
+     * Appends a bank's new state, or its tombstone, with its change sequence number
+     */
+    long appendPut(Bank bank) throws IOException {
+        return append(payload(bank));
+    }
+    
+    /**
+     * Blocks until everything appended up to the given position is on disk
+     */
+    void sync(long position) throws IOException {
+        if (!fsync) {
+            return;
+        }
+        synchronized (forceLock) {
+            if (forced >= position) {
+                return;
+            }
+            long target = appended;
+            long targetRecords = appendedRecords;
+            long start = System.nanoTime();
+            channel.force(false);
+            forceTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            recordsPerForce.record(targetRecords - forcedRecords);
+            forced = target;
+            forcedRecords = targetRecords;
+        }
+    }
+    
+    long size() {
+        return journalBytes;
+    }
+    
+    /**
+     * Position after the last record appended, to sync up to
+     */
+    long position() {
+        return appended;
+    }
+    
+    /**
+     * Empties the journal once everything in it has been captured by a new snapshot, which the given
+     * action writes. Must be called with appends held off.
+     */
+    void compact(SnapshotWriter writeSnapshot) throws IOException {
+        synchronized (forceLock) {
+            writeSnapshot.write();
+            
+            // A crash before this point leaves the old journal next to the new snapshot, which replays harmlessly
+            channel.truncate(0);
+            channel.position(0);
+            channel.force(true);
+            journalBytes = 0;
+            forced = appended;
+            forcedRecords = appendedRecords;
+            compactions.increment();
+        }
+    }
+    
+    @Override
+    public void close() throws IOException {
+        if (fsync) {
+            channel.force(true);
+        }
+        channel.close();
+    }
+    
+    private long append(byte[] payload) throws IOException {
+        ByteBuffer frame = ByteBuffer.allocate(FRAME_HEADER_BYTES + payload.length);
+        frame.putInt(payload.length).putInt(crc(payload)).put(payload).flip();
+        while (frame.hasRemaining()) {
+            channel.write(frame);
+        }
+        journalBytes += frame.capacity();
+        appendedRecords++;
+        appended += frame.capacity();
+        return appended;
+    }
+    
+    /**
+     * Writes a bank's state, or its tombstone, framed as in the journal, to send it elsewhere
+     */
+    static void writeRecord(DataOutputStream out, Bank bank) throws IOException {
+        byte[] payload = payload(bank);
+        out.writeInt(payload.length);
+        out.writeInt(crc(payload));
+        out.write(payload);
+    }
+    
+    /**
+     * Reads a record written by {@link #writeRecord}
+     *
+     * @throws IOException if the record is torn or corrupt
+     */
+    static void readRecord(DataInputStream in, Visitor visitor) throws IOException {
+        byte[] payload = readFrame(in);
+        if (payload == null) {
+            throw new IOException("Bank record is truncated or corrupt");
+        }
+        apply(payload, visitor);
+    }
+    
+    private static Replay replayJournal(Path journalPath, Visitor visitor) throws IOException {
+        if (!Files.exists(journalPath)) {
+            return new Replay(0, 0, 0);
+        }
+        long fileBytes = Files.size(journalPath);
+        long validBytes = 0;
+        int records = 0;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(journalPath), 1 << 16))) {
+            byte[] payload;
+            while ((payload = readFrame(in)) != null) {
+                apply(payload, visitor);
+                validBytes += FRAME_HEADER_BYTES + payload.length;
+                records++;
+            }
+        }
+        return new Replay(records, validBytes, fileBytes);
+    }
+    
+    /**
+     * Reads one frame, or returns null at the end of the file or at a torn or corrupt frame
+     */
+    private static byte[] readFrame(DataInputStream in) throws IOException {
+        try {
+            int length = in.readInt();
+            int crc = in.readInt();
+            if (length <= 0 || length > MAX_PAYLOAD_BYTES) {
+                return null;
+            }
+            byte[] payload = in.readNBytes(length);
+            if (payload.length < length || crc(payload) != crc) {
+                return null;
+            }
+            return payload;
+        } catch (EOFException e) {
+            return null;
+        }
+    }
+    
+    private static byte[] payload(Bank bank) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        DataOutputStream out = new DataOutputStream(bytes);
+        if (bank instanceof BankTombstone tombstone) {
+            out.writeByte(TOMBSTONE);
+            out.writeLong(tombstone.getId());
+            out.writeLong(tombstone.getChangeSeq());
+            BankRecordCodec.writeString(out, tombstone.getSwiftCode());
+            BankRecordCodec.writeTimestamp(out, tombstone.deletedAt());
+        } else {
+            out.writeByte(PUT);
+            out.writeLong(bank.getChangeSeq());
+            BankRecordCodec.write(out, bank);
+        }
+        return bytes.toByteArray();
+    }
+    
+    private static void apply(byte[] payload, Visitor visitor) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+        byte type = in.readByte();
+        switch (type) {
+            case PUT -> {
+                long changeSeq = in.readLong();
+                Bank bank = BankRecordCodec.read(in);
+                bank.setChangeSeq(changeSeq);
+                visitor.put(bank);
+            }
+            case TOMBSTONE -> visitor.put(new BankTombstone(in.readLong(), in.readLong(),
+                    BankRecordCodec.readString(in), BankRecordCodec.readTimestamp(in)));
+            default -> throw new IOException("Unknown bank journal record type: " + type);
+        }
+    }
+    
+    private static int crc(byte[] payload) {
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+    
+    /**
+     * Writes a snapshot as part of a compaction
+     */
+    @FunctionalInterface
+    interface SnapshotWriter {
+        
+        void write() throws IOException;
+    }
+    
+    private record Replay(int records, long validBytes, long fileBytes) {
+        
+        boolean torn() {
+            return validBytes < fileBytes;
+        }
+    }
+}
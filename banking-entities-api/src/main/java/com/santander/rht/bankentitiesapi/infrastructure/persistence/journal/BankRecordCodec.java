@@ -0,0 +1,83 @@
+package com.santander.rht.bankentitiesapi.infrastructure.persistence.journal;
+
+import com.santander.rht.bankentitiesapi.domain.model.Bank;
+import com.santander.rht.bankentitiesapi.domain.model.BankType;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Binary encoding of banks for the journal and its snapshots.
+ * Every field is written in a fixed order; nullable fields are preceded by a presence flag.
+ */
+final class BankRecordCodec {
+    
+    private BankRecordCodec() {
+    }
+    
+    static void write(DataOutput out, Bank bank) throws IOException {
+        out.writeLong(bank.getId());
+        out.writeLong(bank.getVersion() != null ? bank.getVersion() : 0L);
+        writeString(out, bank.getSwiftCode());
+        writeString(out, bank.getName());
+        writeString(out, bank.getAddress());
+        writeString(out, bank.getCity());
+        writeString(out, bank.getCountry());
+        writeString(out, bank.getCountryCode());
+        writeString(out, bank.getPhoneNumber());
+        writeString(out, bank.getEmail());
+        writeString(out, bank.getWebsite());
+        writeString(out, bank.getBankType() != null ? bank.getBankType().name() : null);
+        out.writeByte(bank.getActive() == null ? -1 : bank.getActive() ? 1 : 0);
+        writeTimestamp(out, bank.getCreatedAt());
+        writeTimestamp(out, bank.getUpdatedAt());
+    }
+    
+    static Bank read(DataInput in) throws IOException {
+        Bank.BankBuilder bank = Bank.builder()
+                .id(in.readLong())
+                .version(in.readLong())
+                .swiftCode(readString(in))
+                .name(readString(in))
+                .address(readString(in))
+                .city(readString(in))
+                .country(readString(in))
+                .countryCode(readString(in))
+                .phoneNumber(readString(in))
+                .email(readString(in))
+                .website(readString(in));
+        String bankType = readString(in);
+        bank.bankType(bankType != null ? BankType.valueOf(bankType) : null);
+        byte active = in.readByte();
+        bank.active(active < 0 ? null : active == 1);
+        return bank.createdAt(readTimestamp(in))
+                .updatedAt(readTimestamp(in))
+                .build();
+    }
+    
+    static void writeString(DataOutput out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+    
+    static String readString(DataInput in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+    
+    static void writeTimestamp(DataOutput out, LocalDateTime value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeLong(value.toEpochSecond(ZoneOffset.UTC));
+            out.writeInt(value.getNano());
+        }
+    }
+    
+    static LocalDateTime readTimestamp(DataInput in) throws IOException {
+        return in.readBoolean() ? LocalDateTime.ofEpochSecond(in.readLong(), in.readInt(), ZoneOffset.UTC) : null;
+    }
+}
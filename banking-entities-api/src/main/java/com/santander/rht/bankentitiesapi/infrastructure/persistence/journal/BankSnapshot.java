@@ -0,0 +1,439 @@
+package com.santander.rht.bankentitiesapi.infrastructure.persistence.journal;
+
+import com.santander.rht.bankentitiesapi.domain.model.Bank;
+import com.santander.rht.bankentitiesapi.domain.model.BankType;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Read-only bank directory snapshot, memory-mapped and decoded lazily, so a restart can serve
+ * reads as soon as the file is mapped instead of after rebuilding every bank.
+ * <p>
+ * Layout (format 3, big-endian):
+ * <pre>
+ * header     magic, format, created-at millis, next ID, bank count, ID index offset, SWIFT index offset,
+ *            change sequence index offset, tombstones offset, last change sequence number,
+ *            purged-through sequence number, CRC32 of the rest
+ * records    id, version, presence bits, active, created-at and updated-at micros, change sequence number,
+ *            then each present string as [unsigned short length][UTF-8], SWIFT code first; sorted by ID
+ * indexes    (id, record offset) pairs sorted by ID, then record offsets sorted by SWIFT code, then
+ *            record offsets sorted by change sequence number
+ * tombstones count, then id, change sequence number, deleted-at micros and SWIFT code of each deleted bank
+ *            still retained for the change feed
+ * </pre>
+ * Files are limited to 2 GB, the largest region a single mapping can address.
+ */
+final class BankSnapshot {
+    
+    static final int MAGIC = 0x42414E4B;
+    static final int FORMAT = 3;
+    
+    private static final int HEADER_BYTES = 80;
+    private static final int ID_ENTRY_BYTES = 12;
+    private static final int FIXED_RECORD_BYTES = 43;
+    private static final int CHANGE_SEQ_OFFSET = 35;
+    
+    private static final int ACTIVE_BIT = 1 << 10;
+    private static final int CREATED_AT_BIT = 1 << 11;
+    private static final int UPDATED_AT_BIT = 1 << 12;
+    private static final int STRING_FIELDS = 10;
+    
+    private static final BankSnapshot EMPTY = new BankSnapshot(ByteBuffer.allocate(4), 0, 0, 1, 0, 0, 0, 0, 0, 0);
+    
+    private final ByteBuffer buffer;
+    private final long createdAt;
+    private final int count;
+    private final long nextId;
+    private final int idIndex;
+    private final int swiftIndex;
+    private final int seqIndex;
+    private final int tombstones;
+    private final long lastChangeSeq;
+    private final long purgedThrough;
+    
+    private BankSnapshot(ByteBuffer buffer, long createdAt, int count, long nextId, int idIndex,
+                         int swiftIndex, int seqIndex, int tombstones, long lastChangeSeq, long purgedThrough) {
+        this.buffer = buffer;
+        this.createdAt = createdAt;
+        this.count = count;
+        this.nextId = nextId;
+        this.idIndex = idIndex;
+        this.swiftIndex = swiftIndex;
+        this.seqIndex = seqIndex;
+        this.tombstones = tombstones;
+        this.lastChangeSeq = lastChangeSeq;
+        this.purgedThrough = purgedThrough;
+    }
+    
+    static BankSnapshot empty() {
+        return EMPTY;
+    }
+    
+    /**
+     * Maps a snapshot file and checks its integrity; nothing is decoded until it is read
+     */
+    static BankSnapshot open(Path path) throws IOException {
+        ByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Bank snapshot exceeds 2 GB: " + path);
+            }
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        if (buffer.capacity() < 8 || buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not a bank snapshot: " + path);
+        }
+        int format = buffer.getInt(4);
+        if (format != FORMAT) {
+            throw new IOException("Unsupported bank snapshot format " + format + ": " + path);
+        }
+        if (buffer.capacity() < HEADER_BYTES) {
+            throw new IOException("Bank snapshot is corrupt: " + path);
+        }
+        CRC32 crc = new CRC32();
+        crc.update(buffer.slice(HEADER_BYTES, buffer.capacity() - HEADER_BYTES));
+        if ((int) crc.getValue() != buffer.getInt(HEADER_BYTES - 4)) {
+            throw new IOException("Bank snapshot is corrupt: " + path);
+        }
+        return new BankSnapshot(buffer, buffer.getLong(8), buffer.getInt(24), buffer.getLong(16),
+                (int) buffer.getLong(28), (int) buffer.getLong(36), (int) buffer.getLong(44), (int) buffer.getLong(52),
+                buffer.getLong(60), buffer.getLong(68));
+    }
+    
+    /**
+     * Writes a snapshot of the given banks, which must be sorted by ID, and tombstones, replacing the target atomically
+     */
+    static void write(Path target, Collection<Bank> banksById, Collection<BankTombstone> retainedTombstones,
+                      long nextId, long lastChangeSeq, long purgedThrough) throws IOException {
+        int count = banksById.size();
+        long[] ids = new long[count];
+        int[] offsets = new int[count];
+        String[] swiftCodes = new String[count];
+        long[] changeSeqs = new long[count];
+        
+        Path temporary = target.resolveSibling(target.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            channel.position(HEADER_BYTES);
+            CRC32 crc = new CRC32();
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                    new CheckedOutputStream(Channels.newOutputStream(channel), crc), 1 << 16));
+            
+            int i = 0;
+            for (Bank bank : banksById) {
+                ids[i] = bank.getId();
+                offsets[i] = HEADER_BYTES + out.size();
+                swiftCodes[i] = bank.getSwiftCode();
+                changeSeqs[i] = bank.getChangeSeq() != null ? bank.getChangeSeq() : 0L;
+                writeRecord(out, bank);
+                i++;
+            }
+            
+            int idIndex = HEADER_BYTES + out.size();
+            for (i = 0; i < count; i++) {
+                out.writeLong(ids[i]);
+                out.writeInt(offsets[i]);
+            }
+            
+            int swiftIndex = HEADER_BYTES + out.size();
+            Integer[] bySwiftCode = new Integer[count];
+            for (i = 0; i < count; i++) {
+                bySwiftCode[i] = i;
+            }
+            Arrays.sort(bySwiftCode, (a, b) -> compareNullable(swiftCodes[a], swiftCodes[b]));
+            for (Integer index : bySwiftCode) {
+                if (swiftCodes[index] != null) {
+                    out.writeInt(offsets[index]);
+                }
+            }
+            
+            int seqIndex = HEADER_BYTES + out.size();
+            Integer[] byChangeSeq = new Integer[count];
+            for (i = 0; i < count; i++) {
+                byChangeSeq[i] = i;
+            }
+            Arrays.sort(byChangeSeq, Comparator.comparingLong(index -> changeSeqs[index]));
+            for (Integer index : byChangeSeq) {
+                out.writeInt(offsets[index]);
+            }
+            
+            int tombstones = HEADER_BYTES + out.size();
+            out.writeInt(retainedTombstones.size());
+            for (BankTombstone tombstone : retainedTombstones) {
+                out.writeLong(tombstone.getId());
+                out.writeLong(tombstone.getChangeSeq());
+                out.writeLong(toMicros(tombstone.deletedAt()));
+                writeString(out, tombstone.getSwiftCode() != null ? tombstone.getSwiftCode() : "", tombstone.getId());
+            }
+            out.flush();
+            if ((long) HEADER_BYTES + out.size() > Integer.MAX_VALUE) {
+                throw new IOException("Bank snapshot would exceed 2 GB");
+            }
+            
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES)
+                    .putInt(MAGIC)
+                    .putInt(FORMAT)
+                    .putLong(System.currentTimeMillis())
+                    .putLong(nextId)
+                    .putInt(count)
+                    .putLong(idIndex)
+                    .putLong(swiftIndex)
+                    .putLong(seqIndex)
+                    .putLong(tombstones)
+                    .putLong(lastChangeSeq)
+                    .putLong(purgedThrough)
+                    .putInt((int) crc.getValue())
+                    .flip();
+            while (header.hasRemaining()) {
+                channel.write(header, header.position());
+            }
+            channel.force(true);
+        }
+        Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+    
+    int size() {
+        return count;
+    }
+    
+    long nextId() {
+        return nextId;
+    }
+    
+    long createdAt() {
+        return createdAt;
+    }
+    
+    /**
+     * Highest change sequence number handed out when the snapshot was written, tombstones included
+     */
+    long lastChangeSeq() {
+        return lastChangeSeq;
+    }
+    
+    long purgedThrough() {
+        return purgedThrough;
+    }
+    
+    long byteSize() {
+        return buffer.capacity();
+    }
+    
+    /**
+     * Highest bank ID in the snapshot, or 0 when it is empty
+     */
+    long maxId() {
+        return count == 0 ? 0 : buffer.getLong(idIndex + (count - 1) * ID_ENTRY_BYTES);
+    }
+    
+    Bank findById(long id) {
+        int low = 0;
+        int high = count - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            long middleId = buffer.getLong(idIndex + middle * ID_ENTRY_BYTES);
+            if (middleId < id) {
+                low = middle + 1;
+            } else if (middleId > id) {
+                high = middle - 1;
+            } else {
+                return readRecord(buffer.getInt(idIndex + middle * ID_ENTRY_BYTES + 8));
+            }
+        }
+        return null;
+    }
+    
+    Long findIdBySwiftCode(String swiftCode) {
+        int entries = (seqIndex - swiftIndex) / 4;
+        int low = 0;
+        int high = entries - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int offset = buffer.getInt(swiftIndex + middle * 4);
+            int comparison = readSwiftCode(offset).compareTo(swiftCode);
+            if (comparison < 0) {
+                low = middle + 1;
+            } else if (comparison > 0) {
+                high = middle - 1;
+            } else {
+                return buffer.getLong(offset);
+            }
+        }
+        return null;
+    }
+    
+    /**
+     * Decodes every bank in ID order
+     */
+    void forEach(Consumer<Bank> action) {
+        for (int i = 0; i < count; i++) {
+            action.accept(readRecord(buffer.getInt(idIndex + i * ID_ENTRY_BYTES + 8)));
+        }
+    }
+    
+    /**
+     * Decodes the banks whose change sequence number is above {@code since}, in sequence number order,
+     * for as long as the action returns true
+     */
+    void forEachChangedSince(long since, Predicate<Bank> action) {
+        int low = 0;
+        int high = count;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (buffer.getLong(buffer.getInt(seqIndex + middle * 4) + CHANGE_SEQ_OFFSET) <= since) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        for (int i = low; i < count; i++) {
+            if (!action.test(readRecord(buffer.getInt(seqIndex + i * 4)))) {
+                return;
+            }
+        }
+    }
+    
+    /**
+     * Decodes the retained tombstones
+     */
+    void forEachTombstone(Consumer<BankTombstone> action) {
+        int entries = buffer.getInt(tombstones);
+        int position = tombstones + 4;
+        for (int i = 0; i < entries; i++) {
+            int length = Short.toUnsignedInt(buffer.getShort(position + 24));
+            String swiftCode = readString(position + 26, length);
+            action.accept(new BankTombstone(buffer.getLong(position), buffer.getLong(position + 8),
+                    swiftCode.isEmpty() ? null : swiftCode, fromMicros(buffer.getLong(position + 16))));
+            position += 26 + length;
+        }
+    }
+    
+    private static void writeRecord(DataOutputStream out, Bank bank) throws IOException {
+        String[] strings = strings(bank);
+        int presence = 0;
+        for (int i = 0; i < STRING_FIELDS; i++) {
+            if (strings[i] != null) {
+                presence |= 1 << i;
+            }
+        }
+        if (bank.getActive() != null) {
+            presence |= ACTIVE_BIT;
+        }
+        if (bank.getCreatedAt() != null) {
+            presence |= CREATED_AT_BIT;
+        }
+        if (bank.getUpdatedAt() != null) {
+            presence |= UPDATED_AT_BIT;
+        }
+        
+        out.writeLong(bank.getId());
+        out.writeLong(bank.getVersion() != null ? bank.getVersion() : 0L);
+        out.writeShort(presence);
+        out.writeByte(Boolean.TRUE.equals(bank.getActive()) ? 1 : 0);
+        out.writeLong(toMicros(bank.getCreatedAt()));
+        out.writeLong(toMicros(bank.getUpdatedAt()));
+        out.writeLong(bank.getChangeSeq() != null ? bank.getChangeSeq() : 0L);
+        for (String value : strings) {
+            if (value != null) {
+                writeString(out, value, bank.getId());
+            }
+        }
+    }
+    
+    private static void writeString(DataOutputStream out, String value, long id) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > 0xFFFF) {
+            throw new IOException("Bank " + id + " has a field longer than 64 KB");
+        }
+        out.writeShort(bytes.length);
+        out.write(bytes);
+    }
+    
+    private Bank readRecord(int offset) {
+        int presence = Short.toUnsignedInt(buffer.getShort(offset + 16));
+        String[] strings = new String[STRING_FIELDS];
+        int position = offset + FIXED_RECORD_BYTES;
+        for (int i = 0; i < STRING_FIELDS; i++) {
+            if ((presence & (1 << i)) != 0) {
+                int length = Short.toUnsignedInt(buffer.getShort(position));
+                strings[i] = readString(position + 2, length);
+                position += 2 + length;
+            }
+        }
+        return Bank.builder()
+                .id(buffer.getLong(offset))
+                .version(buffer.getLong(offset + 8))
+                .active((presence & ACTIVE_BIT) != 0 ? buffer.get(offset + 18) == 1 : null)
+                .createdAt((presence & CREATED_AT_BIT) != 0 ? fromMicros(buffer.getLong(offset + 19)) : null)
+                .updatedAt((presence & UPDATED_AT_BIT) != 0 ? fromMicros(buffer.getLong(offset + 27)) : null)
+                .changeSeq(buffer.getLong(offset + CHANGE_SEQ_OFFSET))
+                .swiftCode(strings[0])
+                .name(strings[1])
+                .address(strings[2])
+                .city(strings[3])
+                .country(strings[4])
+                .countryCode(strings[5])
+                .phoneNumber(strings[6])
+                .email(strings[7])
+                .website(strings[8])
+                .bankType(strings[9] != null ? BankType.valueOf(strings[9]) : null)
+                .build();
+    }
+    
+    private String readSwiftCode(int offset) {
+        int position = offset + FIXED_RECORD_BYTES;
+        return readString(position + 2, Short.toUnsignedInt(buffer.getShort(position)));
+    }
+    
+    private String readString(int position, int length) {
+        byte[] bytes = new byte[length];
+        buffer.get(position, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+    
+    private static String[] strings(Bank bank) {
+        return new String[] {
+                bank.getSwiftCode(), bank.getName(), bank.getAddress(), bank.getCity(), bank.getCountry(),
+                bank.getCountryCode(), bank.getPhoneNumber(), bank.getEmail(), bank.getWebsite(),
+                bank.getBankType() != null ? bank.getBankType().name() : null
+        };
+    }
+    
+    private static long toMicros(LocalDateTime value) {
+        if (value == null) {
+            return 0;
+        }
+        return value.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + value.getNano() / 1_000;
+    }
+    
+    private static LocalDateTime fromMicros(long micros) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000),
+                (int) Math.floorMod(micros, 1_000_000) * 1_000, ZoneOffset.UTC);
+    }
+    
+    private static int compareNullable(String a, String b) {
+        if (a == null || b == null) {
+            return a == null ? (b == null ? 0 : 1) : -1;
+        }
+        return a.compareTo(b);
+    }
+}
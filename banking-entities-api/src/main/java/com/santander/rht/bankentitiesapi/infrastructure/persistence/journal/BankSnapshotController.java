@@ -0,0 +1,81 @@
+package com.santander.rht.bankentitiesapi.infrastructure.persistence.journal;
+
+import com.santander.rht.bankentitiesapi.domain.exception.ChangeCursorExpiredException;
+import com.santander.rht.bankentitiesapi.domain.model.Bank;
+import com.santander.rht.bankentitiesapi.domain.model.BankChange;
+import com.santander.rht.bankentitiesapi.domain.model.BankChangeType;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.util.List;
+
+/**
+ * Internal endpoints new nodes copy this node's bank directory from, read by {@link PeerSnapshotSource}.
+ * Meant for the other instances of the service only, not to be routed through the load balancer.
+ */
+@RestController
+@ConditionalOnProperty(name = "app.repository.type", havingValue = "journal")
+@RequiredArgsConstructor
+public class BankSnapshotController {
+    
+    private static final int PAGE_SIZE = 1000;
+    
+    private final JournalBankRepositoryAdapter repository;
+    
+    /**
+     * The snapshot file reads are served from, as is, with the change sequence number it is current up to.
+     * Written on the request thread, so a large copy is not cut short by the asynchronous request timeout.
+     */
+    @GetMapping(path = PeerSnapshotSource.SNAPSHOT_PATH, produces = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public void getSnapshot(HttpServletResponse response) throws IOException {
+        try (JournalBankRepositoryAdapter.SnapshotTransfer transfer = repository.openSnapshotTransfer()) {
+            response.setContentType(MediaType.APPLICATION_OCTET_STREAM_VALUE);
+            response.setContentLengthLong(transfer.bytes());
+            response.setHeader(PeerSnapshotSource.VERSION_HEADER, String.valueOf(transfer.version()));
+            WritableByteChannel target = Channels.newChannel(response.getOutputStream());
+            for (long position = 0; position < transfer.bytes(); ) {
+                position += transfer.channel().transferTo(position, transfer.bytes() - position, target);
+            }
+        }
+    }
+    
+    /**
+     * Each bank changed or deleted after the given sequence number, under its latest change, as journal
+     * records in pages of {@code [int count][records]}, ending with an empty page
+     */
+    @GetMapping(path = PeerSnapshotSource.CHANGES_PATH, produces = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public void getChangesSince(@RequestParam long since, HttpServletResponse response) throws IOException {
+        if (since < repository.purgedThrough()) {
+            throw ChangeCursorExpiredException.since(since, repository.purgedThrough());
+        }
+        response.setContentType(MediaType.APPLICATION_OCTET_STREAM_VALUE);
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(response.getOutputStream(), 1 << 16));
+        long cursor = since;
+        List<BankChange> page;
+        do {
+            page = repository.findChangesSince(cursor, PAGE_SIZE);
+            out.writeInt(page.size());
+            for (BankChange change : page) {
+                BankJournal.writeRecord(out, state(change));
+                cursor = change.seq();
+            }
+        } while (!page.isEmpty());
+        out.flush();
+    }
+    
+    private static Bank state(BankChange change) {
+        return change.type() == BankChangeType.DELETED
+                ? new BankTombstone(change.bankId(), change.seq(), change.swiftCode(), change.changedAt())
+                : change.bank();
+    }
+}
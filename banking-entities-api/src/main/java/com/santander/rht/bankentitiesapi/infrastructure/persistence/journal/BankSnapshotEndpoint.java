@@ -0,0 +1,31 @@
+package com.santander.rht.bankentitiesapi.infrastructure.persistence.journal;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Actuator endpoint to inspect the bank snapshot and write a new one on demand
+ */
+@Component
+@Endpoint(id = "banksnapshot")
+@ConditionalOnProperty(name = "app.repository.type", havingValue = "journal")
+@RequiredArgsConstructor
+public class BankSnapshotEndpoint {
+    
+    private final JournalBankRepositoryAdapter repository;
+    
+    @ReadOperation
+    public JournalBankRepositoryAdapter.SnapshotInfo snapshot() {
+        return repository.snapshotInfo();
+    }
+    
+    @WriteOperation
+    public JournalBankRepositoryAdapter.SnapshotInfo writeSnapshot() {
+        repository.compact();
+        return repository.snapshotInfo();
+    }
+}
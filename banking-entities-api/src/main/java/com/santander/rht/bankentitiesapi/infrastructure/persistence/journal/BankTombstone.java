@@ -0,0 +1,23 @@
+package com.santander.rht.bankentitiesapi.infrastructure.persistence.journal;
+
+import com.santander.rht.bankentitiesapi.domain.model.Bank;
+
+import java.time.LocalDateTime;
+
+/**
+ * A deleted bank, kept by the journal repository for the change feed until compacted: its ID, the SWIFT
+ * code it had, and the sequence number and time of the deletion. Never returned as a bank.
+ */
+final class BankTombstone extends Bank {
+    
+    BankTombstone(long id, long changeSeq, String swiftCode, LocalDateTime deletedAt) {
+        setId(id);
+        setChangeSeq(changeSeq);
+        setSwiftCode(swiftCode);
+        setUpdatedAt(deletedAt);
+    }
+    
+    LocalDateTime deletedAt() {
+        return getUpdatedAt();
+    }
+}
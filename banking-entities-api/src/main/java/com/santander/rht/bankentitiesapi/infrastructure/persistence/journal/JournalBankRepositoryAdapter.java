@@ -0,0 +1,962 @@
+package com.santander.rht.bankentitiesapi.infrastructure.persistence.journal;
+
+import com.santander.rht.bankentitiesapi.domain.exception.BankVersionConflictException;
+import com.santander.rht.bankentitiesapi.domain.exception.DuplicateBankException;
+import com.santander.rht.bankentitiesapi.domain.model.Bank;
+import com.santander.rht.bankentitiesapi.domain.model.BankChange;
+import com.santander.rht.bankentitiesapi.domain.model.BankPatch;
+import com.santander.rht.bankentitiesapi.domain.port.out.BankRepositoryPort;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.unit.DataSize;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Adapter that implements the BankRepositoryPort in memory, without a database on the hot path.
+ * <p>
+ * Banks are read from a memory-mapped {@link BankSnapshot}, overlaid with concurrent maps, indexed by
+ * ID and SWIFT code, that hold the changes made since; reads never block. At startup the snapshot is
+ * only mapped, and the journal tail replayed into the overlay, so reads are served right away.
+ * Mutations are serialized and appended to a {@link BankJournal}; once the journal has been forced to
+ * disk, sharing that force with concurrent writers, they are applied to the overlay in journal order
+ * and the caller returns. Until then only writers see them, so a read never returns a change that a
+ * failed force or a crash could still lose. The overlay is folded into a new snapshot when the journal
+ * outgrows the configured threshold, on the configured interval, or on demand.
+ * <p>
+ * Mutations made inside a Spring transaction are staged in the transaction, where its own reads see
+ * them, and only journaled and applied when it commits, so other readers and the change feed never see
+ * a group of writes that may still roll back, and a rollback just drops them. A bank the transaction
+ * staged a write to that another writer has changed since fails the commit with a version conflict.
+ * <p>
+ * Every mutation is stamped with the next change sequence number as it is journaled; deleted banks are kept as
+ * {@link BankTombstone}s, in the overlay and then in the snapshot, until tombstones are purged.
+ * <p>
+ * A node starting without any files of its own can copy them from a configured peer instead, see
+ * {@link PeerSnapshotSource}; if the peer cannot be reached it starts empty, as it otherwise would.
+ */
+@Component
+@ConditionalOnProperty(name = "app.repository.type", havingValue = "journal")
+@Slf4j
+public class JournalBankRepositoryAdapter implements BankRepositoryPort {
+    
+    static final String SNAPSHOT_FILE = "banks.snapshot";
+    
+    private final Path snapshotPath;
+    private final Object writeLock = new Object();
+    private final long compactionThreshold;
+    private final BankJournal journal;
+    private final ScheduledExecutorService snapshotScheduler;
+    private volatile Generation generation;
+    private volatile long count;
+    private long nextId;
+    private long lastChangeSeq;
+    
+    /**
+     * Every change up to this sequence number has been applied to the overlay
+     */
+    private volatile long appliedThrough;
+    private volatile long purgedThrough;
+    
+    // Changes journaled but not yet forced to disk, which writers build on and readers do not see yet
+    private final ArrayDeque<Unsynced> unsynced = new ArrayDeque<>();
+    private final Map<Long, Bank> unsyncedById = new HashMap<>();
+    private final Map<String, Long> unsyncedSwiftCodes = new HashMap<>();
+    
+    public JournalBankRepositoryAdapter(Path directory, boolean fsync, DataSize compactionThreshold,
+                                        Duration snapshotInterval, MeterRegistry meterRegistry) {
+        this(directory, fsync, compactionThreshold, snapshotInterval, "", Duration.ZERO, meterRegistry);
+    }
+    
+    @Autowired
+    public JournalBankRepositoryAdapter(@Value("${app.journal.directory:./data/journal}") Path directory,
+                                        @Value("${app.journal.fsync:true}") boolean fsync,
+                                        @Value("${app.journal.compaction-threshold:64MB}") DataSize compactionThreshold,
+                                        @Value("${app.journal.snapshot-interval:0s}") Duration snapshotInterval,
+                                        @Value("${app.journal.bootstrap-peer:}") String bootstrapPeer,
+                                        @Value("${app.journal.bootstrap-timeout:60s}") Duration bootstrapTimeout,
+                                        MeterRegistry meterRegistry) {
+        this.snapshotPath = directory.resolve(SNAPSHOT_FILE);
+        this.compactionThreshold = compactionThreshold.toBytes();
+        long start = System.nanoTime();
+        try {
+            Files.createDirectories(directory);
+            PeerSnapshotSource.PeerSnapshot fromPeer = bootstrapPeer.isBlank()
+                    ? null
+                    : copyFromPeer(directory, URI.create(bootstrapPeer), bootstrapTimeout);
+            BankSnapshot snapshot = Files.exists(snapshotPath) ? BankSnapshot.open(snapshotPath) : BankSnapshot.empty();
+            this.generation = new Generation(snapshot);
+            this.count = snapshot.size();
+            this.nextId = snapshot.nextId();
+            this.lastChangeSeq = snapshot.lastChangeSeq();
+            this.purgedThrough = snapshot.purgedThrough();
+            snapshot.forEachTombstone(tombstone -> apply(generation, tombstone.getId(), tombstone));
+            
+            BankJournal.Visitor replay = bank -> {
+                lastChangeSeq = Math.max(lastChangeSeq, bank.getChangeSeq());
+                apply(generation, bank.getId(), bank);
+                nextId = Math.max(nextId, bank.getId() + 1);
+            };
+            this.journal = BankJournal.open(directory, fsync, meterRegistry, replay);
+            if (fromPeer != null) {
+                // Journaled like local writes, under the peer's IDs and sequence numbers
+                long position = 0;
+                for (Bank change : fromPeer.changes()) {
+                    position = journal.appendPut(change);
+                }
+                journal.sync(position);
+                fromPeer.changes().forEach(replay::put);
+            }
+            this.appliedThrough = lastChangeSeq;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open bank journal in " + directory, e);
+        }
+        
+        Gauge.builder("bank.snapshot.age", this, adapter -> adapter.snapshotAge().toMillis())
+                .description("Time since the bank snapshot was written")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+        log.info("In-memory bank repository ready with {} banks from {} in {} ms",
+                count, directory, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        
+        if (snapshotInterval.isPositive()) {
+            snapshotScheduler = Executors.newSingleThreadScheduledExecutor(
+                    Thread.ofPlatform().name("bank-snapshot").daemon().factory());
+            snapshotScheduler.scheduleWithFixedDelay(this::scheduledSnapshot,
+                    snapshotInterval.toMillis(), snapshotInterval.toMillis(), TimeUnit.MILLISECONDS);
+        } else {
+            snapshotScheduler = null;
+        }
+    }
+    
+    /**
+     * Copies the snapshot and later changes of a peer, unless this node already has files of its own
+     *
+     * @return null if the node has its own files or the peer could not be copied from
+     */
+    private static PeerSnapshotSource.PeerSnapshot copyFromPeer(Path directory, URI peer, Duration timeout)
+            throws IOException {
+        Path journalPath = directory.resolve(BankJournal.JOURNAL_FILE);
+        if (Files.exists(directory.resolve(SNAPSHOT_FILE)) || (Files.exists(journalPath) && Files.size(journalPath) > 0)) {
+            log.info("Bank journal in {} is not empty, not copying it from peer {}", directory, peer);
+            return null;
+        }
+        long start = System.nanoTime();
+        try {
+            PeerSnapshotSource.PeerSnapshot snapshot = new PeerSnapshotSource(peer, timeout)
+                    .fetch(directory.resolve(SNAPSHOT_FILE));
+            log.info("Copied bank snapshot version {} and {} later changes from peer {} in {} ms", snapshot.version(),
+                    snapshot.changes().size(), peer, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            return snapshot;
+        } catch (IOException e) {
+            log.warn("Could not copy the bank directory from peer {}, starting without it: {}", peer, e.toString());
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while copying the bank directory from peer " + peer, e);
+        }
+    }
+    
+    @PreDestroy
+    public void close() throws IOException {
+        if (snapshotScheduler != null) {
+            snapshotScheduler.shutdownNow();
+        }
+        synchronized (writeLock) {
+            journal.close();
+        }
+    }
+    
+    @Override
+    public Bank save(Bank bank) {
+        log.debug("Saving bank with SWIFT code: {}", bank.getSwiftCode());
+        Pending pending = joinTransaction();
+        Bank stored;
+        long position;
+        synchronized (writeLock) {
+            Bank existing = bank.getId() != null ? latest(pending, bank.getId()) : null;
+            long id = existing != null ? existing.getId() : nextId;
+            checkSwiftCodeFree(pending, bank.getSwiftCode(), id);
+            stored = bank.toBuilder()
+                    .id(id)
+                    .version(existing != null ? existing.getVersion() + 1 : 0L)
+                    .build();
+            position = write(pending, id, stored);
+            nextId = Math.max(nextId, id + 1);
+        }
+        sync(position);
+        log.debug("Bank saved with ID: {}", stored.getId());
+        return copy(stored);
+    }
+    
+    @Override
+    public int update(Bank bank, Long expectedVersion) {
+        log.debug("Updating bank {} at version {}", bank.getId(), expectedVersion);
+        Pending pending = joinTransaction();
+        long position;
+        synchronized (writeLock) {
+            Bank existing = latest(pending, bank.getId());
+            if (!matches(existing, expectedVersion)) {
+                return 0;
+            }
+            checkSwiftCodeFree(pending, bank.getSwiftCode(), existing.getId());
+            Bank stored = bank.toBuilder()
+                    .createdAt(existing.getCreatedAt())
+                    .version(existing.getVersion() + 1)
+                    .build();
+            position = write(pending, existing.getId(), stored);
+        }
+        sync(position);
+        return 1;
+    }
+    
+    @Override
+    public int patch(Long id, BankPatch patch, Long expectedVersion) {
+        log.debug("Patching {} of bank {} at version {}", patch.getChanges().keySet(), id, expectedVersion);
+        Pending pending = joinTransaction();
+        long position;
+        synchronized (writeLock) {
+            Bank existing = latest(pending, id);
+            if (!matches(existing, expectedVersion)) {
+                return 0;
+            }
+            Bank patched = existing.toBuilder().build();
+            patch.applyTo(patched);
+            if (patched.equals(existing)) {
+                return 0;
+            }
+            checkSwiftCodeFree(pending, patched.getSwiftCode(), id);
+            patched.setUpdatedAt(LocalDateTime.now());
+            patched.setVersion(existing.getVersion() + 1);
+            position = write(pending, id, patched);
+        }
+        sync(position);
+        return 1;
+    }
+    
+    @Override
+    public int delete(Long id, Long expectedVersion) {
+        log.debug("Deleting bank {} at version {}", id, expectedVersion);
+        Pending pending = joinTransaction();
+        long position;
+        synchronized (writeLock) {
+            Bank existing = latest(pending, id);
+            if (!matches(existing, expectedVersion)) {
+                return 0;
+            }
+            position = write(pending, id, new BankTombstone(id, 0, existing.getSwiftCode(), LocalDateTime.now()));
+        }
+        sync(position);
+        return 1;
+    }
+    
+    @Override
+    public int[] upsertBySwiftCode(List<Bank> banks) {
+        log.debug("Upserting {} banks by SWIFT code", banks.size());
+        Pending pending = joinTransaction();
+        int[] counts = new int[banks.size()];
+        long position = 0;
+        synchronized (writeLock) {
+            LocalDateTime now = LocalDateTime.now();
+            for (int i = 0; i < banks.size(); i++) {
+                Bank bank = banks.get(i);
+                Bank existing = latestBySwiftCode(pending, bank.getSwiftCode());
+                Bank stored = bank.toBuilder()
+                        .id(existing != null ? existing.getId() : nextId)
+                        .active(bank.getActive() != null ? bank.getActive() : Boolean.TRUE)
+                        .createdAt(existing != null ? existing.getCreatedAt() : now)
+                        .updatedAt(existing != null ? existing.getUpdatedAt() : now)
+                        .version(existing != null ? existing.getVersion() : 0L)
+                        .changeSeq(existing != null ? existing.getChangeSeq() : null)
+                        .build();
+                if (stored.equals(existing)) {
+                    continue;
+                }
+                if (existing != null) {
+                    stored.setUpdatedAt(now);
+                    stored.setVersion(existing.getVersion() + 1);
+                }
+                position = Math.max(position, write(pending, stored.getId(), stored));
+                nextId = Math.max(nextId, stored.getId() + 1);
+                counts[i] = 1;
+            }
+        }
+        sync(position);
+        return counts;
+    }
+    
+    @Override
+    public void deleteById(Long id) {
+        log.debug("Deleting bank by ID: {}", id);
+        delete(id, null);
+    }
+    
+    @Override
+    public boolean existsById(Long id) {
+        return visible(id) != null;
+    }
+    
+    @Override
+    public Optional<Bank> findById(Long id) {
+        return Optional.ofNullable(visible(id)).map(JournalBankRepositoryAdapter::copy);
+    }
+    
+    @Override
+    public Optional<Bank> findBySwiftCode(String swiftCode) {
+        return Optional.ofNullable(visibleBySwiftCode(swiftCode)).map(JournalBankRepositoryAdapter::copy);
+    }
+    
+    @Override
+    public List<Bank> findAll() {
+        return find(bank -> true);
+    }
+    
+    @Override
+    public List<Bank> findByCountry(String country) {
+        return find(bank -> Objects.equals(bank.getCountry(), country));
+    }
+    
+    @Override
+    public List<Bank> findByCountryCode(String countryCode) {
+        return find(bank -> Objects.equals(bank.getCountryCode(), countryCode));
+    }
+    
+    @Override
+    public List<Bank> findByNameContainingIgnoreCase(String name) {
+        String fragment = name.toLowerCase(Locale.ROOT);
+        return find(bank -> bank.getName() != null && bank.getName().toLowerCase(Locale.ROOT).contains(fragment));
+    }
+    
+    @Override
+    public List<Bank> findByActiveTrue() {
+        return find(bank -> Boolean.TRUE.equals(bank.getActive()));
+    }
+    
+    @Override
+    public boolean existsBySwiftCode(String swiftCode) {
+        return visibleBySwiftCode(swiftCode) != null;
+    }
+    
+    @Override
+    public long count() {
+        Pending pending = pending();
+        return pending != null ? count + pending.countDelta : count;
+    }
+    
+    /**
+     * Merges the snapshot's banks changed since with the overlay's changes, in change sequence order.
+     * Reads only up to the last change fully applied, so a change still being applied is never skipped.
+     */
+    @Override
+    public List<BankChange> findChangesSince(long since, int limit) {
+        long through = appliedThrough;
+        Generation current = generation;
+        List<BankChange> changes = new ArrayList<>(Math.min(limit, 1024));
+        PeekingIterator overlay = new PeekingIterator(
+                current.changesBySeq().subMap(since, false, through, true).entrySet().iterator());
+        current.snapshot().forEachChangedSince(since, bank -> {
+            while (changes.size() < limit && overlay.hasNext() && overlay.peek().getKey() < bank.getChangeSeq()) {
+                addOverlayChange(current, overlay.next(), changes);
+            }
+            if (changes.size() >= limit) {
+                return false;
+            }
+            if (!current.changes().containsKey(bank.getId())) {
+                changes.add(BankChange.upserted(bank));
+            }
+            return true;
+        });
+        while (changes.size() < limit && overlay.hasNext()) {
+            addOverlayChange(current, overlay.next(), changes);
+        }
+        return changes;
+    }
+    
+    private static void addOverlayChange(Generation current, Map.Entry<Long, Long> entry, List<BankChange> changes) {
+        Bank changed = current.changes().get(entry.getValue());
+        // The bank may have changed again since this entry was indexed; it is listed under its newer number
+        if (changed == null || !entry.getKey().equals(changed.getChangeSeq())) {
+            return;
+        }
+        changes.add(changed instanceof BankTombstone tombstone
+                ? BankChange.deleted(tombstone.getChangeSeq(), tombstone.getId(), tombstone.getSwiftCode(),
+                        tombstone.deletedAt())
+                : BankChange.upserted(copy(changed)));
+    }
+    
+    /**
+     * Tombstones only leave through a compaction, which is run if any of them has expired
+     */
+    @Override
+    public int purgeTombstones(LocalDateTime deletedBefore) {
+        synchronized (writeLock) {
+            boolean expired = generation.changes().values().stream()
+                    .anyMatch(changed -> changed instanceof BankTombstone tombstone
+                            && tombstone.deletedAt().isBefore(deletedBefore));
+            return expired ? compact(deletedBefore) : 0;
+        }
+    }
+    
+    @Override
+    public long latestChangeSeq() {
+        return appliedThrough;
+    }
+    
+    @Override
+    public long purgedThrough() {
+        return purgedThrough;
+    }
+    
+    /**
+     * Writes the current state to a new snapshot, switches reads over to it and empties the journal
+     */
+    public void compact() {
+        compact(null);
+    }
+    
+    /**
+     * Compacts, leaving out the tombstones of banks deleted before the given time, if any. Forces the journal
+     * first, so changes not yet on disk are folded in too.
+     *
+     * @return number of tombstones left out
+     */
+    private int compact(LocalDateTime purgeBefore) {
+        synchronized (writeLock) {
+            sync(journal.position());
+            Generation folded = generation;
+            if (purgeBefore == null && journal.size() == 0 && folded.snapshot() != BankSnapshot.empty()) {
+                return 0;
+            }
+            List<BankTombstone> retained = new ArrayList<>();
+            long purgedUpTo = purgedThrough;
+            for (Bank changed : folded.changes().values()) {
+                if (changed instanceof BankTombstone tombstone) {
+                    if (purgeBefore != null && tombstone.deletedAt().isBefore(purgeBefore)) {
+                        purgedUpTo = Math.max(purgedUpTo, tombstone.getChangeSeq());
+                    } else {
+                        retained.add(tombstone);
+                    }
+                }
+            }
+            int purged = (int) folded.changes().values().stream().filter(BankTombstone.class::isInstance).count()
+                    - retained.size();
+            long newPurgedThrough = purgedUpTo;
+            
+            long start = System.nanoTime();
+            try {
+                journal.compact(() -> {
+                    List<Bank> banks = new ArrayList<>((int) count);
+                    forEachCurrent(folded, banks::add);
+                    BankSnapshot.write(snapshotPath, banks, retained, nextId, lastChangeSeq, newPurgedThrough);
+                    Generation next = new Generation(BankSnapshot.open(snapshotPath));
+                    retained.forEach(tombstone -> apply(next, tombstone.getId(), tombstone));
+                    generation = next;
+                    purgedThrough = newPurgedThrough;
+                });
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot compact bank journal", e);
+            }
+            log.info("Wrote bank snapshot of {} banks and {} tombstones in {} ms", count, retained.size(),
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            return purged;
+        }
+    }
+    
+    /**
+     * Opens the snapshot file reads are served from, for a peer to copy, writing one first if there is none.
+     * Changes not yet folded into it are left for the peer to read from the change feed, so serving a copy
+     * does not hold up writers. Compactions replacing the file meanwhile do not disturb an open transfer.
+     */
+    public SnapshotTransfer openSnapshotTransfer() throws IOException {
+        synchronized (writeLock) {
+            if (!Files.exists(snapshotPath)) {
+                compact();
+            }
+            FileChannel channel = FileChannel.open(snapshotPath, StandardOpenOption.READ);
+            return new SnapshotTransfer(channel, generation.snapshot().lastChangeSeq(), channel.size());
+        }
+    }
+    
+    /**
+     * Describes the snapshot reads are currently served from
+     */
+    public SnapshotInfo snapshotInfo() {
+        Generation current = generation;
+        BankSnapshot snapshot = current.snapshot();
+        // Tombstones retained from the snapshot sit in the overlay too, but are not pending
+        int pendingChanges = current.changesBySeq().tailMap(snapshot.lastChangeSeq(), false).size();
+        return new SnapshotInfo(snapshot.size(), snapshot.byteSize(),
+                snapshot.createdAt() > 0 ? Instant.ofEpochMilli(snapshot.createdAt()) : null,
+                pendingChanges, journal.size());
+    }
+    
+    private Duration snapshotAge() {
+        long createdAt = generation.snapshot().createdAt();
+        return createdAt > 0 ? Duration.ofMillis(System.currentTimeMillis() - createdAt) : Duration.ZERO;
+    }
+    
+    private void scheduledSnapshot() {
+        try {
+            compact();
+        } catch (RuntimeException e) {
+            log.error("Scheduled bank snapshot failed", e);
+        }
+    }
+    
+    private List<Bank> find(Predicate<Bank> filter) {
+        Pending pending = pending();
+        List<Bank> banks = new ArrayList<>();
+        forEachCurrent(generation, bank -> {
+            if ((pending == null || !pending.states.containsKey(bank.getId())) && filter.test(bank)) {
+                banks.add(copy(bank));
+            }
+        });
+        if (pending != null && !pending.states.isEmpty()) {
+            for (Bank staged : pending.states.values()) {
+                if (!(staged instanceof BankTombstone) && filter.test(staged)) {
+                    banks.add(copy(staged));
+                }
+            }
+            banks.sort(Comparator.comparing(Bank::getId));
+        }
+        return banks;
+    }
+    
+    /**
+     * Visits the current state of every bank in ID order: snapshot banks with their changes applied,
+     * then the banks created since the snapshot, whose IDs are all higher
+     */
+    private static void forEachCurrent(Generation generation, Consumer<Bank> action) {
+        BankSnapshot snapshot = generation.snapshot();
+        ConcurrentSkipListMap<Long, Bank> changes = generation.changes();
+        snapshot.forEach(bank -> {
+            Bank changed = changes.get(bank.getId());
+            if (changed == null) {
+                action.accept(bank);
+            } else if (!(changed instanceof BankTombstone)) {
+                action.accept(changed);
+            }
+        });
+        for (Bank changed : changes.tailMap(snapshot.maxId(), false).values()) {
+            if (!(changed instanceof BankTombstone)) {
+                action.accept(changed);
+            }
+        }
+    }
+    
+    private Bank current(long id) {
+        return current(generation, id);
+    }
+    
+    /**
+     * The bank as the caller sees it: as staged by the caller's transaction, or else as committed
+     */
+    private Bank visible(long id) {
+        Pending pending = pending();
+        return pending != null && pending.states.containsKey(id) ? alive(pending.states.get(id)) : current(id);
+    }
+    
+    private Bank visibleBySwiftCode(String swiftCode) {
+        return bySwiftCode(pending(), swiftCode, this::currentBySwiftCode);
+    }
+    
+    private static Bank current(Generation generation, long id) {
+        Bank changed = generation.changes().get(id);
+        if (changed != null) {
+            return changed instanceof BankTombstone ? null : changed;
+        }
+        return generation.snapshot().findById(id);
+    }
+    
+    /**
+     * The state a writer builds on: as staged by its transaction, or else the bank's latest change
+     */
+    private Bank latest(Pending pending, long id) {
+        return pending != null && pending.states.containsKey(id) ? alive(pending.states.get(id)) : latest(id);
+    }
+    
+    /**
+     * The state writers build on: the bank's latest change, even if it is not on disk yet
+     */
+    private Bank latest(long id) {
+        Bank changed = unsyncedById.get(id);
+        if (changed != null) {
+            return changed instanceof BankTombstone ? null : changed;
+        }
+        return current(id);
+    }
+    
+    /**
+     * Resolves a SWIFT code as writers see it, through the changes not on disk yet, then as readers do
+     */
+    private Bank latestBySwiftCode(String swiftCode) {
+        Long unsyncedId = unsyncedSwiftCodes.get(swiftCode);
+        Bank bank = unsyncedId != null ? latest(unsyncedId) : null;
+        if (bank != null && swiftCode.equals(bank.getSwiftCode())) {
+            return bank;
+        }
+        bank = currentBySwiftCode(swiftCode);
+        return bank != null && !unsyncedById.containsKey(bank.getId()) ? bank : null;
+    }
+    
+    private Bank latestBySwiftCode(Pending pending, String swiftCode) {
+        return bySwiftCode(pending, swiftCode, this::latestBySwiftCode);
+    }
+    
+    /**
+     * Resolves a SWIFT code through the writes staged by a transaction, then as outside it, unless the
+     * bank found there is one the transaction has written
+     */
+    private static Bank bySwiftCode(Pending pending, String swiftCode, Function<String, Bank> outside) {
+        if (pending == null) {
+            return outside.apply(swiftCode);
+        }
+        Long stagedId = pending.swiftCodes.get(swiftCode);
+        Bank bank = stagedId != null ? alive(pending.states.get(stagedId)) : null;
+        if (bank != null && swiftCode.equals(bank.getSwiftCode())) {
+            return bank;
+        }
+        bank = outside.apply(swiftCode);
+        return bank != null && !pending.states.containsKey(bank.getId()) ? bank : null;
+    }
+    
+    /**
+     * Resolves a SWIFT code through the overlay index, then the snapshot index, checking each
+     * candidate still carries the code, since either index may point at a bank that has moved on
+     */
+    private Bank currentBySwiftCode(String swiftCode) {
+        Generation current = generation;
+        Long changedId = current.changedSwiftCodes().get(swiftCode);
+        Bank bank = changedId != null ? current(changedId) : null;
+        if (bank == null || !swiftCode.equals(bank.getSwiftCode())) {
+            Long snapshotId = current.snapshot().findIdBySwiftCode(swiftCode);
+            bank = snapshotId != null ? current(snapshotId) : null;
+        }
+        return bank != null && swiftCode.equals(bank.getSwiftCode()) ? bank : null;
+    }
+    
+    /**
+     * Journals a new state for the bank, a {@link BankTombstone} meaning deleted, to be applied once
+     * synced, or stages it in the writer's transaction if it has one. Must hold the write lock.
+     *
+     * @return journal position to sync up to, 0 if staged
+     */
+    private long write(Pending pending, long id, Bank state) {
+        if (pending != null) {
+            pending.stage(id, state);
+            return 0;
+        }
+        long position = append(id, state);
+        compactIfDue();
+        return position;
+    }
+    
+    /**
+     * Must hold the write lock
+     */
+    private void compactIfDue() {
+        if (journal.size() > compactionThreshold) {
+            compact();
+        }
+    }
+    
+    /**
+     * Stamps the state with the next change sequence number and journals it, leaving it for
+     * {@link #sync} to apply. Must hold the write lock.
+     */
+    private long append(long id, Bank state) {
+        state.setChangeSeq(lastChangeSeq + 1);
+        long position;
+        try {
+            position = journal.appendPut(state);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot append to bank journal", e);
+        }
+        lastChangeSeq++;
+        unsynced.add(new Unsynced(position, id, state));
+        unsyncedById.put(id, state);
+        if (!(state instanceof BankTombstone)) {
+            unsyncedSwiftCodes.put(state.getSwiftCode(), id);
+        }
+        return position;
+    }
+    
+    private void apply(Generation target, long id, Bank state) {
+        Bank previous = current(target, id);
+        boolean deleted = state instanceof BankTombstone;
+        Bank replaced = target.changes().put(id, state);
+        target.changesBySeq().put(state.getChangeSeq(), id);
+        if (replaced != null && !state.getChangeSeq().equals(replaced.getChangeSeq())) {
+            target.changesBySeq().remove(replaced.getChangeSeq(), id);
+        }
+        if (previous != null && (deleted || !previous.getSwiftCode().equals(state.getSwiftCode()))) {
+            target.changedSwiftCodes().remove(previous.getSwiftCode(), id);
+        }
+        if (!deleted) {
+            target.changedSwiftCodes().put(state.getSwiftCode(), id);
+        }
+        if (previous == null && !deleted) {
+            count++;
+        } else if (previous != null && deleted) {
+            count--;
+        }
+    }
+    
+    /**
+     * Forces the journal up to the given position, then applies every change it now holds on disk, in
+     * journal order. If the force fails the changes stay unapplied, until a later force covers them.
+     */
+    private void sync(long position) {
+        try {
+            journal.sync(position);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot force bank journal to disk", e);
+        }
+        synchronized (writeLock) {
+            Unsynced next;
+            while ((next = unsynced.peek()) != null && next.position() <= position) {
+                unsynced.poll();
+                apply(generation, next.id(), next.state());
+                appliedThrough = next.state().getChangeSeq();
+                unsyncedById.remove(next.id(), next.state());
+                if (!(next.state() instanceof BankTombstone)) {
+                    unsyncedSwiftCodes.remove(next.state().getSwiftCode(), next.id());
+                }
+            }
+        }
+    }
+    
+    /**
+     * The caller's transaction, with the writes it has staged so far, if it has one
+     */
+    private Pending pending() {
+        return TransactionSynchronizationManager.isSynchronizationActive()
+                ? (Pending) TransactionSynchronizationManager.getResource(this)
+                : null;
+    }
+    
+    /**
+     * The caller's transaction, to stage writes in, starting to stage them if this is its first; null
+     * outside any transaction
+     */
+    private Pending joinTransaction() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return null;
+        }
+        Pending pending = pending();
+        if (pending == null) {
+            pending = new Pending();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        return pending;
+    }
+    
+    /**
+     * Journals the writes a transaction staged, unless a bank among them has been written since the
+     * transaction first wrote it, or a SWIFT code it took has been taken since
+     */
+    private void commit(Pending pending) {
+        if (pending.states.isEmpty()) {
+            return;
+        }
+        long position = 0;
+        synchronized (writeLock) {
+            for (Map.Entry<Long, Bank> staged : pending.states.entrySet()) {
+                long id = staged.getKey();
+                Bank base = pending.bases.get(id);
+                Bank latest = latest(id);
+                if (!Objects.equals(changeSeq(latest), changeSeq(base))) {
+                    throw BankVersionConflictException.forId(id, base != null ? base.getVersion() : null);
+                }
+                if (!(staged.getValue() instanceof BankTombstone)) {
+                    Bank owner = latestBySwiftCode(staged.getValue().getSwiftCode());
+                    if (owner != null && owner.getId() != id && !pending.states.containsKey(owner.getId())) {
+                        throw DuplicateBankException.bySwiftCode(staged.getValue().getSwiftCode());
+                    }
+                }
+            }
+            for (Map.Entry<Long, Bank> staged : pending.states.entrySet()) {
+                position = append(staged.getKey(), staged.getValue());
+            }
+            compactIfDue();
+        }
+        sync(position);
+        log.debug("Committed {} staged bank mutations", pending.states.size());
+    }
+        
+        private void checkSwiftCodeFree(Pending pending, String swiftCode, long id) {
+        Bank owner = latestBySwiftCode(pending, swiftCode);
+        if (owner != null && owner.getId() != id) {
+            throw DuplicateBankException.bySwiftCode(swiftCode);
+        }
+    }
+    
+    private static boolean matches(Bank existing, Long expectedVersion) {
+        return existing != null && (expectedVersion == null || expectedVersion.equals(existing.getVersion()));
+    }
+    
+    private static Bank copy(Bank bank) {
+        return bank.toBuilder().build();
+    }
+    
+    private static Bank alive(Bank state) {
+        return state instanceof BankTombstone ? null : state;
+    }
+    
+    private static Long changeSeq(Bank bank) {
+        return bank != null ? bank.getChangeSeq() : null;
+    }
+    
+    /**
+     * Writes staged by one transaction, journaled when it commits and dropped if it rolls back. Only used by
+     * the transaction's thread, under the write lock when writing.
+     */
+    private final class Pending implements TransactionSynchronization {
+        
+        /**
+         * Latest state the transaction gave each bank, a tombstone meaning deleted, in the order first written
+         */
+        private final Map<Long, Bank> states = new LinkedHashMap<>();
+        /**
+         * State of each bank before the transaction first wrote it, null if it did not exist
+         */
+        private final Map<Long, Bank> bases = new HashMap<>();
+        private final Map<String, Long> swiftCodes = new HashMap<>();
+        private long countDelta;
+        
+        void stage(long id, Bank state) {
+            Bank previous = states.containsKey(id) ? alive(states.get(id)) : latest(id);
+            if (!states.containsKey(id)) {
+                bases.put(id, previous);
+            }
+            states.put(id, state);
+            if (!(state instanceof BankTombstone)) {
+                swiftCodes.put(state.getSwiftCode(), id);
+            }
+            countDelta += (alive(state) != null ? 1 : 0) - (previous != null ? 1 : 0);
+        }
+        
+        @Override
+        public void suspend() {
+            TransactionSynchronizationManager.unbindResource(JournalBankRepositoryAdapter.this);
+        }
+        
+        @Override
+        public void resume() {
+            TransactionSynchronizationManager.bindResource(JournalBankRepositoryAdapter.this, this);
+        }
+        
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            commit(this);
+        }
+        
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(JournalBankRepositoryAdapter.this);
+        }
+    }
+    
+    private record Unsynced(long position, long id, Bank state) {
+    }
+    
+    /**
+     * Iterator over overlay changes that can look at the next one without taking it
+     */
+    private static final class PeekingIterator {
+        
+        private final Iterator<Map.Entry<Long, Long>> entries;
+        private Map.Entry<Long, Long> peeked;
+        
+        PeekingIterator(Iterator<Map.Entry<Long, Long>> entries) {
+            this.entries = entries;
+        }
+        
+        boolean hasNext() {
+            return peeked != null || entries.hasNext();
+        }
+        
+        Map.Entry<Long, Long> peek() {
+            if (peeked == null) {
+                peeked = entries.next();
+            }
+            return peeked;
+        }
+        
+        Map.Entry<Long, Long> next() {
+            Map.Entry<Long, Long> next = peek();
+            peeked = null;
+            return next;
+        }
+    }
+    
+    /**
+     * A snapshot and the changes made since, indexed by ID, SWIFT code and change sequence number; replaced
+     * as a whole when a new snapshot is written, so readers never mix a new snapshot with the changes
+     * already folded into it
+     */
+    private record Generation(BankSnapshot snapshot,
+                              ConcurrentSkipListMap<Long, Bank> changes,
+                              Map<String, Long> changedSwiftCodes,
+                              ConcurrentSkipListMap<Long, Long> changesBySeq) {
+        
+        Generation(BankSnapshot snapshot) {
+            this(snapshot, new ConcurrentSkipListMap<>(), new ConcurrentHashMap<>(), new ConcurrentSkipListMap<>());
+        }
+    }
+    
+    /**
+     * An open snapshot file and the change sequence number it is current up to
+     */
+    public record SnapshotTransfer(FileChannel channel, long version, long bytes) implements Closeable {
+        
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+    
+    /**
+     * State of the snapshot reads are served from, and of the changes not yet folded into it
+     */
+    public record SnapshotInfo(int banks, long bytes, Instant createdAt, int pendingChanges, long journalBytes) {
+    }
+}
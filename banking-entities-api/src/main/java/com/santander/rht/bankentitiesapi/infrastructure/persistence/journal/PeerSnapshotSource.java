@@ -0,0 +1,88 @@
+package com.santander.rht.bankentitiesapi.infrastructure.persistence.journal;
+
+import com.santander.rht.bankentitiesapi.domain.model.Bank;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Copies the bank directory from a running peer, so a new node starts from the peer's memory instead of
+ * rebuilding the directory from scratch: first the peer's current snapshot file, as is, then the changes
+ * the peer made since that snapshot, read from the journal records it streams.
+ */
+@Slf4j
+final class PeerSnapshotSource {
+    
+    static final String SNAPSHOT_PATH = "/internal/v1/banks/snapshot";
+    static final String CHANGES_PATH = "/internal/v1/banks/snapshot/changes";
+    static final String VERSION_HEADER = "X-Bank-Snapshot-Version";
+    
+    private final URI peer;
+    private final Duration timeout;
+    private final HttpClient httpClient;
+    
+    PeerSnapshotSource(URI peer, Duration timeout) {
+        this.peer = peer;
+        this.timeout = timeout;
+        this.httpClient = HttpClient.newBuilder().connectTimeout(timeout).build();
+    }
+    
+    /**
+     * The peer's snapshot version and the banks it changed or deleted since, in change sequence order
+     */
+    record PeerSnapshot(long version, List<Bank> changes) {
+    }
+    
+    /**
+     * Downloads the peer's snapshot to the given path, replacing it only once the copy is complete and
+     * intact, then reads the changes made since
+     */
+    PeerSnapshot fetch(Path snapshotPath) throws IOException, InterruptedException {
+        Path download = snapshotPath.resolveSibling(snapshotPath.getFileName() + ".peer");
+        try {
+            HttpResponse<Path> snapshot = httpClient.send(request(SNAPSHOT_PATH), HttpResponse.BodyHandlers.ofFile(download));
+            checkOk(snapshot, SNAPSHOT_PATH);
+            long version = BankSnapshot.open(download).lastChangeSeq();
+            
+            HttpResponse<InputStream> response = httpClient.send(request(CHANGES_PATH + "?since=" + version),
+                    HttpResponse.BodyHandlers.ofInputStream());
+            List<Bank> changes = new ArrayList<>();
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(response.body(), 1 << 16))) {
+                checkOk(response, CHANGES_PATH);
+                // Pages of [count][records], ending with an empty one
+                for (int count = in.readInt(); count > 0; count = in.readInt()) {
+                    for (int i = 0; i < count; i++) {
+                        BankJournal.readRecord(in, changes::add);
+                    }
+                }
+            }
+            Files.move(download, snapshotPath, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            return new PeerSnapshot(version, changes);
+        } finally {
+            Files.deleteIfExists(download);
+        }
+    }
+    
+    private HttpRequest request(String path) {
+        return HttpRequest.newBuilder(peer.resolve(path)).timeout(timeout).GET().build();
+    }
+    
+    private void checkOk(HttpResponse<?> response, String path) throws IOException {
+        if (response.statusCode() != 200) {
+            throw new IOException("Peer " + peer + " answered " + path + " with status " + response.statusCode());
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.santander.rht.bankentitiesapi.infrastructure.persistence.repository;
+
+import com.santander.rht.bankentitiesapi.infrastructure.persistence.entity.BankEntity;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * JPA Repository for Bank entities.
+ * The country code and active finders are answered from the query cache until a write to the banks table.
+ */
+@Repository
+public interface JpaBankRepository extends JpaRepository<BankEntity, Long>, JpaBankRepositoryCustom {
+    
+    List<BankEntity> findByCountry(String country);
+    
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+                 @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = BankEntity.COUNTRY_CODE_QUERY_REGION)})
+    List<BankEntity> findByCountryCode(String countryCode);
+    
+    List<BankEntity> findByNameContainingIgnoreCase(String name);
+    
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+                 @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = BankEntity.ACTIVE_QUERY_REGION)})
+    List<BankEntity> findByActiveTrue();
+    
+    boolean existsBySwiftCode(String swiftCode);
+    
+    @Query("SELECT b FROM BankEntity b WHERE b.swiftCode = :swiftCode AND b.id != :id")
+    Optional<BankEntity> findBySwiftCodeAndIdNot(@Param("swiftCode") String swiftCode, @Param("id") Long id);
+    
+    /**
+     * Replaces every mutable column, bumps the version and stamps the change sequence in one statement,
+     * without loading the entity first
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            UPDATE BankEntity b SET
+                b.swiftCode = :#{#bank.swiftCode}, b.name = :#{#bank.name}, b.address = :#{#bank.address},
+                b.city = :#{#bank.city}, b.country = :#{#bank.country}, b.countryCode = :#{#bank.countryCode},
+                b.phoneNumber = :#{#bank.phoneNumber}, b.email = :#{#bank.email}, b.website = :#{#bank.website},
+                b.bankType = :#{#bank.bankType}, b.active = :#{#bank.active}, b.updatedAt = :#{#bank.updatedAt},
+                b.version = b.version + 1, b.changeSeq = :#{#bank.changeSeq}
+            WHERE b.id = :#{#bank.id} AND b.deletedAt IS NULL
+                AND (:expectedVersion IS NULL OR b.version = :expectedVersion)
+            """)
+    int updateIfVersionMatches(@Param("bank") BankEntity bank, @Param("expectedVersion") Long expectedVersion);
+    
+    /**
+     * Turns the bank into a tombstone in one statement, moving its SWIFT code aside so it can be reused
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            UPDATE BankEntity b SET
+                b.deletedSwiftCode = b.swiftCode, b.swiftCode = NULL, b.deletedAt = :deletedAt,
+                b.version = b.version + 1, b.changeSeq = :changeSeq
+            WHERE b.id = :id AND b.deletedAt IS NULL
+                AND (:expectedVersion IS NULL OR b.version = :expectedVersion)
+            """)
+    int deleteIfVersionMatches(@Param("id") Long id, @Param("expectedVersion") Long expectedVersion,
+                               @Param("changeSeq") long changeSeq, @Param("deletedAt") LocalDateTime deletedAt);
+    
+    /**
+     * Highest change sequence number in use, counting tombstones
+     */
+    @Query(value = "SELECT COALESCE(MAX(change_seq), 0) FROM banks", nativeQuery = true)
+    long findMaxChangeSeq();
+}
\ No newline at end of file
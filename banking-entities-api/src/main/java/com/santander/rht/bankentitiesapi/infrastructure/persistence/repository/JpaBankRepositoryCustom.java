@@ -0,0 +1,60 @@
+package com.santander.rht.bankentitiesapi.infrastructure.persistence.repository;
+
+import com.santander.rht.bankentitiesapi.domain.model.BankField;
+import com.santander.rht.bankentitiesapi.infrastructure.persistence.entity.BankEntity;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Repository fragment for queries that Spring Data cannot derive
+ */
+public interface JpaBankRepositoryCustom {
+    
+    /**
+     * Looks the bank up by its natural ID, so repeated lookups are answered from the second-level cache
+     */
+    Optional<BankEntity> findBySwiftCode(String swiftCode);
+    
+    /**
+     * Drops the bank and the SWIFT code resolutions from the second-level cache. A bulk update leaves them
+     * readable until its transaction completes, so the transaction's own reads would otherwise see the old row.
+     */
+    void evictCached(Long id);
+    
+    /**
+     * Updates only the given columns, and only if at least one of them differs from the stored value
+     *
+     * @return number of rows updated
+     */
+    int patch(Long id, Map<BankField, Object> changes, Long expectedVersion, long changeSeq, LocalDateTime updatedAt);
+    
+    /**
+     * Inserts or updates the banks by SWIFT code in one JDBC batch, leaving unchanged rows alone.
+     * Each bank must carry the change sequence number to stamp its row with. The batch bypasses Hibernate,
+     * so the cached banks and query results are evicted, again once the transaction completes.
+     *
+     * @return per bank, 1 if a row was inserted or updated, 0 otherwise
+     */
+    int[] upsertBySwiftCode(List<BankEntity> banks, LocalDateTime now);
+    
+    /**
+     * Rows changed after {@code since} up to and including {@code through}, tombstones included, by change sequence
+     */
+    List<BankEntity> findChangesSince(long since, long through, int limit);
+    
+    /**
+     * Deletes the tombstones of banks deleted before the given time and records the highest sequence
+     * number removed
+     *
+     * @return number of tombstones deleted
+     */
+    int purgeTombstones(LocalDateTime deletedBefore);
+    
+    /**
+     * Highest change sequence number whose tombstone may have been deleted
+     */
+    long purgedThrough();
+}
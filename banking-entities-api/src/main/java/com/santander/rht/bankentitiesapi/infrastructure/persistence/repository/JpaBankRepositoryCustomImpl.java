@@ -0,0 +1,223 @@
+package com.santander.rht.bankentitiesapi.infrastructure.persistence.repository;
+
+import com.santander.rht.bankentitiesapi.domain.model.BankField;
+import com.santander.rht.bankentitiesapi.infrastructure.persistence.entity.BankChangeFeedEntity;
+import com.santander.rht.bankentitiesapi.infrastructure.persistence.entity.BankEntity;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import org.hibernate.Cache;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Builds the partial UPDATE statement from the patched fields, runs the batched SWIFT code upsert, and
+ * reads and compacts the change feed. Column names come from {@link BankField}, never from client input.
+ */
+public class JpaBankRepositoryCustomImpl implements JpaBankRepositoryCustom {
+    
+    /**
+     * Matched rows are only updated when a value differs, so re-sending the same data writes nothing
+     */
+    private static final String UPSERT_SQL = """
+            MERGE INTO banks t
+            USING (VALUES (CAST(? AS VARCHAR(11)), CAST(? AS VARCHAR(255)), CAST(? AS VARCHAR(500)),
+                           CAST(? AS VARCHAR(100)), CAST(? AS VARCHAR(100)), CAST(? AS VARCHAR(2)),
+                           CAST(? AS VARCHAR(20)), CAST(? AS VARCHAR(100)), CAST(? AS VARCHAR(255)),
+                           CAST(? AS VARCHAR(255)), CAST(? AS BOOLEAN), CAST(? AS TIMESTAMP), CAST(? AS BIGINT)))
+                  s(swift_code, name, address, city, country, country_code, phone_number, email, website,
+                    bank_type, active, written_at, change_seq)
+            ON t.swift_code = s.swift_code
+            WHEN MATCHED AND (t.name IS DISTINCT FROM s.name OR t.address IS DISTINCT FROM s.address
+                              OR t.city IS DISTINCT FROM s.city OR t.country IS DISTINCT FROM s.country
+                              OR t.country_code IS DISTINCT FROM s.country_code
+                              OR t.phone_number IS DISTINCT FROM s.phone_number
+                              OR t.email IS DISTINCT FROM s.email OR t.website IS DISTINCT FROM s.website
+                              OR t.bank_type IS DISTINCT FROM s.bank_type OR t.active IS DISTINCT FROM s.active) THEN
+                UPDATE SET name = s.name, address = s.address, city = s.city, country = s.country,
+                           country_code = s.country_code, phone_number = s.phone_number, email = s.email,
+                           website = s.website, bank_type = s.bank_type, active = s.active,
+                           updated_at = s.written_at, version = t.version + 1, change_seq = s.change_seq
+            WHEN NOT MATCHED THEN
+                INSERT (swift_code, name, address, city, country, country_code, phone_number, email, website,
+                        bank_type, active, created_at, updated_at, version, change_seq)
+                VALUES (s.swift_code, s.name, s.address, s.city, s.country, s.country_code, s.phone_number,
+                        s.email, s.website, s.bank_type, s.active, s.written_at, s.written_at, 0, s.change_seq)
+            """;
+    
+    /**
+     * Reads tombstones too, which the entity's restriction hides from entity queries
+     */
+    private static final String CHANGES_SQL =
+            "SELECT * FROM banks WHERE change_seq > :since AND change_seq <= :through ORDER BY change_seq";
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    /**
+     * Transactional like the derived finders, as the session must stay open while the natural ID is resolved
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<BankEntity> findBySwiftCode(String swiftCode) {
+        return entityManager.unwrap(Session.class).bySimpleNaturalId(BankEntity.class).loadOptional(swiftCode);
+    }
+    
+    @Override
+    public void evictCached(Long id) {
+        Cache cache = cache();
+        cache.evictEntityData(BankEntity.class, id);
+        cache.evictNaturalIdData(BankEntity.class);
+    }
+    
+    @Override
+    public int patch(Long id, Map<BankField, Object> changes, Long expectedVersion, long changeSeq, LocalDateTime updatedAt) {
+        if (changes.isEmpty()) {
+            return 0;
+        }
+        
+        List<String> assignments = new ArrayList<>();
+        List<String> differences = new ArrayList<>();
+        for (BankField field : changes.keySet()) {
+            assignments.add("b." + field.getProperty() + " = :" + field.getProperty());
+            differences.add("b." + field.getProperty() + " IS DISTINCT FROM :" + field.getProperty());
+        }
+        
+        // Rows whose patched columns already hold the new values are not matched, so a no-op patch writes nothing
+        String hql = "UPDATE BankEntity b SET " + String.join(", ", assignments)
+                + ", b.updatedAt = :updatedAt, b.version = b.version + 1, b.changeSeq = :changeSeq"
+                + " WHERE b.id = :id AND b.deletedAt IS NULL"
+                + (expectedVersion != null ? " AND b.version = :expectedVersion" : "")
+                + " AND (" + String.join(" OR ", differences) + ")";
+        
+        entityManager.flush();
+        Query query = entityManager.createQuery(hql)
+                .setParameter("id", id)
+                .setParameter("updatedAt", updatedAt)
+                .setParameter("changeSeq", changeSeq);
+        if (expectedVersion != null) {
+            query.setParameter("expectedVersion", expectedVersion);
+        }
+        changes.forEach((field, value) -> query.setParameter(field.getProperty(), value));
+        
+        int updated = query.executeUpdate();
+        entityManager.clear();
+        if (updated > 0) {
+            evictCached(id);
+        }
+        return updated;
+    }
+    
+    @Override
+    public int[] upsertBySwiftCode(List<BankEntity> banks, LocalDateTime now) {
+        if (banks.isEmpty()) {
+            return new int[0];
+        }
+        entityManager.flush();
+        Timestamp timestamp = Timestamp.valueOf(now);
+        int[] counts = entityManager.unwrap(Session.class).doReturningWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(UPSERT_SQL)) {
+                for (BankEntity bank : banks) {
+                    statement.setString(1, bank.getSwiftCode());
+                    statement.setString(2, bank.getName());
+                    statement.setString(3, bank.getAddress());
+                    statement.setString(4, bank.getCity());
+                    statement.setString(5, bank.getCountry());
+                    statement.setString(6, bank.getCountryCode());
+                    statement.setString(7, bank.getPhoneNumber());
+                    statement.setString(8, bank.getEmail());
+                    statement.setString(9, bank.getWebsite());
+                    statement.setString(10, bank.getBankType() != null ? bank.getBankType().name() : null);
+                    statement.setObject(11, bank.getActive() != null ? bank.getActive() : Boolean.TRUE, Types.BOOLEAN);
+                    statement.setTimestamp(12, timestamp);
+                    statement.setLong(13, bank.getChangeSeq());
+                    statement.addBatch();
+                }
+                return statement.executeBatch();
+            }
+        });
+        entityManager.clear();
+        evictCachedBanks();
+        return counts;
+    }
+    
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<BankEntity> findChangesSince(long since, long through, int limit) {
+        return entityManager.createNativeQuery(CHANGES_SQL, BankEntity.class)
+                .setParameter("since", since)
+                .setParameter("through", through)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+    
+    @Override
+    public int purgeTombstones(LocalDateTime deletedBefore) {
+        Number through = (Number) entityManager
+                .createNativeQuery("SELECT MAX(change_seq) FROM banks WHERE deleted_at < :deletedBefore")
+                .setParameter("deletedBefore", deletedBefore)
+                .getSingleResult();
+        if (through == null) {
+            return 0;
+        }
+        // Record the horizon before the tombstones go, in the same transaction
+        BankChangeFeedEntity state = entityManager.find(BankChangeFeedEntity.class, BankChangeFeedEntity.ID,
+                LockModeType.PESSIMISTIC_WRITE);
+        if (state == null) {
+            entityManager.persist(new BankChangeFeedEntity(BankChangeFeedEntity.ID, through.longValue()));
+        } else if (state.getPurgedThrough() < through.longValue()) {
+            state.setPurgedThrough(through.longValue());
+        }
+        entityManager.flush();
+        return entityManager
+                .createNativeQuery("DELETE FROM banks WHERE deleted_at IS NOT NULL AND change_seq <= :through")
+                .setParameter("through", through.longValue())
+                .executeUpdate();
+    }
+    
+    @Override
+    public long purgedThrough() {
+        BankChangeFeedEntity state = entityManager.find(BankChangeFeedEntity.class, BankChangeFeedEntity.ID);
+        return state != null ? state.getPurgedThrough() : 0;
+    }
+    
+    /**
+     * Evicts every cached bank and query result, since the rows a JDBC batch changed are not known. Evicted
+     * again after the transaction, as reads in between may cache the rows as they were before it committed.
+     */
+    private void evictCachedBanks() {
+        Cache cache = cache();
+        Runnable evict = () -> {
+            cache.evictEntityData(BankEntity.class);
+            cache.evictNaturalIdData(BankEntity.class);
+            cache.evictQueryRegion(BankEntity.COUNTRY_CODE_QUERY_REGION);
+            cache.evictQueryRegion(BankEntity.ACTIVE_QUERY_REGION);
+        };
+        evict.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evict.run();
+                }
+            });
+        }
+    }
+    
+    private Cache cache() {
+        return entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getCache();
+    }
+}
@@ -0,0 +1,13 @@
+package com.santander.rht.bankentitiesapi.infrastructure.persistence.routing;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import java.util.List;
+
+/**
+ * Component holding connection pools of its own, which are not beans, such as replica or shard pools
+ */
+public interface ConnectionPoolOwner {
+    
+    List<HikariDataSource> connectionPools();
+}
@@ -0,0 +1,78 @@
+package com.santander.rht.bankentitiesapi.infrastructure.persistence.routing;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times every statement executed on connections from the target data source, tagged with its name, so
+ * the load each database takes can be told apart
+ */
+public class MeteredDataSource extends DelegatingDataSource {
+    
+    private final Timer queries;
+    
+    public MeteredDataSource(String name, DataSource target, MeterRegistry meterRegistry) {
+        super(target);
+        this.queries = Timer.builder("bank.datasource.queries")
+                .description("Statements executed, by data source")
+                .tag("datasource", name)
+                .register(meterRegistry);
+    }
+    
+    @Override
+    public Connection getConnection() throws SQLException {
+        return meter(super.getConnection());
+    }
+    
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return meter(super.getConnection(username, password));
+    }
+    
+    private Connection meter(Connection connection) {
+        return proxy(Connection.class, (proxy, method, args) -> {
+            Object result = invoke(connection, method, args);
+            return result instanceof Statement statement && Statement.class.isAssignableFrom(method.getReturnType())
+                    ? meter(statement, method.getReturnType())
+                    : result;
+        });
+    }
+    
+    private Object meter(Statement statement, Class<?> type) {
+        return proxy(type, (proxy, method, args) -> {
+            if (!method.getName().startsWith("execute")) {
+                return invoke(statement, method, args);
+            }
+            long start = System.nanoTime();
+            try {
+                return invoke(statement, method, args);
+            } finally {
+                queries.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+        });
+    }
+    
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(MeteredDataSource.class.getClassLoader(), new Class<?>[]{type}, handler);
+    }
+    
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+}
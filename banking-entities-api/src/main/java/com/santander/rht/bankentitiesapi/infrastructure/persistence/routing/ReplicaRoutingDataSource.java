@@ -0,0 +1,242 @@
+package com.santander.rht.bankentitiesapi.infrastructure.persistence.routing;
+
+import com.santander.rht.bankentitiesapi.infrastructure.persistence.entity.ReplicationHeartbeatEntity;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hands out connections to the read replicas, for read-only transactions.
+ * <p>
+ * A replica is picked round-robin or by fewest connections in use among those available: answering the last
+ * health check, and lagging the primary by no more than the max lag. Lag is read from the heartbeat row the
+ * checks stamp on the primary, as the time since the replica's copy was stamped, so it is only known to
+ * within the check interval. A replica that fails to hand out a connection is ejected until the next check
+ * it passes, and the next one is tried; with none available, reads go to the primary.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractDataSource implements ConnectionPoolOwner, AutoCloseable {
+    
+    private static final String UPDATE_HEARTBEAT = "UPDATE replication_heartbeat SET beat_at = ? WHERE id = ?";
+    private static final String INSERT_HEARTBEAT = "INSERT INTO replication_heartbeat (id, beat_at) VALUES (?, ?)";
+    private static final String SELECT_HEARTBEAT = "SELECT beat_at FROM replication_heartbeat WHERE id = ?";
+    
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final ReplicaSelection selection;
+    private final Duration maxLag;
+    private final Duration checkInterval;
+    private final Counter primaryReads;
+    private final AtomicInteger next = new AtomicInteger();
+    
+    private volatile Thread checker;
+    
+    /**
+     * @param primary data source reads fall back to, and the heartbeat is written to
+     * @param replicas replica pools, tagged in metrics by their pool name
+     * @param maxLag largest lag a replica is still read from, zero to read from replicas however far behind
+     */
+    public ReplicaRoutingDataSource(DataSource primary, List<HikariDataSource> replicas, ReplicaSelection selection,
+                                    Duration maxLag, Duration checkInterval, MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.replicas = replicas.stream().map(pool -> new Replica(pool, meterRegistry)).toList();
+        this.selection = selection;
+        this.maxLag = maxLag;
+        this.checkInterval = checkInterval;
+        this.primaryReads = readCounter("primary", meterRegistry);
+    }
+    
+    /**
+     * Starts checking the replicas, which are not read from before their first check passes
+     */
+    public void start() {
+        checker = Thread.ofPlatform().name("replica-health-check").daemon().start(() -> {
+            while (!Thread.currentThread().isInterrupted()) {
+                checkReplicas();
+                try {
+                    Thread.sleep(checkInterval);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        });
+    }
+    
+    @Override
+    public List<HikariDataSource> connectionPools() {
+        return replicas.stream().map(replica -> replica.pool).toList();
+    }
+    
+    @Override
+    public void close() {
+        Thread thread = checker;
+        if (thread != null) {
+            thread.interrupt();
+        }
+        replicas.forEach(replica -> replica.pool.close());
+    }
+    
+    @Override
+    public Connection getConnection() throws SQLException {
+        for (Replica replica : candidates()) {
+            try {
+                Connection connection = replica.dataSource.getConnection();
+                replica.reads.increment();
+                return connection;
+            } catch (SQLException e) {
+                replica.eject(e);
+            }
+        }
+        primaryReads.increment();
+        return primary.getConnection();
+    }
+    
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new UnsupportedOperationException("Replica connections use the credentials of their pools");
+    }
+    
+    /**
+     * Available replicas, in the order they should be tried
+     */
+    private List<Replica> candidates() {
+        List<Replica> available = new ArrayList<>(replicas.size());
+        for (Replica replica : replicas) {
+            if (replica.isAvailable()) {
+                available.add(replica);
+            }
+        }
+        if (available.size() > 1) {
+            if (selection == ReplicaSelection.LEAST_CONNECTIONS) {
+                available.sort(Comparator.comparingInt(Replica::activeConnections));
+            } else {
+                Collections.rotate(available, -Math.floorMod(next.getAndIncrement(), available.size()));
+            }
+        }
+        return available;
+    }
+    
+    /**
+     * Stamps the heartbeat on the primary, then reads each replica's copy of it to tell whether the replica
+     * is up and how far behind it is
+     */
+    public void checkReplicas() {
+        long now = System.currentTimeMillis();
+        try {
+            beat(now);
+        } catch (SQLException e) {
+            log.warn("Could not write the replication heartbeat: {}", e.getMessage());
+        }
+        for (Replica replica : replicas) {
+            try (Connection connection = replica.pool.getConnection();
+                 PreparedStatement statement = connection.prepareStatement(SELECT_HEARTBEAT)) {
+                statement.setLong(1, ReplicationHeartbeatEntity.ID);
+                try (ResultSet rs = statement.executeQuery()) {
+                    replica.checked(rs.next() ? Math.max(0, now - rs.getLong(1)) : -1);
+                }
+            } catch (SQLException e) {
+                replica.eject(e);
+            }
+        }
+    }
+    
+    private void beat(long now) throws SQLException {
+        try (Connection connection = primary.getConnection()) {
+            connection.setAutoCommit(true);
+            try (PreparedStatement update = connection.prepareStatement(UPDATE_HEARTBEAT)) {
+                update.setLong(1, now);
+                update.setLong(2, ReplicationHeartbeatEntity.ID);
+                if (update.executeUpdate() > 0) {
+                    return;
+                }
+            }
+            try (PreparedStatement insert = connection.prepareStatement(INSERT_HEARTBEAT)) {
+                insert.setLong(1, ReplicationHeartbeatEntity.ID);
+                insert.setLong(2, now);
+                insert.executeUpdate();
+            } catch (SQLException e) {
+                // Another instance inserted it first, its beat is as good as this one
+                log.debug("Replication heartbeat already inserted: {}", e.getMessage());
+            }
+        }
+    }
+    
+    private static Counter readCounter(String name, MeterRegistry meterRegistry) {
+        return Counter.builder("bank.datasource.reads")
+                .description("Connections handed out for read-only transactions, by data source")
+                .tag("datasource", name)
+                .register(meterRegistry);
+    }
+    
+    private final class Replica {
+        
+        private final HikariDataSource pool;
+        private final DataSource dataSource;
+        private final Counter reads;
+        
+        private volatile boolean healthy;
+        /**
+         * Milliseconds behind the primary at the last check, -1 when not known
+         */
+        private volatile long lagMillis = -1;
+        
+        Replica(HikariDataSource pool, MeterRegistry meterRegistry) {
+            String name = pool.getPoolName();
+            this.pool = pool;
+            this.dataSource = new MeteredDataSource(name, pool, meterRegistry);
+            this.reads = readCounter(name, meterRegistry);
+            Gauge.builder("bank.datasource.replica.available", this, replica -> replica.isAvailable() ? 1 : 0)
+                    .description("Whether the replica is read from: up and within the max lag")
+                    .tag("datasource", name)
+                    .register(meterRegistry);
+            Gauge.builder("bank.datasource.replica.lag", this, replica -> replica.lagMillis)
+                    .description("Milliseconds the replica was behind the primary at the last check, -1 when not known")
+                    .tag("datasource", name)
+                    .baseUnit("milliseconds")
+                    .register(meterRegistry);
+        }
+        
+        boolean isAvailable() {
+            long lag = lagMillis;
+            return healthy && (maxLag.isZero() || (lag >= 0 && lag <= maxLag.toMillis()));
+        }
+        
+        int activeConnections() {
+            HikariPoolMXBean bean = pool.getHikariPoolMXBean();
+            return bean == null ? 0 : bean.getActiveConnections();
+        }
+        
+        void checked(long lag) {
+            boolean wasAvailable = isAvailable();
+            healthy = true;
+            lagMillis = lag;
+            if (wasAvailable != isAvailable()) {
+                log.info("Replica {} {} (lag {} ms)", pool.getPoolName(),
+                        wasAvailable ? "lags too far behind" : "is available", lag);
+            }
+        }
+        
+        void eject(SQLException e) {
+            if (healthy) {
+                log.warn("Ejecting replica {}: {}", pool.getPoolName(), e.getMessage());
+            }
+            healthy = false;
+        }
+    }
+}
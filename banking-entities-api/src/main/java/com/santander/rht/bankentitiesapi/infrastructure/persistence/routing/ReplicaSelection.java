@@ -0,0 +1,15 @@
+package com.santander.rht.bankentitiesapi.infrastructure.persistence.routing;
+
+/**
+ * How a read-only transaction picks among the available replicas
+ */
+public enum ReplicaSelection {
+    /**
+     * Each replica in turn
+     */
+    ROUND_ROBIN,
+    /**
+     * The replica whose pool has the fewest connections in use
+     */
+    LEAST_CONNECTIONS
+}
@@ -0,0 +1,85 @@
+package com.santander.rht.bankentitiesapi.infrastructure.persistence.shard;
+
+import com.santander.rht.bankentitiesapi.domain.exception.InvalidBankDataException;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Maps countries to shards, and bank IDs to and from the shard holding the bank.
+ * <p>
+ * A bank lives on the shard of the country in its SWIFT code (characters 5-6). Countries are pinned to
+ * shards by the configured assignments, so large countries can get a shard of their own; the others are
+ * spread by hash. Bank IDs carry their shard in the low {@value #SHARD_BITS} bits above the shard-local
+ * identity, so IDs are unique across shards and lookups by ID need no directory. Changing the shard count
+ * or the assignments moves countries, whose banks then have to be moved by hand.
+ */
+final class CountryShardRouter {
+    
+    static final int SHARD_BITS = 8;
+    static final int MAX_SHARDS = 1 << SHARD_BITS;
+    
+    private final int shards;
+    private final Map<String, Integer> assignments;
+    
+    CountryShardRouter(int shards, Map<String, Integer> assignments) {
+        if (shards < 1 || shards > MAX_SHARDS) {
+            throw new IllegalArgumentException("Between 1 and " + MAX_SHARDS + " shards are supported, not " + shards);
+        }
+        assignments.forEach((country, shard) -> {
+            if (shard < 0 || shard >= shards) {
+                throw new IllegalArgumentException("Country " + country + " is assigned to unknown shard " + shard);
+            }
+        });
+        this.shards = shards;
+        this.assignments = Map.copyOf(assignments);
+    }
+    
+    /**
+     * Parses assignments written as {@code ES:0,PT:0,DE:1}
+     */
+    static Map<String, Integer> parseAssignments(String assignments) {
+        Map<String, Integer> parsed = new HashMap<>();
+        for (String assignment : assignments.split(",")) {
+            if (assignment.isBlank()) {
+                continue;
+            }
+            String[] parts = assignment.split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid shard assignment: " + assignment);
+            }
+            parsed.put(parts[0].trim().toUpperCase(Locale.ROOT), Integer.parseInt(parts[1].trim()));
+        }
+        return parsed;
+    }
+    
+    int shardOfCountry(String countryCode) {
+        String country = countryCode.toUpperCase(Locale.ROOT);
+        Integer assigned = assignments.get(country);
+        return assigned != null ? assigned : Math.floorMod(country.hashCode(), shards);
+    }
+    
+    int shardOfSwiftCode(String swiftCode) {
+        if (swiftCode == null || swiftCode.length() < 6) {
+            throw InvalidBankDataException.invalidSwiftCode(swiftCode);
+        }
+        return shardOfCountry(swiftCode.substring(4, 6));
+    }
+    
+    /**
+     * Shard of the bank with the given ID, -1 when no shard can hold it
+     */
+    int shardOfId(long id) {
+        int shard = (int) (id & (MAX_SHARDS - 1));
+        return id > 0 && shard < shards ? shard : -1;
+    }
+    
+    static long globalId(long localId, int shard) {
+        return localId << SHARD_BITS | shard;
+    }
+    
+    static long localId(long id) {
+        return id >>> SHARD_BITS;
+    }
+}
@@ -0,0 +1,743 @@
+package com.santander.rht.bankentitiesapi.infrastructure.persistence.shard;
+
+import com.santander.rht.bankentitiesapi.domain.exception.DuplicateBankException;
+import com.santander.rht.bankentitiesapi.domain.exception.InvalidBankDataException;
+import com.santander.rht.bankentitiesapi.domain.model.Bank;
+import com.santander.rht.bankentitiesapi.domain.model.BankChange;
+import com.santander.rht.bankentitiesapi.domain.model.BankField;
+import com.santander.rht.bankentitiesapi.domain.model.BankPatch;
+import com.santander.rht.bankentitiesapi.domain.model.BankType;
+import com.santander.rht.bankentitiesapi.domain.port.out.BankRepositoryPort;
+import com.santander.rht.bankentitiesapi.infrastructure.persistence.adapter.BankChangeSequence;
+import com.santander.rht.bankentitiesapi.infrastructure.persistence.entity.BankChangeFeedEntity;
+import com.santander.rht.bankentitiesapi.infrastructure.persistence.routing.ConnectionPoolOwner;
+import com.santander.rht.bankentitiesapi.infrastructure.persistence.routing.MeteredDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.datasource.ConnectionHolder;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionSystemException;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Adapter that spreads banks over several databases by country, see {@link CountryShardRouter}.
+ * <p>
+ * Lookups by ID, SWIFT code or country code, and single-bank writes, go to one shard. Other queries are
+ * sent to every shard in parallel, and the per-shard results, each already ordered, are merged without
+ * sorting the whole. Batches of upserts are split by shard and written in parallel, each shard's part in
+ * a transaction of its own, so regional refreshes no longer queue up on one table. A write that would
+ * move a bank to another shard, by changing its SWIFT code or country code to a country held elsewhere,
+ * is rejected, as the bank's ID names its shard.
+ * <p>
+ * Shards are written with plain JDBC. Within a transaction, the first write to a shard opens a connection
+ * that takes part in it: later statements of the transaction on that shard, reads included, go through
+ * it, and it commits just before the transaction does, or rolls back with it. Shards commit one after
+ * another, so a shard failing to commit rolls the transaction back but not the shards committed before
+ * it. Outside any transaction, each statement commits on its own.
+ * Change sequence numbers are drawn from one {@link BankChangeSequence} for all shards, kept on the
+ * first shard and shared by every instance writing to them, so the change feed merges the shards'
+ * changes by sequence number. Drawing them takes one round trip to the first shard and holds no lock,
+ * so writes to the other shards do not wait on it.
+ */
+@Component
+@ConditionalOnProperty(name = "app.repository.type", havingValue = "sharded")
+@Slf4j
+public class ShardedBankRepositoryAdapter implements BankRepositoryPort, ConnectionPoolOwner {
+    
+    private static final String COLUMNS = "local_id, swift_code, name, address, city, country, country_code, "
+            + "phone_number, email, website, bank_type, active, created_at, updated_at, version, change_seq, "
+            + "deleted_at, deleted_swift_code";
+    private static final String SELECT_LIVE = "SELECT " + COLUMNS + " FROM banks WHERE deleted_at IS NULL";
+    private static final String INSERT = """
+            INSERT INTO banks (swift_code, name, address, city, country, country_code, phone_number, email,
+                               website, bank_type, active, created_at, updated_at, version, change_seq)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0, ?)
+            """;
+    private static final String UPDATE = """
+            UPDATE banks SET swift_code = ?, name = ?, address = ?, city = ?, country = ?, country_code = ?,
+                             phone_number = ?, email = ?, website = ?, bank_type = ?, active = ?, updated_at = ?,
+                             version = version + 1, change_seq = ?
+            WHERE local_id = ? AND deleted_at IS NULL
+            """;
+    private static final String DELETE = """
+            UPDATE banks SET deleted_swift_code = swift_code, swift_code = NULL, deleted_at = ?,
+                             version = version + 1, change_seq = ?
+            WHERE local_id = ? AND deleted_at IS NULL
+            """;
+    
+    /**
+     * Matched rows are only updated when a value differs, so re-sending the same data writes nothing
+     */
+    private static final String UPSERT = """
+            MERGE INTO banks t
+            USING (VALUES (CAST(? AS VARCHAR(11)), CAST(? AS VARCHAR(255)), CAST(? AS VARCHAR(500)),
+                           CAST(? AS VARCHAR(100)), CAST(? AS VARCHAR(100)), CAST(? AS VARCHAR(2)),
+                           CAST(? AS VARCHAR(20)), CAST(? AS VARCHAR(100)), CAST(? AS VARCHAR(255)),
+                           CAST(? AS VARCHAR(255)), CAST(? AS BOOLEAN), CAST(? AS TIMESTAMP), CAST(? AS BIGINT)))
+                  s(swift_code, name, address, city, country, country_code, phone_number, email, website,
+                    bank_type, active, written_at, change_seq)
+            ON t.swift_code = s.swift_code
+            WHEN MATCHED AND (t.name IS DISTINCT FROM s.name OR t.address IS DISTINCT FROM s.address
+                              OR t.city IS DISTINCT FROM s.city OR t.country IS DISTINCT FROM s.country
+                              OR t.country_code IS DISTINCT FROM s.country_code
+                              OR t.phone_number IS DISTINCT FROM s.phone_number
+                              OR t.email IS DISTINCT FROM s.email OR t.website IS DISTINCT FROM s.website
+                              OR t.bank_type IS DISTINCT FROM s.bank_type OR t.active IS DISTINCT FROM s.active) THEN
+                UPDATE SET name = s.name, address = s.address, city = s.city, country = s.country,
+                           country_code = s.country_code, phone_number = s.phone_number, email = s.email,
+                           website = s.website, bank_type = s.bank_type, active = s.active,
+                           updated_at = s.written_at, version = t.version + 1, change_seq = s.change_seq
+            WHEN NOT MATCHED THEN
+                INSERT (swift_code, name, address, city, country, country_code, phone_number, email, website,
+                        bank_type, active, created_at, updated_at, version, change_seq)
+                VALUES (s.swift_code, s.name, s.address, s.city, s.country, s.country_code, s.phone_number,
+                        s.email, s.website, s.bank_type, s.active, s.written_at, s.written_at, 0, s.change_seq)
+            """;
+    
+    private final CountryShardRouter router;
+    private final List<Shard> shards;
+    private final ExecutorService scatter;
+    private final BankChangeSequence changeSequence;
+    
+    public ShardedBankRepositoryAdapter(@Value("${app.shard.urls}") List<String> urls,
+                                        @Value("${app.shard.username:${spring.datasource.username:}}") String username,
+                                        @Value("${app.shard.password:${spring.datasource.password:}}") String password,
+                                        @Value("${app.shard.pool-size:10}") int poolSize,
+                                        @Value("${app.shard.countries:}") String countries,
+                                        @Value("${app.shard.initialize-schema:true}") boolean initializeSchema,
+                                        @Value("${app.change-feed.heartbeat-interval:200ms}") Duration heartbeatInterval,
+                                        @Value("${app.change-feed.instance-timeout:10s}") Duration instanceTimeout,
+                                        MeterRegistry meterRegistry) {
+        this.router = new CountryShardRouter(urls.size(), CountryShardRouter.parseAssignments(countries));
+        List<Shard> shards = new ArrayList<>(urls.size());
+        for (String url : urls) {
+            HikariDataSource pool = new HikariDataSource();
+            pool.setPoolName("shard-" + shards.size());
+            pool.setJdbcUrl(url.trim());
+            pool.setUsername(username);
+            pool.setPassword(password);
+            pool.setMaximumPoolSize(poolSize);
+            if (initializeSchema) {
+                new ResourceDatabasePopulator(new ClassPathResource("db/shard-schema.sql")).execute(pool);
+            }
+            shards.add(Shard.of(shards.size(), pool, new MeteredDataSource(pool.getPoolName(), pool, meterRegistry)));
+        }
+        this.shards = List.copyOf(shards);
+        this.scatter = Executors.newFixedThreadPool(shards.size(),
+                Thread.ofPlatform().name("bank-shard-", 0).daemon().factory());
+        // Through the pool itself: a draw in a transaction binds its connection to the transaction, which must
+        // not pass for the transaction's own connection to the shard
+        DataSource first = shards.get(0).pool();
+        this.changeSequence = new BankChangeSequence(first, new DataSourceTransactionManager(first),
+                this::highestChangeSeqInUse, heartbeatInterval, instanceTimeout);
+        log.info("Banks sharded by country over {} databases", shards.size());
+    }
+    
+    @Override
+    public List<HikariDataSource> connectionPools() {
+        return shards.stream().map(Shard::pool).toList();
+    }
+    
+    @PreDestroy
+    public void close() {
+        changeSequence.close();
+        scatter.shutdownNow();
+        shards.forEach(shard -> shard.pool().close());
+    }
+    
+    @Override
+    public Bank save(Bank bank) {
+        log.debug("Saving bank with SWIFT code: {}", bank.getSwiftCode());
+        Shard shard = shards.get(router.shardOfSwiftCode(bank.getSwiftCode()));
+        checkCountryCode(bank.getCountryCode(), shard, bank.getSwiftCode());
+        LocalDateTime now = LocalDateTime.now();
+        Boolean active = bank.getActive() != null ? bank.getActive() : Boolean.TRUE;
+        joinTransaction(shard);
+        try {
+            return changeSequence.withNumber(changeSeq -> {
+                KeyHolder keyHolder = new GeneratedKeyHolder();
+                shard.jdbcTemplate().update(connection -> {
+                    PreparedStatement statement = connection.prepareStatement(INSERT, new String[]{"local_id"});
+                    int next = setValues(statement, 1, bank, active);
+                    statement.setTimestamp(next++, Timestamp.valueOf(now));
+                    statement.setTimestamp(next++, Timestamp.valueOf(now));
+                    statement.setLong(next, changeSeq);
+                    return statement;
+                }, keyHolder);
+                long id = CountryShardRouter.globalId(keyHolder.getKey().longValue(), shard.index());
+                log.debug("Bank saved with ID: {} on shard {}", id, shard.index());
+                return bank.toBuilder().id(id).active(active).createdAt(now).updatedAt(now).version(0L)
+                        .changeSeq(changeSeq).build();
+            });
+        } catch (DuplicateKeyException e) {
+            throw DuplicateBankException.bySwiftCode(bank.getSwiftCode());
+        }
+    }
+    
+    @Override
+    public int update(Bank bank, Long expectedVersion) {
+        log.debug("Updating bank {} at version {}", bank.getId(), expectedVersion);
+        Shard shard = shardOfId(bank.getId());
+        if (shard == null) {
+            return 0;
+        }
+        checkSwiftCode(bank.getSwiftCode(), shard);
+        checkCountryCode(bank.getCountryCode(), shard, bank.getSwiftCode());
+        String sql = UPDATE + (expectedVersion != null ? " AND version = ?" : "");
+        joinTransaction(shard);
+        try {
+            return changeSequence.withNumber(changeSeq -> shard.jdbcTemplate().update(sql, statement -> {
+                int next = setValues(statement, 1, bank, bank.getActive());
+                statement.setTimestamp(next++, Timestamp.valueOf(LocalDateTime.now()));
+                statement.setLong(next++, changeSeq);
+                statement.setLong(next++, CountryShardRouter.localId(bank.getId()));
+                if (expectedVersion != null) {
+                    statement.setLong(next, expectedVersion);
+                }
+            }));
+        } catch (DuplicateKeyException e) {
+            throw DuplicateBankException.bySwiftCode(bank.getSwiftCode());
+        }
+    }
+    
+    @Override
+    public int patch(Long id, BankPatch patch, Long expectedVersion) {
+        log.debug("Patching {} of bank {} at version {}", patch.getChanges().keySet(), id, expectedVersion);
+        Shard shard = shardOfId(id);
+        if (shard == null || patch.isEmpty()) {
+            return 0;
+        }
+        if (patch.contains(BankField.SWIFT_CODE)) {
+            checkSwiftCode((String) patch.get(BankField.SWIFT_CODE), shard);
+        }
+        if (patch.contains(BankField.COUNTRY_CODE)) {
+            checkCountryCode((String) patch.get(BankField.COUNTRY_CODE), shard, null);
+        }
+        List<String> assignments = new ArrayList<>();
+        List<String> differences = new ArrayList<>();
+        List<Object> values = new ArrayList<>();
+        for (Map.Entry<BankField, Object> change : patch.getChanges().entrySet()) {
+            String column = column(change.getKey());
+            assignments.add(column + " = ?");
+            differences.add(column + " IS DISTINCT FROM ?");
+            values.add(change.getValue() instanceof BankType type ? type.name() : change.getValue());
+        }
+        // Rows whose patched columns already hold the new values are not matched, so a no-op patch writes nothing
+        String sql = "UPDATE banks SET " + String.join(", ", assignments)
+                + ", updated_at = ?, version = version + 1, change_seq = ?"
+                + " WHERE local_id = ? AND deleted_at IS NULL"
+                + (expectedVersion != null ? " AND version = ?" : "")
+                + " AND (" + String.join(" OR ", differences) + ")";
+        joinTransaction(shard);
+        try {
+            return changeSequence.withNumber(changeSeq -> shard.jdbcTemplate().update(sql, statement -> {
+                int next = 1;
+                for (Object value : values) {
+                    statement.setObject(next++, value);
+                }
+                statement.setTimestamp(next++, Timestamp.valueOf(LocalDateTime.now()));
+                statement.setLong(next++, changeSeq);
+                statement.setLong(next++, CountryShardRouter.localId(id));
+                if (expectedVersion != null) {
+                    statement.setLong(next++, expectedVersion);
+                }
+                for (Object value : values) {
+                    statement.setObject(next++, value);
+                }
+            }));
+        } catch (DuplicateKeyException e) {
+            throw DuplicateBankException.bySwiftCode((String) patch.get(BankField.SWIFT_CODE));
+        }
+    }
+    
+    @Override
+    public int[] upsertBySwiftCode(List<Bank> banks) {
+        log.debug("Upserting {} banks by SWIFT code over {} shards", banks.size(), shards.size());
+        List<List<Integer>> positions = new ArrayList<>(shards.size());
+        shards.forEach(shard -> positions.add(new ArrayList<>()));
+        for (int i = 0; i < banks.size(); i++) {
+            positions.get(router.shardOfSwiftCode(banks.get(i).getSwiftCode())).add(i);
+        }
+        // In a transaction, each shard's part joins it; otherwise each commits on its own
+        boolean inTransaction = inTransaction();
+        for (Shard shard : shards) {
+            if (!positions.get(shard.index()).isEmpty()) {
+                joinTransaction(shard);
+            }
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        int[] counts = new int[banks.size()];
+        return changeSequence.withNumbers(banks.size(), changeSeqs -> {
+            scatter(shard -> {
+                List<Integer> batch = positions.get(shard.index());
+                if (batch.isEmpty()) {
+                    return List.of();
+                }
+                Supplier<int[]> upsert = () ->
+                        shard.jdbcTemplate().batchUpdate(UPSERT, new BatchPreparedStatementSetter() {
+                            @Override
+                            public void setValues(PreparedStatement statement, int i) throws SQLException {
+                                Bank bank = banks.get(batch.get(i));
+                                int next = ShardedBankRepositoryAdapter.setValues(statement, 1, bank,
+                                        bank.getActive() != null ? bank.getActive() : Boolean.TRUE);
+                                statement.setTimestamp(next++, now);
+                                statement.setLong(next, changeSeqs[batch.get(i)]);
+                            }
+                            
+                            @Override
+                            public int getBatchSize() {
+                                return batch.size();
+                            }
+                        });
+                int[] written = inTransaction ? upsert.get() : shard.transactionTemplate().execute(status -> upsert.get());
+                for (int i = 0; i < batch.size(); i++) {
+                    counts[batch.get(i)] = written[i];
+                }
+                return List.of();
+            });
+            return counts;
+        });
+    }
+    
+    @Override
+    public int delete(Long id, Long expectedVersion) {
+        log.debug("Deleting bank {} at version {}", id, expectedVersion);
+        Shard shard = shardOfId(id);
+        if (shard == null) {
+            return 0;
+        }
+        String sql = DELETE + (expectedVersion != null ? " AND version = ?" : "");
+        joinTransaction(shard);
+        return changeSequence.withNumber(changeSeq -> shard.jdbcTemplate().update(sql, statement -> {
+            statement.setTimestamp(1, Timestamp.valueOf(LocalDateTime.now()));
+            statement.setLong(2, changeSeq);
+            statement.setLong(3, CountryShardRouter.localId(id));
+            if (expectedVersion != null) {
+                statement.setLong(4, expectedVersion);
+            }
+        }));
+    }
+    
+    @Override
+    public boolean existsById(Long id) {
+        log.debug("Checking if bank exists by ID: {}", id);
+        return findById(id).isPresent();
+    }
+    
+    @Override
+    public Optional<Bank> findById(Long id) {
+        log.debug("Finding bank by ID: {}", id);
+        Shard shard = shardOfId(id);
+        if (shard == null) {
+            return Optional.empty();
+        }
+        return shard.jdbcTemplate().query(SELECT_LIVE + " AND local_id = ?", shard.banks(),
+                CountryShardRouter.localId(id)).stream().findFirst();
+    }
+    
+    @Override
+    public Optional<Bank> findBySwiftCode(String swiftCode) {
+        log.debug("Finding bank by SWIFT code: {}", swiftCode);
+        if (swiftCode == null || swiftCode.length() < 6) {
+            return Optional.empty();
+        }
+        Shard shard = shards.get(router.shardOfSwiftCode(swiftCode));
+        return shard.jdbcTemplate().query(SELECT_LIVE + " AND swift_code = ?", shard.banks(), swiftCode)
+                .stream().findFirst();
+    }
+    
+    @Override
+    public List<Bank> findAll() {
+        log.debug("Finding all banks");
+        return findEverywhere("", List.of());
+    }
+    
+    @Override
+    public List<Bank> findByCountry(String country) {
+        log.debug("Finding banks by country: {}", country);
+        return findEverywhere(" AND country = ?", List.of(country));
+    }
+    
+    @Override
+    public List<Bank> findByCountryCode(String countryCode) {
+        log.debug("Finding banks by country code: {}", countryCode);
+        if (countryCode == null || countryCode.length() != 2) {
+            return List.of();
+        }
+        Shard shard = shards.get(router.shardOfCountry(countryCode));
+        return shard.jdbcTemplate().query(SELECT_LIVE + " AND country_code = ? ORDER BY local_id", shard.banks(),
+                countryCode);
+    }
+    
+    @Override
+    public List<Bank> findByNameContainingIgnoreCase(String name) {
+        log.debug("Finding banks by name containing: {}", name);
+        String pattern = "%" + name.toUpperCase().replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+        return findEverywhere(" AND UPPER(name) LIKE ? ESCAPE '\\'", List.of(pattern));
+    }
+    
+    @Override
+    public List<Bank> findByActiveTrue() {
+        log.debug("Finding active banks");
+        return findEverywhere(" AND active = TRUE", List.of());
+    }
+    
+    @Override
+    public boolean existsBySwiftCode(String swiftCode) {
+        log.debug("Checking if bank exists by SWIFT code: {}", swiftCode);
+        return findBySwiftCode(swiftCode).isPresent();
+    }
+    
+    @Override
+    public void deleteById(Long id) {
+        log.debug("Deleting bank by ID: {}", id);
+        delete(id, null);
+        log.debug("Bank deleted with ID: {}", id);
+    }
+    
+    @Override
+    public long count() {
+        log.debug("Counting total banks");
+        return scatter(shard -> List.of(shard.jdbcTemplate()
+                .queryForObject("SELECT COUNT(*) FROM banks WHERE deleted_at IS NULL", Long.class)))
+                .stream().mapToLong(counts -> counts.get(0)).sum();
+    }
+    
+    @Override
+    public List<BankChange> findChangesSince(long since, int limit) {
+        log.debug("Finding up to {} changes since {}", limit, since);
+        long through = changeSequence.visibleThrough();
+        // Each shard is complete up to the visible sequence number, so merging their first pages is exact
+        return merge(scatter(shard -> shard.jdbcTemplate().query(
+                "SELECT " + COLUMNS + " FROM banks WHERE change_seq > ? AND change_seq <= ?"
+                        + " ORDER BY change_seq FETCH FIRST ? ROWS ONLY",
+                (rs, rowNum) -> toChange(rs, shard), since, through, limit)),
+                Comparator.comparingLong(BankChange::seq), limit);
+    }
+    
+    @Override
+    public long latestChangeSeq() {
+        return changeSequence.visibleThrough();
+    }
+    
+    @Override
+    public int purgeTombstones(LocalDateTime deletedBefore) {
+        log.debug("Purging tombstones of banks deleted before {}", deletedBefore);
+        Timestamp before = Timestamp.valueOf(deletedBefore);
+        return scatter(shard -> List.of(purgeTombstones(shard, before))).stream()
+                .mapToInt(purged -> purged.get(0)).sum();
+    }
+    
+    private int purgeTombstones(Shard shard, Timestamp deletedBefore) {
+        JdbcTemplate jdbcTemplate = shard.jdbcTemplate();
+        Integer purged = shard.transactionTemplate().execute(status -> {
+            Long through = jdbcTemplate.queryForObject("SELECT MAX(change_seq) FROM banks WHERE deleted_at < ?",
+                    Long.class, deletedBefore);
+            if (through == null) {
+                return 0;
+            }
+            // Record the horizon before the tombstones go, in the same transaction
+            if (jdbcTemplate.update("UPDATE bank_change_feed SET purged_through = ? WHERE id = ? AND purged_through < ?",
+                    through, BankChangeFeedEntity.ID, through) == 0
+                    && jdbcTemplate.queryForObject("SELECT COUNT(*) FROM bank_change_feed WHERE id = ?",
+                    Integer.class, BankChangeFeedEntity.ID) == 0) {
+                jdbcTemplate.update("INSERT INTO bank_change_feed (id, purged_through) VALUES (?, ?)",
+                        BankChangeFeedEntity.ID, through);
+            }
+            return jdbcTemplate.update("DELETE FROM banks WHERE deleted_at IS NOT NULL AND change_seq <= ?", through);
+        });
+        return purged != null ? purged : 0;
+    }
+    
+    @Override
+    public long purgedThrough() {
+        return scatter(shard -> List.of(shard.jdbcTemplate().queryForObject(
+                "SELECT COALESCE(MAX(purged_through), 0) FROM bank_change_feed", Long.class)))
+                .stream().mapToLong(purged -> purged.get(0)).max().orElse(0);
+    }
+    
+    /**
+     * Banks matching the condition on every shard, in ID order
+     */
+    private List<Bank> findEverywhere(String condition, List<Object> args) {
+        return merge(scatter(shard -> shard.jdbcTemplate().query(SELECT_LIVE + condition + " ORDER BY local_id",
+                shard.banks(), args.toArray())), Comparator.comparingLong(Bank::getId), Integer.MAX_VALUE);
+    }
+    
+    /**
+     * Runs the query on every shard at once, returning each shard's result in shard order. Shards the
+     * caller's transaction has joined are queried on its connections.
+     */
+    private <T> List<List<T>> scatter(Function<Shard, List<T>> query) {
+        if (shards.size() == 1) {
+            return List.of(query.apply(shards.get(0)));
+        }
+        List<CompletableFuture<List<T>>> results = shards.stream()
+                .map(Shard::onTransactionConnection)
+                .map(shard -> CompletableFuture.supplyAsync(() -> query.apply(shard), scatter))
+                .toList();
+        List<List<T>> gathered = new ArrayList<>(results.size());
+        for (CompletableFuture<List<T>> result : results) {
+            try {
+                gathered.add(result.join());
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+        }
+        return gathered;
+    }
+    
+    /**
+     * Merges lists that are each sorted into one sorted list of at most {@code limit} elements, taking
+     * one element at a time from the list whose next element comes first
+     */
+    static <T> List<T> merge(List<List<T>> sorted, Comparator<T> order, int limit) {
+        PriorityQueue<Cursor<T>> heads = new PriorityQueue<>(Math.max(1, sorted.size()),
+                Comparator.comparing(Cursor::head, order));
+        int total = 0;
+        for (List<T> list : sorted) {
+            if (!list.isEmpty()) {
+                Iterator<T> rest = list.iterator();
+                heads.add(new Cursor<>(rest.next(), rest));
+                total += list.size();
+            }
+        }
+        List<T> merged = new ArrayList<>(Math.min(total, limit));
+        while (!heads.isEmpty() && merged.size() < limit) {
+            Cursor<T> cursor = heads.poll();
+            merged.add(cursor.head());
+            if (cursor.rest().hasNext()) {
+                heads.add(new Cursor<>(cursor.rest().next(), cursor.rest()));
+            }
+        }
+        return merged;
+    }
+    
+    private static boolean inTransaction() {
+        return TransactionSynchronizationManager.isActualTransactionActive()
+                && TransactionSynchronizationManager.isSynchronizationActive();
+    }
+    
+    /**
+     * Opens a connection to the shard taking part in the current transaction, if there is one and it has none yet
+     */
+    private static void joinTransaction(Shard shard) {
+        if (!inTransaction() || TransactionSynchronizationManager.hasResource(shard.dataSource())) {
+            return;
+        }
+        Connection connection;
+        try {
+            connection = shard.dataSource().getConnection();
+            connection.setAutoCommit(false);
+        } catch (SQLException e) {
+            throw new TransactionSystemException("Could not open a transaction on shard " + shard.index(), e);
+        }
+        ConnectionHolder holder = new ConnectionHolder(connection);
+        holder.setSynchronizedWithTransaction(true);
+        TransactionSynchronizationManager.bindResource(shard.dataSource(), holder);
+        TransactionSynchronizationManager.registerSynchronization(new ShardTransaction(holder, shard));
+    }
+    
+    private Shard shardOfId(Long id) {
+        int shard = id != null ? router.shardOfId(id) : -1;
+        return shard >= 0 ? shards.get(shard) : null;
+    }
+    
+    private void checkSwiftCode(String swiftCode, Shard shard) {
+        if (swiftCode != null && router.shardOfSwiftCode(swiftCode) != shard.index()) {
+            throw InvalidBankDataException.invalidField("swiftCode",
+                    "the country of " + swiftCode + " is held on another shard than the bank");
+        }
+    }
+    
+    private void checkCountryCode(String countryCode, Shard shard, String swiftCode) {
+        if (countryCode != null && countryCode.length() == 2 && router.shardOfCountry(countryCode) != shard.index()) {
+            throw swiftCode != null
+                    ? InvalidBankDataException.countryMismatch(swiftCode, countryCode)
+                    : InvalidBankDataException.invalidField("countryCode",
+                            countryCode + " is held on another shard than the bank");
+        }
+    }
+    
+    /**
+     * Sets the eleven bank columns shared by the insert, update and upsert statements
+     *
+     * @return index of the next parameter
+     */
+    private static int setValues(PreparedStatement statement, int first, Bank bank, Boolean active) throws SQLException {
+        int next = first;
+        statement.setString(next++, bank.getSwiftCode());
+        statement.setString(next++, bank.getName());
+        statement.setString(next++, bank.getAddress());
+        statement.setString(next++, bank.getCity());
+        statement.setString(next++, bank.getCountry());
+        statement.setString(next++, bank.getCountryCode());
+        statement.setString(next++, bank.getPhoneNumber());
+        statement.setString(next++, bank.getEmail());
+        statement.setString(next++, bank.getWebsite());
+        statement.setString(next++, bank.getBankType() != null ? bank.getBankType().name() : null);
+        statement.setObject(next++, active, Types.BOOLEAN);
+        return next;
+    }
+    
+    private static String column(BankField field) {
+        return field.getProperty().replaceAll("([A-Z])", "_$1").toLowerCase();
+    }
+    
+    private static Bank toBank(ResultSet rs, int shard) throws SQLException {
+        String bankType = rs.getString("bank_type");
+        return Bank.builder()
+                .id(CountryShardRouter.globalId(rs.getLong("local_id"), shard))
+                .swiftCode(rs.getString("swift_code"))
+                .name(rs.getString("name"))
+                .address(rs.getString("address"))
+                .city(rs.getString("city"))
+                .country(rs.getString("country"))
+                .countryCode(rs.getString("country_code"))
+                .phoneNumber(rs.getString("phone_number"))
+                .email(rs.getString("email"))
+                .website(rs.getString("website"))
+                .bankType(bankType != null ? BankType.valueOf(bankType) : null)
+                .active(rs.getObject("active", Boolean.class))
+                .createdAt(rs.getObject("created_at", LocalDateTime.class))
+                .updatedAt(rs.getObject("updated_at", LocalDateTime.class))
+                .version(rs.getLong("version"))
+                .changeSeq(rs.getLong("change_seq"))
+                .build();
+    }
+    
+    private static BankChange toChange(ResultSet rs, Shard shard) throws SQLException {
+        LocalDateTime deletedAt = rs.getObject("deleted_at", LocalDateTime.class);
+        if (deletedAt != null) {
+            return BankChange.deleted(rs.getLong("change_seq"),
+                    CountryShardRouter.globalId(rs.getLong("local_id"), shard.index()),
+                    rs.getString("deleted_swift_code"), deletedAt);
+        }
+        return BankChange.upserted(toBank(rs, shard.index()));
+    }
+    
+    /**
+     * Seeds the sequence past every number handed out so far on any shard, including those of purged tombstones
+     */
+    private long highestChangeSeqInUse() {
+        return Math.max(scatter(shard -> List.of(shard.jdbcTemplate()
+                        .queryForObject("SELECT COALESCE(MAX(change_seq), 0) FROM banks", Long.class)))
+                        .stream().mapToLong(highest -> highest.get(0)).max().orElse(0),
+                purgedThrough());
+    }
+    
+    private record Cursor<T>(T head, Iterator<T> rest) {
+    }
+    
+    private record Shard(int index, HikariDataSource pool, DataSource dataSource, JdbcTemplate jdbcTemplate,
+                         TransactionTemplate transactionTemplate) {
+        
+        /**
+         * Statements of the shard's transactions and those run outside any go through the metered data source alike
+         */
+        static Shard of(int index, HikariDataSource pool, DataSource metered) {
+            return new Shard(index, pool, metered, new JdbcTemplate(metered),
+                    new TransactionTemplate(new DataSourceTransactionManager(metered)));
+        }
+        
+        /**
+         * The shard as queried from another thread, on the connection the current transaction holds to it if any
+         */
+        Shard onTransactionConnection() {
+            if (TransactionSynchronizationManager.getResource(dataSource) instanceof ConnectionHolder holder) {
+                return new Shard(index, pool, dataSource,
+                        new JdbcTemplate(new SingleConnectionDataSource(holder.getConnection(), true)),
+                        transactionTemplate);
+            }
+            return this;
+        }
+        
+        RowMapper<Bank> banks() {
+            return (rs, rowNum) -> toBank(rs, index);
+        }
+    }
+    
+    /**
+     * A shard's part in a transaction: committed just before the transaction, in shard order, and rolled
+     * back with it. Unbound while the transaction is suspended, so an inner one opens its own.
+     */
+    private record ShardTransaction(ConnectionHolder holder, Shard shard) implements TransactionSynchronization {
+        
+        @Override
+        public int getOrder() {
+            return shard.index();
+        }
+        
+        @Override
+        public void suspend() {
+            TransactionSynchronizationManager.unbindResource(shard.dataSource());
+        }
+        
+        @Override
+        public void resume() {
+            TransactionSynchronizationManager.bindResource(shard.dataSource(), holder);
+        }
+        
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            try {
+                holder.getConnection().commit();
+            } catch (SQLException e) {
+                throw new TransactionSystemException("Could not commit shard " + shard.index(), e);
+            }
+        }
+        
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(shard.dataSource());
+            Connection connection = holder.getConnection();
+            try (connection) {
+                if (status != STATUS_COMMITTED) {
+                    connection.rollback();
+                }
+                connection.setAutoCommit(true);
+            } catch (SQLException e) {
+                log.warn("Could not release the connection to shard {}: {}", shard.index(), e.getMessage());
+            }
+        }
+    }
+}
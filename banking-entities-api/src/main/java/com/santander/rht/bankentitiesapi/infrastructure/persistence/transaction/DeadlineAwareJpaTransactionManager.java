@@ -0,0 +1,37 @@
+package com.santander.rht.bankentitiesapi.infrastructure.persistence.transaction;
+
+import com.santander.rht.bankentitiesapi.application.deadline.DeadlineContext;
+import com.santander.rht.bankentitiesapi.domain.model.RequestDeadline;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+
+import java.util.Optional;
+
+/**
+ * JPA transaction manager that refuses to start a transaction once the request deadline
+ * has passed, and otherwise caps the transaction timeout at the remaining budget.
+ * Spring applies the transaction timeout to every JPA query as a JDBC query timeout,
+ * so database work is cut short when the caller has given up.
+ */
+public class DeadlineAwareJpaTransactionManager extends JpaTransactionManager {
+    
+    @Override
+    protected void doBegin(Object transaction, TransactionDefinition definition) {
+        DeadlineContext.checkNotExpired("transaction");
+        super.doBegin(transaction, definition);
+    }
+    
+    @Override
+    protected int determineTimeout(TransactionDefinition definition) {
+        int configured = super.determineTimeout(definition);
+        Optional<RequestDeadline> deadline = DeadlineContext.current();
+        if (deadline.isEmpty()) {
+            return configured;
+        }
+        // JDBC timeouts have second granularity, round up so a sub-second budget is still usable
+        int remainingSeconds = (int) Math.max(1, (deadline.get().remaining().toMillis() + 999) / 1000);
+        return configured == TransactionDefinition.TIMEOUT_DEFAULT
+                ? remainingSeconds
+                : Math.min(configured, remainingSeconds);
+    }
+}
@@ -0,0 +1,65 @@
+package com.santander.rht.bankentitiesapi.infrastructure.warmup;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.CompilationMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * What the JIT has compiled so far: methods with live code by tier (1 to 3 are C1, 4 is C2), and the
+ * highest tier of the watched methods, which is absent while they are interpreted or only inlined.
+ * Tiers are read from HotSpot's compiler code list, and are empty on JVMs without it.
+ *
+ * @param totalCompilationTimeMs time spent compiling, null when the JVM does not report it
+ */
+@Slf4j
+public record JitCompilationState(String compiler, Long totalCompilationTimeMs,
+                                  Map<Integer, Integer> methodsByTier, Map<String, Integer> watchedMethodTiers) {
+    
+    private static final String DIAGNOSTIC_COMMAND = "com.sun.management:type=DiagnosticCommand";
+    private static final int IN_USE = 0;
+    
+    /**
+     * @param watchedMethods methods as class name and method name, e.g. {@code java.lang.String.hashCode}
+     */
+    public static JitCompilationState read(Collection<String> watchedMethods) {
+        CompilationMXBean compilation = ManagementFactory.getCompilationMXBean();
+        Long compilationTime = compilation != null && compilation.isCompilationTimeMonitoringSupported()
+                ? compilation.getTotalCompilationTime() : null;
+        Map<Integer, Integer> methodsByTier = new TreeMap<>();
+        Map<String, Integer> watchedMethodTiers = new LinkedHashMap<>();
+        // One line per compiled method: "<compile id> <tier> <state> <class>.<method>(<signature>) [<addresses>]"
+        for (String line : codeList().split("\n")) {
+            String[] fields = line.split(" ", 5);
+            if (fields.length < 4 || !fields[1].chars().allMatch(Character::isDigit)
+                    || !fields[2].equals(Integer.toString(IN_USE))) {
+                continue;
+            }
+            int tier = Integer.parseInt(fields[1]);
+            methodsByTier.merge(tier, 1, Integer::sum);
+            for (String method : watchedMethods) {
+                if (fields[3].startsWith(method + "(")) {
+                    watchedMethodTiers.merge(method, tier, Math::max);
+                }
+            }
+        }
+        return new JitCompilationState(compilation != null ? compilation.getName() : "none", compilationTime,
+                methodsByTier, watchedMethodTiers);
+    }
+    
+    private static String codeList() {
+        try {
+            return (String) ManagementFactory.getPlatformMBeanServer().invoke(new ObjectName(DIAGNOSTIC_COMMAND),
+                    "compilerCodelist", new Object[]{new String[0]}, new String[]{String[].class.getName()});
+        } catch (JMException | RuntimeException e) {
+            log.debug("Compiler code list unavailable: {}", e.getMessage());
+            return "";
+        }
+    }
+}
@@ -0,0 +1,324 @@
+package com.santander.rht.bankentitiesapi.infrastructure.warmup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.santander.rht.bankentitiesapi.domain.model.Bank;
+import com.santander.rht.bankentitiesapi.domain.port.in.BankServicePort;
+import com.santander.rht.bankentitiesapi.infrastructure.persistence.directory.BicDirectoryLoader;
+import com.santander.rht.bankentitiesapi.infrastructure.persistence.routing.ConnectionPoolOwner;
+import com.santander.rht.bankentitiesapi.infrastructure.web.controller.BankController;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+
+/**
+ * Warms the instance up in the background once the application is ready, and holds back readiness (see
+ * {@link WarmupHealthIndicator}) until it is done, so the first real requests neither find cold caches
+ * and empty connection pools nor run interpreted.
+ * <p>
+ * Once the BIC directory load has finished, the bank list and the country code and active bank lists
+ * are read, which fills the list and second-level caches, and every Hikari pool is filled to its maximum
+ * size. Then lookups by ID, SWIFT code and country code of a sample of the banks, and lookups that miss,
+ * are sent through the {@link BankController} methods and their responses serialized, over the configured
+ * number of threads, until the iterations are done or the time is up. The calls are made in-process, so
+ * the servlet stack is not warmed, but the controller, service, repository and mapping code is, often
+ * enough for the JIT to compile it with C2. A warmup that fails is logged and does not keep the instance
+ * from becoming ready.
+ */
+@Component
+@Slf4j
+public class StartupWarmup {
+    
+    /**
+     * Controller methods the workload calls, whose compilation tier is reported
+     */
+    static final List<String> WORKLOAD_METHODS = Stream.of("getBankById", "getBankBySwiftCode", "getAllBanks")
+            .map(method -> BankController.class.getName() + "." + method)
+            .toList();
+    
+    // Well-formed, but not assigned to any bank: takes the not-found paths
+    private static final String MISSING_SWIFT_CODE = "WARMXXXXXXX";
+    
+    public enum Status {
+        DISABLED, PENDING, RUNNING, COMPLETED, FAILED
+    }
+    
+    /**
+     * Progress of the warmup
+     *
+     * @param durationMs time taken so far, or in all once finished
+     * @param requests   controller calls made by the workload
+     */
+    public record Report(Status status, Instant startedAt, Long durationMs, List<Step> steps, long requests,
+                         String error) {
+    }
+    
+    public record Step(String name, long durationMs) {
+    }
+    
+    private final BankServicePort bankServicePort;
+    private final ObjectProvider<BankController> bankController;
+    private final ObjectProvider<BicDirectoryLoader> directoryLoader;
+    private final ObjectProvider<HikariDataSource> dataSources;
+    private final ObjectProvider<ConnectionPoolOwner> poolOwners;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final Duration directoryTimeout;
+    private final boolean fillPools;
+    private final int iterations;
+    private final Duration maxDuration;
+    private final int concurrency;
+    private final int sampleSize;
+    private final List<Step> steps = new CopyOnWriteArrayList<>();
+    private final AtomicLong requests = new AtomicLong();
+    
+    private volatile Status status;
+    private volatile Instant startedAt;
+    private volatile long startNanos;
+    private volatile long finishNanos;
+    private volatile String error;
+    private volatile boolean stopping;
+    
+    public StartupWarmup(BankServicePort bankServicePort,
+                         ObjectProvider<BankController> bankController,
+                         ObjectProvider<BicDirectoryLoader> directoryLoader,
+                         ObjectProvider<HikariDataSource> dataSources,
+                         ObjectProvider<ConnectionPoolOwner> poolOwners,
+                         ObjectMapper objectMapper,
+                         MeterRegistry meterRegistry,
+                         @Value("${app.warmup.enabled:true}") boolean enabled,
+                         @Value("${app.warmup.directory-timeout:5m}") Duration directoryTimeout,
+                         @Value("${app.warmup.fill-pools:true}") boolean fillPools,
+                         @Value("${app.warmup.iterations:10000}") int iterations,
+                         @Value("${app.warmup.max-duration:60s}") Duration maxDuration,
+                         @Value("${app.warmup.concurrency:2}") int concurrency,
+                         @Value("${app.warmup.sample-size:1000}") int sampleSize) {
+        this.bankServicePort = bankServicePort;
+        this.bankController = bankController;
+        this.directoryLoader = directoryLoader;
+        this.dataSources = dataSources;
+        this.poolOwners = poolOwners;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.directoryTimeout = directoryTimeout;
+        this.fillPools = fillPools;
+        this.iterations = iterations;
+        this.maxDuration = maxDuration;
+        this.concurrency = Math.max(1, concurrency);
+        this.sampleSize = sampleSize;
+        this.status = enabled ? Status.PENDING : Status.DISABLED;
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void startWarmup() {
+        if (!enabled) {
+            return;
+        }
+        Thread.ofPlatform().name("startup-warmup").daemon().start(this::warmUp);
+    }
+    
+    @PreDestroy
+    public void stop() {
+        stopping = true;
+    }
+    
+    public boolean isDone() {
+        return status != Status.PENDING && status != Status.RUNNING;
+    }
+    
+    public Report report() {
+        long start = startNanos;
+        Long durationMs = startedAt == null ? null
+                : TimeUnit.NANOSECONDS.toMillis((isDone() ? finishNanos : System.nanoTime()) - start);
+        return new Report(status, startedAt, durationMs, List.copyOf(steps), requests.get(), error);
+    }
+    
+    private void warmUp() {
+        startNanos = System.nanoTime();
+        startedAt = Instant.now();
+        status = Status.RUNNING;
+        log.info("Warming up before accepting traffic");
+        try {
+            step("directory", this::awaitDirectory);
+            List<Bank> banks = new ArrayList<>();
+            step("preload", () -> banks.addAll(preload()));
+            if (fillPools) {
+                step("connection-pools", this::fillConnectionPools);
+            }
+            step("workload", () -> runWorkload(sample(banks)));
+            finish(Status.COMPLETED);
+            log.info("Warmup completed in {} ms: {} ({} requests)", report().durationMs(), steps, requests.get());
+        } catch (Exception e) {
+            error = e.getClass().getSimpleName() + ": " + e.getMessage();
+            finish(Status.FAILED);
+            log.warn("Warmup failed after {} ms, accepting traffic anyway", report().durationMs(), e);
+        }
+    }
+    
+    private void finish(Status finalStatus) {
+        finishNanos = System.nanoTime();
+        status = finalStatus;
+    }
+    
+    private void step(String name, WarmupStep step) throws Exception {
+        long start = System.nanoTime();
+        step.run();
+        long elapsed = System.nanoTime() - start;
+        Timer.builder("bank.warmup")
+                .description("Time taken by each step of the startup warmup")
+                .tag("step", name)
+                .register(meterRegistry)
+                .record(elapsed, TimeUnit.NANOSECONDS);
+        steps.add(new Step(name, TimeUnit.NANOSECONDS.toMillis(elapsed)));
+    }
+    
+    private void awaitDirectory() throws Exception {
+        BicDirectoryLoader loader = directoryLoader.getIfAvailable();
+        if (loader == null) {
+            return;
+        }
+        try {
+            loader.completion().get(directoryTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            log.warn("BIC directory still loading after {}, warming up with what is loaded", directoryTimeout);
+        } catch (ExecutionException e) {
+            // Already logged by the loader, the banks that made it in are still worth warming up with
+            log.debug("BIC directory load failed, warming up with what is loaded");
+        }
+    }
+    
+    private List<Bank> preload() {
+        List<Bank> banks = bankServicePort.getAllBanks();
+        bankServicePort.getActiveBanks();
+        banks.stream()
+                .map(Bank::getCountryCode)
+                .filter(Objects::nonNull)
+                .distinct()
+                .forEach(bankServicePort::getBanksByCountryCode);
+        return banks;
+    }
+    
+    private void fillConnectionPools() {
+        Stream<HikariDataSource> ownedPools = poolOwners.orderedStream().flatMap(owner -> owner.connectionPools().stream());
+        Stream.concat(dataSources.orderedStream(), ownedPools)
+                .distinct()
+                .forEach(pool -> {
+                    try {
+                        log.debug("Filled connection pool {} with {} connections", pool.getPoolName(), fill(pool));
+                    } catch (SQLException e) {
+                        log.warn("Could not fill connection pool {}: {}", pool.getPoolName(), e.getMessage());
+                    }
+                });
+    }
+    
+    /**
+     * Borrows as many connections as the pool may hold at once, which makes it open them all
+     */
+    private static int fill(HikariDataSource pool) throws SQLException {
+        List<Connection> borrowed = new ArrayList<>(pool.getMaximumPoolSize());
+        try {
+            while (borrowed.size() < pool.getMaximumPoolSize()) {
+                borrowed.add(pool.getConnection());
+            }
+            return borrowed.size();
+        } finally {
+            for (Connection connection : borrowed) {
+                connection.close();
+            }
+        }
+    }
+    
+    private List<Bank> sample(List<Bank> banks) {
+        if (banks.size() <= sampleSize) {
+            return banks;
+        }
+        // Spread over the whole directory rather than its first banks
+        List<Bank> sample = new ArrayList<>(sampleSize);
+        for (int i = 0; i < sampleSize; i++) {
+            sample.add(banks.get((int) ((long) i * banks.size() / sampleSize)));
+        }
+        return sample;
+    }
+    
+    private void runWorkload(List<Bank> sample) throws Exception {
+        BankController controller = bankController.getIfAvailable();
+        if (controller == null || iterations <= 0) {
+            return;
+        }
+        long deadline = System.nanoTime() + maxDuration.toNanos();
+        AtomicLong next = new AtomicLong();
+        AtomicReference<Exception> failure = new AtomicReference<>();
+        List<Thread> workers = new ArrayList<>(concurrency);
+        for (int w = 0; w < concurrency; w++) {
+            workers.add(Thread.ofPlatform().name("startup-warmup-" + w).daemon().start(() -> {
+                long iteration;
+                while (!stopping && failure.get() == null && System.nanoTime() < deadline
+                        && (iteration = next.getAndIncrement()) < iterations) {
+                    try {
+                        runIteration(controller, sample, iteration);
+                    } catch (Exception e) {
+                        failure.compareAndSet(null, e);
+                    }
+                }
+            }));
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        if (failure.get() != null) {
+            throw failure.get();
+        }
+        if (next.get() < iterations && !stopping) {
+            log.info("Warmup workload stopped after {} of {} iterations, the {} limit was reached",
+                    Math.min(next.get(), iterations), iterations, maxDuration);
+        }
+    }
+    
+    private void runIteration(BankController controller, List<Bank> sample, long iteration) throws Exception {
+        if (!sample.isEmpty()) {
+            Bank bank = sample.get((int) (iteration % sample.size()));
+            serialize(controller.getBankById(bank.getId()));
+            serialize(controller.getBankBySwiftCode(bank.getSwiftCode()));
+            if (bank.getCountryCode() != null) {
+                serialize(controller.getAllBanks(null, bank.getCountryCode(), null, false));
+            }
+        }
+        serialize(controller.getBankBySwiftCode(MISSING_SWIFT_CODE));
+    }
+    
+    private void serialize(ResponseEntity<?> response) throws Exception {
+        requests.incrementAndGet();
+        if (response.getBody() != null) {
+            objectMapper.writeValueAsBytes(response.getBody());
+        }
+    }
+    
+    @FunctionalInterface
+    private interface WarmupStep {
+        void run() throws Exception;
+    }
+}
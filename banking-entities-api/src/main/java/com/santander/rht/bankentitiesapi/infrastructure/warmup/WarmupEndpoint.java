@@ -0,0 +1,25 @@
+package com.santander.rht.bankentitiesapi.infrastructure.warmup;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+/**
+ * Actuator endpoint reporting the startup warmup's progress and steps, and how far the JIT has got
+ */
+@Component
+@Endpoint(id = "warmup")
+@RequiredArgsConstructor
+public class WarmupEndpoint {
+    
+    private final StartupWarmup startupWarmup;
+    
+    public record WarmupInfo(StartupWarmup.Report warmup, JitCompilationState jit) {
+    }
+    
+    @ReadOperation
+    public WarmupInfo warmup() {
+        return new WarmupInfo(startupWarmup.report(), JitCompilationState.read(StartupWarmup.WORKLOAD_METHODS));
+    }
+}
@@ -0,0 +1,31 @@
+package com.santander.rht.bankentitiesapi.infrastructure.warmup;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Out of service until the startup warmup is done, which keeps the readiness group, and with it the
+ * instance, out of the load balancer until then. A failed warmup is reported up, with its error.
+ */
+@Component
+@RequiredArgsConstructor
+public class WarmupHealthIndicator implements HealthIndicator {
+    
+    private final StartupWarmup startupWarmup;
+    
+    @Override
+    public Health health() {
+        StartupWarmup.Report report = startupWarmup.report();
+        Health.Builder health = startupWarmup.isDone() ? Health.up() : Health.outOfService();
+        health.withDetail("status", report.status());
+        if (report.durationMs() != null) {
+            health.withDetail("durationMs", report.durationMs());
+        }
+        if (report.error() != null) {
+            health.withDetail("error", report.error());
+        }
+        return health.build();
+    }
+}
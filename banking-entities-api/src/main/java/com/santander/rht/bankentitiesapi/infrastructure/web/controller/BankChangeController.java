@@ -0,0 +1,80 @@
+package com.santander.rht.bankentitiesapi.infrastructure.web.controller;
+
+import com.santander.rht.bankentitiesapi.domain.model.BankChangePage;
+import com.santander.rht.bankentitiesapi.domain.port.in.BankChangeFeedPort;
+import com.santander.rht.bankentitiesapi.infrastructure.web.dto.BankChangePageResponse;
+import com.santander.rht.bankentitiesapi.infrastructure.web.mapper.BankWebMapper;
+import com.santander.rht.bankentitiesapi.infrastructure.web.stream.BankChangeStream;
+import io.micrometer.core.annotation.Timed;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * REST Controller for the bank change feed, for consumers that keep a copy of the directory in sync
+ */
+@RestController
+@RequestMapping("/api/v1/banks/changes")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "Bank Changes", description = "Incremental sync of the bank directory")
+public class BankChangeController {
+    
+    private final BankChangeFeedPort bankChangeFeedPort;
+    private final BankWebMapper bankWebMapper;
+    private final BankChangeStream bankChangeStream;
+    
+    @GetMapping
+    @Timed(value = "bank.changes", description = "Time taken to read a page of the bank change feed")
+    @Operation(
+        summary = "Get bank changes",
+        description = "Returns the latest state of every bank created or updated after the given sequence number, "
+                + "and a tombstone for every bank deleted since, oldest first. Pass the returned next value as since "
+                + "to continue; since=0 returns the whole directory."
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Changes retrieved"),
+        @ApiResponse(responseCode = "410", description = "Tombstones since then were compacted, sync again from 0")
+    })
+    public ResponseEntity<BankChangePageResponse> getChanges(
+        @Parameter(description = "Last sequence number already applied") @RequestParam(defaultValue = "0") long since,
+        @Parameter(description = "Maximum number of changes") @RequestParam(defaultValue = "500") int limit) {
+        BankChangePage page = bankChangeFeedPort.getChanges(since, limit);
+        log.debug("GET /api/v1/banks/changes - {} changes since {}", page.changes().size(), since);
+        return ResponseEntity.ok(bankWebMapper.toChangePageResponse(page));
+    }
+    
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(
+        summary = "Stream bank changes",
+        description = "Server-Sent Events stream of bank changes as they are committed, one event per change named "
+                + "after its type, with the sequence number as the event ID and the change as data. Resumes after "
+                + "Last-Event-ID (or since) when given, otherwise starts from now. Idle streams carry heartbeat "
+                + "comments; a client that falls too far behind is disconnected and should reconnect."
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Stream opened"),
+        @ApiResponse(responseCode = "410", description = "Tombstones since then were compacted, sync again from 0")
+    })
+    public SseEmitter streamChanges(
+        @Parameter(description = "Last sequence number received, sent by EventSource on reconnect")
+        @RequestHeader(name = "Last-Event-ID", required = false) Long lastEventId,
+        @Parameter(description = "Last sequence number already applied, for a first connection")
+        @RequestParam(required = false) Long since) {
+        Long resumeFrom = lastEventId != null ? lastEventId : since;
+        log.debug("GET /api/v1/banks/changes/stream - resuming after {}", resumeFrom);
+        return bankChangeStream.subscribe(resumeFrom);
+    }
+}
@@ -0,0 +1,402 @@
+package com.santander.rht.bankentitiesapi.infrastructure.web.controller;
+
+import com.santander.rht.bankentitiesapi.domain.exception.PreconditionFailedException;
+import com.santander.rht.bankentitiesapi.domain.model.Bank;
+import com.santander.rht.bankentitiesapi.domain.model.BankLookupResult;
+import com.santander.rht.bankentitiesapi.domain.model.BankPatch;
+import com.santander.rht.bankentitiesapi.domain.model.BankWriteToken;
+import com.santander.rht.bankentitiesapi.domain.port.in.BankServicePort;
+import com.santander.rht.bankentitiesapi.domain.port.in.BankWriteBehindPort;
+import com.santander.rht.bankentitiesapi.infrastructure.web.converter.BankMergePatchHttpMessageConverter;
+import com.santander.rht.bankentitiesapi.infrastructure.web.dto.BankLookupResponse;
+import com.santander.rht.bankentitiesapi.infrastructure.web.dto.BankResponse;
+import com.santander.rht.bankentitiesapi.infrastructure.web.dto.CreateBankRequest;
+import com.santander.rht.bankentitiesapi.infrastructure.web.dto.ErrorResponse;
+import com.santander.rht.bankentitiesapi.infrastructure.web.dto.UpdateBankRequest;
+import com.santander.rht.bankentitiesapi.infrastructure.web.dto.WriteTokenResponse;
+import com.santander.rht.bankentitiesapi.infrastructure.web.mapper.BankWebMapper;
+import com.santander.rht.bankentitiesapi.infrastructure.web.mapping.RespondAsync;
+import io.micrometer.core.annotation.Timed;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * REST Controller for Bank operations
+ */
+@RestController
+@RequestMapping("/api/v1/banks")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "Bank Management", description = "Operations for managing bank entities with SWIFT code validation")
+public class BankController {
+    
+    private static final Duration MAX_WRITE_WAIT = Duration.ofSeconds(30);
+    
+    private final BankServicePort bankServicePort;
+    private final BankWriteBehindPort bankWriteBehindPort;
+    private final BankWebMapper bankWebMapper;
+    
+    @PostMapping
+    @Timed(value = "bank.create", description = "Time taken to create a bank")
+    @Operation(
+        summary = "Create a new bank",
+        description = "Creates a new bank entity with SWIFT code validation and duplicate prevention"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "201",
+            description = "Bank created successfully",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = BankResponse.class))
+        ),
+        @ApiResponse(
+            responseCode = "400",
+            description = "Invalid input or duplicate SWIFT code",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class))
+        ),
+        @ApiResponse(
+            responseCode = "422",
+            description = "Validation errors",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class))
+        )
+    })
+    public ResponseEntity<BankResponse> createBank(
+        @Parameter(description = "Bank creation request with all required fields", required = true)
+        @Valid @RequestBody CreateBankRequest request) {
+        log.info("POST /api/v1/banks - Creating bank with SWIFT code: {}", request.getSwiftCode());
+        
+        Bank bank = bankWebMapper.toDomain(request);
+        Bank createdBank = bankServicePort.createBank(bank);
+        BankResponse response = bankWebMapper.toResponse(createdBank);
+        
+        log.info("Bank created successfully with ID: {}", response.getId());
+        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+    }
+    
+    @PostMapping
+    @RespondAsync
+    @Timed(value = "bank.create.async", description = "Time taken to accept a bank creation")
+    @Operation(
+        summary = "Create a new bank asynchronously",
+        description = "Validates and queues the creation; the returned token reports when it is committed"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "202", description = "Creation accepted, see Location for its state"),
+        @ApiResponse(responseCode = "400", description = "Invalid input"),
+        @ApiResponse(responseCode = "503", description = "Write queue is full")
+    })
+    public ResponseEntity<WriteTokenResponse> createBankAsync(@Valid @RequestBody CreateBankRequest request) {
+        log.info("POST /api/v1/banks (async) - Queueing bank with SWIFT code: {}", request.getSwiftCode());
+        
+        return accepted(bankWriteBehindPort.submitCreate(bankWebMapper.toDomain(request)));
+    }
+    
+    @PutMapping("/{id}")
+    @Timed(value = "bank.update", description = "Time taken to update a bank")
+    @Operation(
+        summary = "Update a bank",
+        description = "Replaces a bank; with If-Match the update only applies if the bank is still at that version"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Bank updated successfully"),
+        @ApiResponse(responseCode = "404", description = "Bank not found"),
+        @ApiResponse(responseCode = "409", description = "Duplicate SWIFT code or version mismatch")
+    })
+    public ResponseEntity<BankResponse> updateBank(@PathVariable Long id, 
+                                                   @Valid @RequestBody UpdateBankRequest request,
+                                                   @Parameter(description = "ETag of the version being replaced")
+                                                   @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        log.info("PUT /api/v1/banks/{} - Updating bank", id);
+        
+        Bank bank = bankWebMapper.toDomain(request);
+        Bank updatedBank = bankServicePort.updateBank(id, bank, parseVersion(id, ifMatch));
+        BankResponse response = bankWebMapper.toResponse(updatedBank);
+        
+        log.info("Bank updated successfully with ID: {}", id);
+        return withETag(ResponseEntity.ok(), response);
+    }
+    
+    @PutMapping("/{id}")
+    @RespondAsync
+    @Timed(value = "bank.update.async", description = "Time taken to accept a bank update")
+    @Operation(
+        summary = "Update a bank asynchronously",
+        description = "Validates and queues the update; version mismatches are reported on the returned token"
+    )
+    public ResponseEntity<WriteTokenResponse> updateBankAsync(@PathVariable Long id,
+                                                              @Valid @RequestBody UpdateBankRequest request,
+                                                              @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        log.info("PUT /api/v1/banks/{} (async) - Queueing update", id);
+        
+        return accepted(bankWriteBehindPort.submitUpdate(id, bankWebMapper.toDomain(request), parseVersion(id, ifMatch)));
+    }
+    
+    @PatchMapping(value = "/{id}", consumes = BankMergePatchHttpMessageConverter.MERGE_PATCH_JSON_VALUE)
+    @Timed(value = "bank.patch", description = "Time taken to partially update a bank")
+    @Operation(
+        summary = "Partially update a bank",
+        description = "Applies a JSON Merge Patch: only the fields present are written, null clears a field, and nothing is written when no value changes"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Bank patched, or unchanged"),
+        @ApiResponse(responseCode = "400", description = "Unknown field or invalid value"),
+        @ApiResponse(responseCode = "404", description = "Bank not found"),
+        @ApiResponse(responseCode = "409", description = "Duplicate SWIFT code or version mismatch")
+    })
+    public ResponseEntity<BankResponse> patchBank(@PathVariable Long id,
+                                                  @RequestBody BankPatch patch,
+                                                  @Parameter(description = "ETag of the version being patched")
+                                                  @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        log.info("PATCH /api/v1/banks/{} - Patching {}", id, patch.getChanges().keySet());
+        
+        Bank patchedBank = bankServicePort.patchBank(id, patch, parseVersion(id, ifMatch));
+        BankResponse response = bankWebMapper.toResponse(patchedBank);
+        return withETag(ResponseEntity.ok(), response);
+    }
+    
+    @GetMapping("/{id}")
+    @Timed(value = "bank.getById", description = "Time taken to get a bank by ID")
+    @Operation(
+        summary = "Get bank by ID",
+        description = "Retrieves a specific bank by its unique identifier"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Bank found and retrieved successfully",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = BankResponse.class))
+        ),
+        @ApiResponse(
+            responseCode = "404",
+            description = "Bank not found"
+        )
+    })
+    public ResponseEntity<BankResponse> getBankById(
+        @Parameter(description = "Unique identifier of the bank", required = true) @PathVariable Long id) {
+        log.debug("GET /api/v1/banks/{} - Getting bank by ID", id);
+        
+        Optional<Bank> bank = bankServicePort.getBankById(id);
+        return bank.map(b -> {
+            BankResponse response = bankWebMapper.toResponse(b);
+            return withETag(ResponseEntity.ok(), response);
+        }).orElse(ResponseEntity.notFound().build());
+    }
+    
+    @GetMapping("/swift/{swiftCode}")
+    @Timed(value = "bank.getBySwiftCode", description = "Time taken to get a bank by SWIFT code")
+    public ResponseEntity<BankResponse> getBankBySwiftCode(@PathVariable String swiftCode) {
+        log.debug("GET /api/v1/banks/swift/{} - Getting bank by SWIFT code", swiftCode);
+        
+        Optional<Bank> bank = bankServicePort.getBankBySwiftCode(swiftCode);
+        return bank.map(b -> {
+            BankResponse response = bankWebMapper.toResponse(b);
+            return withETag(ResponseEntity.ok(), response);
+        }).orElse(ResponseEntity.notFound().build());
+    }
+    
+    @GetMapping
+    @Timed(value = "bank.getAll", description = "Time taken to get all banks")
+    @Operation(
+        summary = "Get all banks",
+        description = "Retrieves all banks with optional filtering by country, country code, name, or active status"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Banks retrieved successfully",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = BankResponse.class))
+        )
+    })
+    public ResponseEntity<List<BankResponse>> getAllBanks(
+        @Parameter(description = "Filter by country name") @RequestParam(required = false) String country,
+        @Parameter(description = "Filter by ISO country code") @RequestParam(required = false) String countryCode,
+        @Parameter(description = "Filter by bank name") @RequestParam(required = false) String name,
+        @Parameter(description = "Filter only active banks") @RequestParam(required = false, defaultValue = "false") boolean activeOnly) {
+        log.debug("GET /api/v1/banks - Getting banks with filters: country={}, countryCode={}, name={}, activeOnly={}", 
+                  country, countryCode, name, activeOnly);
+        
+        List<Bank> banks;
+        
+        if (activeOnly) {
+            banks = bankServicePort.getActiveBanks();
+        } else if (country != null && !country.trim().isEmpty()) {
+            banks = bankServicePort.getBanksByCountry(country);
+        } else if (countryCode != null && !countryCode.trim().isEmpty()) {
+            banks = bankServicePort.getBanksByCountryCode(countryCode);
+        } else if (name != null && !name.trim().isEmpty()) {
+            banks = bankServicePort.searchBanksByName(name);
+        } else {
+            banks = bankServicePort.getAllBanks();
+        }
+        
+        List<BankResponse> responses = bankWebMapper.toResponseList(banks);
+        return ResponseEntity.ok(responses);
+    }
+    
+    @DeleteMapping("/{id}")
+    @Timed(value = "bank.delete", description = "Time taken to delete a bank")
+    public ResponseEntity<Void> deleteBank(@PathVariable Long id,
+                                           @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        log.info("DELETE /api/v1/banks/{} - Deleting bank", id);
+        
+        bankServicePort.deleteBank(id, parseVersion(id, ifMatch));
+        
+        log.info("Bank deleted successfully with ID: {}", id);
+        return ResponseEntity.noContent().build();
+    }
+    
+    @DeleteMapping("/{id}")
+    @RespondAsync
+    @Timed(value = "bank.delete.async", description = "Time taken to accept a bank deletion")
+    public ResponseEntity<WriteTokenResponse> deleteBankAsync(@PathVariable Long id,
+                                                              @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        log.info("DELETE /api/v1/banks/{} (async) - Queueing deletion", id);
+        
+        return accepted(bankWriteBehindPort.submitDelete(id, parseVersion(id, ifMatch)));
+    }
+    
+    @GetMapping("/writes/{token}")
+    @Timed(value = "bank.write.status", description = "Time taken to report the state of an asynchronous write")
+    @Operation(
+        summary = "Get the state of an asynchronous write",
+        description = "Reports whether a write accepted with Prefer: respond-async is pending, committed or failed, optionally waiting for it to finish"
+    )
+    public ResponseEntity<WriteTokenResponse> getWriteStatus(
+        @PathVariable long token,
+        @Parameter(description = "How long to wait for the write to finish, in milliseconds")
+        @RequestParam(defaultValue = "0") long waitMillis) throws InterruptedException {
+        Optional<BankWriteToken> writeToken = bankWriteBehindPort.findToken(token);
+        if (writeToken.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        if (waitMillis > 0) {
+            writeToken.get().await(Duration.ofMillis(Math.min(waitMillis, MAX_WRITE_WAIT.toMillis())));
+        }
+        return ResponseEntity.ok(bankWebMapper.toWriteTokenResponse(writeToken.get()));
+    }
+    
+    @GetMapping("/self-call/{id}")
+    @Timed(value = "bank.selfCall", description = "Time taken for self-call to get bank")
+    public ResponseEntity<BankResponse> selfCallGetBankById(@PathVariable Long id) {
+        log.info("GET /api/v1/banks/{}/self-call - Self-calling to get bank by ID", id);
+        
+        Optional<Bank> bank = bankServicePort.selfCallGetBankById(id);
+        return bank.map(b -> {
+            BankResponse response = bankWebMapper.toResponse(b);
+            return ResponseEntity.ok(response);
+        }).orElse(ResponseEntity.notFound().build());
+    }
+    
+    @GetMapping("/self-call/swift/{swiftCode}")
+    @Timed(value = "bank.selfCallBySwift", description = "Time taken for self-call to get bank by SWIFT")
+    public ResponseEntity<BankResponse> selfCallGetBankBySwiftCode(@PathVariable String swiftCode) {
+        log.info("GET /api/v1/banks/swift/{}/self-call - Self-calling to get bank by SWIFT code", swiftCode);
+        
+        Optional<Bank> bank = bankServicePort.selfCallGetBankBySwiftCode(swiftCode);
+        return bank.map(b -> {
+            BankResponse response = bankWebMapper.toResponse(b);
+            return ResponseEntity.ok(response);
+        }).orElse(ResponseEntity.notFound().build());
+    }
+    
+    @GetMapping("/self-call/batch")
+    @Timed(value = "bank.selfCallBatch", description = "Time taken for batch self-call to get banks by ID")
+    @Operation(
+        summary = "Self-call to get several banks by ID",
+        description = "Fetches the given banks through the HTTP client with bounded concurrency, keeping input order and reporting per-item outcomes"
+    )
+    public ResponseEntity<List<BankLookupResponse>> selfCallGetBanksByIds(
+        @Parameter(description = "Comma-separated bank identifiers", required = true) @RequestParam List<Long> ids) {
+        log.info("GET /api/v1/banks/self-call/batch - Self-calling to get {} banks by ID", ids.size());
+        
+        List<BankLookupResult> results = bankServicePort.selfCallGetBanksByIds(ids);
+        return ResponseEntity.ok(bankWebMapper.toLookupResponseList(results));
+    }
+    
+    @GetMapping("/self-call/swift/batch")
+    @Timed(value = "bank.selfCallBatchBySwift", description = "Time taken for batch self-call to get banks by SWIFT")
+    @Operation(
+        summary = "Self-call to get several banks by SWIFT code",
+        description = "Fetches the given banks through the HTTP client with bounded concurrency, keeping input order and reporting per-item outcomes"
+    )
+    public ResponseEntity<List<BankLookupResponse>> selfCallGetBanksBySwiftCodes(
+        @Parameter(description = "Comma-separated SWIFT codes", required = true) @RequestParam List<String> swiftCodes) {
+        log.info("GET /api/v1/banks/self-call/swift/batch - Self-calling to get {} banks by SWIFT code", swiftCodes.size());
+        
+        List<BankLookupResult> results = bankServicePort.selfCallGetBanksBySwiftCodes(swiftCodes);
+        return ResponseEntity.ok(bankWebMapper.toLookupResponseList(results));
+    }
+    
+    private ResponseEntity<WriteTokenResponse> accepted(BankWriteToken token) {
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/v1/banks/writes/" + token.getId()))
+                .header("Preference-Applied", "respond-async")
+                .body(bankWebMapper.toWriteTokenResponse(token));
+    }
+    
+    /**
+     * The bank version doubles as its ETag, so GET responses can be revalidated with If-None-Match
+     * and writes made conditional with If-Match
+     */
+    private static ResponseEntity<BankResponse> withETag(ResponseEntity.BodyBuilder builder, BankResponse response) {
+        if (response != null && response.getVersion() != null) {
+            builder.eTag(String.valueOf(response.getVersion()));
+        }
+        return builder.body(response);
+    }
+    
+    /**
+     * Reads the expected version from an If-Match header: absent or "*" means any current version.
+     * If-Match compares entity tags strongly, so weak tags never match; of a list of versions, the one the
+     * bank is at now is expected.
+     */
+    private Long parseVersion(Long id, String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank()) {
+            return null;
+        }
+        List<Long> versions = new ArrayList<>();
+        for (String tag : ifMatch.split(",")) {
+            tag = tag.trim();
+            if (tag.equals("*")) {
+                return null;
+            }
+            if (tag.startsWith("W/")) {
+                continue;
+            }
+            if (tag.length() > 1 && tag.startsWith("\"") && tag.endsWith("\"")) {
+                tag = tag.substring(1, tag.length() - 1);
+            }
+            try {
+                versions.add(Long.parseLong(tag));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid If-Match header: " + ifMatch);
+            }
+        }
+        if (versions.size() <= 1) {
+            return versions.stream().findFirst().orElseThrow(() -> PreconditionFailedException.ifMatch(id, ifMatch));
+        }
+        // A missing bank is reported as such by the write
+        Optional<Long> current = bankServicePort.getBankById(id).map(Bank::getVersion);
+        if (current.isEmpty()) {
+            return versions.get(0);
+        }
+        return current.filter(versions::contains).orElseThrow(() -> PreconditionFailedException.ifMatch(id, ifMatch));
+    }
+}
\ No newline at end of file
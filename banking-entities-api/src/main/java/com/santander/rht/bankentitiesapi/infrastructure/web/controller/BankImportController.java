@@ -0,0 +1,146 @@
+package com.santander.rht.bankentitiesapi.infrastructure.web.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.santander.rht.bankentitiesapi.domain.model.BankImportError;
+import com.santander.rht.bankentitiesapi.domain.model.BankImportJob;
+import com.santander.rht.bankentitiesapi.domain.model.BankImportRow;
+import com.santander.rht.bankentitiesapi.domain.port.in.BankImportPort;
+import com.santander.rht.bankentitiesapi.infrastructure.web.dto.ImportJobResponse;
+import com.santander.rht.bankentitiesapi.infrastructure.web.importer.CsvBankImportRows;
+import com.santander.rht.bankentitiesapi.infrastructure.web.importer.JsonBankImportRows;
+import com.santander.rht.bankentitiesapi.infrastructure.web.mapper.BankWebMapper;
+import io.micrometer.core.annotation.Timed;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * REST Controller for bulk imports streamed as CSV or NDJSON
+ */
+@RestController
+@RequestMapping("/api/v1/banks/import")
+@Slf4j
+@Tag(name = "Bank Import", description = "Bulk upserts of banks by SWIFT code from CSV or NDJSON uploads")
+public class BankImportController {
+    
+    static final String TEXT_CSV = "text/csv";
+    
+    private final BankImportPort bankImportPort;
+    private final BankWebMapper bankWebMapper;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final Duration requestTimeout;
+    
+    public BankImportController(BankImportPort bankImportPort,
+                                BankWebMapper bankWebMapper,
+                                ObjectMapper objectMapper,
+                                Validator validator,
+                                @Value("${app.import.request-timeout:1h}") Duration requestTimeout) {
+        this.bankImportPort = bankImportPort;
+        this.bankWebMapper = bankWebMapper;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.requestTimeout = requestTimeout;
+    }
+    
+    @PostMapping(consumes = {TEXT_CSV, MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE},
+                 produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Timed(value = "bank.import.start", description = "Time taken to start a bulk import")
+    @Operation(
+        summary = "Import banks",
+        description = "Streams the body (CSV with a header line, NDJSON, or a JSON array of bank creation requests) "
+                + "and upserts the banks by SWIFT code in batches. The response is NDJSON: the job as soon as it "
+                + "starts, then the job once the whole body has been imported. Progress can also be followed at Location."
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "202", description = "Import started, see Location for its progress"),
+        @ApiResponse(responseCode = "503", description = "Too many imports running")
+    })
+    public ResponseEntity<ResponseBodyEmitter> importBanks(@RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+                                                           InputStream body) throws IOException {
+        Iterator<BankImportRow> rows = contentType.isCompatibleWith(MediaType.parseMediaType(TEXT_CSV))
+                ? new CsvBankImportRows(body, ',')
+                : new JsonBankImportRows(body, objectMapper, bankWebMapper, validator);
+        
+        // The body is read by the import thread after this returns; the emitter keeps the request open until then
+        ResponseBodyEmitter emitter = new ResponseBodyEmitter(requestTimeout.toMillis());
+        BankImportJob job = bankImportPort.startImport(contentType.getSubtype(), rows);
+        log.info("POST /api/v1/banks/import - Started {} import {}", contentType, job.getId());
+        
+        send(emitter, job);
+        job.getCompletion().whenComplete((finished, failure) -> {
+            try {
+                send(emitter, job);
+                emitter.complete();
+            } catch (IOException e) {
+                emitter.completeWithError(e);
+            }
+        });
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/v1/banks/import/" + job.getId()))
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(emitter);
+    }
+    
+    @GetMapping("/{jobId}")
+    @Timed(value = "bank.import.status", description = "Time taken to report the progress of a bulk import")
+    @Operation(summary = "Get the progress of a bulk import")
+    public ResponseEntity<ImportJobResponse> getImport(@PathVariable long jobId) {
+        return bankImportPort.findJob(jobId)
+                .map(job -> ResponseEntity.ok(bankWebMapper.toImportJobResponse(job)))
+                .orElse(ResponseEntity.notFound().build());
+    }
+    
+    @GetMapping(value = "/{jobId}/errors", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(
+        summary = "Get the rejected rows of a bulk import",
+        description = "Streams one NDJSON line per row that was not imported, with its line number and the reason"
+    )
+    public ResponseEntity<StreamingResponseBody> getImportErrors(@PathVariable long jobId) {
+        Optional<Stream<BankImportError>> errors = bankImportPort.streamErrors(jobId);
+        if (errors.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        StreamingResponseBody body = out -> {
+            try (Stream<BankImportError> stream = errors.get();
+                 BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8))) {
+                Iterator<BankImportError> iterator = stream.iterator();
+                while (iterator.hasNext()) {
+                    writer.write(objectMapper.writeValueAsString(bankWebMapper.toImportErrorResponse(iterator.next())));
+                    writer.newLine();
+                }
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+    
+    private void send(ResponseBodyEmitter emitter, BankImportJob job) throws IOException {
+        emitter.send(objectMapper.writeValueAsString(bankWebMapper.toImportJobResponse(job)) + "\n", MediaType.TEXT_PLAIN);
+    }
+}
@@ -0,0 +1,106 @@
+package com.santander.rht.bankentitiesapi.infrastructure.web.converter;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.santander.rht.bankentitiesapi.domain.exception.InvalidBankDataException;
+import com.santander.rht.bankentitiesapi.domain.model.BankField;
+import com.santander.rht.bankentitiesapi.domain.model.BankPatch;
+import com.santander.rht.bankentitiesapi.infrastructure.web.dto.UpdateBankRequest;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Reads an {@code application/merge-patch+json} body (RFC 7396) into a {@link BankPatch}.
+ * Only the members present in the document end up in the patch; each value is checked against
+ * the same constraints as {@link UpdateBankRequest}.
+ */
+@Component
+public class BankMergePatchHttpMessageConverter extends AbstractHttpMessageConverter<BankPatch> {
+    
+    public static final String MERGE_PATCH_JSON_VALUE = "application/merge-patch+json";
+    public static final MediaType MERGE_PATCH_JSON = MediaType.parseMediaType(MERGE_PATCH_JSON_VALUE);
+    
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    
+    public BankMergePatchHttpMessageConverter(ObjectMapper objectMapper, Validator validator) {
+        super(MERGE_PATCH_JSON);
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+    }
+    
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return BankPatch.class.equals(clazz);
+    }
+    
+    @Override
+    protected boolean canWrite(MediaType mediaType) {
+        return false;
+    }
+    
+    @Override
+    protected BankPatch readInternal(Class<? extends BankPatch> clazz, HttpInputMessage inputMessage)
+            throws IOException, HttpMessageNotReadableException {
+        JsonNode document;
+        try {
+            document = objectMapper.readTree(inputMessage.getBody());
+        } catch (JsonProcessingException e) {
+            throw new InvalidBankDataException("Malformed merge patch document: " + e.getOriginalMessage());
+        }
+        if (document == null || !document.isObject()) {
+            throw new InvalidBankDataException("Merge patch document must be a JSON object");
+        }
+        
+        BankPatch patch = new BankPatch();
+        Iterator<Map.Entry<String, JsonNode>> members = document.fields();
+        while (members.hasNext()) {
+            Map.Entry<String, JsonNode> member = members.next();
+            BankField field = BankField.fromProperty(member.getKey())
+                    .orElseThrow(() -> InvalidBankDataException.unknownField(member.getKey()));
+            Object value = member.getValue().isNull() ? null : convert(field, member.getValue());
+            validate(field, value);
+            patch.set(field, value);
+        }
+        return patch;
+    }
+    
+    @Override
+    protected void writeInternal(BankPatch patch, HttpOutputMessage outputMessage)
+            throws IOException, HttpMessageNotWritableException {
+        throw new HttpMessageNotWritableException("Bank patches are not written");
+    }
+    
+    private Object convert(BankField field, JsonNode value) {
+        if (field.getType() == String.class && !value.isTextual()
+                || field.getType() == Boolean.class && !value.isBoolean()) {
+            throw InvalidBankDataException.invalidField(field.getProperty(), "expected " + field.getType().getSimpleName());
+        }
+        try {
+            return objectMapper.treeToValue(value, field.getType());
+        } catch (JsonProcessingException | IllegalArgumentException e) {
+            throw InvalidBankDataException.invalidField(field.getProperty(), value.toString());
+        }
+    }
+    
+    private void validate(BankField field, Object value) {
+        Set<ConstraintViolation<UpdateBankRequest>> violations =
+                validator.validateValue(UpdateBankRequest.class, field.getProperty(), value);
+        if (!violations.isEmpty()) {
+            throw InvalidBankDataException.invalidField(field.getProperty(), violations.iterator().next().getMessage());
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.santander.rht.bankentitiesapi.infrastructure.web.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO for a page of the bank change feed
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BankChangePageResponse {
+    
+    private List<BankChangeResponse> changes;
+    
+    /**
+     * Value to pass as {@code since} for the next page
+     */
+    private long next;
+    
+    private boolean hasMore;
+}
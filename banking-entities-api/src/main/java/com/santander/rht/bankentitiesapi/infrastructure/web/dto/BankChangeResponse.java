@@ -0,0 +1,26 @@
+package com.santander.rht.bankentitiesapi.infrastructure.web.dto;
+
+import com.santander.rht.bankentitiesapi.domain.model.BankChangeType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO for one entry of the bank change feed; {@code bank} is absent for deleted banks
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BankChangeResponse {
+    
+    private long seq;
+    private BankChangeType type;
+    private long bankId;
+    private String swiftCode;
+    private LocalDateTime changedAt;
+    private BankResponse bank;
+}
@@ -0,0 +1,22 @@
+package com.santander.rht.bankentitiesapi.infrastructure.web.dto;
+
+import com.santander.rht.bankentitiesapi.domain.model.LookupOutcome;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for a single item of a batch lookup response
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BankLookupResponse {
+    
+    private String key;
+    private LookupOutcome outcome;
+    private BankResponse bank;
+    private String errorMessage;
+}
@@ -0,0 +1,20 @@
+package com.santander.rht.bankentitiesapi.infrastructure.web.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for a row of a bulk import that was not imported
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportErrorResponse {
+    
+    private long line;
+    private String swiftCode;
+    private String message;
+}
@@ -0,0 +1,30 @@
+package com.santander.rht.bankentitiesapi.infrastructure.web.dto;
+
+import com.santander.rht.bankentitiesapi.domain.model.ImportStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * DTO for the progress of a bulk import
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportJobResponse {
+    
+    private Long id;
+    private String format;
+    private ImportStatus status;
+    private Instant startedAt;
+    private Instant finishedAt;
+    private long rowsRead;
+    private long rowsWritten;
+    private long rowsUnchanged;
+    private long rowsRejected;
+    private String failure;
+}
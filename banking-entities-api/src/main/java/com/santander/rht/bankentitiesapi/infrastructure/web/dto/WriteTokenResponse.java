@@ -0,0 +1,22 @@
+package com.santander.rht.bankentitiesapi.infrastructure.web.dto;
+
+import com.santander.rht.bankentitiesapi.domain.model.WriteStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for the state of a write accepted with Prefer: respond-async
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class WriteTokenResponse {
+    
+    private Long id;
+    private WriteStatus status;
+    private BankResponse bank;
+    private String errorMessage;
+}
@@ -0,0 +1,242 @@
+package com.santander.rht.bankentitiesapi.infrastructure.web.exception;
+
+import com.santander.rht.bankentitiesapi.domain.exception.BankNotFoundException;
+import com.santander.rht.bankentitiesapi.domain.exception.BankVersionConflictException;
+import com.santander.rht.bankentitiesapi.domain.exception.ChangeCursorExpiredException;
+import com.santander.rht.bankentitiesapi.domain.exception.DeadlineExceededException;
+import com.santander.rht.bankentitiesapi.domain.exception.DuplicateBankException;
+import com.santander.rht.bankentitiesapi.domain.exception.ImportCapacityException;
+import com.santander.rht.bankentitiesapi.domain.exception.InvalidBankDataException;
+import com.santander.rht.bankentitiesapi.domain.exception.PreconditionFailedException;
+import com.santander.rht.bankentitiesapi.domain.exception.SelfCallFailedException;
+import com.santander.rht.bankentitiesapi.domain.exception.WriteQueueFullException;
+import com.santander.rht.bankentitiesapi.infrastructure.web.dto.ErrorResponse;
+import com.santander.rht.bankentitiesapi.infrastructure.web.filter.RequestDeadlineFilter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.TransactionTimedOutException;
+import org.springframework.validation.FieldError;
+import org.springframework.web.bind.MethodArgumentNotValidException;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Global exception handler for the application
+ */
+@RestControllerAdvice
+@Slf4j
+public class GlobalExceptionHandler {
+
+    @ExceptionHandler(BankNotFoundException.class)
+    public ResponseEntity<ErrorResponse> handleBankNotFoundException(BankNotFoundException ex, WebRequest request) {
+        log.error("Bank not found: {}", ex.getMessage());
+
+        ErrorResponse error = ErrorResponse.of(
+                "BANK_NOT_FOUND",
+                ex.getMessage(),
+                HttpStatus.NOT_FOUND.value(),
+                request.getDescription(false).replace("uri=", "")
+        );
+
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
+    }
+
+    @ExceptionHandler(DuplicateBankException.class)
+    public ResponseEntity<ErrorResponse> handleDuplicateBankException(DuplicateBankException ex, WebRequest request) {
+        log.error("Duplicate bank: {}", ex.getMessage());
+
+        ErrorResponse error = ErrorResponse.of(
+                "DUPLICATE_BANK",
+                ex.getMessage(),
+                HttpStatus.CONFLICT.value(),
+                request.getDescription(false).replace("uri=", "")
+        );
+
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
+    }
+
+    @ExceptionHandler(BankVersionConflictException.class)
+    public ResponseEntity<ErrorResponse> handleBankVersionConflictException(BankVersionConflictException ex, WebRequest request) {
+        log.error("Version conflict: {}", ex.getMessage());
+
+        ErrorResponse error = ErrorResponse.of(
+                "VERSION_CONFLICT",
+                ex.getMessage(),
+                HttpStatus.CONFLICT.value(),
+                request.getDescription(false).replace("uri=", "")
+        );
+
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
+    }
+
+    @ExceptionHandler(PreconditionFailedException.class)
+    public ResponseEntity<ErrorResponse> handlePreconditionFailedException(PreconditionFailedException ex, WebRequest request) {
+        log.error("Precondition failed: {}", ex.getMessage());
+
+        ErrorResponse error = ErrorResponse.of(
+                "PRECONDITION_FAILED",
+                ex.getMessage(),
+                HttpStatus.PRECONDITION_FAILED.value(),
+                request.getDescription(false).replace("uri=", "")
+        );
+
+        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(error);
+    }
+
+    @ExceptionHandler(InvalidBankDataException.class)
+    public ResponseEntity<ErrorResponse> handleInvalidBankDataException(InvalidBankDataException ex, WebRequest request) {
+        log.error("Invalid bank data: {}", ex.getMessage());
+
+        ErrorResponse error = ErrorResponse.of(
+                "INVALID_BANK_DATA",
+                ex.getMessage(),
+                HttpStatus.BAD_REQUEST.value(),
+                request.getDescription(false).replace("uri=", "")
+        );
+
+        // Preset, so the error is still written as JSON to clients of the event stream
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).contentType(MediaType.APPLICATION_JSON).body(error);
+    }
+
+    @ExceptionHandler(SelfCallFailedException.class)
+    public ResponseEntity<ErrorResponse> handleSelfCallFailedException(SelfCallFailedException ex, WebRequest request) {
+        log.error("Self-call failed: {}", ex.getMessage());
+
+        HttpStatus status = switch (ex.getOutcome()) {
+            case TIMEOUT -> HttpStatus.GATEWAY_TIMEOUT;
+            case REJECTED -> HttpStatus.SERVICE_UNAVAILABLE;
+            default -> HttpStatus.BAD_GATEWAY;
+        };
+        ErrorResponse error = ErrorResponse.of(
+                "SELF_CALL_" + ex.getOutcome().name(),
+                ex.getMessage(),
+                status.value(),
+                request.getDescription(false).replace("uri=", "")
+        );
+
+        return ResponseEntity.status(status).body(error);
+    }
+
+    @ExceptionHandler(WriteQueueFullException.class)
+    public ResponseEntity<ErrorResponse> handleWriteQueueFullException(WriteQueueFullException ex, WebRequest request) {
+        log.warn("Write queue full: {}", ex.getMessage());
+
+        ErrorResponse error = ErrorResponse.of(
+                "WRITE_QUEUE_FULL",
+                ex.getMessage(),
+                HttpStatus.SERVICE_UNAVAILABLE.value(),
+                request.getDescription(false).replace("uri=", "")
+        );
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(error);
+    }
+
+    @ExceptionHandler(ImportCapacityException.class)
+    public ResponseEntity<ErrorResponse> handleImportCapacityException(ImportCapacityException ex, WebRequest request) {
+        log.warn("Import rejected: {}", ex.getMessage());
+
+        ErrorResponse error = ErrorResponse.of(
+                "IMPORT_CAPACITY_EXCEEDED",
+                ex.getMessage(),
+                HttpStatus.SERVICE_UNAVAILABLE.value(),
+                request.getDescription(false).replace("uri=", "")
+        );
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(error);
+    }
+
+    @ExceptionHandler(ChangeCursorExpiredException.class)
+    public ResponseEntity<ErrorResponse> handleChangeCursorExpiredException(ChangeCursorExpiredException ex, WebRequest request) {
+        log.info("Change feed cursor expired: {}", ex.getMessage());
+
+        ErrorResponse error = ErrorResponse.of(
+                "CHANGE_CURSOR_EXPIRED",
+                ex.getMessage(),
+                HttpStatus.GONE.value(),
+                request.getDescription(false).replace("uri=", "")
+        );
+
+        return ResponseEntity.status(HttpStatus.GONE).contentType(MediaType.APPLICATION_JSON).body(error);
+    }
+
+    @ExceptionHandler(DeadlineExceededException.class)
+    public ResponseEntity<ErrorResponse> handleDeadlineExceededException(DeadlineExceededException ex, WebRequest request) {
+        return deadlineExceeded(ex.getStage(), ex.getMessage(), request);
+    }
+
+    @ExceptionHandler({TransactionTimedOutException.class, QueryTimeoutException.class})
+    public ResponseEntity<ErrorResponse> handleQueryTimeoutException(RuntimeException ex, WebRequest request) {
+        return deadlineExceeded("query", "Request deadline exceeded during query", request);
+    }
+
+    private ResponseEntity<ErrorResponse> deadlineExceeded(String stage, String message, WebRequest request) {
+        log.warn("Deadline exceeded during {}: {}", stage, message);
+        request.setAttribute(RequestDeadlineFilter.EXCEEDED_STAGE_ATTRIBUTE, stage, RequestAttributes.SCOPE_REQUEST);
+
+        ErrorResponse error = ErrorResponse.of(
+                "DEADLINE_EXCEEDED",
+                message,
+                HttpStatus.GATEWAY_TIMEOUT.value(),
+                request.getDescription(false).replace("uri=", "")
+        );
+
+        return ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT).body(error);
+    }
+
+    @ExceptionHandler(MethodArgumentNotValidException.class)
+    public ResponseEntity<ErrorResponse> handleValidationException(MethodArgumentNotValidException ex, WebRequest request) {
+        log.error("Validation error: {}", ex.getMessage());
+
+        List<String> errors = ex.getBindingResult()
+                .getFieldErrors()
+                .stream()
+                .map(FieldError::getDefaultMessage)
+                .collect(Collectors.toList());
+
+        ErrorResponse error = ErrorResponse.of(
+                "VALIDATION_ERROR",
+                "Validation failed for request",
+                HttpStatus.BAD_REQUEST.value(),
+                request.getDescription(false).replace("uri=", ""),
+                errors
+        );
+
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<ErrorResponse> handleIllegalArgumentException(IllegalArgumentException ex, WebRequest request) {
+        log.error("Illegal argument: {}", ex.getMessage());
+
+        ErrorResponse error = ErrorResponse.of(
+                "ILLEGAL_ARGUMENT",
+                ex.getMessage(),
+                HttpStatus.BAD_REQUEST.value(),
+                request.getDescription(false).replace("uri=", "")
+        );
+
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+    }
+
+    @ExceptionHandler(Exception.class)
+    public ResponseEntity<ErrorResponse> handleGenericException(Exception ex, WebRequest request) {
+        log.error("Unexpected error: {}", ex.getMessage(), ex);
+
+        ErrorResponse error = ErrorResponse.of(
+                "INTERNAL_SERVER_ERROR",
+                "An unexpected error occurred",
+                HttpStatus.INTERNAL_SERVER_ERROR.value(),
+                request.getDescription(false).replace("uri=", "")
+        );
+
+        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
+    }
+}
@@ -0,0 +1,132 @@
+package com.santander.rht.bankentitiesapi.infrastructure.web.filter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.santander.rht.bankentitiesapi.application.deadline.DeadlineContext;
+import com.santander.rht.bankentitiesapi.domain.model.RequestDeadline;
+import com.santander.rht.bankentitiesapi.infrastructure.web.dto.ErrorResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Reads the request deadline from the {@value #DEADLINE_HEADER} header (epoch millis or ISO-8601 instant)
+ * or the {@value #TIMEOUT_HEADER} header (milliseconds) and makes it available to the rest of the
+ * request through {@link DeadlineContext}. Requests that arrive already expired are rejected with 504
+ * without doing any work.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class RequestDeadlineFilter extends OncePerRequestFilter {
+    
+    public static final String DEADLINE_HEADER = "X-Request-Deadline";
+    public static final String TIMEOUT_HEADER = "X-Request-Timeout";
+    
+    /**
+     * Request attribute set by the exception handler with the stage at which work was abandoned
+     */
+    public static final String EXCEEDED_STAGE_ATTRIBUTE = RequestDeadlineFilter.class.getName() + ".EXCEEDED_STAGE";
+    
+    private final MeterRegistry meterRegistry;
+    private final ObjectMapper objectMapper;
+    private final Duration maxTimeout;
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        RequestDeadline deadline;
+        try {
+            deadline = resolveDeadline(request);
+        } catch (IllegalArgumentException e) {
+            writeError(request, response, HttpStatus.BAD_REQUEST, "INVALID_DEADLINE", e.getMessage());
+            return;
+        }
+        
+        if (deadline == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        if (deadline.isExpired()) {
+            log.debug("Rejecting {} {}: deadline already passed", request.getMethod(), request.getRequestURI());
+            exceededCounter("arrival").increment();
+            writeError(request, response, HttpStatus.GATEWAY_TIMEOUT, "DEADLINE_EXCEEDED",
+                    "Request deadline exceeded before processing started");
+            return;
+        }
+        
+        DeadlineContext.set(deadline);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            DeadlineContext.clear();
+            Object stage = request.getAttribute(EXCEEDED_STAGE_ATTRIBUTE);
+            if (stage != null) {
+                exceededCounter(stage.toString()).increment();
+            }
+        }
+    }
+    
+    private RequestDeadline resolveDeadline(HttpServletRequest request) {
+        RequestDeadline deadline = null;
+        String absolute = request.getHeader(DEADLINE_HEADER);
+        if (absolute != null && !absolute.isBlank()) {
+            deadline = new RequestDeadline(parseInstant(absolute.trim()));
+        }
+        String relative = request.getHeader(TIMEOUT_HEADER);
+        if (relative != null && !relative.isBlank()) {
+            RequestDeadline fromTimeout = RequestDeadline.after(Duration.ofMillis(parseMillis(relative.trim())));
+            deadline = deadline == null ? fromTimeout : deadline.earliest(fromTimeout);
+        }
+        // Never let a client keep the server busy longer than the configured maximum
+        return deadline == null ? null : deadline.earliest(RequestDeadline.after(maxTimeout));
+    }
+    
+    private static Instant parseInstant(String value) {
+        try {
+            return value.chars().allMatch(Character::isDigit)
+                    ? Instant.ofEpochMilli(Long.parseLong(value))
+                    : Instant.parse(value);
+        } catch (NumberFormatException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid " + DEADLINE_HEADER + " header: " + value);
+        }
+    }
+    
+    private static long parseMillis(String value) {
+        try {
+            long millis = Long.parseLong(value);
+            if (millis < 0) {
+                throw new NumberFormatException();
+            }
+            return millis;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + TIMEOUT_HEADER + " header: " + value);
+        }
+    }
+    
+    private void writeError(HttpServletRequest request, HttpServletResponse response, HttpStatus status,
+                            String code, String message) throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(),
+                ErrorResponse.of(code, message, status.value(), request.getRequestURI()));
+    }
+    
+    private Counter exceededCounter(String stage) {
+        return Counter.builder("bank.deadline.exceeded")
+                .description("Requests whose work was abandoned because their deadline passed")
+                .tag("stage", stage)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,65 @@
+package com.santander.rht.bankentitiesapi.infrastructure.web.importer;
+
+import com.santander.rht.bankentitiesapi.domain.model.BankImportRow;
+import com.santander.rht.bankentitiesapi.infrastructure.persistence.directory.BicDirectoryFormat;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Reads import rows from a CSV stream one line at a time. The first line names the columns, as in
+ * a BIC directory file; lines whose values cannot be converted become unreadable rows.
+ */
+public class CsvBankImportRows implements Iterator<BankImportRow> {
+    
+    private final BufferedReader reader;
+    private BicDirectoryFormat format;
+    private long lineNumber;
+    private String nextLine;
+    
+    public CsvBankImportRows(InputStream in, char delimiter) {
+        this.reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), 1 << 16);
+        this.format = BicDirectoryFormat.csv(delimiter);
+    }
+    
+    @Override
+    public boolean hasNext() {
+        try {
+            while (nextLine == null) {
+                String line = reader.readLine();
+                if (line == null) {
+                    return false;
+                }
+                lineNumber++;
+                if (format.hasHeader()) {
+                    format = format.withHeader(line.startsWith("﻿") ? line.substring(1) : line);
+                } else if (!line.isBlank()) {
+                    nextLine = line;
+                }
+            }
+            return true;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read CSV import at line " + lineNumber, e);
+        }
+    }
+    
+    @Override
+    public BankImportRow next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        String line = nextLine;
+        nextLine = null;
+        try {
+            return BankImportRow.of(lineNumber, format.parse(line));
+        } catch (IllegalArgumentException e) {
+            return BankImportRow.unreadable(lineNumber, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.santander.rht.bankentitiesapi.infrastructure.web.importer;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.santander.rht.bankentitiesapi.domain.model.BankImportRow;
+import com.santander.rht.bankentitiesapi.infrastructure.web.dto.CreateBankRequest;
+import com.santander.rht.bankentitiesapi.infrastructure.web.mapper.BankWebMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Reads import rows from NDJSON, or from a single JSON array, with Jackson's streaming parser, so
+ * only one {@link CreateBankRequest} is held at a time. Each object is read as a tree first, so one
+ * with wrong values, or failing bean validation, becomes an unreadable row without losing the
+ * parser's place; malformed JSON ends the import.
+ */
+public class JsonBankImportRows implements Iterator<BankImportRow> {
+    
+    private final ObjectMapper objectMapper;
+    private final BankWebMapper bankWebMapper;
+    private final Validator validator;
+    private final JsonParser parser;
+    private JsonToken nextToken;
+    
+    public JsonBankImportRows(InputStream in, ObjectMapper objectMapper, BankWebMapper bankWebMapper, Validator validator) {
+        this.objectMapper = objectMapper;
+        this.bankWebMapper = bankWebMapper;
+        this.validator = validator;
+        try {
+            this.parser = objectMapper.getFactory().createParser(in);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read JSON import", e);
+        }
+    }
+    
+    @Override
+    public boolean hasNext() {
+        try {
+            while (nextToken == null) {
+                JsonToken token = parser.nextToken();
+                if (token == null) {
+                    return false;
+                }
+                // The brackets of a top-level array are skipped, leaving its elements
+                if (token != JsonToken.START_ARRAY && token != JsonToken.END_ARRAY) {
+                    nextToken = token;
+                }
+            }
+            return true;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Malformed JSON at line " + parser.currentLocation().getLineNr(), e);
+        }
+    }
+    
+    @Override
+    public BankImportRow next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        nextToken = null;
+        long line = parser.currentTokenLocation().getLineNr();
+        JsonNode node;
+        try {
+            node = objectMapper.readTree(parser);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Malformed JSON at line " + line, e);
+        }
+        if (!node.isObject()) {
+            return BankImportRow.unreadable(line, "Expected a JSON object");
+        }
+        
+        CreateBankRequest request;
+        try {
+            request = objectMapper.treeToValue(node, CreateBankRequest.class);
+        } catch (JsonProcessingException e) {
+            return BankImportRow.unreadable(line, e.getOriginalMessage());
+        }
+        Set<ConstraintViolation<CreateBankRequest>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            return BankImportRow.unreadable(line, violations.stream()
+                    .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining("; ")));
+        }
+        return BankImportRow.of(line, bankWebMapper.toDomain(request));
+    }
+}
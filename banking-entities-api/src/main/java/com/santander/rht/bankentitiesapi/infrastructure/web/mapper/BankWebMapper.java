@@ -0,0 +1,55 @@
+package com.santander.rht.bankentitiesapi.infrastructure.web.mapper;
+
+import com.santander.rht.bankentitiesapi.domain.model.Bank;
+import com.santander.rht.bankentitiesapi.domain.model.BankChange;
+import com.santander.rht.bankentitiesapi.domain.model.BankChangePage;
+import com.santander.rht.bankentitiesapi.domain.model.BankImportError;
+import com.santander.rht.bankentitiesapi.domain.model.BankImportJob;
+import com.santander.rht.bankentitiesapi.domain.model.BankLookupResult;
+import com.santander.rht.bankentitiesapi.domain.model.BankWriteToken;
+import com.santander.rht.bankentitiesapi.infrastructure.web.dto.BankChangePageResponse;
+import com.santander.rht.bankentitiesapi.infrastructure.web.dto.BankChangeResponse;
+import com.santander.rht.bankentitiesapi.infrastructure.web.dto.BankLookupResponse;
+import com.santander.rht.bankentitiesapi.infrastructure.web.dto.BankResponse;
+import com.santander.rht.bankentitiesapi.infrastructure.web.dto.CreateBankRequest;
+import com.santander.rht.bankentitiesapi.infrastructure.web.dto.ImportErrorResponse;
+import com.santander.rht.bankentitiesapi.infrastructure.web.dto.ImportJobResponse;
+import com.santander.rht.bankentitiesapi.infrastructure.web.dto.UpdateBankRequest;
+import com.santander.rht.bankentitiesapi.infrastructure.web.dto.WriteTokenResponse;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.ReportingPolicy;
+
+import java.util.List;
+
+/**
+ * MapStruct mapper for Bank domain model and web DTOs
+ */
+@Mapper(componentModel = "spring", unmappedTargetPolicy = ReportingPolicy.IGNORE)
+public interface BankWebMapper {
+    
+    Bank toDomain(CreateBankRequest request);
+    
+    Bank toDomain(UpdateBankRequest request);
+    
+    Bank toDomain(BankResponse response);
+    
+    BankResponse toResponse(Bank domain);
+    
+    List<BankResponse> toResponseList(List<Bank> domains);
+    
+    BankLookupResponse toLookupResponse(BankLookupResult result);
+    
+    List<BankLookupResponse> toLookupResponseList(List<BankLookupResult> results);
+    
+    @Mapping(target = "errorMessage", expression = "java(token.getFailure() != null ? token.getFailure().getMessage() : null)")
+    WriteTokenResponse toWriteTokenResponse(BankWriteToken token);
+    
+    ImportJobResponse toImportJobResponse(BankImportJob job);
+    
+    ImportErrorResponse toImportErrorResponse(BankImportError error);
+    
+    BankChangeResponse toChangeResponse(BankChange change);
+    
+    BankChangePageResponse toChangePageResponse(BankChangePage page);
+}
\ No newline at end of file
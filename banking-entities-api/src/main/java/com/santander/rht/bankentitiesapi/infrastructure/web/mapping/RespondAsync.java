@@ -0,0 +1,17 @@
+package com.santander.rht.bankentitiesapi.infrastructure.web.mapping;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Maps a handler only to requests whose {@code Prefer} header asks for {@code respond-async} (RFC 7240),
+ * among whatever other preferences it lists; requests without it go to the handler mapped without this
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface RespondAsync {
+}
@@ -0,0 +1,92 @@
+package com.santander.rht.bankentitiesapi.infrastructure.web.mapping;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.cors.CorsUtils;
+import org.springframework.web.servlet.mvc.condition.AbstractRequestCondition;
+
+import java.util.Collection;
+import java.util.Enumeration;
+import java.util.List;
+
+/**
+ * Request condition for {@link RespondAsync} handlers.
+ * <p>
+ * {@code Prefer} holds a comma-separated list of preferences, each a token optionally followed by
+ * {@code =value} and {@code ;parameters}, and may be repeated, so the header is parsed rather than
+ * compared whole: {@code Prefer: return=minimal, respond-async, wait=10} matches.
+ */
+public final class RespondAsyncCondition extends AbstractRequestCondition<RespondAsyncCondition> {
+    
+    static final String PREFERENCE = "respond-async";
+    
+    static final RespondAsyncCondition INSTANCE = new RespondAsyncCondition();
+    
+    private RespondAsyncCondition() {
+    }
+    
+    @Override
+    protected Collection<?> getContent() {
+        return List.of(PREFERENCE);
+    }
+    
+    @Override
+    protected String getToStringInfix() {
+        return " && ";
+    }
+    
+    @Override
+    public RespondAsyncCondition combine(RespondAsyncCondition other) {
+        return this;
+    }
+    
+    @Override
+    public RespondAsyncCondition getMatchingCondition(HttpServletRequest request) {
+        if (CorsUtils.isPreFlightRequest(request)) {
+            return this;
+        }
+        Enumeration<String> headers = request.getHeaders("Prefer");
+        while (headers.hasMoreElements()) {
+            if (prefers(headers.nextElement(), PREFERENCE)) {
+                return this;
+            }
+        }
+        return null;
+    }
+    
+    @Override
+    public int compareTo(RespondAsyncCondition other, HttpServletRequest request) {
+        return 0;
+    }
+    
+    /**
+     * Whether a {@code Prefer} header value lists the preference, whose name is case-insensitive
+     */
+    static boolean prefers(String header, String preference) {
+        int start = 0;
+        boolean quoted = false;
+        for (int i = 0; i <= header.length(); i++) {
+            char c = i < header.length() ? header.charAt(i) : ',';
+            if (c == '"' && (i == 0 || header.charAt(i - 1) != '\\')) {
+                quoted = !quoted;
+            } else if (c == ',' && !quoted) {
+                if (name(header.substring(start, i)).equalsIgnoreCase(preference)) {
+                    return true;
+                }
+                start = i + 1;
+            }
+        }
+        return false;
+    }
+    
+    private static String name(String preference) {
+        int end = preference.length();
+        for (char separator : new char[]{'=', ';'}) {
+            int index = preference.indexOf(separator);
+            if (index >= 0 && index < end) {
+                end = index;
+            }
+        }
+        return preference.substring(0, end).trim();
+    }
+}
@@ -0,0 +1,28 @@
+package com.santander.rht.bankentitiesapi.infrastructure.web.mapping;
+
+import org.springframework.boot.autoconfigure.web.servlet.WebMvcRegistrations;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.condition.RequestCondition;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+import java.lang.reflect.Method;
+
+/**
+ * Adds the {@link RespondAsyncCondition} to handlers annotated with {@link RespondAsync}. Where both
+ * match, the handler with the condition is the more specific one and wins.
+ */
+@Component
+public class RespondAsyncMappingRegistrations implements WebMvcRegistrations {
+    
+    @Override
+    public RequestMappingHandlerMapping getRequestMappingHandlerMapping() {
+        return new RequestMappingHandlerMapping() {
+            @Override
+            protected RequestCondition<?> getCustomMethodCondition(Method method) {
+                return AnnotatedElementUtils.hasAnnotation(method, RespondAsync.class)
+                        ? RespondAsyncCondition.INSTANCE : null;
+            }
+        };
+    }
+}
@@ -0,0 +1,369 @@
+package com.santander.rht.bankentitiesapi.infrastructure.web.stream;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.santander.rht.bankentitiesapi.application.change.BankChangeNotifier;
+import com.santander.rht.bankentitiesapi.domain.exception.ChangeCursorExpiredException;
+import com.santander.rht.bankentitiesapi.domain.model.BankChange;
+import com.santander.rht.bankentitiesapi.domain.model.BankChangePage;
+import com.santander.rht.bankentitiesapi.domain.port.in.BankChangeFeedPort;
+import com.santander.rht.bankentitiesapi.infrastructure.web.mapper.BankWebMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Pushes bank changes to Server-Sent Events subscribers as they are committed.
+ * <p>
+ * A single dispatcher follows the change feed, woken by the {@link BankChangeNotifier} on every commit and
+ * polling as a fallback for writes made elsewhere. It renders each change once and offers it to every
+ * subscriber's bounded buffer. Buffers are drained to their connections on virtual threads, so an idle
+ * subscriber holds no thread and a slow one only holds up itself. When a buffer overflows its changes are
+ * dropped and the subscriber reads what it missed from the change feed at its own pace; one that overflows
+ * again without having sent anything since is stalled and disconnected, to resume from its
+ * {@code Last-Event-ID} when it reconnects. Heartbeats keep idle connections open through proxies and
+ * reveal dead ones.
+ */
+@Component
+@Slf4j
+public class BankChangeStream {
+    
+    private final BankChangeFeedPort bankChangeFeedPort;
+    private final BankChangeNotifier bankChangeNotifier;
+    private final BankWebMapper bankWebMapper;
+    private final ObjectMapper objectMapper;
+    private final int bufferSize;
+    private final int batchSize;
+    private final Duration pollInterval;
+    private final Duration heartbeatInterval;
+    private final Counter dropped;
+    private final Counter disconnected;
+    
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final ExecutorService senders = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("bank-change-stream-", 0).factory());
+    private final Object dispatchLock = new Object();
+    private long cursor = -1;
+    private volatile Thread dispatcher;
+    
+    public BankChangeStream(BankChangeFeedPort bankChangeFeedPort,
+                            BankChangeNotifier bankChangeNotifier,
+                            BankWebMapper bankWebMapper,
+                            ObjectMapper objectMapper,
+                            MeterRegistry meterRegistry,
+                            @Value("${app.change-stream.buffer-size:256}") int bufferSize,
+                            @Value("${app.change-stream.batch-size:500}") int batchSize,
+                            @Value("${app.change-stream.poll-interval:1s}") Duration pollInterval,
+                            @Value("${app.change-stream.heartbeat-interval:15s}") Duration heartbeatInterval) {
+        this.bankChangeFeedPort = bankChangeFeedPort;
+        this.bankChangeNotifier = bankChangeNotifier;
+        this.bankWebMapper = bankWebMapper;
+        this.objectMapper = objectMapper;
+        this.bufferSize = bufferSize;
+        this.batchSize = batchSize;
+        this.pollInterval = pollInterval;
+        this.heartbeatInterval = heartbeatInterval;
+        this.dropped = overflowCounter(meterRegistry, "dropped");
+        this.disconnected = overflowCounter(meterRegistry, "disconnected");
+        Gauge.builder("bank.changes.stream.subscribers", subscribers, Set::size)
+                .description("Open bank change stream connections")
+                .register(meterRegistry);
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        dispatcher = Thread.ofPlatform().name("bank-change-stream").daemon().start(this::dispatch);
+    }
+    
+    @PreDestroy
+    void stop() {
+        Thread thread = dispatcher;
+        if (thread != null) {
+            thread.interrupt();
+        }
+        subscribers.forEach(Subscriber::close);
+        senders.shutdown();
+    }
+    
+    /**
+     * Opens a stream of the changes after the given sequence number, or of those from now on if null
+     *
+     * @throws ChangeCursorExpiredException if tombstones after the given sequence number have been compacted away
+     */
+    public SseEmitter subscribe(Long since) {
+        if (since != null) {
+            // Rejects a negative or expired cursor before the stream starts, like the change feed does
+            bankChangeFeedPort.getChanges(since, 1);
+        }
+        SseEmitter emitter = new SseEmitter(0L);
+        Subscriber subscriber = subscribe(since, new SseChangeStreamSink(emitter));
+        emitter.onCompletion(subscriber::detach);
+        emitter.onTimeout(subscriber::detach);
+        emitter.onError(error -> subscriber.detach());
+        return emitter;
+    }
+    
+    Subscriber subscribe(Long since, ChangeStreamSink sink) {
+        Subscriber subscriber;
+        synchronized (dispatchLock) {
+            long liveFrom = cursor();
+            subscriber = new Subscriber(sink, since != null ? since : liveFrom, liveFrom);
+            subscribers.add(subscriber);
+        }
+        subscriber.schedule();
+        log.debug("Bank change subscriber joined at {}, {} open", since, subscribers.size());
+        return subscriber;
+    }
+    
+    int subscriberCount() {
+        return subscribers.size();
+    }
+    
+    /**
+     * Sequence number up to which changes have been offered to subscribers. Must hold the dispatch lock.
+     */
+    private long cursor() {
+        if (cursor < 0) {
+            cursor = bankChangeFeedPort.latestSeq();
+        }
+        return cursor;
+    }
+    
+    private void dispatch() {
+        long nextHeartbeat = System.nanoTime() + heartbeatInterval.toNanos();
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                long untilHeartbeat = Math.clamp(nextHeartbeat - System.nanoTime(), 0, pollInterval.toNanos());
+                bankChangeNotifier.awaitChange(Duration.ofNanos(untilHeartbeat));
+                publishNewChanges();
+                if (System.nanoTime() - nextHeartbeat >= 0) {
+                    subscribers.forEach(Subscriber::heartbeat);
+                    nextHeartbeat = System.nanoTime() + heartbeatInterval.toNanos();
+                }
+            } catch (InterruptedException e) {
+                return;
+            } catch (ChangeCursorExpiredException e) {
+                // Fell behind the tombstone retention, so subscribers may have missed deletions
+                log.warn("Bank change stream fell behind compacted tombstones, disconnecting {} subscribers",
+                        subscribers.size());
+                synchronized (dispatchLock) {
+                    subscribers.forEach(Subscriber::close);
+                    cursor = -1;
+                }
+            } catch (RuntimeException e) {
+                log.warn("Reading the bank change feed failed, retrying", e);
+            }
+        }
+    }
+    
+    private void publishNewChanges() {
+        boolean more = true;
+        while (more) {
+            long from;
+            synchronized (dispatchLock) {
+                if (subscribers.isEmpty()) {
+                    // Nobody to offer changes to, so the next subscriber starts from the latest one again
+                    cursor = -1;
+                    return;
+                }
+                from = cursor();
+            }
+            BankChangePage page = bankChangeFeedPort.getChanges(from, batchSize);
+            List<ChangeStreamEvent> events = page.changes().stream().map(this::toEvent).toList();
+            synchronized (dispatchLock) {
+                if (!events.isEmpty()) {
+                    subscribers.forEach(subscriber -> subscriber.offer(events));
+                }
+                cursor = page.next();
+            }
+            more = page.hasMore();
+        }
+    }
+    
+    private static Counter overflowCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("bank.changes.stream.overflows")
+                .description("Subscriber buffers that overflowed, by whether the subscriber was left to catch up "
+                        + "from the change feed or was disconnected")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+    
+    private ChangeStreamEvent toEvent(BankChange change) {
+        try {
+            return ChangeStreamEvent.of(change.seq(), change.type().name(),
+                    objectMapper.writeValueAsString(bankWebMapper.toChangeResponse(change)));
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    /**
+     * One connection: first the changes it missed, read from the feed at its own pace,
+     * then those offered live since it joined
+     */
+    final class Subscriber {
+        
+        private final ChangeStreamSink sink;
+        private final BlockingQueue<ChangeStreamEvent> buffer = new LinkedBlockingQueue<>(bufferSize);
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+        private volatile long catchUpTo;
+        private volatile long sent;
+        private long sentAtOverflow = -1;
+        
+        private Subscriber(ChangeStreamSink sink, long since, long liveFrom) {
+            this.sink = sink;
+            this.sent = since;
+            this.catchUpTo = liveFrom;
+        }
+        
+        /**
+         * Buffers a page of changes. Called holding the dispatch lock.
+         */
+        void offer(List<ChangeStreamEvent> events) {
+            if (closed.get()) {
+                return;
+            }
+            for (ChangeStreamEvent event : events) {
+                if (!buffer.offer(event)) {
+                    overflow(events.getLast().seq());
+                    break;
+                }
+            }
+            schedule();
+        }
+        
+        void heartbeat() {
+            if (buffer.isEmpty() && buffer.offer(ChangeStreamEvent.HEARTBEAT)) {
+                schedule();
+            }
+        }
+        
+        void schedule() {
+            if (!closed.get() && draining.compareAndSet(false, true)) {
+                try {
+                    senders.execute(this::drain);
+                } catch (RejectedExecutionException e) {
+                    close();
+                }
+            }
+        }
+        
+        /**
+         * Ends the connection from this side
+         */
+        void close() {
+            if (detach()) {
+                try {
+                    // Completing waits for a send in progress, which a stalled client may hold up
+                    senders.execute(sink::close);
+                } catch (RejectedExecutionException e) {
+                    sink.close();
+                }
+            }
+        }
+        
+        /**
+         * Forgets a connection that has ended
+         */
+        boolean detach() {
+            if (!closed.compareAndSet(false, true)) {
+                return false;
+            }
+            subscribers.remove(this);
+            buffer.clear();
+            return true;
+        }
+        
+        boolean isClosed() {
+            return closed.get();
+        }
+        
+        /**
+         * Drops the buffered changes, to be read from the feed instead, unless nothing was sent since the
+         * last overflow
+         */
+        private void overflow(long through) {
+            long progress = sent;
+            if (progress == sentAtOverflow) {
+                disconnected.increment();
+                log.debug("Disconnecting stalled bank change subscriber at {}", progress);
+                close();
+                return;
+            }
+            sentAtOverflow = progress;
+            dropped.increment();
+            buffer.clear();
+            catchUpTo = through;
+        }
+        
+        private void drain() {
+            try {
+                do {
+                    while (!closed.get()) {
+                        long target = catchUpTo;
+                        if (target > sent) {
+                            catchUp(target);
+                        }
+                        ChangeStreamEvent event = buffer.poll();
+                        if (event == null) {
+                            break;
+                        }
+                        if (event.isHeartbeat()) {
+                            sink.heartbeat();
+                        } else if (event.seq() > sent) {
+                            sink.send(event);
+                            sent = event.seq();
+                        }
+                    }
+                    draining.set(false);
+                } while (!closed.get() && (!buffer.isEmpty() || catchUpTo > sent)
+                        && draining.compareAndSet(false, true));
+            } catch (IOException | RuntimeException e) {
+                log.debug("Bank change subscriber disconnected: {}", e.toString());
+                close();
+            }
+        }
+        
+        /**
+         * Sends the changes from the feed up to the given sequence number. An expired cursor ends the
+         * stream; the client reconnects and is told to sync again from 0.
+         */
+        private void catchUp(long target) throws IOException {
+            long from = sent;
+            while (from < target) {
+                BankChangePage page = bankChangeFeedPort.getChanges(from, batchSize);
+                for (BankChange change : page.changes()) {
+                    if (change.seq() > target) {
+                        break;
+                    }
+                    sink.send(toEvent(change));
+                    sent = change.seq();
+                }
+                from = page.hasMore() ? page.next() : target;
+            }
+            // Buffered changes up to here are older than those just read
+            sent = Math.max(sent, target);
+        }
+    }
+}
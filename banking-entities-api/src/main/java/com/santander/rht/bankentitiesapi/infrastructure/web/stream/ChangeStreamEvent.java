@@ -0,0 +1,37 @@
+package com.santander.rht.bankentitiesapi.infrastructure.web.stream;
+
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+
+/**
+ * A change ready to be sent to any number of subscribers, its JSON and its whole event frame rendered once
+ *
+ * @param seq   change sequence number, sent as the event ID
+ * @param type  event name: the change type, or null for a heartbeat
+ * @param data  the change as JSON
+ * @param frame the event as written to the response, shared by every subscriber
+ */
+record ChangeStreamEvent(long seq, String type, String data, Set<DataWithMediaType> frame) {
+    
+    private static final MediaType TEXT_PLAIN_UTF8 = new MediaType(MediaType.TEXT_PLAIN, StandardCharsets.UTF_8);
+    
+    static final ChangeStreamEvent HEARTBEAT = new ChangeStreamEvent(-1, null, null, frame(":heartbeat\n\n"));
+    
+    /**
+     * @param data single-line JSON, as the frame carries it in one {@code data:} field
+     */
+    static ChangeStreamEvent of(long seq, String type, String data) {
+        return new ChangeStreamEvent(seq, type, data, frame("id:" + seq + "\nevent:" + type + "\ndata:" + data + "\n\n"));
+    }
+    
+    boolean isHeartbeat() {
+        return type == null;
+    }
+    
+    private static Set<DataWithMediaType> frame(String text) {
+        return Set.of(new DataWithMediaType(text, TEXT_PLAIN_UTF8));
+    }
+}
@@ -0,0 +1,16 @@
+package com.santander.rht.bankentitiesapi.infrastructure.web.stream;
+
+import java.io.IOException;
+
+/**
+ * Connection of one subscriber. Sends block until the event has been written, so a slow client
+ * only holds up the thread draining its own buffer.
+ */
+interface ChangeStreamSink {
+    
+    void send(ChangeStreamEvent event) throws IOException;
+    
+    void heartbeat() throws IOException;
+    
+    void close();
+}
@@ -0,0 +1,34 @@
+package com.santander.rht.bankentitiesapi.infrastructure.web.stream;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+
+/**
+ * Writes changes as Server-Sent Events: the sequence number as the event ID, so a reconnecting
+ * EventSource resumes from it with {@code Last-Event-ID}, and heartbeats as comments. Each event goes out
+ * as its pre-rendered frame, one write per subscriber rather than one per field.
+ */
+final class SseChangeStreamSink implements ChangeStreamSink {
+    
+    private final SseEmitter emitter;
+    
+    SseChangeStreamSink(SseEmitter emitter) {
+        this.emitter = emitter;
+    }
+    
+    @Override
+    public void send(ChangeStreamEvent event) throws IOException {
+        emitter.send(event.frame());
+    }
+    
+    @Override
+    public void heartbeat() throws IOException {
+        emitter.send(ChangeStreamEvent.HEARTBEAT.frame());
+    }
+    
+    @Override
+    public void close() {
+        emitter.complete();
+    }
+}
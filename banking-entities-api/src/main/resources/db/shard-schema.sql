@@ -0,0 +1,35 @@
+-- Schema of each bank shard, created at startup when missing. Mirrors the JPA banks table, except that
+-- rows are keyed by a shard-local ID the global bank ID is derived from.
+CREATE TABLE IF NOT EXISTS banks (
+    local_id           BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    swift_code         VARCHAR(11),
+    name               VARCHAR(255) NOT NULL,
+    address            VARCHAR(500),
+    city               VARCHAR(100),
+    country            VARCHAR(100),
+    country_code       VARCHAR(2),
+    phone_number       VARCHAR(20),
+    email              VARCHAR(100),
+    website            VARCHAR(255),
+    bank_type          VARCHAR(255),
+    active             BOOLEAN,
+    created_at         TIMESTAMP NOT NULL,
+    updated_at         TIMESTAMP,
+    version            BIGINT NOT NULL,
+    change_seq         BIGINT NOT NULL,
+    deleted_at         TIMESTAMP,
+    deleted_swift_code VARCHAR(11),
+    CONSTRAINT uk_banks_swift_code UNIQUE (swift_code)
+);
+CREATE INDEX IF NOT EXISTS idx_banks_change_seq ON banks (change_seq);
+CREATE INDEX IF NOT EXISTS idx_banks_country_code ON banks (country_code);
+CREATE TABLE IF NOT EXISTS bank_change_feed (
+    id             BIGINT PRIMARY KEY,
+    purged_through BIGINT NOT NULL
+);
+CREATE SEQUENCE IF NOT EXISTS bank_change_seq;
+CREATE TABLE IF NOT EXISTS bank_change_watermark (
+    instance_id    VARCHAR(36) PRIMARY KEY,
+    in_flight_from BIGINT NOT NULL,
+    beat_at        BIGINT NOT NULL
+);
@@ -0,0 +1,105 @@
+package com.santander.rht.bankentitiesapi.application.cache;
+
+import com.santander.rht.bankentitiesapi.application.cache.BankListCache.Filter;
+import com.santander.rht.bankentitiesapi.domain.model.Bank;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BankListCacheTest {
+    
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final BankListCache cache = new BankListCache(meterRegistry, true, 2);
+    
+    @Test
+    void get_ServesTheCachedListPerFilterAndArgument_UntilAWrite() {
+        AtomicInteger loads = new AtomicInteger();
+        Supplier<List<Bank>> loader = () -> List.of(Bank.builder().id((long) loads.incrementAndGet()).build());
+        
+        assertThat(cache.get(Filter.COUNTRY_CODE, "ES", loader)).extracting(Bank::getId).containsExactly(1L);
+        assertThat(cache.get(Filter.COUNTRY_CODE, "ES", loader)).extracting(Bank::getId).containsExactly(1L);
+        assertThat(cache.get(Filter.COUNTRY, "ES", loader)).extracting(Bank::getId).containsExactly(2L);
+        
+        cache.invalidateAll();
+        assertThat(cache.get(Filter.COUNTRY_CODE, "ES", loader)).extracting(Bank::getId).containsExactly(3L);
+        assertThat(cache.get(Filter.COUNTRY_CODE, "ES", loader)).extracting(Bank::getId).containsExactly(3L);
+        
+        assertThat(cache.hitRatio(Filter.COUNTRY_CODE)).isEqualTo(0.5);
+        assertThat(meterRegistry.get("bank.list.cache.lookups").tag("filter", "country-code").tag("result", "hit")
+                .counter().count()).isEqualTo(2);
+        assertThat(meterRegistry.get("bank.list.cache.hit.ratio").tag("filter", "country").gauge().value()).isZero();
+    }
+    
+    @Test
+    void get_HandsOutCopies_SoCallersCannotChangeTheCachedBanks() {
+        Bank loaded = Bank.builder().id(1L).name("Banco Santander").build();
+        
+        cache.get(Filter.ACTIVE, null, () -> List.of(loaded)).get(0).setName("Changed by the first caller");
+        loaded.setName("Changed by the loader");
+        cache.get(Filter.ACTIVE, null, List::of).get(0).setName("Changed by the second caller");
+        
+        assertThat(cache.get(Filter.ACTIVE, null, List::of)).extracting(Bank::getName).containsExactly("Banco Santander");
+    }
+    
+    @Test
+    void get_ListReadWhileAWriteCommits_IsStaleOnceItHas() {
+        AtomicInteger loads = new AtomicInteger();
+        Supplier<List<Bank>> loader = () -> {
+            // The write commits after the list was read, but before it is cached
+            if (loads.incrementAndGet() == 1) {
+                cache.invalidateAll();
+            }
+            return List.of();
+        };
+        
+        cache.get(Filter.ACTIVE, null, loader);
+        cache.get(Filter.ACTIVE, null, loader);
+        
+        assertThat(loads).hasValue(2);
+    }
+    
+    @Test
+    void written_BumpsTheVersionOnlyOnCommit() {
+        AtomicInteger loads = new AtomicInteger();
+        Supplier<List<Bank>> loader = () -> List.of(Bank.builder().id((long) loads.incrementAndGet()).build());
+        cache.get(Filter.ACTIVE, null, loader);
+        
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            cache.written();
+            // Reads before the commit still see the committed state, which is what was cached
+            cache.get(Filter.ACTIVE, null, loader);
+            assertThat(loads).hasValue(1);
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        
+        cache.get(Filter.ACTIVE, null, loader);
+        assertThat(loads).hasValue(2);
+    }
+    
+    @Test
+    void get_EvictsStaleEntriesFirst_WhenFull() {
+        cache.get(Filter.COUNTRY_CODE, "ES", List::of);
+        cache.invalidateAll();
+        cache.get(Filter.COUNTRY_CODE, "PT", List::of);
+        cache.get(Filter.COUNTRY_CODE, "FR", List::of);
+        
+        assertThat(meterRegistry.get("bank.list.cache.size").gauge().value()).isEqualTo(2);
+        AtomicInteger loads = new AtomicInteger();
+        cache.get(Filter.COUNTRY_CODE, "PT", () -> {
+            loads.incrementAndGet();
+            return List.of();
+        });
+        assertThat(loads).hasValue(0);
+    }
+}
@@ -0,0 +1,188 @@
+package com.santander.rht.bankentitiesapi.application.lock;
+
+import com.santander.rht.bankentitiesapi.application.deadline.DeadlineContext;
+import com.santander.rht.bankentitiesapi.domain.exception.DeadlineExceededException;
+import com.santander.rht.bankentitiesapi.domain.model.RequestDeadline;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SwiftCodeLocksTest {
+    
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final SwiftCodeLocks locks = new SwiftCodeLocks(meterRegistry, true, 50);
+    
+    @Test
+    void stripes_AreRoundedUpToPowerOfTwo_AndIgnoreCase() {
+        assertThat(locks.stripeCount()).isEqualTo(64);
+        assertThat(locks.stripeFor(" sandesmmxxx ")).isSameAs(locks.stripeFor("SANDESMMXXX"));
+    }
+    
+    @Test
+    void withLock_SerializesWritesToTheSameCode() throws Exception {
+        AtomicInteger inside = new AtomicInteger();
+        AtomicInteger maxInside = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            futures.add(executor.submit(() -> locks.withLock("SANDESMMXXX", () -> {
+                maxInside.accumulateAndGet(inside.incrementAndGet(), Math::max);
+                Thread.onSpinWait();
+                return inside.decrementAndGet();
+            })));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+        
+        assertThat(maxInside.get()).isEqualTo(1);
+        assertThat(meterRegistry.get("bank.write.lock.wait").timers().stream()
+                .mapToLong(timer -> timer.count())
+                .sum()).isEqualTo(200);
+    }
+    
+    @Test
+    void withLock_DoesNotBlockCodesOnOtherStripes() throws Exception {
+        String held = "SANDESMMXXX";
+        String other = otherStripeThan(held);
+        CountDownLatch acquired = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        Future<?> holder = executor.submit(() -> locks.withLock(held, () -> {
+            acquired.countDown();
+            await(release);
+            return null;
+        }));
+        acquired.await();
+        
+        assertThat(locks.withLock(other, () -> "written")).isEqualTo("written");
+        
+        release.countDown();
+        holder.get();
+        executor.shutdown();
+    }
+    
+    @Test
+    void withLock_InTransaction_HoldsLockUntilCompletion() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            locks.withLock("SANDESMMXXX", () -> null);
+            ReentrantLock lock = locks.stripeFor("SANDESMMXXX");
+            assertThat(lock.isHeldByCurrentThread()).isTrue();
+            
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+            assertThat(lock.isLocked()).isFalse();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+    
+    @Test
+    void withLocks_TakesEveryStripeBeforeTheFirstWrite_SoAWriterHoldingOneCanFinish() throws Exception {
+        String first = "SANDESMMXXX";
+        String second = otherStripeThan(first);
+        // Stands in for the database row lock the group's first write would take
+        ReentrantLock firstRow = new ReentrantLock();
+        CountDownLatch secondHeld = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        Future<Boolean> writer = executor.submit(() -> locks.withLock(second, () -> {
+            secondHeld.countDown();
+            while (!locks.stripeFor(second).hasQueuedThreads()) {
+                Thread.onSpinWait();
+            }
+            // The group is waiting for this writer's stripe, and has not touched the row yet
+            try {
+                boolean locked = firstRow.tryLock(5, TimeUnit.SECONDS);
+                if (locked) {
+                    firstRow.unlock();
+                }
+                return locked;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }));
+        secondHeld.await();
+        
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            String written = locks.withLocks(List.of(second, first), () -> {
+                firstRow.lock();
+                try {
+                    // Writes of the group take their own locks again without waiting
+                    return locks.withLock(first, () -> locks.withLock(second, () -> "written"));
+                } finally {
+                    firstRow.unlock();
+                }
+            });
+            assertThat(written).isEqualTo("written");
+            assertThat(writer.get(5, TimeUnit.SECONDS)).isTrue();
+            assertThat(locks.stripeFor(first).isHeldByCurrentThread()).isTrue();
+            assertThat(locks.stripeFor(second).isHeldByCurrentThread()).isTrue();
+            
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+            assertThat(locks.stripeFor(first).isLocked()).isFalse();
+            assertThat(locks.stripeFor(second).isLocked()).isFalse();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+            executor.shutdown();
+        }
+    }
+    
+    @Test
+    void withLock_GivesUpWhenTheDeadlineExpiresWhileWaiting() throws Exception {
+        CountDownLatch acquired = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        Future<?> holder = executor.submit(() -> locks.withLock("SANDESMMXXX", () -> {
+            acquired.countDown();
+            await(release);
+            return null;
+        }));
+        acquired.await();
+        
+        assertThatThrownBy(() -> DeadlineContext.callWithin(RequestDeadline.after(Duration.ofMillis(50)),
+                () -> locks.withLock("SANDESMMXXX", () -> "too late")))
+                .isInstanceOf(DeadlineExceededException.class);
+        
+        release.countDown();
+        holder.get();
+        executor.shutdown();
+    }
+    
+    private String otherStripeThan(String swiftCode) {
+        for (char c = 'A'; c <= 'Z'; c++) {
+            String candidate = "OTHERSMM" + c + "XX";
+            if (locks.stripeFor(candidate) != locks.stripeFor(swiftCode)) {
+                return candidate;
+            }
+        }
+        throw new IllegalStateException("No SWIFT code on another stripe");
+    }
+    
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
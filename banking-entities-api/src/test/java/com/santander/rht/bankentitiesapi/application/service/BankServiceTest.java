@@ -1,19 +1,34 @@
 package com.santander.rht.bankentitiesapi.application.service;
 
+import com.santander.rht.bankentitiesapi.application.cache.BankListCache;
+import com.santander.rht.bankentitiesapi.application.change.BankChangeNotifier;
+import com.santander.rht.bankentitiesapi.application.deadline.DeadlineContext;
+import com.santander.rht.bankentitiesapi.application.lock.SwiftCodeLocks;
 import com.santander.rht.bankentitiesapi.domain.exception.BankNotFoundException;
+import com.santander.rht.bankentitiesapi.domain.exception.BankVersionConflictException;
+import com.santander.rht.bankentitiesapi.domain.exception.DeadlineExceededException;
 import com.santander.rht.bankentitiesapi.domain.exception.DuplicateBankException;
 import com.santander.rht.bankentitiesapi.domain.exception.InvalidBankDataException;
 import com.santander.rht.bankentitiesapi.domain.model.Bank;
+import com.santander.rht.bankentitiesapi.domain.model.BankField;
+import com.santander.rht.bankentitiesapi.domain.model.BankInvalidation;
+import com.santander.rht.bankentitiesapi.domain.model.BankLookupResult;
+import com.santander.rht.bankentitiesapi.domain.model.BankPatch;
 import com.santander.rht.bankentitiesapi.domain.model.BankType;
+import com.santander.rht.bankentitiesapi.domain.model.RequestDeadline;
 import com.santander.rht.bankentitiesapi.domain.port.out.BankHttpClientPort;
+import com.santander.rht.bankentitiesapi.domain.port.out.BankInvalidationPort;
 import com.santander.rht.bankentitiesapi.domain.port.out.BankRepositoryPort;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.time.Instant;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
@@ -34,6 +49,18 @@ class BankServiceTest {
     @Mock
     private BankHttpClientPort bankHttpClientPort;
     
+    @Spy
+    private SwiftCodeLocks swiftCodeLocks = new SwiftCodeLocks(new SimpleMeterRegistry(), true, 16);
+    
+    @Spy
+    private BankChangeNotifier bankChangeNotifier = new BankChangeNotifier();
+    
+    @Mock
+    private BankInvalidationPort bankInvalidationPort;
+    
+    @Spy
+    private BankListCache bankListCache = new BankListCache(new SimpleMeterRegistry(), true, 100);
+    
     @InjectMocks
     private BankService bankService;
     
@@ -68,7 +95,6 @@ class BankServiceTest {
                 .active(true)
                 .build();
         
-        when(bankRepositoryPort.existsBySwiftCode(anyString())).thenReturn(false);
         when(bankRepositoryPort.save(any(Bank.class))).thenReturn(validBank);
         
         // When
@@ -78,8 +104,9 @@ class BankServiceTest {
         assertThat(result).isNotNull();
         assertThat(result.getId()).isEqualTo(1L);
         assertThat(result.getSwiftCode()).isEqualTo("SANDESMMXXX");
-        verify(bankRepositoryPort).existsBySwiftCode("SANDESMMXXX");
+        verify(bankRepositoryPort, never()).existsBySwiftCode(anyString());
         verify(bankRepositoryPort).save(any(Bank.class));
+        verify(bankInvalidationPort).publish(new BankInvalidation(1L, "SANDESMMXXX"));
     }
     
     @Test
@@ -90,15 +117,14 @@ class BankServiceTest {
                 .name("Banco Santander")
                 .build();
         
-        when(bankRepositoryPort.existsBySwiftCode(anyString())).thenReturn(true);
+        when(bankRepositoryPort.save(any(Bank.class))).thenThrow(DuplicateBankException.bySwiftCode("SANDESMMXXX"));
         
         // When & Then
         assertThatThrownBy(() -> bankService.createBank(newBank))
                 .isInstanceOf(DuplicateBankException.class)
                 .hasMessageContaining("SANDESMMXXX");
         
-        verify(bankRepositoryPort).existsBySwiftCode("SANDESMMXXX");
-        verify(bankRepositoryPort, never()).save(any());
+        verify(bankRepositoryPort, never()).existsBySwiftCode(anyString());
     }
     
     @Test
@@ -116,6 +142,24 @@ class BankServiceTest {
         
         verify(bankRepositoryPort, never()).existsBySwiftCode(anyString());
         verify(bankRepositoryPort, never()).save(any());
+        verify(bankInvalidationPort, never()).publish(any());
+    }
+    
+    @Test
+    void createBank_SwiftCodeFromOtherCountry_ThrowsException() {
+        // Given
+        Bank newBank = Bank.builder()
+                .swiftCode("DEUTDEFFXXX")
+                .name("Deutsche Bank")
+                .countryCode("ES")
+                .build();
+        
+        // When & Then
+        assertThatThrownBy(() -> bankService.createBank(newBank))
+                .isInstanceOf(InvalidBankDataException.class)
+                .hasMessageContaining("does not belong to country ES");
+        
+        verify(bankRepositoryPort, never()).save(any());
     }
     
     @Test
@@ -143,16 +187,30 @@ class BankServiceTest {
                 .name("Updated Bank Name")
                 .build();
         
+        when(bankRepositoryPort.update(any(Bank.class), eq(3L))).thenReturn(1);
         when(bankRepositoryPort.findById(bankId)).thenReturn(Optional.of(validBank));
-        when(bankRepositoryPort.save(any(Bank.class))).thenReturn(validBank);
         
         // When
-        Bank result = bankService.updateBank(bankId, updateBank);
+        Bank result = bankService.updateBank(bankId, updateBank, 3L);
         
         // Then
         assertThat(result).isNotNull();
-        verify(bankRepositoryPort).findById(bankId);
-        verify(bankRepositoryPort).save(any(Bank.class));
+        assertThat(updateBank.getId()).isEqualTo(bankId);
+        verify(bankRepositoryPort, never()).existsBySwiftCode(anyString());
+        verify(bankRepositoryPort, never()).save(any());
+        verify(bankInvalidationPort).publish(new BankInvalidation(bankId, "SANDESMMXXX"));
+    }
+    
+    @Test
+    void createBank_ExpiredDeadline_DoesNotWrite() {
+        DeadlineContext.set(new RequestDeadline(Instant.now().minusMillis(1)));
+        try {
+            assertThatThrownBy(() -> bankService.createBank(validBank))
+                    .isInstanceOf(DeadlineExceededException.class);
+            verify(bankRepositoryPort, never()).save(any(Bank.class));
+        } finally {
+            DeadlineContext.clear();
+        }
     }
     
     @Test
@@ -164,14 +222,74 @@ class BankServiceTest {
                 .name("Bank Name")
                 .build();
         
-        when(bankRepositoryPort.findById(bankId)).thenReturn(Optional.empty());
+        when(bankRepositoryPort.update(any(Bank.class), isNull())).thenReturn(0);
         
         // When & Then
-        assertThatThrownBy(() -> bankService.updateBank(bankId, updateBank))
+        assertThatThrownBy(() -> bankService.updateBank(bankId, updateBank, null))
                 .isInstanceOf(BankNotFoundException.class);
         
-        verify(bankRepositoryPort).findById(bankId);
-        verify(bankRepositoryPort, never()).save(any());
+        verify(bankRepositoryPort, never()).findById(anyLong());
+    }
+    
+    @Test
+    void updateBank_StaleVersion_ThrowsConflict() {
+        // Given
+        Bank updateBank = Bank.builder()
+                .swiftCode("SANDESMMXXX")
+                .name("Bank Name")
+                .build();
+        
+        when(bankRepositoryPort.update(any(Bank.class), eq(1L))).thenReturn(0);
+        when(bankRepositoryPort.existsById(1L)).thenReturn(true);
+        
+        // When & Then
+        assertThatThrownBy(() -> bankService.updateBank(1L, updateBank, 1L))
+                .isInstanceOf(BankVersionConflictException.class);
+    }
+    
+    @Test
+    void patchBank_EmptyPatch_SkipsWrite() {
+        // Given
+        when(bankRepositoryPort.findById(1L)).thenReturn(Optional.of(validBank));
+        
+        // When
+        Bank result = bankService.patchBank(1L, new BankPatch(), null);
+        
+        // Then
+        assertThat(result).isEqualTo(validBank);
+        verify(bankRepositoryPort, never()).patch(anyLong(), any(), any());
+    }
+    
+    @Test
+    void patchBank_InvalidSwiftCode_ThrowsException() {
+        BankPatch patch = new BankPatch().set(BankField.SWIFT_CODE, "BAD");
+        
+        assertThatThrownBy(() -> bankService.patchBank(1L, patch, null))
+                .isInstanceOf(InvalidBankDataException.class);
+        verify(bankRepositoryPort, never()).patch(anyLong(), any(), any());
+    }
+    
+    @Test
+    void patchBank_CountryCodeDisagreeingWithStoredSwiftCode_ThrowsException() {
+        when(bankRepositoryPort.findById(1L)).thenReturn(Optional.of(validBank));
+        BankPatch patch = new BankPatch().set(BankField.COUNTRY_CODE, "PT");
+        
+        assertThatThrownBy(() -> bankService.patchBank(1L, patch, null))
+                .isInstanceOf(InvalidBankDataException.class);
+        verify(bankRepositoryPort, never()).patch(anyLong(), any(), any());
+    }
+    
+    @Test
+    void patchBank_SwiftCodeAgreeingWithStoredCountryCode_WritesAtTheCheckedVersion() {
+        validBank.setVersion(3L);
+        when(bankRepositoryPort.findById(1L)).thenReturn(Optional.of(validBank));
+        when(bankRepositoryPort.patch(eq(1L), any(), eq(3L))).thenReturn(1);
+        BankPatch patch = new BankPatch().set(BankField.SWIFT_CODE, "bbvaesmmxxx");
+        
+        bankService.patchBank(1L, patch, null);
+        
+        assertThat(patch.get(BankField.SWIFT_CODE)).isEqualTo("BBVAESMMXXX");
+        verify(bankRepositoryPort).patch(1L, patch, 3L);
     }
     
     @Test
@@ -233,32 +351,47 @@ class BankServiceTest {
         verify(bankRepositoryPort).findAll();
     }
     
+    @Test
+    void getBanksByCountryCode_RepeatedCalls_AreCachedUntilAWrite() {
+        // Given
+        when(bankRepositoryPort.findByCountryCode("ES")).thenReturn(List.of(validBank));
+        when(bankRepositoryPort.delete(1L, null)).thenReturn(1);
+        
+        // When
+        bankService.getBanksByCountryCode("ES");
+        List<Bank> cached = bankService.getBanksByCountryCode("ES");
+        bankService.deleteBank(1L, null);
+        bankService.getBanksByCountryCode("ES");
+        
+        // Then
+        assertThat(cached).containsExactly(validBank);
+        verify(bankRepositoryPort, times(2)).findByCountryCode("ES");
+    }
+    
     @Test
     void deleteBank_ExistingBank_Success() {
         // Given
         Long bankId = 1L;
-        when(bankRepositoryPort.findById(bankId)).thenReturn(Optional.of(validBank));
+        when(bankRepositoryPort.delete(bankId, null)).thenReturn(1);
         
         // When
-        bankService.deleteBank(bankId);
+        bankService.deleteBank(bankId, null);
         
         // Then
-        verify(bankRepositoryPort).findById(bankId);
-        verify(bankRepositoryPort).deleteById(bankId);
+        verify(bankRepositoryPort).delete(bankId, null);
+        verify(bankRepositoryPort, never()).findById(anyLong());
     }
     
     @Test
     void deleteBank_NonExistingBank_ThrowsException() {
         // Given
         Long bankId = 999L;
-        when(bankRepositoryPort.findById(bankId)).thenReturn(Optional.empty());
+        when(bankRepositoryPort.delete(bankId, 2L)).thenReturn(0);
+        when(bankRepositoryPort.existsById(bankId)).thenReturn(false);
         
         // When & Then
-        assertThatThrownBy(() -> bankService.deleteBank(bankId))
+        assertThatThrownBy(() -> bankService.deleteBank(bankId, 2L))
                 .isInstanceOf(BankNotFoundException.class);
-        
-        verify(bankRepositoryPort).findById(bankId);
-        verify(bankRepositoryPort, never()).deleteById(anyLong());
     }
     
     @Test
@@ -290,4 +423,21 @@ class BankServiceTest {
         assertThat(result.get()).isEqualTo(validBank);
         verify(bankHttpClientPort).getBankBySwiftCode(swiftCode);
     }
-}
\ No newline at end of file
+    
+    @Test
+    void selfCallGetBanksByIds_ReturnsResultsInInputOrder() {
+        // Given
+        List<Long> ids = List.of(1L, 999L);
+        List<BankLookupResult> lookupResults = List.of(
+                BankLookupResult.found("1", validBank),
+                BankLookupResult.notFound("999"));
+        when(bankHttpClientPort.getBanksByIds(ids)).thenReturn(lookupResults);
+        
+        // When
+        List<BankLookupResult> result = bankService.selfCallGetBanksByIds(ids);
+        
+        // Then
+        assertThat(result).containsExactlyElementsOf(lookupResults);
+        verify(bankHttpClientPort).getBanksByIds(ids);
+    }
+}
@@ -0,0 +1,92 @@
+package com.santander.rht.bankentitiesapi.benchmark;
+
+import com.santander.rht.bankentitiesapi.domain.exception.DuplicateBankException;
+import com.santander.rht.bankentitiesapi.domain.model.Bank;
+import com.santander.rht.bankentitiesapi.domain.port.out.BankRepositoryPort;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares create throughput of the former check-then-insert path against a single insert
+ * that relies on the unique SWIFT code constraint.
+ * Run with: ./mvnw test -Pbenchmark
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = {"spring.datasource.url=jdbc:h2:mem:create-benchmark;DB_CLOSE_DELAY=-1",
+                              "logging.level.com.santander.rht.bankentitiesapi=INFO"})
+@ActiveProfiles("test")
+class BankCreateBenchmarkTest {
+    
+    private static final int THREADS = 8;
+    private static final int CREATES_PER_ROUND = 2_000;
+    private static final int ROUNDS = 3;
+    
+    @Autowired
+    private BankRepositoryPort bankRepositoryPort;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Test
+    void singleInsert_HasHigherThroughputThanCheckThenInsert() throws Exception {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        Consumer<Bank> checkThenInsert = bank -> transaction.executeWithoutResult(status -> {
+            if (bankRepositoryPort.existsBySwiftCode(bank.getSwiftCode())) {
+                throw DuplicateBankException.bySwiftCode(bank.getSwiftCode());
+            }
+            bankRepositoryPort.save(bank);
+        });
+        Consumer<Bank> singleInsert = bank -> transaction.executeWithoutResult(status -> bankRepositoryPort.save(bank));
+        
+        // Warm up both paths before measuring
+        measure("WRMA", checkThenInsert);
+        measure("WRMB", singleInsert);
+        
+        double checkThenInsertRate = 0;
+        double singleInsertRate = 0;
+        for (int round = 0; round < ROUNDS; round++) {
+            checkThenInsertRate = Math.max(checkThenInsertRate, measure("CHK" + (char) ('A' + round), checkThenInsert));
+            singleInsertRate = Math.max(singleInsertRate, measure("INS" + (char) ('A' + round), singleInsert));
+        }
+        
+        System.out.printf("Bank creates with %d threads: check-then-insert %.0f/s, single insert %.0f/s%n",
+                THREADS, checkThenInsertRate, singleInsertRate);
+        assertThat(singleInsertRate).isGreaterThan(checkThenInsertRate);
+    }
+    
+    private double measure(String bankCode, Consumer<Bank> create) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+        long start = System.nanoTime();
+        for (int i = 0; i < CREATES_PER_ROUND; i++) {
+            String branch = String.format("%3s", Integer.toString(i, 36)).replace(' ', '0').toUpperCase();
+            Bank bank = Bank.builder()
+                    .swiftCode(bankCode + "ESMM" + branch)
+                    .name("Benchmark Bank " + bankCode + branch)
+                    .countryCode("ES")
+                    .active(true)
+                    .build();
+            futures.add(executor.submit(() -> create.accept(bank)));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        long elapsed = System.nanoTime() - start;
+        executor.shutdown();
+        return CREATES_PER_ROUND / (elapsed / 1e9);
+    }
+}
@@ -0,0 +1,157 @@
+package com.santander.rht.bankentitiesapi.benchmark;
+
+import com.santander.rht.bankentitiesapi.domain.model.Bank;
+import com.santander.rht.bankentitiesapi.domain.port.in.BankServicePort;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+/**
+ * Opens 5k Server-Sent Events connections to the change stream over local sockets, then measures how long
+ * a committed change takes to reach all of them, and the heap held per idle subscriber.
+ * Run with: ./mvnw test -Pbenchmark
+ */
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT,
+                properties = {"spring.main.web-application-type=servlet",
+                              "spring.datasource.url=jdbc:h2:mem:change-stream-benchmark;DB_CLOSE_DELAY=-1",
+                              "logging.level.com.santander.rht.bankentitiesapi=WARN",
+                              "server.tomcat.max-connections=10000",
+                              "server.tomcat.accept-count=1000"})
+@ActiveProfiles("test")
+class ChangeStreamFanOutBenchmarkTest {
+    
+    private static final int SUBSCRIBERS = 5_000;
+    
+    @LocalServerPort
+    private int port;
+    
+    @Autowired
+    private BankServicePort bankServicePort;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Test
+    void committedChange_ReachesFiveThousandSubscribers() throws Exception {
+        long heapBefore = usedHeap();
+        try (SseConnections connections = SseConnections.open(port, SUBSCRIBERS)) {
+            await().atMost(Duration.ofSeconds(60))
+                    .until(() -> meterRegistry.get("bank.changes.stream.subscribers").gauge().value() >= SUBSCRIBERS);
+            long heapPerSubscriber = (usedHeap() - heapBefore) / SUBSCRIBERS;
+            
+            long start = System.nanoTime();
+            bankServicePort.createBank(Bank.builder().swiftCode("FANOESMMXXX").name("Fan-out Bank").countryCode("ES").build());
+            long[] latencies = connections.awaitAll("FANOESMMXXX", Duration.ofSeconds(10));
+            for (int i = 0; i < latencies.length; i++) {
+                latencies[i] -= start;
+            }
+            Arrays.sort(latencies);
+            
+            System.out.printf("Change pushed to %d SSE subscribers: p50 %.1f ms, p99 %.1f ms, max %.1f ms; ~%d KB server heap per idle subscriber%n",
+                    SUBSCRIBERS, latencies[SUBSCRIBERS / 2] / 1e6, latencies[SUBSCRIBERS * 99 / 100] / 1e6,
+                    latencies[SUBSCRIBERS - 1] / 1e6, heapPerSubscriber / 1024);
+            assertThat(latencies[SUBSCRIBERS - 1]).isLessThan(TimeUnit.SECONDS.toNanos(1));
+        }
+    }
+    
+    private static long usedHeap() {
+        System.gc();
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+    
+    /**
+     * Raw non-blocking connections read by a single selector, so the client costs next to nothing
+     * beside the server it measures
+     */
+    private static final class SseConnections implements AutoCloseable {
+        
+        private final Selector selector;
+        private final SocketChannel[] channels;
+        
+        private SseConnections(Selector selector, SocketChannel[] channels) {
+            this.selector = selector;
+            this.channels = channels;
+        }
+        
+        static SseConnections open(int port, int count) throws IOException {
+            byte[] request = ("GET /api/v1/banks/changes/stream HTTP/1.1\r\nHost: localhost\r\n"
+                    + "Accept: text/event-stream\r\n\r\n").getBytes(StandardCharsets.US_ASCII);
+            Selector selector = Selector.open();
+            SocketChannel[] channels = new SocketChannel[count];
+            for (int i = 0; i < count; i++) {
+                channels[i] = SocketChannel.open(new InetSocketAddress("localhost", port));
+                channels[i].write(ByteBuffer.wrap(request));
+                channels[i].configureBlocking(false);
+                channels[i].register(selector, SelectionKey.OP_READ, i);
+            }
+            return new SseConnections(selector, channels);
+        }
+        
+        /**
+         * Reads every connection until each has received the marker
+         *
+         * @return the time each connection received it, in {@link System#nanoTime()}
+         */
+        long[] awaitAll(String marker, Duration timeout) throws IOException {
+            byte[] needle = marker.getBytes(StandardCharsets.US_ASCII);
+            long[] arrivals = new long[channels.length];
+            String[] tails = new String[channels.length];
+            ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+            int remaining = channels.length;
+            long deadline = System.nanoTime() + timeout.toNanos();
+            while (remaining > 0) {
+                if (System.nanoTime() > deadline) {
+                    throw new IllegalStateException(remaining + " connections did not receive " + marker);
+                }
+                selector.select(100);
+                for (SelectionKey key : selector.selectedKeys()) {
+                    int index = (int) key.attachment();
+                    buffer.clear();
+                    if (((SocketChannel) key.channel()).read(buffer) <= 0 || arrivals[index] != 0) {
+                        continue;
+                    }
+                    // Keeps the end of the previous read, in case the marker is split across reads
+                    String text = (tails[index] != null ? tails[index] : "")
+                            + new String(buffer.array(), 0, buffer.position(), StandardCharsets.US_ASCII);
+                    if (text.contains(marker)) {
+                        arrivals[index] = System.nanoTime();
+                        remaining--;
+                    } else {
+                        tails[index] = text.substring(Math.max(0, text.length() - needle.length));
+                    }
+                }
+                selector.selectedKeys().clear();
+            }
+            return arrivals;
+        }
+        
+        @Override
+        public void close() throws IOException {
+            for (SocketChannel channel : channels) {
+                channel.close();
+            }
+            selector.close();
+        }
+    }
+}
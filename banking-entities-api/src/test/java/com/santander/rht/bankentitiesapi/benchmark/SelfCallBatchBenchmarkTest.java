@@ -0,0 +1,106 @@
+package com.santander.rht.bankentitiesapi.benchmark;
+
+import com.santander.rht.bankentitiesapi.domain.model.Bank;
+import com.santander.rht.bankentitiesapi.domain.model.BankLookupResult;
+import com.santander.rht.bankentitiesapi.domain.model.LookupOutcome;
+import com.santander.rht.bankentitiesapi.domain.port.in.BankServicePort;
+import com.santander.rht.bankentitiesapi.domain.port.out.BankHttpClientPort;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.util.TestSocketUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares the total latency of a batch self-call against the same lookups issued sequentially.
+ * Run with: ./mvnw test -Pbenchmark
+ */
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = WebEnvironment.DEFINED_PORT,
+                properties = {"spring.main.web-application-type=servlet",
+                              "spring.datasource.url=jdbc:h2:mem:selfcall-batch-benchmark;DB_CLOSE_DELAY=-1",
+                              "app.self-call.mode=http",
+                              "app.self-call.cache.enabled=false",
+                              "logging.level.com.santander.rht.bankentitiesapi=INFO"})
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class SelfCallBatchBenchmarkTest {
+    
+    private static final int BANKS = 200;
+    private static final int ROUNDS = 5;
+    
+    @DynamicPropertySource
+    static void serverPort(DynamicPropertyRegistry registry) {
+        int port = TestSocketUtils.findAvailableTcpPort();
+        registry.add("server.port", () -> port);
+        registry.add("app.base-url", () -> "http://localhost:" + port);
+    }
+    
+    @Autowired
+    private BankServicePort bankServicePort;
+    
+    @Autowired
+    private BankHttpClientPort bankHttpClientPort;
+    
+    private final List<Long> ids = new ArrayList<>();
+    
+    @BeforeAll
+    void setUp() {
+        IntStream.range(0, BANKS).forEach(i -> ids.add(bankServicePort.createBank(Bank.builder()
+                .swiftCode(String.format("BNCHESMM%03d", i))
+                .name("Benchmark Bank " + i)
+                .countryCode("ES")
+                .build()).getId()));
+    }
+    
+    @Test
+    void batchLookup_KeepsInputOrderAndReportsMissingBanks() {
+        // Given
+        List<Long> requested = List.of(ids.get(3), Long.MAX_VALUE, ids.get(1));
+        
+        // When
+        List<BankLookupResult> results = bankHttpClientPort.getBanksByIds(requested);
+        
+        // Then
+        assertThat(results).extracting(BankLookupResult::getOutcome)
+                .containsExactly(LookupOutcome.FOUND, LookupOutcome.NOT_FOUND, LookupOutcome.FOUND);
+        assertThat(results.get(0).getBank().getId()).isEqualTo(ids.get(3));
+        assertThat(results.get(2).getBank().getId()).isEqualTo(ids.get(1));
+    }
+    
+    @Test
+    void batchLookup_IsFasterThanSequentialCalls() {
+        // Warm up both paths before measuring
+        ids.forEach(bankHttpClientPort::getBankById);
+        bankHttpClientPort.getBanksByIds(ids);
+        
+        long sequentialNanos = 0;
+        long batchNanos = 0;
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            ids.forEach(bankHttpClientPort::getBankById);
+            sequentialNanos += System.nanoTime() - start;
+            
+            start = System.nanoTime();
+            List<BankLookupResult> results = bankHttpClientPort.getBanksByIds(ids);
+            batchNanos += System.nanoTime() - start;
+            assertThat(results).allMatch(result -> result.getOutcome() == LookupOutcome.FOUND);
+        }
+        
+        System.out.printf("Self-call of %d banks: sequential %.1f ms, batch %.1f ms%n",
+                BANKS, sequentialNanos / ROUNDS / 1e6, batchNanos / ROUNDS / 1e6);
+        assertThat(batchNanos).isLessThan(sequentialNanos);
+    }
+}
@@ -0,0 +1,111 @@
+package com.santander.rht.bankentitiesapi.benchmark;
+
+import com.santander.rht.bankentitiesapi.domain.model.Bank;
+import com.santander.rht.bankentitiesapi.domain.port.in.BankServicePort;
+import com.santander.rht.bankentitiesapi.infrastructure.http.transport.HttpSelfCallTransport;
+import com.santander.rht.bankentitiesapi.infrastructure.http.transport.LoopbackSelfCallTransport;
+import com.santander.rht.bankentitiesapi.infrastructure.http.transport.SelfCallResponse;
+import com.santander.rht.bankentitiesapi.infrastructure.http.transport.SelfCallTargetDetector;
+import com.santander.rht.bankentitiesapi.infrastructure.http.transport.SelfCallTransport;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.util.TestSocketUtils;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares self-call latency of the HTTP transport against the in-process loopback transport,
+ * and checks both report the same outcomes.
+ * Run with: ./mvnw test -Pbenchmark
+ */
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = WebEnvironment.DEFINED_PORT,
+                properties = {"spring.main.web-application-type=servlet",
+                              "spring.datasource.url=jdbc:h2:mem:selfcall-loopback-benchmark;DB_CLOSE_DELAY=-1",
+                              "logging.level.com.santander.rht.bankentitiesapi=INFO"})
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class SelfCallLoopbackBenchmarkTest {
+    
+    private static final int WARMUP_CALLS = 2_000;
+    private static final int MEASURED_CALLS = 5_000;
+    
+    @DynamicPropertySource
+    static void serverPort(DynamicPropertyRegistry registry) {
+        int port = TestSocketUtils.findAvailableTcpPort();
+        registry.add("server.port", () -> port);
+        registry.add("app.base-url", () -> "http://localhost:" + port);
+    }
+    
+    @Autowired
+    private BankServicePort bankServicePort;
+    
+    @Autowired
+    private HttpSelfCallTransport httpTransport;
+    
+    @Autowired
+    private LoopbackSelfCallTransport loopbackTransport;
+    
+    @Autowired
+    private SelfCallTargetDetector targetDetector;
+    
+    private Bank bank;
+    
+    @BeforeAll
+    void setUp() {
+        bank = bankServicePort.createBank(Bank.builder()
+                .swiftCode("LOOPESMMXXX")
+                .name("Loopback Bank")
+                .countryCode("ES")
+                .build());
+    }
+    
+    @Test
+    void targetDetector_RecognisesOwnBaseUrl() {
+        assertThat(targetDetector.isLocalTarget()).isTrue();
+    }
+    
+    @Test
+    void loopbackAndHttp_ReportSameOutcomes() {
+        for (SelfCallTransport transport : new SelfCallTransport[]{httpTransport, loopbackTransport}) {
+            Optional<Bank> found = transport.getBankById(bank.getId(), null).mapNotNull(SelfCallResponse::getBank).blockOptional();
+            Optional<Bank> missing = transport.getBankById(Long.MAX_VALUE, null).mapNotNull(SelfCallResponse::getBank).blockOptional();
+            Optional<Bank> bySwift = transport.getBankBySwiftCode("LOOPESMMXXX", null).mapNotNull(SelfCallResponse::getBank)
+                    .blockOptional();
+            
+            assertThat(found).as(transport.mode()).map(Bank::getSwiftCode).contains("LOOPESMMXXX");
+            assertThat(missing).as(transport.mode()).isEmpty();
+            assertThat(bySwift).as(transport.mode()).map(Bank::getId).contains(bank.getId());
+        }
+    }
+    
+    @Test
+    void loopback_IsFasterThanHttp() {
+        double httpMicros = measure(httpTransport);
+        double loopbackMicros = measure(loopbackTransport);
+        
+        System.out.printf("Self-call latency: http %.1f us/call, loopback %.1f us/call%n", httpMicros, loopbackMicros);
+        assertThat(loopbackMicros).isLessThan(httpMicros);
+    }
+    
+    private double measure(SelfCallTransport transport) {
+        for (int i = 0; i < WARMUP_CALLS; i++) {
+            transport.getBankById(bank.getId(), null).block();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_CALLS; i++) {
+            transport.getBankById(bank.getId(), null).block();
+        }
+        return (System.nanoTime() - start) / 1e3 / MEASURED_CALLS;
+    }
+}
@@ -0,0 +1,105 @@
+package com.santander.rht.bankentitiesapi.benchmark;
+
+import com.santander.rht.bankentitiesapi.domain.model.Bank;
+import com.santander.rht.bankentitiesapi.domain.model.BankType;
+import com.santander.rht.bankentitiesapi.infrastructure.persistence.journal.JournalBankRepositoryAdapter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Measures how long the journal repository takes from process start to its first read, replaying
+ * the full journal against mapping a snapshot and replaying only the journal tail.
+ * Run with: ./mvnw test -Pbenchmark
+ */
+@Tag("benchmark")
+class SnapshotColdStartBenchmarkTest {
+    
+    private static final int TAIL_CHANGES = 1_000;
+    
+    @ParameterizedTest
+    @ValueSource(ints = {100_000, 1_000_000})
+    void snapshot_StartsFasterThanJournalReplay(int banks) throws Exception {
+        Path directory = Files.createTempDirectory("snapshot-benchmark");
+        try {
+            JournalBankRepositoryAdapter repository = open(directory);
+            for (int i = 0; i < banks; i++) {
+                repository.save(bank(i));
+            }
+            repository.close();
+            repository = null;
+            
+            double replayMillis = coldStart(directory, banks);
+            
+            repository = open(directory);
+            repository.compact();
+            for (int i = 0; i < TAIL_CHANGES; i++) {
+                repository.save(bank(banks + i));
+            }
+            repository.close();
+            repository = null;
+            
+            double snapshotMillis = coldStart(directory, banks + TAIL_CHANGES);
+            
+            System.out.printf("Cold start to first read with %,d banks: journal replay %.0f ms, snapshot + %d-change tail %.0f ms (%.1f MB snapshot)%n",
+                    banks, replayMillis, TAIL_CHANGES, snapshotMillis,
+                    Files.size(directory.resolve("banks.snapshot")) / 1e6);
+            assertThat(snapshotMillis).isLessThan(replayMillis);
+        } finally {
+            try (var files = Files.walk(directory)) {
+                files.sorted((a, b) -> b.compareTo(a)).forEach(path -> path.toFile().delete());
+            }
+        }
+    }
+    
+    private static double coldStart(Path directory, int expectedBanks) throws Exception {
+        System.gc();
+        long start = System.nanoTime();
+        JournalBankRepositoryAdapter repository = open(directory);
+        assertThat(repository.findBySwiftCode(swiftCode(expectedBanks / 2))).isPresent();
+        double millis = (System.nanoTime() - start) / 1e6;
+        assertThat(repository.count()).isEqualTo(expectedBanks);
+        repository.close();
+        return millis;
+    }
+    
+    private static JournalBankRepositoryAdapter open(Path directory) {
+        return new JournalBankRepositoryAdapter(directory, false, DataSize.ofGigabytes(64), Duration.ZERO,
+                new SimpleMeterRegistry());
+    }
+    
+    private static Bank bank(int i) {
+        LocalDateTime now = LocalDateTime.now();
+        return Bank.builder()
+                .swiftCode(swiftCode(i))
+                .name("Benchmark Bank " + i)
+                .address("Calle Mayor " + i)
+                .city("Madrid")
+                .country("Spain")
+                .countryCode("ES")
+                .bankType(BankType.COMMERCIAL)
+                .active(true)
+                .createdAt(now)
+                .updatedAt(now)
+                .build();
+    }
+    
+    private static String swiftCode(int i) {
+        char[] bank = new char[4];
+        int n = i;
+        for (int c = 3; c >= 0; c--) {
+            bank[c] = (char) ('A' + n % 26);
+            n /= 26;
+        }
+        return new String(bank) + "ES" + (char) ('A' + n) + "MXXX";
+    }
+}
@@ -0,0 +1,93 @@
+package com.santander.rht.bankentitiesapi.benchmark;
+
+import com.santander.rht.bankentitiesapi.application.lock.SwiftCodeLocks;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.IntFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Measures the striped SWIFT code locks under contention: every writer hitting one hot code,
+ * and writers spread over distinct codes. Each write holds its lock for a fixed, simulated
+ * commit time so the numbers reflect lock behaviour rather than database speed.
+ * Run with: ./mvnw test -Pbenchmark
+ */
+@Tag("benchmark")
+class SwiftCodeLockContentionBenchmarkTest {
+    
+    private static final int THREADS = 16;
+    private static final int WRITES = 4_000;
+    private static final long WRITE_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+    
+    @Test
+    void distinctCodes_ProceedInParallel_WhileHotCodeIsSerialized() throws Exception {
+        // Warm up
+        run(64, i -> "WARMESMM" + code(i % 64));
+        
+        Result hot = run(64, i -> "HOTTESMMXXX");
+        Result spread = run(64, i -> "SPRDESMM" + code(i % 256));
+        Result singleStripe = run(1, i -> "SPRDESMM" + code(i % 256));
+        
+        System.out.printf("Lock contention, %d threads, %d writes of %d us:%n", THREADS, WRITES, WRITE_NANOS / 1_000);
+        System.out.println("  one hot code:                 " + hot);
+        System.out.println("  256 codes over 64 stripes:    " + spread);
+        System.out.println("  256 codes over 1 stripe:      " + singleStripe);
+        
+        assertThat(spread.writesPerSecond()).isGreaterThan(hot.writesPerSecond() * 4);
+        assertThat(spread.writesPerSecond()).isGreaterThan(singleStripe.writesPerSecond() * 4);
+    }
+    
+    private Result run(int stripes, IntFunction<String> swiftCode) throws Exception {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        SwiftCodeLocks locks = new SwiftCodeLocks(meterRegistry, true, stripes);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+        long start = System.nanoTime();
+        for (int i = 0; i < WRITES; i++) {
+            String code = swiftCode.apply(i);
+            futures.add(executor.submit(() -> locks.withLock(code, () -> {
+                LockSupport.parkNanos(WRITE_NANOS);
+                return null;
+            })));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        long elapsed = System.nanoTime() - start;
+        executor.shutdown();
+        
+        Timer contended = meterRegistry.get("bank.write.lock.wait").tag("contended", "true").timer();
+        double p99Millis = 0;
+        for (ValueAtPercentile percentile : contended.takeSnapshot().percentileValues()) {
+            if (percentile.percentile() == 0.99) {
+                p99Millis = percentile.value(TimeUnit.MILLISECONDS);
+            }
+        }
+        return new Result(WRITES / (elapsed / 1e9), contended.count(), p99Millis);
+    }
+    
+    private static String code(int i) {
+        return String.format("%3s", Integer.toString(i, 36)).replace(' ', '0').toUpperCase();
+    }
+    
+    private record Result(double writesPerSecond, long contendedWrites, double waitP99Millis) {
+        
+        @Override
+        public String toString() {
+            return String.format("%.0f writes/s, %d contended, wait p99 %.2f ms",
+                    writesPerSecond, contendedWrites, waitP99Millis);
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.santander.rht.bankentitiesapi.benchmark;
+
+import com.santander.rht.bankentitiesapi.domain.model.SwiftCodeValidator;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.function.Predicate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares the single-pass SWIFT code validator with the regex check it replaced, over a mix of
+ * normalized, lower-case, padded and invalid codes. Runs warmup iterations before measuring and
+ * feeds every result into a sink so the JIT cannot drop the work.
+ * Run with: ./mvnw test -Pbenchmark
+ */
+@Tag("benchmark")
+class SwiftCodeValidationBenchmarkTest {
+    
+    private static final String[] CODES = {
+            "SANDESMMXXX", "BBVAESMM", "DEUTDEFFXXX", "ingbnl2a", " CAIXESBBXXX ", "BNPAFRPP",
+            "INVALID", "SAND-SMM", "CHASUS33XXX", "barcgb22"
+    };
+    private static final int WARMUP_ITERATIONS = 5;
+    private static final int MEASUREMENT_ITERATIONS = 5;
+    private static final int OPERATIONS = 2_000_000;
+    
+    private static int sink;
+    
+    @Test
+    void singlePassValidator_OutperformsRegex() {
+        // Both implementations must agree on the structural part of the check
+        for (String code : CODES) {
+            assertThat(SwiftCodeValidator.isValid(code)).as(code).isEqualTo(regexIsValid(code));
+        }
+        
+        double regex = measure(SwiftCodeValidationBenchmarkTest::regexIsValid);
+        double singlePass = measure(SwiftCodeValidator::isValid);
+        double normalize = measure(code -> SwiftCodeValidator.normalize(code) != null);
+        
+        System.out.printf("SWIFT code validation, %d ops per iteration, best of %d:%n", OPERATIONS, MEASUREMENT_ITERATIONS);
+        System.out.printf("  trim/toUpperCase/matches:      %,.0f ops/s%n", regex);
+        System.out.printf("  SwiftCodeValidator.isValid:    %,.0f ops/s (%.1fx)%n", singlePass, singlePass / regex);
+        System.out.printf("  SwiftCodeValidator.normalize: %,.0f ops/s (%.1fx)%n", normalize, normalize / regex);
+        
+        assertThat(singlePass).isGreaterThan(regex * 3);
+    }
+    
+    /**
+     * The check Bank.isValidSwiftCode performed before the single-pass validator
+     */
+    private static boolean regexIsValid(String swiftCode) {
+        if (swiftCode == null || swiftCode.trim().isEmpty()) {
+            return false;
+        }
+        String cleanSwift = swiftCode.trim().toUpperCase();
+        return cleanSwift.matches("^[A-Z0-9]{8}([A-Z0-9]{3})?$");
+    }
+    
+    private static double measure(Predicate<String> validator) {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            iteration(validator);
+        }
+        double best = 0;
+        for (int i = 0; i < MEASUREMENT_ITERATIONS; i++) {
+            long start = System.nanoTime();
+            iteration(validator);
+            best = Math.max(best, OPERATIONS / ((System.nanoTime() - start) / 1e9));
+        }
+        return best;
+    }
+    
+    private static void iteration(Predicate<String> validator) {
+        int valid = 0;
+        for (int i = 0; i < OPERATIONS; i++) {
+            if (validator.test(CODES[i % CODES.length])) {
+                valid++;
+            }
+        }
+        sink += valid;
+    }
+}
@@ -0,0 +1,90 @@
+package com.santander.rht.bankentitiesapi.benchmark;
+
+import com.santander.rht.bankentitiesapi.domain.model.Bank;
+import com.santander.rht.bankentitiesapi.domain.model.BankWriteToken;
+import com.santander.rht.bankentitiesapi.domain.model.WriteStatus;
+import com.santander.rht.bankentitiesapi.domain.port.in.BankServicePort;
+import com.santander.rht.bankentitiesapi.domain.port.in.BankWriteBehindPort;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares a directory-refresh style writer issuing one transaction per write against the
+ * write-behind queue committing the same writes in groups.
+ * Run with: ./mvnw test -Pbenchmark
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = {"spring.datasource.url=jdbc:h2:mem:write-behind-benchmark;DB_CLOSE_DELAY=-1",
+                              "logging.level.com.santander.rht.bankentitiesapi=WARN",
+                              "app.write-behind.enabled=true",
+                              "app.write-behind.max-batch-size=200",
+                              "app.write-behind.linger=2ms"})
+@ActiveProfiles("test")
+class WriteBehindBenchmarkTest {
+    
+    private static final int WRITES = 5_000;
+    
+    @Autowired
+    private BankServicePort bankServicePort;
+    
+    @Autowired
+    private BankWriteBehindPort bankWriteBehindPort;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Test
+    void groupCommit_HasHigherThroughputThanOneTransactionPerWrite() throws Exception {
+        // Warm up both paths before measuring
+        perWrite("WA");
+        writeBehind("WB");
+        
+        double perWriteRate = perWrite("PW");
+        double writeBehindRate = writeBehind("GC");
+        
+        System.out.printf("%d creates from one writer: one transaction each %.0f/s, write-behind %.0f/s (mean batch %.1f)%n",
+                WRITES, perWriteRate, writeBehindRate,
+                meterRegistry.get("bank.write.behind.batch.size").summary().mean());
+        assertThat(writeBehindRate).isGreaterThan(perWriteRate);
+    }
+    
+    private double perWrite(String prefix) {
+        long start = System.nanoTime();
+        for (int i = 0; i < WRITES; i++) {
+            bankServicePort.createBank(bank(prefix, i));
+        }
+        return WRITES / ((System.nanoTime() - start) / 1e9);
+    }
+    
+    private double writeBehind(String prefix) throws InterruptedException {
+        long start = System.nanoTime();
+        List<BankWriteToken> tokens = new ArrayList<>(WRITES);
+        for (int i = 0; i < WRITES; i++) {
+            tokens.add(bankWriteBehindPort.submitCreate(bank(prefix, i)));
+        }
+        for (BankWriteToken token : tokens) {
+            assertThat(token.await(Duration.ofSeconds(30))).isEqualTo(WriteStatus.COMMITTED);
+        }
+        return WRITES / ((System.nanoTime() - start) / 1e9);
+    }
+    
+    private static Bank bank(String prefix, int i) {
+        String branch = String.format("%3s", Integer.toString(i, 36)).replace(' ', '0').toUpperCase();
+        return Bank.builder()
+                .swiftCode(prefix + "BKESMM" + branch)
+                .name("Directory Bank " + prefix + branch)
+                .countryCode("ES")
+                .active(true)
+                .build();
+    }
+}
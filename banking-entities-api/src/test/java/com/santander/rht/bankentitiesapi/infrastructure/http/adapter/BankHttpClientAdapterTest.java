@@ -0,0 +1,249 @@
+package com.santander.rht.bankentitiesapi.infrastructure.http.adapter;
+
+import com.santander.rht.bankentitiesapi.application.deadline.DeadlineContext;
+import com.santander.rht.bankentitiesapi.domain.exception.DeadlineExceededException;
+import com.santander.rht.bankentitiesapi.domain.exception.SelfCallFailedException;
+import com.santander.rht.bankentitiesapi.domain.model.Bank;
+import com.santander.rht.bankentitiesapi.domain.model.BankLookupResult;
+import com.santander.rht.bankentitiesapi.domain.model.LookupOutcome;
+import com.santander.rht.bankentitiesapi.domain.model.RequestDeadline;
+import com.santander.rht.bankentitiesapi.infrastructure.http.cache.SelfCallResponseCache;
+import com.santander.rht.bankentitiesapi.infrastructure.http.resilience.CircuitBreaker;
+import com.santander.rht.bankentitiesapi.infrastructure.http.resilience.LatencyTracker;
+import com.santander.rht.bankentitiesapi.infrastructure.http.resilience.RetryBudget;
+import com.santander.rht.bankentitiesapi.infrastructure.http.transport.HttpSelfCallTransport;
+import com.santander.rht.bankentitiesapi.infrastructure.http.transport.LoopbackSelfCallTransport;
+import com.santander.rht.bankentitiesapi.infrastructure.http.transport.SelfCallResponse;
+import com.santander.rht.bankentitiesapi.infrastructure.http.transport.SelfCallTargetDetector;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BankHttpClientAdapterTest {
+    
+    @Mock
+    private HttpSelfCallTransport httpTransport;
+    
+    @Mock
+    private LoopbackSelfCallTransport loopbackTransport;
+    
+    @Mock
+    private SelfCallTargetDetector targetDetector;
+    
+    private SimpleMeterRegistry meterRegistry;
+    private CircuitBreaker circuitBreaker;
+    private MutableClock clock;
+    private SelfCallResponseCache cache;
+    private BankHttpClientAdapter adapter;
+    
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        clock = new MutableClock();
+        cache = new SelfCallResponseCache(meterRegistry, false, Duration.ofSeconds(5),
+                Duration.ofSeconds(30), Duration.ofMinutes(5), 100, clock);
+        circuitBreaker = new CircuitBreaker("test", 0.5, 4, 10, Duration.ofMinutes(1), 1, Clock.systemUTC());
+        lenient().when(httpTransport.mode()).thenReturn("http");
+        adapter = adapter(new RetryBudget(0.0, 0), false);
+    }
+    
+    private BankHttpClientAdapter adapter(RetryBudget retryBudget, boolean hedging) {
+        return new BankHttpClientAdapter(httpTransport, loopbackTransport, targetDetector, circuitBreaker,
+                retryBudget, new LatencyTracker(16, 0.95, 1), cache, meterRegistry, "http",
+                Duration.ofMillis(100), 4, 1, Duration.ZERO, hedging, Duration.ofMillis(1));
+    }
+    
+    @Test
+    void getBankById_Missing_ReturnsEmpty() {
+        when(httpTransport.getBankById(1L, null)).thenReturn(Mono.just(SelfCallResponse.notFound()));
+        
+        assertThat(adapter.getBankById(1L)).isEmpty();
+    }
+    
+    @Test
+    void getBankById_Timeout_ThrowsWithTimeoutOutcome() {
+        when(httpTransport.getBankById(1L, null)).thenReturn(Mono.never());
+        
+        assertThatThrownBy(() -> adapter.getBankById(1L))
+                .isInstanceOf(SelfCallFailedException.class)
+                .extracting(e -> ((SelfCallFailedException) e).getOutcome())
+                .isEqualTo(LookupOutcome.TIMEOUT);
+    }
+    
+    @Test
+    void getBanksByIds_ReportsDistinctOutcomesPerItem() {
+        Bank bank = Bank.builder().id(1L).swiftCode("SANDESMMXXX").build();
+        when(httpTransport.getBankById(1L, null)).thenReturn(Mono.just(SelfCallResponse.ok(bank, null, null)));
+        when(httpTransport.getBankById(2L, null)).thenReturn(Mono.just(SelfCallResponse.notFound()));
+        when(httpTransport.getBankById(3L, null)).thenReturn(Mono.never());
+        when(httpTransport.getBankById(4L, null)).thenReturn(Mono.error(new IllegalStateException("boom")));
+        
+        List<BankLookupResult> results = adapter.getBanksByIds(List.of(1L, 2L, 3L, 4L));
+        
+        assertThat(results).extracting(BankLookupResult::getOutcome).containsExactly(
+                LookupOutcome.FOUND, LookupOutcome.NOT_FOUND, LookupOutcome.TIMEOUT, LookupOutcome.ERROR);
+        assertThat(meterRegistry.get("bank.selfcall").tag("outcome", "TIMEOUT").timer().count()).isEqualTo(1);
+    }
+    
+    @Test
+    void circuitBreaker_OpensAfterFailures_AndFailsFast() {
+        AtomicInteger calls = new AtomicInteger();
+        when(httpTransport.getBankById(1L, null)).thenReturn(Mono.defer(() -> {
+            calls.incrementAndGet();
+            return Mono.error(new IllegalStateException("down"));
+        }));
+        
+        List<BankLookupResult> results = adapter.getBanksByIds(List.of(1L, 1L, 1L, 1L, 1L, 1L));
+        
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(results.get(5).getOutcome()).isEqualTo(LookupOutcome.REJECTED);
+        assertThat(calls.get()).isEqualTo(4);
+    }
+    
+    @Test
+    void retries_AreLimitedByBudget() {
+        AtomicInteger calls = new AtomicInteger();
+        when(httpTransport.getBankById(1L, null)).thenReturn(Mono.defer(() -> calls.incrementAndGet() == 1
+                ? Mono.error(new IllegalStateException("transient"))
+                : Mono.just(SelfCallResponse.ok(Bank.builder().id(1L).build(), null, null))));
+        
+        Optional<Bank> withBudget = adapter(new RetryBudget(0.5, 1), false).getBankById(1L);
+        
+        assertThat(withBudget).isPresent();
+        assertThat(calls.get()).isEqualTo(2);
+        assertThat(meterRegistry.get("bank.selfcall.retries").counter().count()).isEqualTo(1);
+    }
+    
+    @Test
+    void hedgedRequest_TakesFasterAttempt() {
+        AtomicInteger calls = new AtomicInteger();
+        when(httpTransport.getBankById(1L, null)).thenReturn(Mono.defer(() -> calls.incrementAndGet() == 1
+                ? Mono.never()
+                : Mono.just(SelfCallResponse.ok(Bank.builder().id(1L).build(), null, null))));
+        LatencyTracker primed = new LatencyTracker(16, 0.95, 1);
+        primed.record(Duration.ofMillis(5));
+        adapter = new BankHttpClientAdapter(httpTransport, loopbackTransport, targetDetector, circuitBreaker,
+                new RetryBudget(1.0, 10), primed, cache, meterRegistry, "http",
+                Duration.ofSeconds(5), 4, 0, Duration.ZERO, true, Duration.ofMillis(1));
+        
+        long start = System.nanoTime();
+        Optional<Bank> result = adapter.getBankById(1L);
+        
+        assertThat(result).isPresent();
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(1));
+        assertThat(meterRegistry.get("bank.selfcall.hedges").counter().count()).isEqualTo(1);
+    }
+    
+    @Test
+    void deadline_CapsAttemptTimeout_WithoutTrippingCircuitBreaker() {
+        when(httpTransport.getBankById(1L, null)).thenReturn(Mono.never());
+        adapter = new BankHttpClientAdapter(httpTransport, loopbackTransport, targetDetector, circuitBreaker,
+                new RetryBudget(1.0, 10), new LatencyTracker(16, 0.95, 1), cache, meterRegistry, "http",
+                Duration.ofSeconds(5), 4, 1, Duration.ZERO, false, Duration.ofMillis(1));
+        DeadlineContext.set(RequestDeadline.after(Duration.ofMillis(50)));
+        
+        long start = System.nanoTime();
+        try {
+            assertThatThrownBy(() -> adapter.getBankById(1L)).isInstanceOf(DeadlineExceededException.class);
+        } finally {
+            DeadlineContext.clear();
+        }
+        
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(1));
+        assertThat(meterRegistry.get("bank.selfcall.deadline.cancelled").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.find("bank.selfcall.retries").counter()).isNull();
+        verify(httpTransport, times(1)).getBankById(1L, null);
+    }
+    
+    @Test
+    void cache_ServesFreshThenStaleWhileRevalidating() {
+        enableCache();
+        Bank bank = Bank.builder().id(1L).swiftCode("SANDESMMXXX").build();
+        when(httpTransport.getBankById(1L, null)).thenReturn(Mono.just(SelfCallResponse.ok(bank, "\"v1\"", null)));
+        when(httpTransport.getBankById(1L, "\"v1\"")).thenReturn(Mono.just(SelfCallResponse.notModified("\"v1\"", null)));
+        
+        assertThat(adapter.getBankById(1L)).contains(bank);
+        // Hits are copies, so a caller changing one leaves the cached bank as it was
+        adapter.getBankById(1L).orElseThrow().setSwiftCode("BBVAESMMXXX");
+        verify(httpTransport, times(1)).getBankById(1L, null);
+        
+        clock.advance(Duration.ofSeconds(10));
+        assertThat(adapter.getBankById(1L)).contains(bank);
+        
+        await().atMost(Duration.ofSeconds(2)).untilAsserted(() ->
+                verify(httpTransport, times(1)).getBankById(1L, "\"v1\""));
+        assertThat(meterRegistry.get("bank.selfcall.cache.lookups").tag("result", "hit").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("bank.selfcall.cache.lookups").tag("result", "stale").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("bank.selfcall.cache.staleness").summary().max()).isEqualTo(5000);
+    }
+    
+    @Test
+    void cache_ServesStaleIfError_UntilWindowCloses() {
+        enableCache();
+        Bank bank = Bank.builder().id(1L).swiftCode("SANDESMMXXX").build();
+        when(httpTransport.getBankById(1L, null)).thenReturn(Mono.just(
+                SelfCallResponse.ok(bank, null, "max-age=1, stale-while-revalidate=1, stale-if-error=60")));
+        assertThat(adapter.getBankById(1L)).contains(bank);
+        
+        when(httpTransport.getBankById(1L, null)).thenReturn(Mono.error(new IllegalStateException("down")));
+        clock.advance(Duration.ofSeconds(30));
+        assertThat(adapter.getBankById(1L)).contains(bank);
+        assertThat(meterRegistry.get("bank.selfcall.cache.lookups").tag("result", "stale-if-error").counter().count())
+                .isEqualTo(1);
+        
+        clock.advance(Duration.ofSeconds(60));
+        assertThatThrownBy(() -> adapter.getBankById(1L)).isInstanceOf(SelfCallFailedException.class);
+    }
+    
+    private void enableCache() {
+        cache = new SelfCallResponseCache(meterRegistry, true, Duration.ofSeconds(5),
+                Duration.ofSeconds(30), Duration.ofMinutes(5), 100, clock);
+        adapter = adapter(new RetryBudget(0.0, 0), false);
+    }
+    
+    private static class MutableClock extends Clock {
+        
+        private Instant now = Instant.parse("2024-01-01T00:00:00Z");
+        
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+        
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+        
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+        
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
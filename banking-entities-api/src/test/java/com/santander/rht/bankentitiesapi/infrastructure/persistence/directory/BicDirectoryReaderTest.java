@@ -0,0 +1,108 @@
+package com.santander.rht.bankentitiesapi.infrastructure.persistence.directory;
+
+import com.santander.rht.bankentitiesapi.domain.model.Bank;
+import com.santander.rht.bankentitiesapi.domain.model.BankType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+class BicDirectoryReaderTest {
+    
+    @TempDir
+    Path directory;
+    
+    @Test
+    void read_Csv_ParsesQuotedValuesAndSkipsInvalidLines() throws Exception {
+        Path file = write("﻿swift_code;name;city;bankType;active;ignored\r\n"
+                + "SANDESMMXXX;\"Banco Santander; S.A.\";Madrid;commercial;true;x\r\n"
+                + "BBVAESMM;\"BBVA \"\"Bilbao\"\"\";Bilbao;;N;x\r\n"
+                + "\r\n"
+                + "NOTASWIFT;Broken;Nowhere;;;\r\n"
+                + "CAIXESBBXXX;CaixaBank;Barcelona;NOT_A_TYPE;;\r\n");
+        Queue<Bank> banks = new ConcurrentLinkedQueue<>();
+        
+        BicDirectoryReader.Result result = new BicDirectoryReader(BicDirectoryFormat.csv(';'), 10, 2)
+                .read(file, (batch, bytes) -> banks.addAll(batch));
+        
+        assertThat(result).isEqualTo(new BicDirectoryReader.Result(2, 2));
+        assertThat(banks).extracting(Bank::getSwiftCode, Bank::getName, Bank::getCity, Bank::getBankType, Bank::getActive)
+                .containsExactly(
+                        tuple("SANDESMMXXX", "Banco Santander; S.A.", "Madrid", BankType.COMMERCIAL, true),
+                        tuple("BBVAESMM", "BBVA \"Bilbao\"", "Bilbao", null, false));
+    }
+    
+    @Test
+    void read_FixedWidth_SlicesColumns_AndSkipsCountryMismatches() throws Exception {
+        Path file = write("DEUTDEFFXXXDeutsche Bank        FrankfurtDE\n"
+                + "CAIXESBBXXXCaixaBank            Lisbon   PT\n"
+                + "BNPAFRPP   BNP Paribas          Paris    FR\n");
+        Queue<Bank> banks = new ConcurrentLinkedQueue<>();
+        
+        BicDirectoryReader.Result result = new BicDirectoryReader(
+                BicDirectoryFormat.fixedWidth("swiftCode:11,name:21,city:9,countryCode:2"), 10, 1)
+                .read(file, (batch, bytes) -> banks.addAll(batch));
+        
+        assertThat(result).isEqualTo(new BicDirectoryReader.Result(2, 1));
+        assertThat(banks).extracting(Bank::getSwiftCode, Bank::getName, Bank::getCity, Bank::getCountryCode)
+                .containsExactly(
+                        tuple("DEUTDEFFXXX", "Deutsche Bank", "Frankfurt", "DE"),
+                        tuple("BNPAFRPP", "BNP Paribas", "Paris", "FR"));
+    }
+    
+    @Test
+    void read_LargeFile_SplitsIntoChunksWithoutLosingLines() throws Exception {
+        StringBuilder content = new StringBuilder("swiftCode,name,address\n");
+        int lines = 60_000;
+        for (int i = 0; i < lines; i++) {
+            content.append(swiftCode(i)).append(",Bank ").append(i).append(",Street ").append(i).append('\n');
+        }
+        Path file = write(content.toString());
+        AtomicLong rows = new AtomicLong();
+        AtomicLong bytes = new AtomicLong();
+        Queue<String> threads = new ConcurrentLinkedQueue<>();
+        
+        BicDirectoryReader.Result result = new BicDirectoryReader(BicDirectoryFormat.csv(','), 500, 4)
+                .read(file, (batch, batchBytes) -> {
+                    rows.addAndGet(batch.size());
+                    bytes.addAndGet(batchBytes);
+                    threads.add(Thread.currentThread().getName());
+                });
+        
+        assertThat(result.rows()).isEqualTo(lines);
+        assertThat(rows.get()).isEqualTo(lines);
+        assertThat(bytes.get()).isEqualTo(Files.size(file) - "swiftCode,name,address\n".length());
+        assertThat(threads.stream().distinct().count()).isGreaterThan(1);
+    }
+    
+    @Test
+    void csvFormat_WithoutSwiftCodeColumn_IsRejected() {
+        assertThatThrownBy(() -> BicDirectoryFormat.csv(',').withHeader("name,city"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+    
+    private Path write(String content) throws Exception {
+        Path file = directory.resolve("directory.txt");
+        Files.writeString(file, content, StandardCharsets.UTF_8);
+        return file;
+    }
+    
+    private static String swiftCode(int i) {
+        char[] bank = new char[4];
+        int n = i;
+        for (int c = 3; c >= 0; c--) {
+            bank[c] = (char) ('A' + n % 26);
+            n /= 26;
+        }
+        return new String(bank) + "ESMMXXX";
+    }
+}
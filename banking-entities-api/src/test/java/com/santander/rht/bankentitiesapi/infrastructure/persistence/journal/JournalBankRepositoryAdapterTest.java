@@ -0,0 +1,427 @@
+package com.santander.rht.bankentitiesapi.infrastructure.persistence.journal;
+
+import com.santander.rht.bankentitiesapi.domain.exception.BankVersionConflictException;
+import com.santander.rht.bankentitiesapi.domain.exception.DuplicateBankException;
+import com.santander.rht.bankentitiesapi.domain.model.Bank;
+import com.santander.rht.bankentitiesapi.domain.model.BankChange;
+import com.santander.rht.bankentitiesapi.domain.model.BankChangeType;
+import com.santander.rht.bankentitiesapi.domain.model.BankField;
+import com.santander.rht.bankentitiesapi.domain.model.BankPatch;
+import com.santander.rht.bankentitiesapi.domain.model.BankType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.unit.DataSize;
+
+import java.io.DataOutputStream;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+class JournalBankRepositoryAdapterTest {
+    
+    @TempDir
+    Path directory;
+    
+    private JournalBankRepositoryAdapter repository;
+    
+    @AfterEach
+    void tearDown() throws Exception {
+        if (repository != null) {
+            repository.close();
+        }
+    }
+    
+    @Test
+    void mutations_SurviveRestart() throws Exception {
+        repository = open(DataSize.ofMegabytes(64));
+        Bank santander = repository.save(bank("SANDESMMXXX"));
+        Bank bbva = repository.save(bank("BBVAESMMXXX"));
+        Bank caixa = repository.save(bank("CAIXESBBXXX"));
+        
+        Bank update = santander.toBuilder().name("Banco Santander S.A.").build();
+        assertThat(repository.update(update, 0L)).isEqualTo(1);
+        assertThat(repository.patch(bbva.getId(), new BankPatch().set(BankField.CITY, "Bilbao"), null)).isEqualTo(1);
+        assertThat(repository.patch(bbva.getId(), new BankPatch().set(BankField.CITY, "Bilbao"), null)).isZero();
+        assertThat(repository.delete(caixa.getId(), 0L)).isEqualTo(1);
+        
+        repository = reopen(DataSize.ofMegabytes(64));
+        
+        assertThat(repository.count()).isEqualTo(2);
+        assertThat(repository.findBySwiftCode("SANDESMMXXX")).get()
+                .satisfies(bank -> {
+                    assertThat(bank.getName()).isEqualTo("Banco Santander S.A.");
+                    assertThat(bank.getVersion()).isEqualTo(1L);
+                    assertThat(bank.getBankType()).isEqualTo(BankType.COMMERCIAL);
+                });
+        assertThat(repository.findById(bbva.getId())).get().extracting(Bank::getCity).isEqualTo("Bilbao");
+        assertThat(repository.existsBySwiftCode("CAIXESBBXXX")).isFalse();
+        
+        // Deleted IDs are not handed out again
+        assertThat(repository.save(bank("DEUTDEFFXXX")).getId()).isGreaterThan(caixa.getId());
+    }
+    
+    @Test
+    void save_DuplicateSwiftCode_ThrowsException() {
+        repository = open(DataSize.ofMegabytes(64));
+        repository.save(bank("SANDESMMXXX"));
+        
+        assertThatThrownBy(() -> repository.save(bank("SANDESMMXXX")))
+                .isInstanceOf(DuplicateBankException.class);
+        assertThat(repository.count()).isEqualTo(1);
+    }
+    
+    @Test
+    void recovery_TruncatesJournalCutMidRecord() throws Exception {
+        repository = open(DataSize.ofMegabytes(64));
+        repository.save(bank("SANDESMMXXX"));
+        repository.save(bank("BBVAESMMXXX"));
+        repository.save(bank("CAIXESBBXXX"));
+        repository.close();
+        
+        Path journal = directory.resolve(BankJournal.JOURNAL_FILE);
+        long intact = Files.size(journal);
+        try (RandomAccessFile file = new RandomAccessFile(journal.toFile(), "rw")) {
+            file.setLength(intact - 7);
+        }
+        
+        repository = open(DataSize.ofMegabytes(64));
+        assertThat(repository.count()).isEqualTo(2);
+        assertThat(repository.existsBySwiftCode("CAIXESBBXXX")).isFalse();
+        
+        // The torn tail is cut off, so new records are not hidden behind it
+        repository.save(bank("DEUTDEFFXXX"));
+        repository = reopen(DataSize.ofMegabytes(64));
+        assertThat(repository.count()).isEqualTo(3);
+        assertThat(repository.existsBySwiftCode("DEUTDEFFXXX")).isTrue();
+    }
+    
+    @Test
+    void recovery_StopsAtCorruptRecord() throws Exception {
+        repository = open(DataSize.ofMegabytes(64));
+        repository.save(bank("SANDESMMXXX"));
+        repository.save(bank("BBVAESMMXXX"));
+        repository.close();
+        
+        Path journal = directory.resolve(BankJournal.JOURNAL_FILE);
+        try (RandomAccessFile file = new RandomAccessFile(journal.toFile(), "rw")) {
+            file.seek(file.length() - 3);
+            file.write(0x7F);
+        }
+        
+        repository = open(DataSize.ofMegabytes(64));
+        assertThat(repository.count()).isEqualTo(1);
+        assertThat(repository.existsBySwiftCode("SANDESMMXXX")).isTrue();
+    }
+    
+    @Test
+    void compaction_MovesStateIntoSnapshot() throws Exception {
+        repository = open(DataSize.ofKilobytes(4));
+        for (int i = 0; i < 100; i++) {
+            Bank bank = repository.save(bank("CMP" + (char) ('A' + i / 26) + "ES" + (char) ('A' + i % 26) + "MXXX"));
+            repository.patch(bank.getId(), new BankPatch().set(BankField.ACTIVE, false), null);
+        }
+        
+        assertThat(directory.resolve(JournalBankRepositoryAdapter.SNAPSHOT_FILE)).exists();
+        assertThat(Files.size(directory.resolve(BankJournal.JOURNAL_FILE))).isLessThanOrEqualTo(DataSize.ofKilobytes(4).toBytes());
+        
+        repository = reopen(DataSize.ofKilobytes(4));
+        assertThat(repository.count()).isEqualTo(100);
+        assertThat(repository.findByActiveTrue()).isEmpty();
+    }
+    
+    @Test
+    void recovery_ReplaysJournalLeftBehindByInterruptedCompaction() throws Exception {
+        repository = open(DataSize.ofMegabytes(64));
+        Bank santander = repository.save(bank("SANDESMMXXX"));
+        repository.patch(santander.getId(), new BankPatch().set(BankField.CITY, "Santander"), null);
+        repository.save(bank("BBVAESMMXXX"));
+        
+        // Crash after the snapshot was written but before the journal was emptied
+        Path journal = directory.resolve(BankJournal.JOURNAL_FILE);
+        Path beforeCompaction = directory.resolve("journal.copy");
+        Files.copy(journal, beforeCompaction);
+        repository.compact();
+        repository.close();
+        Files.move(beforeCompaction, journal, StandardCopyOption.REPLACE_EXISTING);
+        
+        repository = open(DataSize.ofMegabytes(64));
+        assertThat(repository.count()).isEqualTo(2);
+        assertThat(repository.findById(santander.getId())).get()
+                .satisfies(bank -> {
+                    assertThat(bank.getCity()).isEqualTo("Santander");
+                    assertThat(bank.getVersion()).isEqualTo(1L);
+                });
+    }
+    
+    @Test
+    void reads_ServedFromSnapshotAndJournalTail() throws Exception {
+        repository = open(DataSize.ofMegabytes(64));
+        Bank santander = repository.save(bank("SANDESMMXXX"));
+        Bank bbva = repository.save(bank("BBVAESMMXXX"));
+        Bank caixa = repository.save(bank("CAIXESBBXXX"));
+        repository.compact();
+        
+        // Changes after the snapshot only reach the journal
+        repository.patch(santander.getId(), new BankPatch().set(BankField.SWIFT_CODE, "BSCHESMMXXX"), null);
+        repository.delete(bbva.getId(), null);
+        Bank deutsche = repository.save(bank("DEUTDEFFXXX"));
+        
+        repository = reopen(DataSize.ofMegabytes(64));
+        assertThat(repository.snapshotInfo())
+                .satisfies(info -> {
+                    assertThat(info.banks()).isEqualTo(3);
+                    assertThat(info.pendingChanges()).isEqualTo(3);
+                });
+        assertThat(repository.count()).isEqualTo(3);
+        assertThat(repository.existsBySwiftCode("SANDESMMXXX")).isFalse();
+        assertThat(repository.findBySwiftCode("BSCHESMMXXX")).get().extracting(Bank::getId).isEqualTo(santander.getId());
+        assertThat(repository.findById(bbva.getId())).isEmpty();
+        assertThat(repository.findById(caixa.getId())).get().extracting(Bank::getName).isEqualTo("Bank CAIXESBBXXX");
+        assertThat(repository.findAll()).extracting(Bank::getSwiftCode)
+                .containsExactly("BSCHESMMXXX", "CAIXESBBXXX", "DEUTDEFFXXX");
+        
+        // The freed SWIFT code can be taken again, and the next snapshot folds the journal in
+        repository.save(bank("SANDESMMXXX"));
+        repository.compact();
+        repository = reopen(DataSize.ofMegabytes(64));
+        assertThat(repository.snapshotInfo().pendingChanges()).isZero();
+        assertThat(repository.findAll()).extracting(Bank::getSwiftCode)
+                .containsExactly("BSCHESMMXXX", "CAIXESBBXXX", "DEUTDEFFXXX", "SANDESMMXXX");
+        assertThat(repository.save(bank("INGBNL2AXXX")).getId()).isGreaterThan(deutsche.getId() + 1);
+    }
+    
+    @Test
+    void changeFeed_SurvivesCompactionAndRestart() throws Exception {
+        repository = open(DataSize.ofMegabytes(64));
+        Bank santander = repository.save(bank("SANDESMMXXX"));
+        Bank bbva = repository.save(bank("BBVAESMMXXX"));
+        repository.compact();
+        repository.patch(santander.getId(), new BankPatch().set(BankField.CITY, "Madrid"), null);
+        repository.delete(bbva.getId(), null);
+        Bank caixa = repository.save(bank("CAIXESBBXXX"));
+        
+        assertThat(repository.findChangesSince(0, 10))
+                .extracting(BankChange::seq, BankChange::type, BankChange::bankId, BankChange::swiftCode)
+                .containsExactly(
+                        tuple(3L, BankChangeType.UPSERTED, santander.getId(), "SANDESMMXXX"),
+                        tuple(4L, BankChangeType.DELETED, bbva.getId(), "BBVAESMMXXX"),
+                        tuple(5L, BankChangeType.UPSERTED, caixa.getId(), "CAIXESBBXXX"));
+        
+        // The tombstone is kept through compaction and restart, until it is purged
+        repository.compact();
+        repository = reopen(DataSize.ofMegabytes(64));
+        assertThat(repository.findChangesSince(3, 10)).extracting(BankChange::seq, BankChange::type)
+                .containsExactly(tuple(4L, BankChangeType.DELETED), tuple(5L, BankChangeType.UPSERTED));
+        assertThat(repository.purgeTombstones(LocalDateTime.now().minusDays(1))).isZero();
+        assertThat(repository.purgeTombstones(LocalDateTime.now().plusSeconds(1))).isEqualTo(1);
+        
+        repository = reopen(DataSize.ofMegabytes(64));
+        assertThat(repository.purgedThrough()).isEqualTo(4L);
+        assertThat(repository.findChangesSince(0, 10)).extracting(BankChange::seq).containsExactly(3L, 5L);
+        assertThat(repository.save(bank("BBVAESMMXXX")).getChangeSeq()).isEqualTo(6L);
+    }
+    
+    @Test
+    void snapshotOfAnotherFormat_FailsToOpen() throws Exception {
+        try (DataOutputStream out = new DataOutputStream(Files.newOutputStream(directory.resolve(JournalBankRepositoryAdapter.SNAPSHOT_FILE)))) {
+            out.writeInt(BankSnapshot.MAGIC);
+            out.writeInt(BankSnapshot.FORMAT - 1);
+            out.write(new byte[128]);
+        }
+        
+        assertThatThrownBy(() -> open(DataSize.ofMegabytes(64)))
+                .isInstanceOf(UncheckedIOException.class)
+                .hasRootCauseMessage("Unsupported bank snapshot format 2: " + directory.resolve(JournalBankRepositoryAdapter.SNAPSHOT_FILE));
+    }
+    
+    @Test
+    void corruptSnapshot_FailsToOpen() throws Exception {
+        repository = open(DataSize.ofMegabytes(64));
+        repository.save(bank("SANDESMMXXX"));
+        repository.compact();
+        repository.close();
+        repository = null;
+        
+        Path snapshot = directory.resolve(JournalBankRepositoryAdapter.SNAPSHOT_FILE);
+        try (RandomAccessFile file = new RandomAccessFile(snapshot.toFile(), "rw")) {
+            file.seek(file.length() - 1);
+            file.write(file.read() ^ 0xFF);
+        }
+        
+        assertThatThrownBy(() -> open(DataSize.ofMegabytes(64))).isInstanceOf(UncheckedIOException.class);
+    }
+    
+    @Test
+    void rolledBackTransaction_UndoesItsMutations() throws Exception {
+        repository = open(DataSize.ofMegabytes(64));
+        Bank santander = repository.save(bank("SANDESMMXXX"));
+        
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            repository.save(bank("BBVAESMMXXX"));
+            repository.delete(santander.getId(), null);
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        
+        assertThat(repository.findAll()).extracting(Bank::getSwiftCode).containsExactly("SANDESMMXXX");
+        repository = reopen(DataSize.ofMegabytes(64));
+        assertThat(repository.findAll()).extracting(Bank::getSwiftCode).containsExactly("SANDESMMXXX");
+    }
+    
+    @Test
+    void transactionWrites_AreSeenByOthersOnlyOnCommit_AndRollBackWithoutUndoingOtherWriters() throws Exception {
+        repository = open(DataSize.ofMegabytes(64));
+        Bank santander = repository.save(bank("SANDESMMXXX"));
+        long committedThrough = repository.latestChangeSeq();
+        ExecutorService other = Executors.newSingleThreadExecutor();
+        
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            repository.patch(santander.getId(), new BankPatch().set(BankField.CITY, "Santander"), null);
+            repository.save(bank("CAIXESBBXXX"));
+            assertThat(repository.findById(santander.getId())).get().extracting(Bank::getCity).isEqualTo("Santander");
+            assertThat(repository.findAll()).extracting(Bank::getSwiftCode).containsExactly("SANDESMMXXX", "CAIXESBBXXX");
+            assertThat(other.submit(() -> repository.findBySwiftCode("CAIXESBBXXX")).get()).isEmpty();
+            assertThat(repository.findChangesSince(committedThrough, 10)).isEmpty();
+            
+            // Another writer changes a bank the transaction wrote, then the transaction rolls back
+            other.submit(() -> repository.patch(santander.getId(),
+                    new BankPatch().set(BankField.NAME, "Banco Santander"), null)).get();
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+            other.shutdown();
+        }
+        
+        assertThat(repository.findById(santander.getId())).get()
+                .extracting(Bank::getName, Bank::getCity, Bank::getVersion)
+                .containsExactly("Banco Santander", null, 1L);
+        assertThat(repository.findBySwiftCode("CAIXESBBXXX")).isEmpty();
+    }
+    
+    @Test
+    void transactionCommit_FailsOnABankWrittenSinceTheTransactionWroteIt() throws Exception {
+        repository = open(DataSize.ofMegabytes(64));
+        Bank santander = repository.save(bank("SANDESMMXXX"));
+        ExecutorService other = Executors.newSingleThreadExecutor();
+        
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            repository.patch(santander.getId(), new BankPatch().set(BankField.CITY, "Santander"), null);
+            repository.save(bank("CAIXESBBXXX"));
+            other.submit(() -> repository.patch(santander.getId(),
+                    new BankPatch().set(BankField.NAME, "Banco Santander"), null)).get();
+            assertThatThrownBy(() -> TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sync -> sync.beforeCommit(false)))
+                    .isInstanceOf(BankVersionConflictException.class);
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+            other.shutdown();
+        }
+        assertThat(repository.findById(santander.getId())).get().extracting(Bank::getCity).isNull();
+        assertThat(repository.findBySwiftCode("CAIXESBBXXX")).isEmpty();
+        
+        // Retried on the latest version, it commits
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            repository.patch(santander.getId(), new BankPatch().set(BankField.CITY, "Santander"), 1L);
+            repository.save(bank("CAIXESBBXXX"));
+            TransactionSynchronizationManager.getSynchronizations().forEach(sync -> sync.beforeCommit(false));
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertThat(repository.findById(santander.getId())).get()
+                .extracting(Bank::getName, Bank::getCity, Bank::getVersion)
+                .containsExactly("Banco Santander", "Santander", 2L);
+        assertThat(repository.findChangesSince(2, 10)).extracting(BankChange::swiftCode)
+                .containsExactly("SANDESMMXXX", "CAIXESBBXXX");
+        repository = reopen(DataSize.ofMegabytes(64));
+        assertThat(repository.findBySwiftCode("CAIXESBBXXX")).isPresent();
+    }
+    
+    @Test
+    void concurrentWriters_BuildOnUnforcedChanges_WhileReadersSeeThemInOrder() throws Exception {
+        repository = open(DataSize.ofMegabytes(64));
+        long id = repository.save(bank("SANDESMMXXX")).getId();
+        AtomicBoolean writing = new AtomicBoolean(true);
+        ExecutorService executor = Executors.newFixedThreadPool(9);
+        Future<Long> reader = executor.submit(() -> {
+            long seen = 0;
+            while (writing.get()) {
+                long version = repository.findById(id).orElseThrow().getVersion();
+                assertThat(version).isGreaterThanOrEqualTo(seen);
+                seen = version;
+            }
+            return seen;
+        });
+        List<Future<?>> writers = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            writers.add(executor.submit(() -> {
+                for (int written = 0; written < 25; ) {
+                    Bank current = repository.findById(id).orElseThrow();
+                    written += repository.update(current.toBuilder().city("City " + written).build(), current.getVersion());
+                }
+                return null;
+            }));
+        }
+        for (Future<?> writer : writers) {
+            writer.get(30, TimeUnit.SECONDS);
+        }
+        writing.set(false);
+        reader.get(30, TimeUnit.SECONDS);
+        executor.shutdown();
+        
+        assertThat(repository.findById(id)).get().extracting(Bank::getVersion).isEqualTo(200L);
+        assertThat(repository.latestChangeSeq()).isEqualTo(201L);
+        repository = reopen(DataSize.ofMegabytes(64));
+        assertThat(repository.findById(id)).get().extracting(Bank::getVersion).isEqualTo(200L);
+    }
+    
+    private JournalBankRepositoryAdapter open(DataSize compactionThreshold) {
+        return new JournalBankRepositoryAdapter(directory, true, compactionThreshold, Duration.ZERO, new SimpleMeterRegistry());
+    }
+    
+    private JournalBankRepositoryAdapter reopen(DataSize compactionThreshold) throws Exception {
+        repository.close();
+        return open(compactionThreshold);
+    }
+    
+    private static Bank bank(String swiftCode) {
+        return Bank.builder()
+                .swiftCode(swiftCode)
+                .name("Bank " + swiftCode)
+                .countryCode("ES")
+                .bankType(BankType.COMMERCIAL)
+                .active(true)
+                .createdAt(LocalDateTime.now())
+                .updatedAt(LocalDateTime.now())
+                .build();
+    }
+}
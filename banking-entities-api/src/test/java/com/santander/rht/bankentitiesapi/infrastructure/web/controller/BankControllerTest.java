@@ -2,13 +2,18 @@ package com.santander.rht.bankentitiesapi.infrastructure.web.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.santander.rht.bankentitiesapi.domain.exception.BankNotFoundException;
+import com.santander.rht.bankentitiesapi.domain.exception.BankVersionConflictException;
 import com.santander.rht.bankentitiesapi.domain.exception.DuplicateBankException;
 import com.santander.rht.bankentitiesapi.domain.model.Bank;
 import com.santander.rht.bankentitiesapi.domain.model.BankType;
+import com.santander.rht.bankentitiesapi.domain.model.BankWriteToken;
+import com.santander.rht.bankentitiesapi.domain.model.WriteStatus;
 import com.santander.rht.bankentitiesapi.domain.port.in.BankServicePort;
+import com.santander.rht.bankentitiesapi.domain.port.in.BankWriteBehindPort;
 import com.santander.rht.bankentitiesapi.infrastructure.web.dto.BankResponse;
 import com.santander.rht.bankentitiesapi.infrastructure.web.dto.CreateBankRequest;
 import com.santander.rht.bankentitiesapi.infrastructure.web.dto.UpdateBankRequest;
+import com.santander.rht.bankentitiesapi.infrastructure.web.dto.WriteTokenResponse;
 import com.santander.rht.bankentitiesapi.infrastructure.web.mapper.BankWebMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -25,8 +30,12 @@ import java.util.Optional;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.when;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -43,6 +52,9 @@ class BankControllerTest {
     @MockBean
     private BankServicePort bankServicePort;
     
+    @MockBean
+    private BankWriteBehindPort bankWriteBehindPort;
+    
     @MockBean
     private BankWebMapper bankWebMapper;
     
@@ -121,6 +133,64 @@ class BankControllerTest {
                 .andExpect(jsonPath("$.swiftCode").value("SANDESMMXXX"));
     }
     
+    @Test
+    void createBank_RespondAsync_ReturnsAcceptedWithToken() throws Exception {
+        // Given
+        BankWriteToken token = new BankWriteToken(7L);
+        when(bankWebMapper.toDomain(any(CreateBankRequest.class))).thenReturn(validBank);
+        when(bankWriteBehindPort.submitCreate(any(Bank.class))).thenReturn(token);
+        when(bankWebMapper.toWriteTokenResponse(token))
+                .thenReturn(WriteTokenResponse.builder().id(7L).status(WriteStatus.PENDING).build());
+        
+        // When & Then
+        mockMvc.perform(post("/api/v1/banks")
+                        .header("Prefer", "respond-async")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(createRequest)))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", "/api/v1/banks/writes/7"))
+                .andExpect(header().string("Preference-Applied", "respond-async"))
+                .andExpect(jsonPath("$.status").value("PENDING"));
+    }
+    
+    @Test
+    void writes_PreferListingRespondAsyncAmongOtherPreferences_AreQueued() throws Exception {
+        // Given
+        BankWriteToken token = new BankWriteToken(8L);
+        when(bankWebMapper.toDomain(any(CreateBankRequest.class))).thenReturn(validBank);
+        when(bankWriteBehindPort.submitCreate(any(Bank.class))).thenReturn(token);
+        when(bankWriteBehindPort.submitDelete(eq(1L), isNull())).thenReturn(token);
+        when(bankWebMapper.toWriteTokenResponse(token))
+                .thenReturn(WriteTokenResponse.builder().id(8L).status(WriteStatus.PENDING).build());
+        
+        // When & Then
+        mockMvc.perform(post("/api/v1/banks")
+                        .header("Prefer", "return=minimal, RESPOND-ASYNC")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(createRequest)))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", "/api/v1/banks/writes/8"));
+        mockMvc.perform(delete("/api/v1/banks/1")
+                        .header("Prefer", "handling=lenient")
+                        .header("Prefer", "respond-async, wait=10"))
+                .andExpect(status().isAccepted());
+    }
+    
+    @Test
+    void createBank_PreferWithoutRespondAsync_IsCommittedSynchronously() throws Exception {
+        // Given
+        when(bankWebMapper.toDomain(any(CreateBankRequest.class))).thenReturn(validBank);
+        when(bankServicePort.createBank(any(Bank.class))).thenReturn(validBank);
+        when(bankWebMapper.toResponse(validBank)).thenReturn(bankResponse);
+        
+        // When & Then
+        mockMvc.perform(post("/api/v1/banks")
+                        .header("Prefer", "return=minimal, foo=\"respond-async, bar\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(createRequest)))
+                .andExpect(status().isCreated());
+    }
+    
     @Test
     void createBank_InvalidRequest_ReturnsBadRequest() throws Exception {
         // Given - Only provide SWIFT code without required fields to trigger validation error
@@ -206,7 +276,7 @@ class BankControllerTest {
     void updateBank_ValidRequest_ReturnsOk() throws Exception {
         // Given
         when(bankWebMapper.toDomain(any(UpdateBankRequest.class))).thenReturn(validBank);
-        when(bankServicePort.updateBank(anyLong(), any(Bank.class))).thenReturn(validBank);
+        when(bankServicePort.updateBank(anyLong(), any(Bank.class), isNull())).thenReturn(validBank);
         when(bankWebMapper.toResponse(any(Bank.class))).thenReturn(bankResponse);
         
         // When & Then
@@ -220,7 +290,7 @@ class BankControllerTest {
     void updateBank_NonExistingBank_ReturnsNotFound() throws Exception {
         // Given
         when(bankWebMapper.toDomain(any(UpdateBankRequest.class))).thenReturn(validBank);
-        when(bankServicePort.updateBank(anyLong(), any(Bank.class)))
+        when(bankServicePort.updateBank(anyLong(), any(Bank.class), isNull()))
                 .thenThrow(BankNotFoundException.byId(999L));
         
         // When & Then
@@ -231,6 +301,51 @@ class BankControllerTest {
                 .andExpect(jsonPath("$.error").value("BANK_NOT_FOUND"));
     }
     
+    @Test
+    void updateBank_StaleIfMatch_ReturnsConflict() throws Exception {
+        // Given
+        when(bankWebMapper.toDomain(any(UpdateBankRequest.class))).thenReturn(validBank);
+        when(bankServicePort.updateBank(eq(1L), any(Bank.class), eq(4L)))
+                .thenThrow(BankVersionConflictException.forId(1L, 4L));
+        
+        // When & Then
+        mockMvc.perform(put("/api/v1/banks/1")
+                        .header("If-Match", "\"4\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(updateRequest)))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.error").value("VERSION_CONFLICT"));
+    }
+    
+    @Test
+    void updateBank_WeakIfMatch_ReturnsPreconditionFailed() throws Exception {
+        mockMvc.perform(put("/api/v1/banks/1")
+                        .header("If-Match", "W/\"4\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(updateRequest)))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(jsonPath("$.error").value("PRECONDITION_FAILED"));
+    }
+    
+    @Test
+    void deleteBank_IfMatchList_ExpectsTheListedCurrentVersion() throws Exception {
+        validBank.setVersion(5L);
+        when(bankServicePort.getBankById(1L)).thenReturn(Optional.of(validBank));
+        
+        mockMvc.perform(delete("/api/v1/banks/1").header("If-Match", "\"4\", W/\"6\", \"5\""))
+                .andExpect(status().isNoContent());
+        mockMvc.perform(delete("/api/v1/banks/1").header("If-Match", "\"3\", \"4\""))
+                .andExpect(status().isPreconditionFailed());
+        mockMvc.perform(delete("/api/v1/banks/1").header("If-Match", "*"))
+                .andExpect(status().isNoContent());
+        mockMvc.perform(delete("/api/v1/banks/1").header("If-Match", "\"4\", version"))
+                .andExpect(status().isBadRequest());
+        
+        verify(bankServicePort).deleteBank(1L, 5L);
+        verify(bankServicePort).deleteBank(1L, null);
+        verify(bankServicePort, never()).deleteBank(1L, 4L);
+    }
+    
     @Test
     void deleteBank_ExistingBank_ReturnsNoContent() throws Exception {
         // When & Then
@@ -241,7 +356,7 @@ class BankControllerTest {
     @Test
     void deleteBank_NonExistingBank_ReturnsNotFound() throws Exception {
         // Given
-        doThrow(BankNotFoundException.byId(999L)).when(bankServicePort).deleteBank(999L);
+        doThrow(BankNotFoundException.byId(999L)).when(bankServicePort).deleteBank(999L, null);
         
         // When & Then
         mockMvc.perform(delete("/api/v1/banks/999"))
@@ -0,0 +1,206 @@
+package com.santander.rht.bankentitiesapi.infrastructure.web.stream;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.santander.rht.bankentitiesapi.application.change.BankChangeNotifier;
+import com.santander.rht.bankentitiesapi.domain.model.Bank;
+import com.santander.rht.bankentitiesapi.domain.model.BankChange;
+import com.santander.rht.bankentitiesapi.domain.model.BankChangePage;
+import com.santander.rht.bankentitiesapi.domain.port.in.BankChangeFeedPort;
+import com.santander.rht.bankentitiesapi.infrastructure.web.mapper.BankWebMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mapstruct.factory.Mappers;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+class BankChangeStreamTest {
+    
+    private final ObjectMapper objectMapper = JsonMapper.builder().findAndAddModules().build();
+    private final BankWebMapper bankWebMapper = Mappers.getMapper(BankWebMapper.class);
+    private final BankChangeNotifier notifier = new BankChangeNotifier();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final FakeChangeFeed feed = new FakeChangeFeed();
+    
+    private BankChangeStream stream;
+    
+    @AfterEach
+    void tearDown() {
+        if (stream != null) {
+            stream.stop();
+        }
+    }
+    
+    @Test
+    void fiveThousandSubscribers_AllReceiveACommittedChange() throws Exception {
+        stream = start(16, Duration.ofMinutes(1));
+        CountDownLatch received = new CountDownLatch(5_000);
+        List<RecordingSink> sinks = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) {
+            RecordingSink sink = new RecordingSink(received);
+            sinks.add(sink);
+            stream.subscribe(null, sink);
+        }
+        assertThat(stream.subscriberCount()).isEqualTo(5_000);
+        
+        feed.commit(change(1, "SANDESMMXXX"));
+        
+        assertThat(received.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(sinks).allSatisfy(sink -> assertThat(sink.seqs).containsExactly(1L));
+        assertThat(sinks.getFirst().data.getFirst()).contains("\"swiftCode\":\"SANDESMMXXX\"");
+    }
+    
+    @Test
+    void burstLargerThanTheBuffer_IsCaughtUpFromTheFeed_WhileAStalledSubscriberIsDisconnected() throws Exception {
+        stream = start(4, Duration.ofMinutes(1));
+        CountDownLatch stalled = new CountDownLatch(1);
+        RecordingSink slow = new RecordingSink(null) {
+            @Override
+            public void send(ChangeStreamEvent event) throws IOException {
+                try {
+                    stalled.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                super.send(event);
+            }
+        };
+        RecordingSink fast = new RecordingSink(null);
+        BankChangeStream.Subscriber slowSubscriber = stream.subscribe(null, slow);
+        stream.subscribe(null, fast);
+        
+        for (int seq = 1; seq <= 20; seq++) {
+            feed.commit(change(seq, "BANK" + seq + "ESMMXXX"));
+        }
+        
+        await().atMost(Duration.ofSeconds(5)).until(() -> fast.seqs.size() == 20);
+        assertThat(fast.seqs).isSorted().doesNotHaveDuplicates();
+        for (int seq = 21; seq <= 30; seq++) {
+            feed.commit(change(seq, "BANK" + seq + "ESMMXXX"));
+        }
+        await().atMost(Duration.ofSeconds(5)).until(slowSubscriber::isClosed);
+        await().atMost(Duration.ofSeconds(5)).until(() -> fast.seqs.size() == 30);
+        assertThat(stream.subscriberCount()).isEqualTo(1);
+        assertThat(meterRegistry.get("bank.changes.stream.overflows").tag("outcome", "disconnected").counter().count())
+                .isEqualTo(1);
+        stalled.countDown();
+        await().atMost(Duration.ofSeconds(5)).until(() -> slow.closed);
+    }
+    
+    @Test
+    void subscriberWithLastEventId_CatchesUpThenFollowsLiveChanges() throws Exception {
+        feed.commit(change(1, "SANDESMMXXX"));
+        feed.commit(change(2, "BBVAESMMXXX"));
+        feed.commit(change(3, "CAIXESBBXXX"));
+        stream = start(16, Duration.ofMinutes(1));
+        RecordingSink sink = new RecordingSink(null);
+        
+        stream.subscribe(1L, sink);
+        await().atMost(Duration.ofSeconds(5)).until(() -> sink.seqs.size() == 2);
+        feed.commit(change(4, "INGBNL2AXXX"));
+        
+        await().atMost(Duration.ofSeconds(5)).until(() -> sink.seqs.size() == 3);
+        assertThat(sink.seqs).containsExactly(2L, 3L, 4L);
+    }
+    
+    @Test
+    void idleSubscriber_ReceivesHeartbeats() {
+        stream = start(16, Duration.ofMillis(50));
+        RecordingSink sink = new RecordingSink(null);
+        stream.subscribe(null, sink);
+        
+        await().atMost(Duration.ofSeconds(5)).until(() -> sink.heartbeats.get() >= 2);
+        assertThat(sink.seqs).isEmpty();
+    }
+    
+    private BankChangeStream start(int bufferSize, Duration heartbeatInterval) {
+        BankChangeStream started = new BankChangeStream(feed, notifier, bankWebMapper, objectMapper, meterRegistry,
+                bufferSize, 500, Duration.ofSeconds(1), heartbeatInterval);
+        started.start();
+        return started;
+    }
+    
+    private static BankChange change(long seq, String swiftCode) {
+        Bank bank = Bank.builder()
+                .id(seq)
+                .swiftCode(swiftCode)
+                .name("Bank " + swiftCode)
+                .countryCode("ES")
+                .version(0L)
+                .changeSeq(seq)
+                .createdAt(LocalDateTime.now())
+                .build();
+        return BankChange.upserted(bank);
+    }
+    
+    /**
+     * Change feed over an in-memory list of changes, each commit waking the stream like a real write
+     */
+    private final class FakeChangeFeed implements BankChangeFeedPort {
+        
+        private final ConcurrentSkipListMap<Long, BankChange> changes = new ConcurrentSkipListMap<>();
+        
+        void commit(BankChange change) {
+            changes.put(change.seq(), change);
+            notifier.written();
+        }
+        
+        @Override
+        public BankChangePage getChanges(long since, int limit) {
+            List<BankChange> page = changes.tailMap(since, false).values().stream().limit(limit + 1L).toList();
+            boolean hasMore = page.size() > limit;
+            List<BankChange> returned = hasMore ? page.subList(0, limit) : page;
+            return new BankChangePage(returned, returned.isEmpty() ? since : returned.getLast().seq(), hasMore);
+        }
+        
+        @Override
+        public long latestSeq() {
+            return changes.isEmpty() ? 0 : changes.lastKey();
+        }
+    }
+    
+    private static class RecordingSink implements ChangeStreamSink {
+        
+        final List<Long> seqs = new CopyOnWriteArrayList<>();
+        final List<String> data = new CopyOnWriteArrayList<>();
+        final AtomicInteger heartbeats = new AtomicInteger();
+        final CountDownLatch received;
+        volatile boolean closed;
+        
+        RecordingSink(CountDownLatch received) {
+            this.received = received;
+        }
+        
+        @Override
+        public void send(ChangeStreamEvent event) throws IOException {
+            seqs.add(event.seq());
+            data.add(event.data());
+            if (received != null) {
+                received.countDown();
+            }
+        }
+        
+        @Override
+        public void heartbeat() {
+            heartbeats.incrementAndGet();
+        }
+        
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+}
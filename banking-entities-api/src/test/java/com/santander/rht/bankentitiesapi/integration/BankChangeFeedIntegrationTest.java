@@ -0,0 +1,136 @@
+package com.santander.rht.bankentitiesapi.integration;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.santander.rht.bankentitiesapi.application.service.BankChangeFeedService;
+import com.santander.rht.bankentitiesapi.domain.model.Bank;
+import com.santander.rht.bankentitiesapi.domain.port.in.BankServicePort;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(webEnvironment = WebEnvironment.MOCK,
+                properties = {"spring.main.web-application-type=servlet",
+                              "spring.datasource.url=jdbc:h2:mem:bank-change-feed-test;DB_CLOSE_DELAY=-1",
+                              "app.change-feed.tombstone-retention=0s",
+                              "app.change-feed.compaction-interval=0s"})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class BankChangeFeedIntegrationTest {
+    
+    @Autowired
+    private MockMvc mockMvc;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Autowired
+    private BankServicePort bankServicePort;
+    
+    @Autowired
+    private BankChangeFeedService bankChangeFeedService;
+    
+    @Test
+    void changes_ListUpsertsAndTombstonesInOrder_UntilCompacted() throws Exception {
+        long start = changes(0, 1000).get("next").asLong();
+        Bank santander = bankServicePort.createBank(bank("FEEDESMMXXX"));
+        Bank bbva = bankServicePort.createBank(bank("FEEDESBBXXX"));
+        Bank updated = bankServicePort.updateBank(santander.getId(),
+                bank("FEEDESMMXXX").toBuilder().city("Santander").build(), null);
+        bankServicePort.deleteBank(bbva.getId(), null);
+        
+        // Each bank is listed once, under its latest change; numbers drawn by heartbeats leave gaps between them
+        JsonNode first = changes(start, 1);
+        assertThat(first.get("hasMore").asBoolean()).isTrue();
+        assertThat(first.get("next").asLong()).isEqualTo(updated.getChangeSeq());
+        assertThat(first.get("changes")).singleElement()
+                .satisfies(change -> {
+                    assertThat(change.get("type").asText()).isEqualTo("UPSERTED");
+                    assertThat(change.get("bank").get("city").asText()).isEqualTo("Santander");
+                });
+        
+        mockMvc.perform(get("/api/v1/banks/changes").param("since", first.get("next").asText()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.hasMore").value(false))
+                .andExpect(jsonPath("$.changes.length()").value(1))
+                .andExpect(jsonPath("$.changes[0].type").value("DELETED"))
+                .andExpect(jsonPath("$.changes[0].bankId").value(bbva.getId()))
+                .andExpect(jsonPath("$.changes[0].swiftCode").value("FEEDESBBXXX"))
+                .andExpect(jsonPath("$.changes[0].bank").doesNotExist());
+        
+        // The deleted bank's SWIFT code is free again, under a new ID
+        Bank recreated = bankServicePort.createBank(bank("FEEDESBBXXX"));
+        assertThat(recreated.getId()).isNotEqualTo(bbva.getId());
+        
+        // Once its tombstone is compacted away, cursors from before the delete must sync again from 0
+        assertThat(bankChangeFeedService.compactTombstones()).isEqualTo(1);
+        mockMvc.perform(get("/api/v1/banks/changes").param("since", String.valueOf(start + 1)))
+                .andExpect(status().isGone())
+                .andExpect(jsonPath("$.error").value("CHANGE_CURSOR_EXPIRED"));
+        mockMvc.perform(get("/api/v1/banks/changes").param("since", "0").param("limit", "1000"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.changes[?(@.type == 'DELETED')]").isEmpty());
+    }
+    
+    @Test
+    void changes_WithNegativeCursor_ReturnsBadRequest() throws Exception {
+        mockMvc.perform(get("/api/v1/banks/changes").param("since", "-1"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/v1/banks/changes/stream").header("Last-Event-ID", "-1")
+                        .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("INVALID_BANK_DATA"));
+    }
+    
+    @Test
+    void stream_PushesCommittedChanges_ResumingAfterLastEventId() throws Exception {
+        Bank missed = bankServicePort.createBank(bank("STRMESMMXXX"));
+        MvcResult stream = mockMvc.perform(get("/api/v1/banks/changes/stream")
+                        .header("Last-Event-ID", missed.getChangeSeq() - 1))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        
+        Bank pushed = bankServicePort.createBank(bank("STRMESBBXXX"));
+        bankServicePort.deleteBank(pushed.getId(), null);
+        
+        await().atMost(Duration.ofSeconds(5))
+                .until(() -> stream.getResponse().getContentAsString().contains("event:DELETED"));
+        String events = stream.getResponse().getContentAsString();
+        assertThat(stream.getResponse().getContentType()).startsWith(MediaType.TEXT_EVENT_STREAM_VALUE);
+        assertThat(events)
+                .contains("id:" + missed.getChangeSeq() + "\nevent:UPSERTED\ndata:{")
+                .contains("id:" + (pushed.getChangeSeq() + 1) + "\nevent:DELETED\ndata:{");
+        assertThat(events.indexOf("STRMESMMXXX")).isLessThan(events.indexOf("STRMESBBXXX"));
+    }
+    
+    private JsonNode changes(long since, int limit) throws Exception {
+        String body = mockMvc.perform(get("/api/v1/banks/changes")
+                        .param("since", String.valueOf(since))
+                        .param("limit", String.valueOf(limit)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body);
+    }
+    
+    private static Bank bank(String swiftCode) {
+        return Bank.builder()
+                .swiftCode(swiftCode)
+                .name("Feed Bank")
+                .city("Madrid")
+                .countryCode("ES")
+                .build();
+    }
+}
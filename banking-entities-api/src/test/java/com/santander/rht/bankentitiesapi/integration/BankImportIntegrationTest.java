@@ -0,0 +1,128 @@
+package com.santander.rht.bankentitiesapi.integration;
+
+import com.santander.rht.bankentitiesapi.domain.model.Bank;
+import com.santander.rht.bankentitiesapi.domain.model.BankImportJob;
+import com.santander.rht.bankentitiesapi.domain.model.ImportStatus;
+import com.santander.rht.bankentitiesapi.domain.port.in.BankImportPort;
+import com.santander.rht.bankentitiesapi.domain.port.in.BankServicePort;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(webEnvironment = WebEnvironment.MOCK,
+                properties = {"spring.main.web-application-type=servlet",
+                              "spring.datasource.url=jdbc:h2:mem:import-test;DB_CLOSE_DELAY=-1",
+                              "app.import.batch-size=4"})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class BankImportIntegrationTest {
+    
+    @Autowired
+    private MockMvc mockMvc;
+    
+    @Autowired
+    private BankImportPort bankImportPort;
+    
+    @Autowired
+    private BankServicePort bankServicePort;
+    
+    @Test
+    void csvImport_UpsertsBatchesAndReportsRejectedRows() throws Exception {
+        bankServicePort.createBank(Bank.builder().swiftCode("IMPSESMMXXX").name("Old Name").build());
+        StringBuilder csv = new StringBuilder("swiftCode,name,city,countryCode,bankType\n");
+        for (int i = 0; i < 10; i++) {
+            csv.append("IMP").append((char) ('A' + i)).append("ESMMXXX,Import Bank ").append(i).append(",Madrid,ES,COMMERCIAL\n");
+        }
+        csv.append("IMPSESMMXXX,New Name,Madrid,ES,COMMERCIAL\n");
+        csv.append("NOPE,Bad Swift,Madrid,ES,COMMERCIAL\n");
+        csv.append("IMPTESMMXXX,Bad Type,Madrid,ES,PAWNSHOP\n");
+        
+        BankImportJob job = runImport("text/csv", csv.toString());
+        
+        assertThat(job.getStatus()).isEqualTo(ImportStatus.COMPLETED);
+        assertThat(job.getRowsRead()).isEqualTo(13);
+        assertThat(job.getRowsWritten()).isEqualTo(11);
+        assertThat(job.getRowsRejected()).isEqualTo(2);
+        assertThat(bankServicePort.getBankBySwiftCode("IMPSESMMXXX").orElseThrow().getName()).isEqualTo("New Name");
+        assertThat(bankServicePort.getBankBySwiftCode("IMPSESMMXXX").orElseThrow().getVersion()).isEqualTo(1L);
+        
+        mockMvc.perform(get("/api/v1/banks/import/" + job.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("COMPLETED"))
+                .andExpect(jsonPath("$.rowsWritten").value(11));
+        
+        MvcResult errors = mockMvc.perform(get("/api/v1/banks/import/" + job.getId() + "/errors"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String errorLines = mockMvc.perform(asyncDispatch(errors))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        assertThat(errorLines.lines()).hasSize(2);
+        assertThat(errorLines.lines().findFirst().orElseThrow()).contains("\"line\":13", "NOPE");
+        assertThat(errorLines).contains("\"line\":14", "PAWNSHOP");
+    }
+    
+    @Test
+    void ndjsonImport_OfUnchangedBanks_WritesNothing() throws Exception {
+        String ndjson = """
+                {"swiftCode": "NDJAESMMXXX", "name": "Ndjson Bank A", "countryCode": "ES"}
+                {"swiftCode": "NDJBESMMXXX", "name": "Ndjson Bank B", "bankType": "SAVINGS"}
+                {"swiftCode": "ndjc", "name": "Lowercase Bank"}
+                {"swiftCode": "NDJDESMMXXX", "name": "Ndjson Bank D", "active": false}
+                """;
+        
+        BankImportJob first = runImport(MediaType.APPLICATION_NDJSON_VALUE, ndjson);
+        BankImportJob second = runImport(MediaType.APPLICATION_NDJSON_VALUE, ndjson);
+        
+        assertThat(first.getRowsWritten()).isEqualTo(3);
+        assertThat(first.getRowsRejected()).isEqualTo(1);
+        assertThat(second.getRowsWritten()).isZero();
+        assertThat(second.getRowsUnchanged()).isEqualTo(3);
+        assertThat(bankServicePort.getBankBySwiftCode("NDJDESMMXXX").orElseThrow().getActive()).isFalse();
+    }
+    
+    @Test
+    void malformedJson_FailsTheJobAfterKeepingEarlierRows() throws Exception {
+        BankImportJob job = runImport(MediaType.APPLICATION_JSON_VALUE,
+                "[{\"swiftCode\": \"MALFESMMXXX\", \"name\": \"Before The Break\"}, {\"swiftCode\": ");
+        
+        assertThat(job.getStatus()).isEqualTo(ImportStatus.FAILED);
+        assertThat(job.getFailure()).contains("Malformed JSON");
+        assertThat(job.getRowsWritten()).isEqualTo(1);
+        assertThat(bankServicePort.getBankBySwiftCode("MALFESMMXXX").orElseThrow().getName()).isEqualTo("Before The Break");
+    }
+    
+    private BankImportJob runImport(String contentType, String body) throws Exception {
+        MvcResult started = mockMvc.perform(post("/api/v1/banks/import")
+                        .contentType(contentType)
+                        .content(body))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String location = started.getResponse().getHeader("Location");
+        assertThat(location).startsWith("/api/v1/banks/import/");
+        long id = Long.parseLong(location.substring(location.lastIndexOf('/') + 1));
+        
+        BankImportJob job = bankImportPort.findJob(id).orElseThrow();
+        job.getCompletion().get(30, TimeUnit.SECONDS);
+        String progress = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isAccepted())
+                .andReturn().getResponse().getContentAsString();
+        assertThat(progress.lines()).hasSize(2);
+        assertThat(progress.lines().reduce((a, b) -> b).orElseThrow()).contains("\"status\":\"" + job.getStatus() + "\"");
+        return job;
+    }
+}
@@ -34,7 +34,7 @@ class BankIntegrationTest {
     void createBank_ValidRequest_Success() throws Exception {
         // Given
         CreateBankRequest request = CreateBankRequest.builder()
-                .swiftCode("TESTBNK1")
+                .swiftCode("TESTTCB1")
                 .name("Test Bank")
                 .address("Test Address")
                 .city("Test City")
@@ -52,7 +52,7 @@ class BankIntegrationTest {
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(request)))
                 .andExpect(status().isCreated())
-                .andExpect(jsonPath("$.swiftCode").value("TESTBNK1"))
+                .andExpect(jsonPath("$.swiftCode").value("TESTTCB1"))
                 .andExpect(jsonPath("$.name").value("Test Bank"))
                 .andExpect(jsonPath("$.id").exists());
     }
@@ -61,12 +61,12 @@ class BankIntegrationTest {
     void createBank_DuplicateSwiftCode_ReturnsConflict() throws Exception {
         // Given
         CreateBankRequest request1 = CreateBankRequest.builder()
-                .swiftCode("DUPLICAT")
+                .swiftCode("DUPLESM1")
                 .name("Bank One")
                 .build();
 
         CreateBankRequest request2 = CreateBankRequest.builder()
-                .swiftCode("DUPLICAT")
+                .swiftCode("DUPLESM1")
                 .name("Bank Two")
                 .build();
 
@@ -121,7 +121,7 @@ class BankIntegrationTest {
     void updateBank_ExistingBank_Success() throws Exception {
         // Given - Create a bank first
         CreateBankRequest createRequest = CreateBankRequest.builder()
-                .swiftCode("UPDATEST")
+                .swiftCode("UPDTESM1")
                 .name("Original Bank Name")
                 .build();
         
@@ -137,7 +137,7 @@ class BankIntegrationTest {
         Long bankId = objectMapper.readTree(createResponse).get("id").asLong();
         
         UpdateBankRequest updateRequest = UpdateBankRequest.builder()
-                .swiftCode("UPDATEST")
+                .swiftCode("UPDTESM1")
                 .name("Updated Bank Name")
                 .address("Updated Address")
                 .build();
@@ -155,7 +155,7 @@ class BankIntegrationTest {
     void deleteBank_ExistingBank_Success() throws Exception {
         // Given - Create a bank first
         CreateBankRequest createRequest = CreateBankRequest.builder()
-                .swiftCode("DELETEST")
+                .swiftCode("DELTESM1")
                 .name("Bank to Delete")
                 .build();
         
@@ -183,12 +183,12 @@ class BankIntegrationTest {
     void getAllBanks_ReturnsAllBanks() throws Exception {
         // Given - Create multiple banks
         CreateBankRequest request1 = CreateBankRequest.builder()
-                .swiftCode("GETALL01")
+                .swiftCode("GETAESM1")
                 .name("Bank One")
                 .build();
         
         CreateBankRequest request2 = CreateBankRequest.builder()
-                .swiftCode("GETALL02")
+                .swiftCode("GETAESM2")
                 .name("Bank Two")
                 .build();
         
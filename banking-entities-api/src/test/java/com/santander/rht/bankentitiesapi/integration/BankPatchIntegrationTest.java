@@ -0,0 +1,110 @@
+package com.santander.rht.bankentitiesapi.integration;
+
+import com.santander.rht.bankentitiesapi.domain.model.Bank;
+import com.santander.rht.bankentitiesapi.domain.port.in.BankServicePort;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.nullValue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(webEnvironment = WebEnvironment.MOCK,
+                properties = {"spring.main.web-application-type=servlet",
+                              "spring.datasource.url=jdbc:h2:mem:bank-patch-test;DB_CLOSE_DELAY=-1",
+                              "spring.jpa.properties.hibernate.generate_statistics=true",
+                              "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN"})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class BankPatchIntegrationTest {
+    
+    private static final String MERGE_PATCH = "application/merge-patch+json";
+    
+    @Autowired
+    private MockMvc mockMvc;
+    
+    @Autowired
+    private BankServicePort bankServicePort;
+    
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    
+    @Test
+    void patch_WritesOnlySuppliedFields() throws Exception {
+        Bank bank = bankServicePort.createBank(bank("PTCHESMMXXX"));
+        
+        mockMvc.perform(patch("/api/v1/banks/" + bank.getId())
+                        .contentType(MERGE_PATCH)
+                        .content("{\"phoneNumber\": \"+34910000000\", \"address\": null}"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"1\""))
+                .andExpect(jsonPath("$.phoneNumber").value("+34910000000"))
+                .andExpect(jsonPath("$.address").value(nullValue()))
+                .andExpect(jsonPath("$.name").value("Patch Bank"))
+                .andExpect(jsonPath("$.city").value("Madrid"));
+    }
+    
+    @Test
+    void patch_WithUnchangedValues_SkipsTheWrite() throws Exception {
+        Bank bank = bankServicePort.createBank(bank("SAMEESMMXXX"));
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        
+        mockMvc.perform(patch("/api/v1/banks/" + bank.getId())
+                        .contentType(MERGE_PATCH)
+                        .content("{\"city\": \"Madrid\", \"active\": true}"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"0\""));
+        
+        assertThat(statistics.getEntityUpdateCount()).isZero();
+        assertThat(bankServicePort.getBankById(bank.getId())).get().extracting(Bank::getVersion).isEqualTo(0L);
+    }
+    
+    @Test
+    void patch_WithStaleIfMatch_ReturnsConflict() throws Exception {
+        Bank bank = bankServicePort.createBank(bank("STALESMMXXX"));
+        
+        mockMvc.perform(patch("/api/v1/banks/" + bank.getId())
+                        .header("If-Match", "\"7\"")
+                        .contentType(MERGE_PATCH)
+                        .content("{\"active\": false}"))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.error").value("VERSION_CONFLICT"));
+    }
+    
+    @Test
+    void patch_RejectsInvalidDocuments() throws Exception {
+        Bank bank = bankServicePort.createBank(bank("BADPESMMXXX"));
+        String path = "/api/v1/banks/" + bank.getId();
+        
+        mockMvc.perform(patch(path).contentType(MERGE_PATCH).content("{\"name\": null}"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(patch(path).contentType(MERGE_PATCH).content("{\"id\": 42}"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(patch(path).contentType(MERGE_PATCH).content("{\"email\": \"not-an-email\"}"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(patch(path).contentType(MERGE_PATCH).content("{\"active\": \"yes\"}"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(patch("/api/v1/banks/999999").contentType(MERGE_PATCH).content("{\"active\": false}"))
+                .andExpect(status().isNotFound());
+    }
+    
+    private static Bank bank(String swiftCode) {
+        return Bank.builder()
+                .swiftCode(swiftCode)
+                .name("Patch Bank")
+                .address("Calle Mayor 1")
+                .city("Madrid")
+                .countryCode("ES")
+                .build();
+    }
+}
@@ -0,0 +1,87 @@
+package com.santander.rht.bankentitiesapi.integration;
+
+import com.santander.rht.bankentitiesapi.domain.model.Bank;
+import com.santander.rht.bankentitiesapi.domain.port.out.BankRepositoryPort;
+import com.santander.rht.bankentitiesapi.infrastructure.persistence.directory.BicDirectoryLoader;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {"spring.datasource.url=jdbc:h2:mem:directory-test;DB_CLOSE_DELAY=-1",
+                              "app.directory.batch-size=7",
+                              "app.directory.parallelism=2"})
+@ActiveProfiles("test")
+class BicDirectoryLoaderIntegrationTest {
+    
+    @TempDir
+    static Path directory;
+    
+    @DynamicPropertySource
+    static void directoryProperties(DynamicPropertyRegistry registry) {
+        registry.add("app.directory.file", () -> {
+            Path file = directory.resolve("directory.csv");
+            write(file, "Banco Santander");
+            return file.toUri().toString();
+        });
+    }
+    
+    @Autowired
+    private BicDirectoryLoader loader;
+    
+    @Autowired
+    private BankRepositoryPort bankRepositoryPort;
+    
+    @Test
+    void load_RunsAfterStartupAndReloadsOnlyChangedBanks() throws Exception {
+        BicDirectoryLoader.LoadResult result = loader.completion().get(30, TimeUnit.SECONDS);
+        
+        assertThat(result.rows()).isEqualTo(25);
+        assertThat(result.rejected()).isEqualTo(1);
+        assertThat(result.failed()).isZero();
+        assertThat(bankRepositoryPort.count()).isEqualTo(25);
+        assertThat(bankRepositoryPort.findBySwiftCode("SANDESMMXXX")).get()
+                .satisfies(bank -> {
+                    assertThat(bank.getName()).isEqualTo("Banco Santander");
+                    assertThat(bank.getVersion()).isZero();
+                    assertThat(bank.getActive()).isTrue();
+                });
+        
+        write(directory.resolve("directory.csv"), "Banco Santander S.A.");
+        loader.load();
+        
+        assertThat(bankRepositoryPort.count()).isEqualTo(25);
+        assertThat(bankRepositoryPort.findBySwiftCode("SANDESMMXXX")).get()
+                .satisfies(bank -> {
+                    assertThat(bank.getName()).isEqualTo("Banco Santander S.A.");
+                    assertThat(bank.getVersion()).isEqualTo(1L);
+                });
+        assertThat(bankRepositoryPort.findBySwiftCode("LDRBESMMXXX")).get()
+                .extracting(Bank::getVersion).isEqualTo(0L);
+    }
+    
+    private static void write(Path file, String santanderName) {
+        StringBuilder content = new StringBuilder("swiftCode,name,city,countryCode,bankType\n");
+        content.append("SANDESMMXXX,").append(santanderName).append(",Madrid,ES,COMMERCIAL\n");
+        for (int i = 0; i < 24; i++) {
+            content.append("LDR").append((char) ('B' + i)).append("ESMMXXX,Loader Bank ").append(i).append(",Madrid,ES,SAVINGS\n");
+        }
+        content.append("INVALID,Rejected Bank,,,\n");
+        try {
+            Files.writeString(file, content);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
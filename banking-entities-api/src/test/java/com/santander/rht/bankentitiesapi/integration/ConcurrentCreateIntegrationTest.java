@@ -0,0 +1,93 @@
+package com.santander.rht.bankentitiesapi.integration;
+
+import com.santander.rht.bankentitiesapi.domain.exception.DuplicateBankException;
+import com.santander.rht.bankentitiesapi.domain.model.Bank;
+import com.santander.rht.bankentitiesapi.domain.port.in.BankServicePort;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = {"spring.datasource.url=jdbc:h2:mem:concurrent-create-test;DB_CLOSE_DELAY=-1",
+                              "spring.jpa.properties.hibernate.generate_statistics=true",
+                              "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN"})
+@ActiveProfiles("test")
+class ConcurrentCreateIntegrationTest {
+    
+    private static final int THREADS = 16;
+    
+    @Autowired
+    private BankServicePort bankServicePort;
+    
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    
+    @Test
+    void concurrentCreates_WithSameSwiftCode_HaveExactlyOneWinner() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Bank>> futures = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            int attempt = i;
+            futures.add(executor.submit(() -> {
+                start.await();
+                return bankServicePort.createBank(bank("RACEESMMXXX", "Race Bank " + attempt));
+            }));
+        }
+        start.countDown();
+        
+        int created = 0;
+        int duplicates = 0;
+        for (Future<Bank> future : futures) {
+            try {
+                future.get();
+                created++;
+            } catch (ExecutionException e) {
+                assertThat(e.getCause()).isInstanceOf(DuplicateBankException.class);
+                duplicates++;
+            }
+        }
+        executor.shutdown();
+        
+        assertThat(created).isEqualTo(1);
+        assertThat(duplicates).isEqualTo(THREADS - 1);
+        assertThat(bankServicePort.getBankBySwiftCode("RACEESMMXXX")).isPresent();
+    }
+    
+    @Test
+    void create_IssuesASingleStatement() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        bankServicePort.createBank(bank("ONCEESMMXXX", "Single Insert Bank"));
+        
+        statistics.clear();
+        bankServicePort.createBank(bank("TWICESMMXXX", "Second Insert Bank"));
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        
+        statistics.clear();
+        assertThatThrownBy(() -> bankServicePort.createBank(bank("ONCEESMMXXX", "Duplicate Bank")))
+                .isInstanceOf(DuplicateBankException.class);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+    
+    private static Bank bank(String swiftCode, String name) {
+        return Bank.builder()
+                .swiftCode(swiftCode)
+                .name(name)
+                .countryCode("ES")
+                .build();
+    }
+}
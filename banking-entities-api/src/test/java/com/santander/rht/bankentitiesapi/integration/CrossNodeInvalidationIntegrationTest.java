@@ -0,0 +1,220 @@
+package com.santander.rht.bankentitiesapi.integration;
+
+import com.santander.rht.bankentitiesapi.BankEntitiesApiApplication;
+import com.santander.rht.bankentitiesapi.domain.model.Bank;
+import com.santander.rht.bankentitiesapi.domain.model.BankChange;
+import com.santander.rht.bankentitiesapi.domain.model.BankImportJob;
+import com.santander.rht.bankentitiesapi.domain.model.BankImportRow;
+import com.santander.rht.bankentitiesapi.domain.model.BankType;
+import com.santander.rht.bankentitiesapi.domain.port.in.BankImportPort;
+import com.santander.rht.bankentitiesapi.domain.port.in.BankServicePort;
+import com.santander.rht.bankentitiesapi.domain.port.out.BankRepositoryPort;
+import com.santander.rht.bankentitiesapi.infrastructure.http.cache.SelfCallResponseCache;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+/**
+ * Runs two instances of the application against one database and measures how long a write on one
+ * takes to invalidate the cache of the other, and checks that the change feed orders both their writes
+ */
+class CrossNodeInvalidationIntegrationTest {
+    
+    @Test
+    void writeOnOneNode_InvalidatesTheOtherNodesCache_WithinThePollInterval() {
+        try (ConfigurableApplicationContext nodeA = node("table", true, "app.invalidation.poll-interval=100ms");
+             ConfigurableApplicationContext nodeB = node("table", false, "app.invalidation.poll-interval=100ms")) {
+            Duration delay = measurePropagation(nodeA, nodeB, "INVTESMMXXX");
+            
+            System.out.printf("Invalidation propagated through the table in %d ms%n", delay.toMillis());
+            assertThat(delay).isLessThan(Duration.ofSeconds(2));
+        }
+    }
+    
+    @Test
+    void multicast_InvalidatesTheOtherNodesCache_WithoutWaitingForThePoll() {
+        String[] properties = {"app.invalidation.poll-interval=1h",
+                               "app.invalidation.multicast.enabled=true",
+                               "app.invalidation.multicast.port=45679"};
+        try (ConfigurableApplicationContext nodeA = node("multicast", true, properties);
+             ConfigurableApplicationContext nodeB = node("multicast", false, properties)) {
+            Duration delay = measurePropagation(nodeA, nodeB, "INVMESMMXXX");
+            
+            System.out.printf("Invalidation propagated by multicast in %d ms%n", delay.toMillis());
+            assertThat(delay).isLessThan(Duration.ofSeconds(1));
+        }
+    }
+    
+    @Test
+    void importOnOneNode_InvalidatesEveryBankCacheOfTheOtherNode() throws Exception {
+        try (ConfigurableApplicationContext writer = node("import", true, "app.invalidation.poll-interval=100ms");
+             ConfigurableApplicationContext reader = node("import", false, "app.invalidation.poll-interval=100ms")) {
+            BankServicePort readerBanks = reader.getBean(BankServicePort.class);
+            SelfCallResponseCache readerCache = reader.getBean(SelfCallResponseCache.class);
+            Bank bank = readerBanks.createBank(bank("IMPTESMMXXX", "Bank before import"));
+            String key = "id:" + bank.getId();
+            readerCache.put(key, bank, "\"1\"", "max-age=3600");
+            // Cached in the entity, natural-ID and list caches of the reader
+            assertThat(readerBanks.getBankById(bank.getId())).get().extracting(Bank::getName).isEqualTo("Bank before import");
+            assertThat(readerBanks.getBankBySwiftCode("IMPTESMMXXX")).get().extracting(Bank::getName).isEqualTo("Bank before import");
+            assertThat(readerBanks.getBanksByCountryCode("ES")).extracting(Bank::getName).containsExactly("Bank before import");
+            
+            BankImportJob job = writer.getBean(BankImportPort.class).startImport("csv",
+                    List.of(BankImportRow.of(1, bank("IMPTESMMXXX", "Bank after import"))).iterator());
+            assertThat(job.getCompletion().get(10, TimeUnit.SECONDS).getRowsWritten()).isEqualTo(1);
+            
+            await().atMost(Duration.ofSeconds(10)).untilAsserted(() -> {
+                assertThat(readerCache.get(key)).isEmpty();
+                assertThat(readerBanks.getBankById(bank.getId())).get().extracting(Bank::getName).isEqualTo("Bank after import");
+                assertThat(readerBanks.getBankBySwiftCode("IMPTESMMXXX")).get().extracting(Bank::getName).isEqualTo("Bank after import");
+                assertThat(readerBanks.getBanksByCountryCode("ES")).extracting(Bank::getName).containsExactly("Bank after import");
+            });
+        }
+    }
+    
+    @Test
+    void concurrentWritesOnBothNodes_GetUniqueSequenceNumbers_AndReachAFeedReaderExactlyOnce() throws Exception {
+        try (ConfigurableApplicationContext nodeA = node("feed", true);
+             ConfigurableApplicationContext nodeB = node("feed", false)) {
+            List<ConfigurableApplicationContext> nodes = List.of(nodeA, nodeB);
+            ExecutorService writers = Executors.newFixedThreadPool(8);
+            List<Future<Bank>> created = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                BankServicePort banks = nodes.get(i % 2).getBean(BankServicePort.class);
+                String swiftCode = "S%03dESMMXXX".formatted(i);
+                created.add(writers.submit(() -> banks.createBank(bank(swiftCode, "Bank " + swiftCode))));
+            }
+            // Follows the feed of node B while both nodes write, as a replica would
+            BankRepositoryPort feed = nodeB.getBean(BankRepositoryPort.class);
+            List<BankChange> seen = new ArrayList<>();
+            AtomicLong since = new AtomicLong();
+            Set<Long> ids = new HashSet<>();
+            for (Future<Bank> bank : created) {
+                ids.add(bank.get(10, TimeUnit.SECONDS).getId());
+                follow(feed, since, seen);
+            }
+            writers.shutdown();
+            // Node A's last writes reach node B's readers with its next heartbeat
+            await().atMost(Duration.ofSeconds(10)).untilAsserted(() -> {
+                follow(feed, since, seen);
+                assertThat(seen).extracting(BankChange::bankId).containsAll(ids);
+            });
+            
+            assertThat(created).extracting(bank -> bank.get().getChangeSeq()).doesNotHaveDuplicates();
+            assertThat(seen).extracting(BankChange::seq).isSorted().doesNotHaveDuplicates();
+            assertThat(seen).extracting(BankChange::bankId).containsExactlyInAnyOrderElementsOf(ids);
+            assertThat(nodeA.getBean(BankRepositoryPort.class).latestChangeSeq()).isGreaterThanOrEqualTo(since.get());
+        }
+    }
+    
+    @Test
+    void writeInFlightOnOneNode_HoldsBackTheFeedOfTheOther_UntilItCommits() throws Exception {
+        try (ConfigurableApplicationContext nodeA = node("in-flight", true);
+             ConfigurableApplicationContext nodeB = node("in-flight", false)) {
+            BankRepositoryPort feedB = nodeB.getBean(BankRepositoryPort.class);
+            long start = feedB.latestChangeSeq();
+            CountDownLatch written = new CountDownLatch(1);
+            CountDownLatch commit = new CountDownLatch(1);
+            TransactionTemplate transactionA = new TransactionTemplate(nodeA.getBean(PlatformTransactionManager.class));
+            ExecutorService writer = Executors.newSingleThreadExecutor();
+            Future<Bank> slow = writer.submit(() -> transactionA.execute(status -> {
+                Bank bank = nodeA.getBean(BankServicePort.class).createBank(bank("SLOWESMMXXX", "Slow bank"));
+                written.countDown();
+                try {
+                    commit.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return bank;
+            }));
+            assertThat(written.await(10, TimeUnit.SECONDS)).isTrue();
+            Bank fast = nodeB.getBean(BankServicePort.class).createBank(bank("FASTESMMXXX", "Fast bank"));
+            
+            // Once node A has published its watermark, node B must not read past the write still open on A
+            Thread.sleep(500);
+            assertThat(feedB.latestChangeSeq()).isLessThan(fast.getChangeSeq());
+            assertThat(feedB.findChangesSince(start, 50)).extracting(BankChange::bankId).doesNotContain(fast.getId());
+            
+            commit.countDown();
+            long slowId = slow.get(10, TimeUnit.SECONDS).getId();
+            writer.shutdown();
+            await().atMost(Duration.ofSeconds(10)).untilAsserted(() -> assertThat(feedB.findChangesSince(start, 50))
+                    .extracting(BankChange::bankId).containsExactly(slowId, fast.getId()));
+        }
+    }
+    
+    /**
+     * Reads the feed from the cursor until it has nothing more, moving the cursor along
+     */
+    private static void follow(BankRepositoryPort feed, AtomicLong since, List<BankChange> seen) {
+        for (List<BankChange> page = feed.findChangesSince(since.get(), 50); !page.isEmpty();
+             page = feed.findChangesSince(since.get(), 50)) {
+            seen.addAll(page);
+            since.set(page.get(page.size() - 1).seq());
+        }
+    }
+    
+    /**
+     * Caches the bank on both nodes, updates it on the writer and waits for the reader to drop it.
+     * The bank is created on the reader, so the create's own invalidation cannot be mistaken for the update's.
+     */
+    private static Duration measurePropagation(ConfigurableApplicationContext writer,
+                                               ConfigurableApplicationContext reader, String swiftCode) {
+        BankServicePort bankServicePort = writer.getBean(BankServicePort.class);
+        SelfCallResponseCache writerCache = writer.getBean(SelfCallResponseCache.class);
+        SelfCallResponseCache readerCache = reader.getBean(SelfCallResponseCache.class);
+        Bank bank = reader.getBean(BankServicePort.class).createBank(bank(swiftCode, "Bank " + swiftCode));
+        String key = "id:" + bank.getId();
+        writerCache.put(key, bank, "\"1\"", "max-age=3600");
+        readerCache.put(key, bank, "\"1\"", "max-age=3600");
+        
+        long writtenAt = System.nanoTime();
+        bankServicePort.updateBank(bank.getId(), bank.toBuilder().name("Renamed " + swiftCode).build(), null);
+        
+        assertThat(writerCache.get(key)).isEmpty();
+        await().atMost(Duration.ofSeconds(10)).pollInterval(Duration.ofMillis(1)).until(() -> readerCache.get(key).isEmpty());
+        return Duration.ofNanos(System.nanoTime() - writtenAt);
+    }
+    
+    private static Bank bank(String swiftCode, String name) {
+        return Bank.builder()
+                .swiftCode(swiftCode)
+                .name(name)
+                .countryCode("ES")
+                .bankType(BankType.COMMERCIAL)
+                .build();
+    }
+    
+    /**
+     * Starts an instance on a random port against a shared in-memory database, created by the first one
+     */
+    private static ConfigurableApplicationContext node(String database, boolean createsSchema, String... properties) {
+        Stream<String> shared = Stream.of("server.port=0",
+                "spring.datasource.url=jdbc:h2:mem:invalidation-" + database + ";DB_CLOSE_DELAY=-1",
+                "spring.jpa.hibernate.ddl-auto=" + (createsSchema ? "create" : "none"),
+                "spring.jpa.show-sql=false",
+                "app.directory.file=",
+                "app.warmup.enabled=false");
+        // Passed as arguments, which take precedence over application.properties
+        return new SpringApplicationBuilder(BankEntitiesApiApplication.class)
+                .run(Stream.concat(shared, Stream.of(properties)).map(property -> "--" + property).toArray(String[]::new));
+    }
+}
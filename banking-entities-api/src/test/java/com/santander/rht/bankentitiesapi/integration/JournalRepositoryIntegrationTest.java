@@ -0,0 +1,72 @@
+package com.santander.rht.bankentitiesapi.integration;
+
+import com.santander.rht.bankentitiesapi.domain.port.out.BankRepositoryPort;
+import com.santander.rht.bankentitiesapi.infrastructure.persistence.journal.JournalBankRepositoryAdapter;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(webEnvironment = WebEnvironment.MOCK,
+                properties = {"spring.main.web-application-type=servlet",
+                              "spring.datasource.url=jdbc:h2:mem:journal-test;DB_CLOSE_DELAY=-1",
+                              "app.repository.type=journal"})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class JournalRepositoryIntegrationTest {
+    
+    @TempDir
+    static Path journalDirectory;
+    
+    @DynamicPropertySource
+    static void journalProperties(DynamicPropertyRegistry registry) {
+        registry.add("app.journal.directory", journalDirectory::toString);
+    }
+    
+    @Autowired
+    private MockMvc mockMvc;
+    
+    @Autowired
+    private BankRepositoryPort bankRepositoryPort;
+    
+    @Test
+    void api_ReadsAndWritesThroughTheJournal() throws Exception {
+        assertThat(bankRepositoryPort).isInstanceOf(JournalBankRepositoryAdapter.class);
+        
+        mockMvc.perform(post("/api/v1/banks")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"swiftCode\": \"JRNLESMMXXX\", \"name\": \"Journal Bank\"}"))
+                .andExpect(status().isCreated());
+        mockMvc.perform(post("/api/v1/banks")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"swiftCode\": \"JRNLESMMXXX\", \"name\": \"Journal Bank\"}"))
+                .andExpect(status().isConflict());
+        
+        Long id = bankRepositoryPort.findBySwiftCode("JRNLESMMXXX").orElseThrow().getId();
+        mockMvc.perform(patch("/api/v1/banks/" + id)
+                        .header("If-Match", "\"0\"")
+                        .contentType("application/merge-patch+json")
+                        .content("{\"city\": \"Madrid\"}"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"1\""));
+        
+        mockMvc.perform(get("/api/v1/banks/swift/JRNLESMMXXX"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.city").value("Madrid"));
+    }
+}
@@ -0,0 +1,121 @@
+package com.santander.rht.bankentitiesapi.integration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.santander.rht.bankentitiesapi.domain.model.Bank;
+import com.santander.rht.bankentitiesapi.domain.port.in.BankServicePort;
+import com.santander.rht.bankentitiesapi.infrastructure.web.dto.UpdateBankRequest;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(webEnvironment = WebEnvironment.MOCK,
+                properties = {"spring.main.web-application-type=servlet",
+                              "spring.datasource.url=jdbc:h2:mem:optimistic-locking-test;DB_CLOSE_DELAY=-1",
+                              "spring.jpa.properties.hibernate.generate_statistics=true",
+                              "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN"})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class OptimisticLockingIntegrationTest {
+    
+    @Autowired
+    private MockMvc mockMvc;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Autowired
+    private BankServicePort bankServicePort;
+    
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    
+    @Test
+    void conditionalUpdateAndDelete_UseVersionAsETag() throws Exception {
+        Bank bank = bankServicePort.createBank(bank("LOCKESMMXXX"));
+        String path = "/api/v1/banks/" + bank.getId();
+        
+        mockMvc.perform(get(path))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"0\""));
+        mockMvc.perform(get(path).header("If-None-Match", "\"0\""))
+                .andExpect(status().isNotModified());
+        
+        mockMvc.perform(put(path).header("If-Match", "\"0\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(update("LOCKESMMXXX", "Renamed Bank"))))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"1\""))
+                .andExpect(jsonPath("$.name").value("Renamed Bank"))
+                .andExpect(jsonPath("$.version").value(1))
+                .andExpect(jsonPath("$.createdAt").exists());
+        
+        mockMvc.perform(put(path).header("If-Match", "\"0\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(update("LOCKESMMXXX", "Lost Update"))))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.error").value("VERSION_CONFLICT"));
+        mockMvc.perform(delete(path).header("If-Match", "\"0\""))
+                .andExpect(status().isConflict());
+        
+        mockMvc.perform(delete(path).header("If-Match", "\"1\""))
+                .andExpect(status().isNoContent());
+        mockMvc.perform(delete(path).header("If-Match", "\"1\""))
+                .andExpect(status().isNotFound());
+    }
+    
+    @Test
+    void update_ToTakenSwiftCode_ReturnsConflict() throws Exception {
+        bankServicePort.createBank(bank("TAKNESMMXXX"));
+        Bank bank = bankServicePort.createBank(bank("FREEESMMXXX"));
+        
+        mockMvc.perform(put("/api/v1/banks/" + bank.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(update("TAKNESMMXXX", "Clash"))))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.error").value("DUPLICATE_BANK"));
+    }
+    
+    @Test
+    void updateAndDelete_IssueNoPreReads() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        Bank bank = bankServicePort.createBank(bank("STMTESMMXXX"));
+        
+        // One conditional UPDATE plus the read-back for the response
+        statistics.clear();
+        bankServicePort.updateBank(bank.getId(), bank("STMTESMMXXX"), 0L);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        
+        // One conditional DELETE
+        statistics.clear();
+        bankServicePort.deleteBank(bank.getId(), 1L);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+    
+    private static Bank bank(String swiftCode) {
+        return Bank.builder()
+                .swiftCode(swiftCode)
+                .name("Locking Bank")
+                .countryCode("ES")
+                .build();
+    }
+    
+    private static UpdateBankRequest update(String swiftCode, String name) {
+        return UpdateBankRequest.builder()
+                .swiftCode(swiftCode)
+                .name(name)
+                .countryCode("ES")
+                .build();
+    }
+}
@@ -0,0 +1,119 @@
+package com.santander.rht.bankentitiesapi.integration;
+
+import com.santander.rht.bankentitiesapi.BankEntitiesApiApplication;
+import com.santander.rht.bankentitiesapi.domain.model.Bank;
+import com.santander.rht.bankentitiesapi.domain.model.BankType;
+import com.santander.rht.bankentitiesapi.domain.port.in.BankServicePort;
+import com.santander.rht.bankentitiesapi.domain.port.out.BankRepositoryPort;
+import com.santander.rht.bankentitiesapi.infrastructure.persistence.journal.JournalBankRepositoryAdapter;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Starts a second journal instance from the memory of a running one and measures how long it takes to be ready
+ */
+class PeerSnapshotBootstrapIntegrationTest {
+    
+    private static final int BANKS = 20_000;
+    private static final String ALPHABET = "ABCDEFGHIJKLMNOPQRSTUVWXYZ";
+    
+    @TempDir
+    Path directory;
+    
+    @Test
+    void newNode_CopiesThePeersSnapshot_ThenAppliesOnlyTheChangesSince() {
+        try (ConfigurableApplicationContext peer = node("peer", directory.resolve("peer"))) {
+            BankRepositoryPort peerRepository = peer.getBean(BankRepositoryPort.class);
+            BankServicePort peerService = peer.getBean(BankServicePort.class);
+            List<Bank> banks = new ArrayList<>(BANKS);
+            for (int i = 0; i < BANKS; i++) {
+                banks.add(bank(swiftCode(i)));
+                if (banks.size() == 1000) {
+                    peerRepository.upsertBySwiftCode(banks);
+                    banks.clear();
+                }
+            }
+            peer.getBean(JournalBankRepositoryAdapter.class).compact();
+            
+            // Made after the snapshot, so only the change feed can carry them
+            Bank renamed = peerRepository.findBySwiftCode(swiftCode(1)).orElseThrow();
+            peerService.updateBank(renamed.getId(), bank(swiftCode(1)).toBuilder().name("Renamed").build(), null);
+            Bank deleted = peerRepository.findBySwiftCode(swiftCode(2)).orElseThrow();
+            peerService.deleteBank(deleted.getId(), null);
+            Bank created = peerService.createBank(bank("PEERESMMXXX"));
+            
+            long start = System.nanoTime();
+            try (ConfigurableApplicationContext node = node("node", directory.resolve("node"),
+                    "app.journal.bootstrap-peer=http://localhost:" + port(peer))) {
+                Duration timeToReady = Duration.ofNanos(System.nanoTime() - start);
+                System.out.printf("Node copying %d banks from its peer was ready in %d ms%n", BANKS, timeToReady.toMillis());
+                
+                BankRepositoryPort nodeRepository = node.getBean(BankRepositoryPort.class);
+                assertThat(nodeRepository.count()).isEqualTo(peerRepository.count()).isEqualTo(BANKS);
+                assertThat(nodeRepository.findById(renamed.getId())).get().extracting(Bank::getName).isEqualTo("Renamed");
+                assertThat(nodeRepository.findById(deleted.getId())).isEmpty();
+                assertThat(nodeRepository.findBySwiftCode("PEERESMMXXX")).get().extracting(Bank::getId)
+                        .isEqualTo(created.getId());
+                assertThat(nodeRepository.latestChangeSeq()).isEqualTo(peerRepository.latestChangeSeq());
+                
+                // IDs taken on the peer are not handed out again
+                Bank next = node.getBean(BankServicePort.class).createBank(bank("NODEESMMXXX"));
+                assertThat(next.getId()).isGreaterThan(created.getId());
+            }
+        }
+    }
+    
+    @Test
+    void newNode_StartsEmpty_WhenThePeerCannotBeReached() {
+        try (ConfigurableApplicationContext node = node("unreachable", directory.resolve("node"),
+                "app.journal.bootstrap-peer=http://localhost:1", "app.journal.bootstrap-timeout=2s")) {
+            assertThat(node.getBean(BankRepositoryPort.class).count()).isZero();
+        }
+    }
+    
+    private static ConfigurableApplicationContext node(String database, Path journalDirectory, String... properties) {
+        Stream<String> shared = Stream.of("server.port=0",
+                "spring.datasource.url=jdbc:h2:mem:peer-snapshot-" + database + ";DB_CLOSE_DELAY=-1",
+                "spring.jpa.show-sql=false",
+                "app.repository.type=journal",
+                "app.journal.directory=" + journalDirectory,
+                "app.journal.fsync=false",
+                "app.directory.file=",
+                "app.warmup.enabled=false");
+        return new SpringApplicationBuilder(BankEntitiesApiApplication.class)
+                .run(Stream.concat(shared, Stream.of(properties)).map(property -> "--" + property).toArray(String[]::new));
+    }
+    
+    private static String port(ConfigurableApplicationContext context) {
+        return context.getEnvironment().getProperty("local.server.port");
+    }
+    
+    private static String swiftCode(int i) {
+        char[] code = {'A', 'A', 'A', 'A'};
+        for (int position = 3, rest = i; position >= 0; position--, rest /= ALPHABET.length()) {
+            code[position] = ALPHABET.charAt(rest % ALPHABET.length());
+        }
+        return new String(code) + "ESMMXXX";
+    }
+    
+    private static Bank bank(String swiftCode) {
+        return Bank.builder()
+                .swiftCode(swiftCode)
+                .name("Bank " + swiftCode)
+                .city("Madrid")
+                .countryCode("ES")
+                .bankType(BankType.COMMERCIAL)
+                .active(true)
+                .build();
+    }
+}
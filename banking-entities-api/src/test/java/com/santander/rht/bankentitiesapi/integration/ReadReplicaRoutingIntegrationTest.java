@@ -0,0 +1,120 @@
+package com.santander.rht.bankentitiesapi.integration;
+
+import com.santander.rht.bankentitiesapi.domain.model.Bank;
+import com.santander.rht.bankentitiesapi.domain.model.BankType;
+import com.santander.rht.bankentitiesapi.domain.port.in.BankServicePort;
+import com.santander.rht.bankentitiesapi.infrastructure.persistence.routing.ReplicaRoutingDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs against three in-memory databases, the replicas being copies of the primary taken by the test, so
+ * which database served a read can be told from the bank names each copy is given. The second-level cache
+ * is off, as it would answer the reads from whichever copy was read first.
+ */
+@SpringBootTest(properties = {"spring.main.web-application-type=servlet",
+                              "spring.datasource.url=" + ReadReplicaRoutingIntegrationTest.PRIMARY,
+                              "app.datasource.replicas=" + ReadReplicaRoutingIntegrationTest.REPLICA_1
+                                      + "," + ReadReplicaRoutingIntegrationTest.REPLICA_2,
+                              "app.datasource.replica-max-lag=10s",
+                              "app.datasource.replica-check-interval=1h",
+                              "app.second-level-cache.enabled=false",
+                              "app.directory.file="})
+@ActiveProfiles("test")
+class ReadReplicaRoutingIntegrationTest {
+    
+    static final String PRIMARY = "jdbc:h2:mem:routing-primary;DB_CLOSE_DELAY=-1";
+    static final String REPLICA_1 = "jdbc:h2:mem:routing-replica-1;DB_CLOSE_DELAY=-1";
+    static final String REPLICA_2 = "jdbc:h2:mem:routing-replica-2;DB_CLOSE_DELAY=-1";
+    
+    @Autowired
+    private BankServicePort bankServicePort;
+    
+    @Autowired
+    private ReplicaRoutingDataSource replicaRoutingDataSource;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @TempDir
+    Path directory;
+    
+    @Test
+    void readOnlyTransactions_GoToHealthyReplicasWithinTheMaxLag_AndFallBackToThePrimary() throws SQLException {
+        Bank bank = bankServicePort.createBank(Bank.builder()
+                .swiftCode("REPLESMMXXX")
+                .name("Primary")
+                .countryCode("ES")
+                .bankType(BankType.COMMERCIAL)
+                .build());
+        // Not read from before they pass a check, which failed at startup as they were still empty
+        assertThat(bankServicePort.getBankById(bank.getId()).orElseThrow().getName()).isEqualTo("Primary");
+        
+        replicate();
+        execute(REPLICA_1, "UPDATE banks SET name = 'Replica 1'");
+        execute(REPLICA_2, "UPDATE banks SET name = 'Replica 2'");
+        replicaRoutingDataSource.checkReplicas();
+        assertThat(readNames(bank, 4)).containsExactlyInAnyOrder("Replica 1", "Replica 2");
+        
+        // Reads made by a write see the primary
+        Bank updated = bankServicePort.updateBank(bank.getId(), bank.toBuilder().name("Updated").build(), null);
+        assertThat(updated.getName()).isEqualTo("Updated");
+        
+        // A replica that fails its check is ejected
+        execute(REPLICA_2, "DROP TABLE replication_heartbeat");
+        replicaRoutingDataSource.checkReplicas();
+        assertThat(readNames(bank, 4)).containsExactly("Replica 1");
+        
+        // And one lagging behind more than the max lag is skipped, leaving only the primary
+        execute(REPLICA_1, "UPDATE replication_heartbeat SET beat_at = beat_at - 60000");
+        replicaRoutingDataSource.checkReplicas();
+        assertThat(readNames(bank, 4)).containsExactly("Updated");
+        
+        assertThat(meterRegistry.get("bank.datasource.reads").tag("datasource", "replica-1").counter().count()).isEqualTo(6);
+        assertThat(meterRegistry.get("bank.datasource.reads").tag("datasource", "replica-2").counter().count()).isEqualTo(2);
+        assertThat(meterRegistry.get("bank.datasource.queries").tag("datasource", "replica-2").timer().count()).isPositive();
+        assertThat(meterRegistry.get("bank.datasource.queries").tag("datasource", "primary").timer().count()).isPositive();
+        assertThat(meterRegistry.get("bank.datasource.replica.available").tag("datasource", "replica-1").gauge().value()).isZero();
+    }
+    
+    private Set<String> readNames(Bank bank, int reads) {
+        Set<String> names = new HashSet<>();
+        for (int i = 0; i < reads; i++) {
+            names.add(bankServicePort.getBankById(bank.getId()).orElseThrow().getName());
+        }
+        return names;
+    }
+    
+    /**
+     * Copies the primary's schema and rows, heartbeat included, to both replicas
+     */
+    private void replicate() throws SQLException {
+        String script = directory.resolve("primary.sql").toString().replace('\\', '/');
+        execute(PRIMARY, "SCRIPT TO '" + script + "'");
+        for (String replica : new String[]{REPLICA_1, REPLICA_2}) {
+            execute(replica, "DROP ALL OBJECTS");
+            execute(replica, "RUNSCRIPT FROM '" + script + "'");
+        }
+    }
+    
+    private static void execute(String url, String sql) throws SQLException {
+        try (Connection connection = DriverManager.getConnection(url, "sa", "");
+             Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+}
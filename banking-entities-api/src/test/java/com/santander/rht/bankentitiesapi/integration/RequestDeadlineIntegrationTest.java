@@ -0,0 +1,89 @@
+package com.santander.rht.bankentitiesapi.integration;
+
+import com.santander.rht.bankentitiesapi.application.deadline.DeadlineContext;
+import com.santander.rht.bankentitiesapi.domain.exception.DeadlineExceededException;
+import com.santander.rht.bankentitiesapi.domain.model.RequestDeadline;
+import com.santander.rht.bankentitiesapi.domain.port.in.BankServicePort;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(webEnvironment = WebEnvironment.MOCK,
+                properties = {"spring.main.web-application-type=servlet",
+                              "spring.datasource.url=jdbc:h2:mem:deadline-test;DB_CLOSE_DELAY=-1"})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class RequestDeadlineIntegrationTest {
+    
+    @Autowired
+    private MockMvc mockMvc;
+    
+    @Autowired
+    private BankServicePort bankServicePort;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @AfterEach
+    void clearDeadline() {
+        DeadlineContext.clear();
+    }
+    
+    @Test
+    void expiredDeadline_IsRejectedOnArrival() throws Exception {
+        double before = exceeded("arrival");
+        
+        mockMvc.perform(get("/api/v1/banks")
+                        .header("X-Request-Deadline", Instant.now().minusSeconds(1).toEpochMilli()))
+                .andExpect(status().isGatewayTimeout())
+                .andExpect(jsonPath("$.error").value("DEADLINE_EXCEEDED"));
+        
+        assertThat(exceeded("arrival")).isEqualTo(before + 1);
+    }
+    
+    @Test
+    void timeoutHeader_WithBudgetLeft_IsServed() throws Exception {
+        mockMvc.perform(get("/api/v1/banks").header("X-Request-Timeout", "5000"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/v1/banks")
+                        .header("X-Request-Deadline", Instant.now().plusSeconds(5).toString()))
+                .andExpect(status().isOk());
+    }
+    
+    @Test
+    void malformedDeadline_ReturnsBadRequest() throws Exception {
+        mockMvc.perform(get("/api/v1/banks").header("X-Request-Timeout", "soon"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("INVALID_DEADLINE"));
+    }
+    
+    @Test
+    void expiredDeadline_PreventsTransactionFromStarting() {
+        DeadlineContext.set(new RequestDeadline(Instant.now().minus(Duration.ofMillis(1))));
+        
+        assertThatThrownBy(() -> bankServicePort.getAllBanks())
+                .isInstanceOf(DeadlineExceededException.class)
+                .extracting(e -> ((DeadlineExceededException) e).getStage())
+                .isEqualTo("transaction");
+    }
+    
+    private double exceeded(String stage) {
+        var counter = meterRegistry.find("bank.deadline.exceeded").tag("stage", stage).counter();
+        return counter == null ? 0 : counter.count();
+    }
+}
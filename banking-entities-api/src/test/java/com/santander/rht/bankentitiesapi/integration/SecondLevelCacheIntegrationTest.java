@@ -0,0 +1,139 @@
+package com.santander.rht.bankentitiesapi.integration;
+
+import com.santander.rht.bankentitiesapi.domain.model.Bank;
+import com.santander.rht.bankentitiesapi.domain.model.BankInvalidation;
+import com.santander.rht.bankentitiesapi.domain.model.BankType;
+import com.santander.rht.bankentitiesapi.domain.port.in.BankServicePort;
+import com.santander.rht.bankentitiesapi.domain.port.out.BankRepositoryPort;
+import com.santander.rht.bankentitiesapi.infrastructure.persistence.cache.SecondLevelCacheInvalidationListener;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {"spring.main.web-application-type=servlet",
+                              "spring.datasource.url=jdbc:h2:mem:second-level-cache-test;DB_CLOSE_DELAY=-1",
+                              "app.directory.file=",
+                              "app.list-cache.enabled=false"})
+@ActiveProfiles("test")
+class SecondLevelCacheIntegrationTest {
+    
+    @Autowired
+    private BankServicePort bankServicePort;
+    
+    @Autowired
+    private BankRepositoryPort bankRepositoryPort;
+    
+    @Autowired
+    private SecondLevelCacheInvalidationListener invalidationListener;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    
+    private Statistics statistics;
+    
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+    
+    @Test
+    void repeatedReads_ByIdSwiftCodeCountryCodeAndActive_AreServedFromTheCache() {
+        Bank bank = bankServicePort.createBank(bank("CACHLULLXXX", "Cached Bank", "LU"));
+        
+        // Rows inserted with an identity ID are only cached once read
+        assertThat(statementsFor(() -> bankServicePort.getBankById(bank.getId()))).isOne();
+        assertThat(statementsFor(() -> bankServicePort.getBankById(bank.getId()))).isZero();
+        // Loading the bank also cached its SWIFT code's resolution to the ID
+        assertThat(statementsFor(() -> bankServicePort.getBankBySwiftCode("CACHLULLXXX"))).isZero();
+        assertThat(statementsFor(() -> bankServicePort.getBanksByCountryCode("LU"))).isOne();
+        assertThat(statementsFor(() -> bankServicePort.getBanksByCountryCode("LU"))).isZero();
+        assertThat(statementsFor(() -> bankServicePort.getActiveBanks())).isOne();
+        assertThat(statementsFor(() -> bankServicePort.getActiveBanks())).isZero();
+        
+        assertThat(meterRegistry.get("hibernate.second.level.cache.requests")
+                .tag("region", "bank").tag("result", "hit").functionCounter().count()).isPositive();
+        assertThat(meterRegistry.get("hibernate.cache.query.requests")
+                .tag("result", "hit").functionCounter().count()).isPositive();
+    }
+    
+    @Test
+    void writes_InvalidateCachedBanksAndQueryResults() {
+        Bank bank = bankServicePort.createBank(bank("INVLMCMCXXX", "Before Update", "MC"));
+        bankServicePort.getBankById(bank.getId());
+        bankServicePort.getBankBySwiftCode("INVLMCMCXXX");
+        assertThat(bankServicePort.getBanksByCountryCode("MC")).extracting(Bank::getName).containsExactly("Before Update");
+        
+        Bank updated = bankServicePort.updateBank(bank.getId(), bank("INVMMCMCXXX", "After Update", "MC"), null);
+        assertThat(updated.getVersion()).isOne();
+        assertThat(updated.getName()).isEqualTo("After Update");
+        assertThat(bankServicePort.getBankById(bank.getId())).get().extracting(Bank::getName).isEqualTo("After Update");
+        assertThat(bankServicePort.getBankBySwiftCode("INVLMCMCXXX")).isEmpty();
+        assertThat(bankServicePort.getBankBySwiftCode("INVMMCMCXXX")).get().extracting(Bank::getId).isEqualTo(bank.getId());
+        assertThat(bankServicePort.getBanksByCountryCode("MC")).extracting(Bank::getName).containsExactly("After Update");
+        
+        // The upsert batch bypasses Hibernate
+        transactionTemplate.executeWithoutResult(status ->
+                bankRepositoryPort.upsertBySwiftCode(List.of(bank("INVMMCMCXXX", "After Upsert", "MC"))));
+        assertThat(bankServicePort.getBankById(bank.getId())).get().extracting(Bank::getName).isEqualTo("After Upsert");
+        assertThat(bankServicePort.getBanksByCountryCode("MC")).extracting(Bank::getName).containsExactly("After Upsert");
+        
+        bankServicePort.deleteBank(bank.getId(), null);
+        assertThat(bankServicePort.getBankById(bank.getId())).isEmpty();
+        assertThat(bankServicePort.getBankBySwiftCode("INVMMCMCXXX")).isEmpty();
+        assertThat(bankServicePort.getBanksByCountryCode("MC")).isEmpty();
+    }
+    
+    @Test
+    void invalidationFromAnotherNode_EvictsTheBank() {
+        Bank bank = bankServicePort.createBank(bank("REMTADADXXX", "Before Remote Write", "AD"));
+        bankServicePort.getBankById(bank.getId());
+        
+        // Written by another node, whose invalidation has not arrived yet
+        jdbcTemplate.update("UPDATE banks SET name = 'After Remote Write' WHERE id = ?", bank.getId());
+        assertThat(bankServicePort.getBankById(bank.getId())).get().extracting(Bank::getName)
+                .isEqualTo("Before Remote Write");
+        
+        invalidationListener.invalidate(List.of(new BankInvalidation(bank.getId(), "REMTADADXXX")));
+        assertThat(bankServicePort.getBankById(bank.getId())).get().extracting(Bank::getName)
+                .isEqualTo("After Remote Write");
+        assertThat(bankServicePort.getBankBySwiftCode("REMTADADXXX")).get().extracting(Bank::getName)
+                .isEqualTo("After Remote Write");
+    }
+    
+    private long statementsFor(Supplier<?> read) {
+        long before = statistics.getPrepareStatementCount();
+        read.get();
+        return statistics.getPrepareStatementCount() - before;
+    }
+    
+    private static Bank bank(String swiftCode, String name, String countryCode) {
+        return Bank.builder()
+                .swiftCode(swiftCode)
+                .name(name)
+                .countryCode(countryCode)
+                .bankType(BankType.COMMERCIAL)
+                .build();
+    }
+}
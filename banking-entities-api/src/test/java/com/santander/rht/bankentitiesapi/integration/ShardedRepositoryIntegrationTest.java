@@ -0,0 +1,177 @@
+package com.santander.rht.bankentitiesapi.integration;
+
+import com.santander.rht.bankentitiesapi.domain.exception.DuplicateBankException;
+import com.santander.rht.bankentitiesapi.domain.exception.InvalidBankDataException;
+import com.santander.rht.bankentitiesapi.domain.model.Bank;
+import com.santander.rht.bankentitiesapi.domain.model.BankChange;
+import com.santander.rht.bankentitiesapi.domain.model.BankChangeType;
+import com.santander.rht.bankentitiesapi.domain.model.BankField;
+import com.santander.rht.bankentitiesapi.domain.model.BankPatch;
+import com.santander.rht.bankentitiesapi.domain.model.BankType;
+import com.santander.rht.bankentitiesapi.domain.port.in.BankServicePort;
+import com.santander.rht.bankentitiesapi.domain.port.out.BankRepositoryPort;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Runs the sharded repository over three in-memory databases, with Spain and Portugal pinned to the
+ * first, Germany to the second and France to the third
+ */
+@SpringBootTest(properties = {"spring.main.web-application-type=servlet",
+                              "spring.datasource.url=jdbc:h2:mem:sharded-test;DB_CLOSE_DELAY=-1",
+                              "app.repository.type=sharded",
+                              "app.shard.urls=" + ShardedRepositoryIntegrationTest.SHARD_0 + ","
+                                      + ShardedRepositoryIntegrationTest.SHARD_1 + ","
+                                      + ShardedRepositoryIntegrationTest.SHARD_2,
+                              "app.shard.countries=ES:0,PT:0,DE:1,FR:2",
+                              "app.directory.file="})
+@ActiveProfiles("test")
+class ShardedRepositoryIntegrationTest {
+    
+    static final String SHARD_0 = "jdbc:h2:mem:shard-0;DB_CLOSE_DELAY=-1";
+    static final String SHARD_1 = "jdbc:h2:mem:shard-1;DB_CLOSE_DELAY=-1";
+    static final String SHARD_2 = "jdbc:h2:mem:shard-2;DB_CLOSE_DELAY=-1";
+    
+    @Autowired
+    private BankServicePort bankServicePort;
+    
+    @Autowired
+    private BankRepositoryPort bankRepositoryPort;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Test
+    void banksAreStoredOnTheirCountrysShard_AndFoundByIdSwiftCodeAndAcrossShards() throws SQLException {
+        Bank spanish = bankServicePort.createBank(bank("SHRDESMMXXX", "Banco Shard", "ES"));
+        Bank portuguese = bankServicePort.createBank(bank("SHRDPTPLXXX", "Banco Portugues Shard", "PT"));
+        Bank german = bankServicePort.createBank(bank("SHRDDEFFXXX", "Deutsche Shard Bank", "DE"));
+        Bank french = bankServicePort.createBank(bank("SHRDFRPPXXX", "Banque Shard", "FR"));
+        
+        // The shard is in the ID, and the row only on that shard
+        assertThat(List.of(spanish, portuguese, german, french)).extracting(bank -> bank.getId() & 0xFF)
+                .containsExactly(0L, 0L, 1L, 2L);
+        assertThat(count(SHARD_0, "SHRDESMMXXX")).isOne();
+        assertThat(count(SHARD_1, "SHRDESMMXXX")).isZero();
+        assertThat(count(SHARD_1, "SHRDDEFFXXX")).isOne();
+        assertThat(count(SHARD_2, "SHRDFRPPXXX")).isOne();
+        
+        assertThat(bankServicePort.getBankById(german.getId())).get().extracting(Bank::getSwiftCode)
+                .isEqualTo("SHRDDEFFXXX");
+        assertThat(bankServicePort.getBankBySwiftCode("SHRDFRPPXXX")).get().extracting(Bank::getId)
+                .isEqualTo(french.getId());
+        assertThat(bankServicePort.getBanksByCountryCode("PT")).extracting(Bank::getId)
+                .containsExactly(portuguese.getId());
+        
+        // Scatter-gather queries see every shard, merged in ID order
+        List<Bank> all = bankServicePort.getAllBanks();
+        assertThat(all).extracting(Bank::getSwiftCode)
+                .contains("SHRDESMMXXX", "SHRDPTPLXXX", "SHRDDEFFXXX", "SHRDFRPPXXX");
+        assertThat(all).extracting(Bank::getId).isSorted();
+        assertThat(bankServicePort.searchBanksByName("shard")).extracting(Bank::getId)
+                .containsExactlyInAnyOrder(spanish.getId(), portuguese.getId(), german.getId(), french.getId());
+        assertThat(bankRepositoryPort.count()).isEqualTo(all.size());
+    }
+    
+    @Test
+    void writes_KeepSwiftCodesUnique_AndBanksOnTheirShard() {
+        Bank bank = bankServicePort.createBank(bank("MOVEESMMXXX", "Moving Bank", "ES"));
+        assertThatThrownBy(() -> bankServicePort.createBank(bank("MOVEESMMXXX", "Copy", "ES")))
+                .isInstanceOf(DuplicateBankException.class);
+        
+        // Portugal shares Spain's shard, Germany does not
+        Bank moved = bankServicePort.updateBank(bank.getId(), bank("MOVEPTPLXXX", "Moved Bank", "PT"), null);
+        assertThat(moved.getVersion()).isEqualTo(1);
+        assertThatThrownBy(() -> bankServicePort.updateBank(bank.getId(), bank("MOVEDEFFXXX", "Moved Bank", "DE"), null))
+                .isInstanceOf(InvalidBankDataException.class);
+        assertThatThrownBy(() -> bankServicePort.patchBank(bank.getId(),
+                new BankPatch().set(BankField.COUNTRY_CODE, "FR"), null))
+                .isInstanceOf(InvalidBankDataException.class);
+        
+        Bank patched = bankServicePort.patchBank(bank.getId(), new BankPatch().set(BankField.NAME, "Patched Bank"), 1L);
+        assertThat(patched.getName()).isEqualTo("Patched Bank");
+        assertThat(patched.getVersion()).isEqualTo(2);
+    }
+    
+    @Test
+    void upsertsAndDeletes_AreMergedIntoOneChangeFeedAcrossShards() {
+        long since = bankRepositoryPort.latestChangeSeq();
+        List<Bank> batch = List.of(bank("FEEDDEFFXXX", "Feed DE", "DE"), bank("FEEDESMMXXX", "Feed ES", "ES"),
+                bank("FEEDFRPPXXX", "Feed FR", "FR"), bank("FEEDITMMXXX", "Feed IT", "IT"));
+        assertThat(bankRepositoryPort.upsertBySwiftCode(batch)).containsExactly(1, 1, 1, 1);
+        assertThat(bankRepositoryPort.upsertBySwiftCode(batch)).containsExactly(0, 0, 0, 0);
+        
+        Bank spanish = bankRepositoryPort.findBySwiftCode("FEEDESMMXXX").orElseThrow();
+        bankServicePort.deleteBank(spanish.getId(), null);
+        
+        List<BankChange> changes = bankRepositoryPort.findChangesSince(since, 100);
+        assertThat(changes).extracting(BankChange::seq).isSorted();
+        assertThat(changes).extracting(BankChange::swiftCode)
+                .containsExactly("FEEDDEFFXXX", "FEEDFRPPXXX", "FEEDITMMXXX", "FEEDESMMXXX");
+        assertThat(changes.get(3).type()).isEqualTo(BankChangeType.DELETED);
+        assertThat(bankRepositoryPort.findChangesSince(since, 2)).extracting(BankChange::swiftCode)
+                .containsExactly("FEEDDEFFXXX", "FEEDFRPPXXX");
+    }
+    
+    @Test
+    void writesInATransaction_CommitWithIt_OrRollBackWithIt_OnEveryShard() throws SQLException {
+        Bank existing = bankServicePort.createBank(bank("TXNSESMMXXX", "Before", "ES"));
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        
+        // A group of writes failing on its last one leaves nothing behind, as write-behind needs to replay it
+        assertThatThrownBy(() -> transactionTemplate.executeWithoutResult(status -> {
+            bankServicePort.createBank(bank("TXNSDEFFXXX", "German", "DE"));
+            bankServicePort.updateBank(existing.getId(), bank("TXNSESMMXXX", "Updated", "ES"), 0L);
+            bankRepositoryPort.upsertBySwiftCode(List.of(bank("TXNSFRPPXXX", "French", "FR"),
+                    bank("TXNSPTPLXXX", "Portuguese", "PT")));
+            // Reads in the transaction see its writes, on whichever shard they are
+            assertThat(bankServicePort.getAllBanks()).extracting(Bank::getSwiftCode)
+                    .contains("TXNSDEFFXXX", "TXNSFRPPXXX", "TXNSPTPLXXX");
+            bankServicePort.createBank(bank("TXNSESMMXXX", "Duplicate", "ES"));
+        })).isInstanceOf(DuplicateBankException.class);
+        assertThat(count(SHARD_1, "TXNSDEFFXXX")).isZero();
+        assertThat(count(SHARD_2, "TXNSFRPPXXX")).isZero();
+        assertThat(count(SHARD_0, "TXNSPTPLXXX")).isZero();
+        assertThat(bankServicePort.getBankById(existing.getId())).get()
+                .satisfies(bank -> assertThat(bank.getName()).isEqualTo("Before"))
+                .extracting(Bank::getVersion).isEqualTo(0L);
+        
+        // Replayed one by one, each write applies once
+        transactionTemplate.executeWithoutResult(status ->
+                bankServicePort.updateBank(existing.getId(), bank("TXNSESMMXXX", "Updated", "ES"), 0L));
+        transactionTemplate.executeWithoutResult(status -> bankServicePort.createBank(bank("TXNSDEFFXXX", "German", "DE")));
+        assertThat(count(SHARD_1, "TXNSDEFFXXX")).isOne();
+        assertThat(bankServicePort.getBankById(existing.getId())).get().extracting(Bank::getVersion).isEqualTo(1L);
+    }
+    
+    private static long count(String url, String swiftCode) throws SQLException {
+        try (Connection connection = DriverManager.getConnection(url, "sa", "");
+             ResultSet rs = connection.createStatement()
+                     .executeQuery("SELECT COUNT(*) FROM banks WHERE swift_code = '" + swiftCode + "'")) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+    
+    private static Bank bank(String swiftCode, String name, String countryCode) {
+        return Bank.builder()
+                .swiftCode(swiftCode)
+                .name(name)
+                .countryCode(countryCode)
+                .bankType(BankType.COMMERCIAL)
+                .build();
+    }
+}
@@ -0,0 +1,85 @@
+package com.santander.rht.bankentitiesapi.integration;
+
+import com.santander.rht.bankentitiesapi.application.cache.BankListCache;
+import com.santander.rht.bankentitiesapi.infrastructure.warmup.StartupWarmup;
+import com.santander.rht.bankentitiesapi.infrastructure.warmup.WarmupEndpoint;
+import com.santander.rht.bankentitiesapi.infrastructure.warmup.WarmupHealthIndicator;
+import com.santander.rht.bankentitiesapi.infrastructure.web.controller.BankController;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.health.HealthEndpoint;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest(properties = {"spring.datasource.url=jdbc:h2:mem:warmup-test;DB_CLOSE_DELAY=-1",
+                              "app.directory.file=classpath:bic-directory.csv",
+                              "app.warmup.enabled=true",
+                              "app.warmup.iterations=500",
+                              "app.warmup.max-duration=30s"})
+@ActiveProfiles("test")
+class StartupWarmupIntegrationTest {
+    
+    @Autowired
+    private StartupWarmup startupWarmup;
+    
+    @Autowired
+    private WarmupEndpoint warmupEndpoint;
+    
+    @Autowired
+    private HealthEndpoint healthEndpoint;
+    
+    @Autowired
+    private HikariDataSource dataSource;
+    
+    @Autowired
+    private BankListCache bankListCache;
+    
+    @Test
+    void warmup_PreloadsFillsThePoolAndRunsTheWorkload_ThenPassesReadiness() {
+        await().atMost(Duration.ofSeconds(60)).until(startupWarmup::isDone);
+        
+        StartupWarmup.Report report = startupWarmup.report();
+        assertThat(report.status()).isEqualTo(StartupWarmup.Status.COMPLETED);
+        assertThat(report.steps()).extracting(StartupWarmup.Step::name)
+                .containsExactly("directory", "preload", "connection-pools", "workload");
+        // Lookups by ID, SWIFT code and country code of the bundled banks, and one that misses, per iteration
+        assertThat(report.requests()).isEqualTo(500 * 4);
+        assertThat(report.durationMs()).isNotNull();
+        
+        assertThat(dataSource.getHikariPoolMXBean().getTotalConnections()).isEqualTo(dataSource.getMaximumPoolSize());
+        assertThat(bankListCache.hitRatio(BankListCache.Filter.COUNTRY_CODE)).isGreaterThan(0.9);
+        assertThat(healthEndpoint.healthForPath("readiness").getStatus()).isEqualTo(Status.UP);
+        
+        // Compilation is asynchronous, so the controller methods may still be queued when the workload ends
+        String swiftCodeLookup = BankController.class.getName() + ".getBankBySwiftCode";
+        await().atMost(Duration.ofSeconds(10)).untilAsserted(() ->
+                assertThat(warmupEndpoint.warmup().jit().watchedMethodTiers()).containsKey(swiftCodeLookup));
+        WarmupEndpoint.WarmupInfo info = warmupEndpoint.warmup();
+        assertThat(info.warmup().status()).isEqualTo(StartupWarmup.Status.COMPLETED);
+        assertThat(info.jit().methodsByTier()).isNotEmpty();
+        assertThat(info.jit().watchedMethodTiers().get(swiftCodeLookup)).isBetween(1, 4);
+    }
+    
+    @Test
+    void healthIndicator_IsOutOfService_UntilTheWarmupIsDone() {
+        StartupWarmup warmup = mock(StartupWarmup.class);
+        when(warmup.report()).thenReturn(new StartupWarmup.Report(StartupWarmup.Status.RUNNING, Instant.now(), 120L,
+                List.of(), 0, null));
+        
+        assertThat(new WarmupHealthIndicator(warmup).health().getStatus()).isEqualTo(Status.OUT_OF_SERVICE);
+        
+        when(warmup.isDone()).thenReturn(true);
+        assertThat(new WarmupHealthIndicator(warmup).health().getStatus()).isEqualTo(Status.UP);
+    }
+}
@@ -0,0 +1,117 @@
+package com.santander.rht.bankentitiesapi.integration;
+
+import com.santander.rht.bankentitiesapi.domain.model.Bank;
+import com.santander.rht.bankentitiesapi.domain.model.BankWriteToken;
+import com.santander.rht.bankentitiesapi.domain.model.WriteStatus;
+import com.santander.rht.bankentitiesapi.domain.exception.DuplicateBankException;
+import com.santander.rht.bankentitiesapi.domain.port.in.BankServicePort;
+import com.santander.rht.bankentitiesapi.domain.port.in.BankWriteBehindPort;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(webEnvironment = WebEnvironment.MOCK,
+                properties = {"spring.main.web-application-type=servlet",
+                              "spring.datasource.url=jdbc:h2:mem:write-behind-test;DB_CLOSE_DELAY=-1",
+                              "app.write-behind.enabled=true",
+                              "app.write-behind.max-batch-size=50",
+                              "app.write-behind.linger=50ms"})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class WriteBehindIntegrationTest {
+    
+    @Autowired
+    private MockMvc mockMvc;
+    
+    @Autowired
+    private BankWriteBehindPort bankWriteBehindPort;
+    
+    @Autowired
+    private BankServicePort bankServicePort;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Test
+    void queuedWrites_AreCommittedInGroups() throws Exception {
+        DistributionSummary batchSizes = meterRegistry.get("bank.write.behind.batch.size").summary();
+        long batchesBefore = batchSizes.count();
+        
+        List<BankWriteToken> tokens = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            tokens.add(bankWriteBehindPort.submitCreate(bank("GP" + (char) ('A' + i / 26) + (char) ('A' + i % 26) + "ESMMXXX")));
+        }
+        for (BankWriteToken token : tokens) {
+            assertThat(token.await(Duration.ofSeconds(10))).isEqualTo(WriteStatus.COMMITTED);
+            assertThat(token.getBank().getId()).isNotNull();
+        }
+        
+        assertThat(bankServicePort.getBankBySwiftCode("GPBQESMMXXX")).isPresent();
+        assertThat(batchSizes.count() - batchesBefore).isLessThan(100);
+        assertThat(batchSizes.max()).isGreaterThan(1);
+    }
+    
+    @Test
+    void failingWrite_OnlyFailsItsOwnToken() throws Exception {
+        bankServicePort.createBank(bank("TAKNESMMXXX"));
+        
+        BankWriteToken before = bankWriteBehindPort.submitCreate(bank("OKAYESMM001"));
+        BankWriteToken duplicate = bankWriteBehindPort.submitCreate(bank("TAKNESMMXXX"));
+        BankWriteToken after = bankWriteBehindPort.submitCreate(bank("OKAYESMM002"));
+        
+        assertThat(before.await(Duration.ofSeconds(10))).isEqualTo(WriteStatus.COMMITTED);
+        assertThat(duplicate.await(Duration.ofSeconds(10))).isEqualTo(WriteStatus.FAILED);
+        assertThat(after.await(Duration.ofSeconds(10))).isEqualTo(WriteStatus.COMMITTED);
+        assertThat(duplicate.getFailure()).isInstanceOf(DuplicateBankException.class);
+    }
+    
+    @Test
+    void respondAsync_AcknowledgesAndReportsDurability() throws Exception {
+        String location = mockMvc.perform(post("/api/v1/banks")
+                        .header("Prefer", "respond-async")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"swiftCode\": \"ASYNESMMXXX\", \"name\": \"Async Bank\"}"))
+                .andExpect(status().isAccepted())
+                .andExpect(header().exists("Location"))
+                .andReturn()
+                .getResponse()
+                .getHeader("Location");
+        
+        mockMvc.perform(get(location).param("waitMillis", "10000"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("COMMITTED"))
+                .andExpect(jsonPath("$.bank.swiftCode").value("ASYNESMMXXX"))
+                .andExpect(jsonPath("$.bank.id").exists());
+        
+        // Validation still happens before the write is acknowledged
+        mockMvc.perform(post("/api/v1/banks")
+                        .header("Prefer", "respond-async")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"swiftCode\": \"BAD\", \"name\": \"Bad Bank\"}"))
+                .andExpect(status().isBadRequest());
+    }
+    
+    private static Bank bank(String swiftCode) {
+        return Bank.builder()
+                .swiftCode(swiftCode)
+                .name("Queued Bank " + swiftCode)
+                .countryCode("ES")
+                .build();
+    }
+}
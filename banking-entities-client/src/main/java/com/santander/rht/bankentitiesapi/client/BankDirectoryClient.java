@@ -0,0 +1,372 @@
+package com.santander.rht.bankentitiesapi.client;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.santander.rht.bankentitiesapi.domain.model.Bank;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import lombok.Builder;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpResponse.BodySubscribers;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Client of the Banking Entities API that keeps a replica of the whole bank directory in memory,
+ * so lookups by ID, SWIFT code and country are answered in-process instead of over the network.
+ * <p>
+ * {@link #start()} copies the directory from the change feed. A background thread then keeps the replica
+ * current, either by polling the feed or by following its Server-Sent Events stream, reconnecting with
+ * backoff when the API cannot be reached. When the replica's position in the feed has been compacted away,
+ * the directory is copied again and swapped in, while lookups keep being answered from the old copy.
+ * <pre>{@code
+ * BankDirectoryClient directory = BankDirectoryClient.builder()
+ *         .baseUrl(URI.create("http://banking-entities-api:8080"))
+ *         .syncMode(SyncMode.STREAM)
+ *         .meterRegistry(meterRegistry)
+ *         .build()
+ *         .start();
+ * Optional<Bank> bank = directory.findBySwiftCode("BSCHESMMXXX");
+ * }</pre>
+ */
+@Slf4j
+public final class BankDirectoryClient implements AutoCloseable {
+    
+    private static final String CHANGES_PATH = "/api/v1/banks/changes";
+    private static final Duration MAX_RETRY_DELAY = Duration.ofMinutes(1);
+    
+    private final URI changesUri;
+    private final SyncMode syncMode;
+    private final Duration pollInterval;
+    private final Duration streamTimeout;
+    private final Duration retryDelay;
+    private final Duration requestTimeout;
+    private final int pageSize;
+    private final HttpClient httpClient;
+    private final boolean ownsHttpClient;
+    private final ObjectMapper objectMapper = JsonMapper.builder()
+            .addModule(new JavaTimeModule())
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+            .build();
+    private final Counter resyncs;
+    
+    private final Object syncLock = new Object();
+    private volatile BankDirectoryReplica replica = new BankDirectoryReplica();
+    private volatile long currentAsOf = System.nanoTime();
+    private volatile boolean live;
+    private volatile ChangeStreamSubscriber stream;
+    private volatile Thread follower;
+    private volatile boolean closed;
+    
+    /**
+     * @param baseUrl        root of the API, such as {@code http://localhost:8080}
+     * @param syncMode       how the replica is kept current, {@link SyncMode#STREAM} by default
+     * @param pollInterval   time between polls of the change feed, 1s by default
+     * @param streamTimeout  reconnects a stream that has sent nothing, not even a heartbeat, for this long, 45s by default
+     * @param retryDelay     first delay before retrying a failed sync, doubled up to a minute, 1s by default
+     * @param requestTimeout timeout of each change feed request, 30s by default
+     * @param pageSize       changes asked for per request, 1000 by default
+     * @param httpClient     client to call the API with, a new one by default
+     * @param meterRegistry  registry for the replica's metrics, none by default
+     */
+    @Builder
+    private BankDirectoryClient(@NonNull URI baseUrl, SyncMode syncMode, Duration pollInterval, Duration streamTimeout,
+                                Duration retryDelay, Duration requestTimeout, Integer pageSize, HttpClient httpClient,
+                                MeterRegistry meterRegistry) {
+        String base = baseUrl.toString();
+        this.changesUri = URI.create((base.endsWith("/") ? base.substring(0, base.length() - 1) : base) + CHANGES_PATH);
+        this.syncMode = syncMode != null ? syncMode : SyncMode.STREAM;
+        this.pollInterval = pollInterval != null ? pollInterval : Duration.ofSeconds(1);
+        this.streamTimeout = streamTimeout != null ? streamTimeout : Duration.ofSeconds(45);
+        this.retryDelay = retryDelay != null ? retryDelay : Duration.ofSeconds(1);
+        this.requestTimeout = requestTimeout != null ? requestTimeout : Duration.ofSeconds(30);
+        this.pageSize = pageSize != null ? pageSize : 1000;
+        this.ownsHttpClient = httpClient == null;
+        this.httpClient = httpClient != null ? httpClient : HttpClient.newHttpClient();
+        
+        if (meterRegistry != null) {
+            TimeGauge.builder("bank.directory.replica.lag", this, TimeUnit.NANOSECONDS, client -> client.lag().toNanos())
+                    .description("How far behind the API the bank directory replica may be")
+                    .register(meterRegistry);
+            Gauge.builder("bank.directory.replica.banks", this, BankDirectoryClient::size)
+                    .description("Banks in the bank directory replica")
+                    .register(meterRegistry);
+            this.resyncs = Counter.builder("bank.directory.replica.resyncs")
+                    .description("Times the bank directory was copied again because the replica fell behind the change feed")
+                    .register(meterRegistry);
+        } else {
+            this.resyncs = null;
+        }
+    }
+    
+    /**
+     * Copies the directory, then keeps the replica current in the background
+     *
+     * @throws BankDirectoryClientException if the directory could not be copied
+     */
+    public BankDirectoryClient start() {
+        synchronized (syncLock) {
+            try {
+                replica = copyDirectory();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw BankDirectoryClientException.requestFailed(changesUri, e);
+            }
+        }
+        log.info("Copied {} banks from {} up to change {}", replica.size(), changesUri, replica.seq());
+        follower = Thread.ofPlatform().daemon().name("bank-directory-sync").start(this::follow);
+        return this;
+    }
+    
+    /**
+     * Brings the replica up to date with the change feed now, rather than at the next poll or pushed change
+     *
+     * @throws BankDirectoryClientException if the change feed could not be read
+     */
+    public void refresh() {
+        try {
+            catchUp();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw BankDirectoryClientException.requestFailed(changesUri, e);
+        }
+    }
+    
+    public Optional<Bank> findById(long id) {
+        return replica.findById(id);
+    }
+    
+    /**
+     * @param swiftCode SWIFT code in any case, surrounding whitespace ignored
+     */
+    public Optional<Bank> findBySwiftCode(String swiftCode) {
+        return replica.findBySwiftCode(swiftCode);
+    }
+    
+    /**
+     * @param countryCode ISO 3166-1 alpha-2 code in any case
+     * @return the banks of the country, ordered by ID
+     */
+    public List<Bank> findByCountryCode(String countryCode) {
+        return replica.findByCountryCode(countryCode);
+    }
+    
+    /**
+     * Number of banks in the replica
+     */
+    public int size() {
+        return replica.size();
+    }
+    
+    /**
+     * Sequence number of the last change in the replica
+     */
+    public long changeSeq() {
+        return replica.seq();
+    }
+    
+    /**
+     * How far behind the API the replica may be: zero while the change stream is connected,
+     * otherwise the time since the change feed was last read to its end
+     */
+    public Duration lag() {
+        return live ? Duration.ZERO : Duration.ofNanos(System.nanoTime() - currentAsOf);
+    }
+    
+    @Override
+    public void close() {
+        closed = true;
+        Thread current = follower;
+        if (current != null) {
+            current.interrupt();
+        }
+        ChangeStreamSubscriber subscriber = stream;
+        if (subscriber != null) {
+            subscriber.cancel();
+        }
+        if (ownsHttpClient) {
+            httpClient.shutdownNow();
+        }
+    }
+    
+    private void follow() {
+        Duration delay = retryDelay;
+        while (!closed) {
+            try {
+                if (syncMode == SyncMode.STREAM) {
+                    if (stream()) {
+                        delay = retryDelay;
+                        continue;
+                    }
+                } else {
+                    Thread.sleep(pollInterval);
+                    catchUp();
+                    delay = retryDelay;
+                    continue;
+                }
+            } catch (InterruptedException e) {
+                return;
+            } catch (RuntimeException e) {
+                if (closed) {
+                    return;
+                }
+                log.warn("Syncing the bank directory from {} failed, retrying in {}: {}", changesUri, delay, e.getMessage());
+            }
+            try {
+                Thread.sleep(delay);
+            } catch (InterruptedException e) {
+                return;
+            }
+            delay = delay.multipliedBy(2);
+            if (delay.compareTo(MAX_RETRY_DELAY) > 0) {
+                delay = MAX_RETRY_DELAY;
+            }
+        }
+    }
+    
+    /**
+     * Reads the change feed to its end into the replica, copying the directory again if the replica's
+     * position has been compacted away
+     */
+    private void catchUp() throws InterruptedException {
+        synchronized (syncLock) {
+            long startedAt = System.nanoTime();
+            try {
+                ChangeFeedPage page;
+                do {
+                    page = fetchPage(replica.seq());
+                    page.changes().forEach(replica::apply);
+                } while (page.hasMore());
+            } catch (BankDirectoryClientException e) {
+                if (!e.isCursorExpired()) {
+                    throw e;
+                }
+                resync();
+            }
+            currentAsOf = startedAt;
+        }
+    }
+    
+    /**
+     * Copies the directory again and swaps it in. Must hold the sync lock.
+     */
+    private void resync() throws InterruptedException {
+        log.warn("Bank directory replica fell behind the compacted change feed at {}, copying it again", replica.seq());
+        replica = copyDirectory();
+        if (resyncs != null) {
+            resyncs.increment();
+        }
+    }
+    
+    private BankDirectoryReplica copyDirectory() throws InterruptedException {
+        long startedAt = System.nanoTime();
+        BankDirectoryReplica copy = new BankDirectoryReplica();
+        ChangeFeedPage page;
+        do {
+            page = fetchPage(copy.seq());
+            page.changes().forEach(copy::apply);
+        } while (page.hasMore());
+        currentAsOf = startedAt;
+        return copy;
+    }
+    
+    private ChangeFeedPage fetchPage(long since) throws InterruptedException {
+        URI uri = URI.create(changesUri + "?since=" + since + "&limit=" + pageSize);
+        HttpRequest request = HttpRequest.newBuilder(uri)
+                .timeout(requestTimeout)
+                .header("Accept", "application/json")
+                .GET()
+                .build();
+        try {
+            HttpResponse<byte[]> response = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+            if (response.statusCode() != 200) {
+                throw BankDirectoryClientException.unexpectedStatus(uri, response.statusCode());
+            }
+            return objectMapper.readValue(response.body(), ChangeFeedPage.class);
+        } catch (IOException e) {
+            throw BankDirectoryClientException.requestFailed(uri, e);
+        }
+    }
+    
+    /**
+     * Follows the change stream from the replica's position until it ends or stalls
+     *
+     * @return whether the stream was connected, as opposed to failing to connect
+     */
+    private boolean stream() throws InterruptedException {
+        long since = replica.seq();
+        URI uri = URI.create(changesUri + "/stream");
+        HttpRequest request = HttpRequest.newBuilder(uri)
+                .header("Accept", "text/event-stream")
+                .header("Last-Event-ID", Long.toString(since))
+                .GET()
+                .build();
+        ChangeStreamSubscriber subscriber = new ChangeStreamSubscriber(objectMapper, this::applyStreamed);
+        stream = subscriber;
+        CompletableFuture<HttpResponse<Void>> response = httpClient.sendAsync(request, info -> {
+            if (info.statusCode() != 200) {
+                return BodySubscribers.replacing(null);
+            }
+            live = true;
+            return BodySubscribers.fromLineSubscriber(subscriber);
+        });
+        try {
+            while (true) {
+                try {
+                    HttpResponse<Void> ended = response.get(1, TimeUnit.SECONDS);
+                    if (ended.statusCode() != 200) {
+                        throw BankDirectoryClientException.unexpectedStatus(uri, ended.statusCode());
+                    }
+                    return true;
+                } catch (TimeoutException e) {
+                    if (closed) {
+                        return live;
+                    }
+                    if (System.nanoTime() - subscriber.lastReceivedAt() > streamTimeout.toNanos()) {
+                        log.warn("Bank change stream from {} stalled, reconnecting", uri);
+                        return live;
+                    }
+                }
+            }
+        } catch (ExecutionException e) {
+            throw BankDirectoryClientException.requestFailed(uri, e.getCause());
+        } catch (BankDirectoryClientException e) {
+            if (!e.isCursorExpired()) {
+                throw e;
+            }
+            synchronized (syncLock) {
+                resync();
+            }
+            return true;
+        } finally {
+            if (live) {
+                currentAsOf = subscriber.lastReceivedAt();
+            }
+            live = false;
+            subscriber.cancel();
+            response.cancel(true);
+        }
+    }
+    
+    private void applyStreamed(ChangeFeedEntry change) {
+        synchronized (syncLock) {
+            replica.apply(change);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.santander.rht.bankentitiesapi.client;
+
+import java.net.URI;
+
+/**
+ * Exception thrown when the bank directory could not be read from the API
+ */
+public class BankDirectoryClientException extends RuntimeException {
+    
+    private static final int GONE = 410;
+    
+    private final int status;
+    
+    public BankDirectoryClientException(String message, int status, Throwable cause) {
+        super(message, cause);
+        this.status = status;
+    }
+    
+    /**
+     * HTTP status the API answered with, or 0 if no answer came
+     */
+    public int getStatus() {
+        return status;
+    }
+    
+    /**
+     * Whether the API no longer has every change after the replica's position, which must then be copied again
+     */
+    public boolean isCursorExpired() {
+        return status == GONE;
+    }
+    
+    public static BankDirectoryClientException unexpectedStatus(URI uri, int status) {
+        return new BankDirectoryClientException("GET " + uri + " answered " + status, status, null);
+    }
+    
+    public static BankDirectoryClientException requestFailed(URI uri, Throwable cause) {
+        return new BankDirectoryClientException("GET " + uri + " failed: " + cause.getMessage(), 0, cause);
+    }
+}
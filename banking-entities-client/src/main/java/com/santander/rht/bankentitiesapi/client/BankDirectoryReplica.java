@@ -0,0 +1,92 @@
+package com.santander.rht.bankentitiesapi.client;
+
+import com.santander.rht.bankentitiesapi.domain.model.Bank;
+import com.santander.rht.bankentitiesapi.domain.model.SwiftCodeValidator;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * In-memory copy of the bank directory, indexed by ID, SWIFT code and country code.
+ * <p>
+ * Changes are applied by one thread at a time, in feed order, while any number of threads read;
+ * lookups return copies, so callers cannot change the replica.
+ */
+final class BankDirectoryReplica {
+    
+    private final Map<Long, Bank> byId = new ConcurrentHashMap<>();
+    private final Map<String, Bank> bySwiftCode = new ConcurrentHashMap<>();
+    private final Map<String, Map<Long, Bank>> byCountryCode = new ConcurrentHashMap<>();
+    private volatile long seq;
+    
+    /**
+     * Sequence number of the last change applied, to resume the change feed from
+     */
+    long seq() {
+        return seq;
+    }
+    
+    int size() {
+        return byId.size();
+    }
+    
+    /**
+     * Applies a change, unless the replica already has it
+     */
+    void apply(ChangeFeedEntry change) {
+        if (change.seq() <= seq) {
+            return;
+        }
+        Bank bank = change.isDeletion() ? null : change.bank();
+        Bank previous;
+        if (bank == null) {
+            previous = byId.remove(change.bankId());
+        } else {
+            bank.setChangeSeq(change.seq());
+            previous = byId.put(bank.getId(), bank);
+        }
+        if (previous != null) {
+            // The SWIFT code may already belong to another bank, when this one moved to a new code
+            bySwiftCode.remove(previous.getSwiftCode(), previous);
+            Map<Long, Bank> country = previous.getCountryCode() != null ? byCountryCode.get(previous.getCountryCode()) : null;
+            if (country != null) {
+                country.remove(previous.getId(), previous);
+            }
+        }
+        if (bank != null) {
+            bySwiftCode.put(bank.getSwiftCode(), bank);
+            if (bank.getCountryCode() != null) {
+                byCountryCode.computeIfAbsent(bank.getCountryCode(), code -> new ConcurrentSkipListMap<>())
+                        .put(bank.getId(), bank);
+            }
+        }
+        seq = change.seq();
+    }
+    
+    Optional<Bank> findById(long id) {
+        return Optional.ofNullable(byId.get(id)).map(BankDirectoryReplica::copy);
+    }
+    
+    Optional<Bank> findBySwiftCode(String swiftCode) {
+        String normalized = SwiftCodeValidator.normalize(swiftCode);
+        return normalized == null
+                ? Optional.empty()
+                : Optional.ofNullable(bySwiftCode.get(normalized)).map(BankDirectoryReplica::copy);
+    }
+    
+    /**
+     * @return the banks of the country, ordered by ID
+     */
+    List<Bank> findByCountryCode(String countryCode) {
+        Map<Long, Bank> banks = byCountryCode.get(countryCode.toUpperCase(Locale.ROOT));
+        return banks == null ? List.of() : banks.values().stream().map(BankDirectoryReplica::copy).toList();
+    }
+    
+    private static Bank copy(Bank bank) {
+        return bank.toBuilder().build();
+    }
+}
@@ -0,0 +1,13 @@
+package com.santander.rht.bankentitiesapi.client;
+
+import com.santander.rht.bankentitiesapi.domain.model.Bank;
+
+/**
+ * One change of the change feed, as served by the API; {@code bank} is absent for deleted banks
+ */
+record ChangeFeedEntry(long seq, String type, long bankId, String swiftCode, Bank bank) {
+    
+    boolean isDeletion() {
+        return "DELETED".equals(type);
+    }
+}
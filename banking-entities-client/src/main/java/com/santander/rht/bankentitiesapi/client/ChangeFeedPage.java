@@ -0,0 +1,13 @@
+package com.santander.rht.bankentitiesapi.client;
+
+import java.util.List;
+
+/**
+ * A page of the change feed, as served by {@code GET /api/v1/banks/changes}
+ *
+ * @param changes changes in ascending sequence order
+ * @param next    value to pass as {@code since} for the next page
+ * @param hasMore whether more changes follow
+ */
+record ChangeFeedPage(List<ChangeFeedEntry> changes, long next, boolean hasMore) {
+}
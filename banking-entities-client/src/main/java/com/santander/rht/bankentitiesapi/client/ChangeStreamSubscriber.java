@@ -0,0 +1,92 @@
+package com.santander.rht.bankentitiesapi.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.util.concurrent.Flow;
+import java.util.function.Consumer;
+
+/**
+ * Reads the Server-Sent Events of the change stream line by line, handing each change on in order
+ * and noting when anything, heartbeats included, last arrived. A change that cannot be read or applied
+ * cancels the stream, so it is read again on reconnection rather than skipped.
+ */
+@Slf4j
+final class ChangeStreamSubscriber implements Flow.Subscriber<String> {
+    
+    private final ObjectMapper objectMapper;
+    private final Consumer<ChangeFeedEntry> changes;
+    private final StringBuilder data = new StringBuilder();
+    private volatile Flow.Subscription subscription;
+    private volatile boolean cancelled;
+    private volatile long lastReceivedAt = System.nanoTime();
+    
+    ChangeStreamSubscriber(ObjectMapper objectMapper, Consumer<ChangeFeedEntry> changes) {
+        this.objectMapper = objectMapper;
+        this.changes = changes;
+    }
+    
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        this.subscription = subscription;
+        if (cancelled) {
+            subscription.cancel();
+        } else {
+            subscription.request(Long.MAX_VALUE);
+        }
+    }
+    
+    @Override
+    public void onNext(String line) {
+        lastReceivedAt = System.nanoTime();
+        if (cancelled) {
+            return;
+        }
+        if (line.isEmpty()) {
+            if (!data.isEmpty()) {
+                dispatch();
+            }
+        } else if (line.startsWith("data:")) {
+            if (!data.isEmpty()) {
+                data.append('\n');
+            }
+            data.append(line, line.startsWith("data: ") ? 6 : 5, line.length());
+        }
+        // The event ID and name repeat the change's sequence number and type, and comments are heartbeats
+    }
+    
+    @Override
+    public void onError(Throwable throwable) {
+    }
+    
+    @Override
+    public void onComplete() {
+    }
+    
+    /**
+     * {@link System#nanoTime()} when the last line arrived, or when the subscriber was created
+     */
+    long lastReceivedAt() {
+        return lastReceivedAt;
+    }
+    
+    void cancel() {
+        cancelled = true;
+        Flow.Subscription current = subscription;
+        if (current != null) {
+            current.cancel();
+        }
+    }
+    
+    private void dispatch() {
+        try {
+            changes.accept(objectMapper.readValue(data.toString(), ChangeFeedEntry.class));
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not apply a change from the bank change stream, reconnecting", e);
+            cancel();
+        } finally {
+            data.setLength(0);
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.santander.rht.bankentitiesapi.client;
+
+/**
+ * How the replica is kept current once it has been copied
+ */
+public enum SyncMode {
+    
+    /**
+     * Asks the change feed for changes every poll interval
+     */
+    POLL,
+    
+    /**
+     * Follows the Server-Sent Events stream of changes, which pushes each change as it is committed
+     */
+    STREAM
+}
@@ -0,0 +1,123 @@
+package com.santander.rht.bankentitiesapi.client;
+
+import com.santander.rht.bankentitiesapi.BankEntitiesApiApplication;
+import com.santander.rht.bankentitiesapi.application.service.BankChangeFeedService;
+import com.santander.rht.bankentitiesapi.domain.model.Bank;
+import com.santander.rht.bankentitiesapi.domain.model.BankType;
+import com.santander.rht.bankentitiesapi.domain.port.in.BankServicePort;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.net.URI;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+/**
+ * Runs the client against the API started locally on a random port
+ */
+@SpringBootTest(classes = BankEntitiesApiApplication.class,
+                webEnvironment = WebEnvironment.RANDOM_PORT,
+                properties = {"spring.datasource.url=jdbc:h2:mem:bank-directory-client-test;DB_CLOSE_DELAY=-1",
+                              "app.directory.file=",
+                              "app.change-feed.tombstone-retention=0s",
+                              "app.change-feed.compaction-interval=0s"})
+class BankDirectoryClientIntegrationTest {
+    
+    @LocalServerPort
+    private int port;
+    
+    @Autowired
+    private BankServicePort bankServicePort;
+    
+    @Autowired
+    private BankChangeFeedService bankChangeFeedService;
+    
+    @Test
+    void start_CopiesTheDirectory_AndAnswersLookupsInProcess() {
+        Bank santander = bankServicePort.createBank(bank("CPYAESMMXXX", "ES"));
+        bankServicePort.createBank(bank("CPYBESMMXXX", "ES"));
+        bankServicePort.createBank(bank("CPYCDEFFXXX", "DE"));
+        
+        try (BankDirectoryClient client = client(SyncMode.POLL).start()) {
+            assertThat(client.findBySwiftCode("cpyaesmmxxx")).get().satisfies(bank -> {
+                assertThat(bank.getId()).isEqualTo(santander.getId());
+                assertThat(bank.getName()).isEqualTo("Bank CPYAESMMXXX");
+                assertThat(bank.getBankType()).isEqualTo(BankType.COMMERCIAL);
+                assertThat(bank.getCreatedAt()).isNotNull();
+                assertThat(bank.getChangeSeq()).isEqualTo(santander.getChangeSeq());
+            });
+            assertThat(client.findById(santander.getId())).isPresent();
+            assertThat(client.findByCountryCode("ES")).extracting(Bank::getSwiftCode)
+                    .contains("CPYAESMMXXX", "CPYBESMMXXX")
+                    .doesNotContain("CPYCDEFFXXX");
+            assertThat(client.changeSeq()).isGreaterThanOrEqualTo(santander.getChangeSeq());
+        }
+    }
+    
+    @Test
+    void streamMode_FollowsCreatesUpdatesAndDeletes_AndReportsNoLagWhileConnected() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        try (BankDirectoryClient client = client(SyncMode.STREAM, meterRegistry).start()) {
+            Bank created = bankServicePort.createBank(bank("STRCFRPPXXX", "FR"));
+            await().atMost(Duration.ofSeconds(10)).until(() -> client.findBySwiftCode("STRCFRPPXXX").isPresent());
+            
+            bankServicePort.updateBank(created.getId(), bank("STRCFRPPXXX", "FR").toBuilder().city("Lyon").build(), null);
+            await().atMost(Duration.ofSeconds(10))
+                    .until(() -> "Lyon".equals(client.findById(created.getId()).orElseThrow().getCity()));
+            
+            bankServicePort.deleteBank(created.getId(), null);
+            await().atMost(Duration.ofSeconds(10)).until(() -> client.findById(created.getId()).isEmpty());
+            
+            assertThat(client.findByCountryCode("FR")).extracting(Bank::getSwiftCode).doesNotContain("STRCFRPPXXX");
+            assertThat(meterRegistry.get("bank.directory.replica.lag").timeGauge().value()).isZero();
+            assertThat(meterRegistry.get("bank.directory.replica.banks").gauge().value()).isEqualTo(client.size());
+        }
+    }
+    
+    @Test
+    void refresh_CopiesTheDirectoryAgain_WhenTheReplicaFellBehindCompactedTombstones() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        try (BankDirectoryClient client = client(SyncMode.POLL, meterRegistry).start()) {
+            Bank kept = bankServicePort.createBank(bank("RSYAITMMXXX", "IT"));
+            Bank deleted = bankServicePort.createBank(bank("RSYBITMMXXX", "IT"));
+            bankServicePort.deleteBank(deleted.getId(), null);
+            bankChangeFeedService.compactTombstones();
+            
+            client.refresh();
+            
+            assertThat(client.findById(kept.getId())).isPresent();
+            assertThat(client.findById(deleted.getId())).isEmpty();
+            assertThat(meterRegistry.get("bank.directory.replica.resyncs").counter().count()).isEqualTo(1);
+        }
+    }
+    
+    private BankDirectoryClient client(SyncMode syncMode) {
+        return client(syncMode, null);
+    }
+    
+    private BankDirectoryClient client(SyncMode syncMode, SimpleMeterRegistry meterRegistry) {
+        return BankDirectoryClient.builder()
+                .baseUrl(URI.create("http://localhost:" + port))
+                .syncMode(syncMode)
+                .pollInterval(Duration.ofHours(1))
+                .pageSize(2)
+                .meterRegistry(meterRegistry)
+                .build();
+    }
+    
+    private static Bank bank(String swiftCode, String countryCode) {
+        return Bank.builder()
+                .swiftCode(swiftCode)
+                .name("Bank " + swiftCode)
+                .city("Madrid")
+                .countryCode(countryCode)
+                .bankType(BankType.COMMERCIAL)
+                .build();
+    }
+}
@@ -0,0 +1,72 @@
+package com.santander.rht.bankentitiesapi.client;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.function.IntUnaryOperator;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Measures in-process lookups on a replica of 100k banks by ID, by SWIFT code (lower-case, so it is
+ * normalized first) and by country, each returning copies. Runs warmup iterations before measuring
+ * and feeds every result into a sink so the JIT cannot drop the work.
+ * Run with: ./mvnw test -Pbenchmark
+ */
+@Tag("benchmark")
+class BankDirectoryReplicaBenchmarkTest {
+    
+    private static final int BANKS = 100_000;
+    private static final String[] COUNTRIES = {"ES", "DE", "FR", "IT", "PT", "NL", "BE", "GB", "US", "JP"};
+    private static final int WARMUP_ITERATIONS = 5;
+    private static final int MEASUREMENT_ITERATIONS = 5;
+    private static final int OPERATIONS = 1_000_000;
+    
+    private static long sink;
+    
+    @Test
+    void lookups_TakeNanoseconds() {
+        BankDirectoryReplica replica = new BankDirectoryReplica();
+        String[] swiftCodes = new String[BANKS];
+        for (int i = 0; i < BANKS; i++) {
+            String country = COUNTRIES[i % COUNTRIES.length];
+            swiftCodes[i] = String.format("B%03d%sMM%03d", i / 1000, country, i % 1000).toLowerCase();
+            replica.apply(BankDirectoryReplicaTest.upserted(i + 1,
+                    BankDirectoryReplicaTest.bank(i, swiftCodes[i].toUpperCase(), country)));
+        }
+        
+        double byId = measure(i -> replica.findById(i % BANKS).isPresent() ? 1 : 0);
+        double bySwiftCode = measure(i -> replica.findBySwiftCode(swiftCodes[i % BANKS]).isPresent() ? 1 : 0);
+        double byCountry = measure(i -> replica.findByCountryCode(COUNTRIES[i % COUNTRIES.length]).size(), OPERATIONS / 10_000);
+        
+        System.out.printf("Bank directory replica of %,d banks, best of %d:%n", BANKS, MEASUREMENT_ITERATIONS);
+        System.out.printf("  findById:          %,.0f ns%n", byId);
+        System.out.printf("  findBySwiftCode:   %,.0f ns%n", bySwiftCode);
+        System.out.printf("  findByCountryCode: %,.0f ns for %,d banks%n", byCountry, BANKS / COUNTRIES.length);
+        
+        assertThat(byId).isLessThan(1_000);
+        assertThat(bySwiftCode).isLessThan(1_000);
+    }
+    
+    private static double measure(IntUnaryOperator lookup) {
+        return measure(lookup, OPERATIONS);
+    }
+    
+    /**
+     * @return the best time per lookup, in nanoseconds
+     */
+    private static double measure(IntUnaryOperator lookup, int operations) {
+        double best = Double.MAX_VALUE;
+        for (int iteration = 0; iteration < WARMUP_ITERATIONS + MEASUREMENT_ITERATIONS; iteration++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < operations; i++) {
+                sink += lookup.applyAsInt(i);
+            }
+            double nanos = (double) (System.nanoTime() - start) / operations;
+            if (iteration >= WARMUP_ITERATIONS) {
+                best = Math.min(best, nanos);
+            }
+        }
+        return best;
+    }
+}
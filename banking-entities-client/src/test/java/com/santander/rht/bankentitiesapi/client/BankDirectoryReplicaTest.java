@@ -0,0 +1,66 @@
+package com.santander.rht.bankentitiesapi.client;
+
+import com.santander.rht.bankentitiesapi.domain.model.Bank;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BankDirectoryReplicaTest {
+    
+    private final BankDirectoryReplica replica = new BankDirectoryReplica();
+    
+    @Test
+    void apply_IndexesBanksByIdSwiftCodeAndCountry() {
+        replica.apply(upserted(1, bank(10L, "SANDESMMXXX", "ES")));
+        replica.apply(upserted(2, bank(11L, "BBVAESMMXXX", "ES")));
+        replica.apply(upserted(3, bank(12L, "DEUTDEFFXXX", "DE")));
+        
+        assertThat(replica.seq()).isEqualTo(3);
+        assertThat(replica.size()).isEqualTo(3);
+        assertThat(replica.findById(11L)).get().extracting(Bank::getSwiftCode).isEqualTo("BBVAESMMXXX");
+        assertThat(replica.findBySwiftCode(" sandesmmxxx ")).get().extracting(Bank::getChangeSeq).isEqualTo(1L);
+        assertThat(replica.findBySwiftCode("INVALID")).isEmpty();
+        assertThat(replica.findByCountryCode("es")).extracting(Bank::getId).containsExactly(10L, 11L);
+    }
+    
+    @Test
+    void apply_MovesABankToItsNewSwiftCodeAndCountry_AndRemovesDeletedBanks() {
+        replica.apply(upserted(1, bank(10L, "SANDESMMXXX", "ES")));
+        replica.apply(upserted(2, bank(10L, "SANDPTPLXXX", "PT")));
+        replica.apply(upserted(3, bank(11L, "SANDESMMXXX", "ES")));
+        replica.apply(new ChangeFeedEntry(4, "DELETED", 10L, "SANDPTPLXXX", null));
+        
+        assertThat(replica.findById(10L)).isEmpty();
+        assertThat(replica.findBySwiftCode("SANDPTPLXXX")).isEmpty();
+        assertThat(replica.findBySwiftCode("SANDESMMXXX")).get().extracting(Bank::getId).isEqualTo(11L);
+        assertThat(replica.findByCountryCode("PT")).isEmpty();
+        assertThat(replica.findByCountryCode("ES")).extracting(Bank::getId).containsExactly(11L);
+    }
+    
+    @Test
+    void apply_IgnoresChangesItAlreadyHas_AndLookupsReturnCopies() {
+        replica.apply(upserted(2, bank(10L, "SANDESMMXXX", "ES")));
+        replica.apply(upserted(1, bank(10L, "OLDBESMMXXX", "ES")));
+        
+        replica.findById(10L).orElseThrow().setName("Changed by a caller");
+        
+        assertThat(replica.findById(10L)).get().satisfies(bank -> {
+            assertThat(bank.getSwiftCode()).isEqualTo("SANDESMMXXX");
+            assertThat(bank.getName()).isEqualTo("Bank SANDESMMXXX");
+        });
+    }
+    
+    static ChangeFeedEntry upserted(long seq, Bank bank) {
+        return new ChangeFeedEntry(seq, "UPSERTED", bank.getId(), bank.getSwiftCode(), bank);
+    }
+    
+    static Bank bank(long id, String swiftCode, String countryCode) {
+        return Bank.builder()
+                .id(id)
+                .swiftCode(swiftCode)
+                .name("Bank " + swiftCode)
+                .countryCode(countryCode)
+                .active(true)
+                .build();
+    }
+}
@@ -12,7 +12,7 @@ import java.time.LocalDateTime;
  * Uses SWIFT code as unique identifier to prevent duplicates.
  */
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 public class Bank {
@@ -85,16 +85,23 @@ public class Bank {
      */
     private LocalDateTime updatedAt;
     
+    /**
+     * Optimistic-locking version, incremented on every update
+     */
+    private Long version;
+    
+    /**
+     * Position of the bank's latest change in the change feed, assigned by the repository on every write
+     */
+    private Long changeSeq;
+    
     /**
      * Validates if the SWIFT code format is correct
+     *
+     * @see SwiftCodeValidator
      */
     public boolean isValidSwiftCode() {
-        if (swiftCode == null || swiftCode.trim().isEmpty()) {
-            return false;
-        }
-        // SWIFT code should be 8 or 11 characters, alphanumeric
-        String cleanSwift = swiftCode.trim().toUpperCase();
-        return cleanSwift.matches("^[A-Z0-9]{8}([A-Z0-9]{3})?$");
+        return SwiftCodeValidator.isValid(swiftCode);
     }
     
     /**
@@ -0,0 +1,112 @@
+package com.santander.rht.bankentitiesapi.domain.model;
+
+import java.util.Locale;
+
+/**
+ * Checks and normalizes SWIFT codes (ISO 9362 BICs) in a single pass over their characters,
+ * without regular expressions or intermediate strings.
+ * <p>
+ * A code is 8 or 11 characters, ignoring surrounding whitespace and case: a 4-character institution
+ * code, a 2-letter ISO 3166-1 country code, a 2-character location code and an optional 3-character
+ * branch code, all letters or digits.
+ */
+public final class SwiftCodeValidator {
+    
+    /**
+     * Assigned ISO 3166-1 alpha-2 codes, plus XK (Kosovo) which SWIFT also uses, indexed by (first - 'A') * 26 + (second - 'A')
+     */
+    private static final boolean[] ISO_COUNTRIES = new boolean[26 * 26];
+    
+    static {
+        for (String country : Locale.getISOCountries()) {
+            ISO_COUNTRIES[countryIndex(country.charAt(0), country.charAt(1))] = true;
+        }
+        ISO_COUNTRIES[countryIndex('X', 'K')] = true;
+    }
+    
+    private SwiftCodeValidator() {
+    }
+    
+    public static boolean isValid(String code) {
+        return normalize(code) != null;
+    }
+    
+    /**
+     * Returns the code trimmed and upper-cased, or null if it is not a valid SWIFT code.
+     * A code that is already normalized is returned as is, without allocating.
+     */
+    public static String normalize(String code) {
+        if (code == null) {
+            return null;
+        }
+        int start = 0;
+        int end = code.length();
+        while (start < end && code.charAt(start) <= ' ') {
+            start++;
+        }
+        while (end > start && code.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        int length = end - start;
+        if (length != 8 && length != 11) {
+            return null;
+        }
+        
+        boolean lowerCase = false;
+        for (int i = 0; i < length; i++) {
+            char c = code.charAt(start + i);
+            if (c >= 'a' && c <= 'z') {
+                lowerCase = true;
+                c -= 'a' - 'A';
+            }
+            boolean letter = c >= 'A' && c <= 'Z';
+            boolean digit = c >= '0' && c <= '9';
+            // The country code (positions 4 and 5) must be letters, every other position a letter or digit
+            if (!letter && (!digit || i == 4 || i == 5)) {
+                return null;
+            }
+        }
+        if (!isIsoCountry(upper(code.charAt(start + 4)), upper(code.charAt(start + 5)))) {
+            return null;
+        }
+        
+        if (!lowerCase) {
+            return length == code.length() ? code : code.substring(start, end);
+        }
+        char[] normalized = new char[length];
+        for (int i = 0; i < length; i++) {
+            normalized[i] = upper(code.charAt(start + i));
+        }
+        return new String(normalized);
+    }
+    
+    /**
+     * Whether the two letters, in either case, form an assigned ISO 3166-1 alpha-2 country code
+     */
+    public static boolean isIsoCountry(String countryCode) {
+        return countryCode != null && countryCode.length() == 2
+                && isIsoCountry(upper(countryCode.charAt(0)), upper(countryCode.charAt(1)));
+    }
+    
+    /**
+     * Whether the country segment of a normalized SWIFT code is the given country code, ignoring case
+     */
+    public static boolean hasCountry(String normalizedCode, String countryCode) {
+        return countryCode != null && countryCode.length() == 2
+                && normalizedCode.charAt(4) == upper(countryCode.charAt(0))
+                && normalizedCode.charAt(5) == upper(countryCode.charAt(1));
+    }
+    
+    private static boolean isIsoCountry(char first, char second) {
+        return first >= 'A' && first <= 'Z' && second >= 'A' && second <= 'Z'
+                && ISO_COUNTRIES[countryIndex(first, second)];
+    }
+    
+    private static int countryIndex(char first, char second) {
+        return (first - 'A') * 26 + (second - 'A');
+    }
+    
+    private static char upper(char c) {
+        return c >= 'a' && c <= 'z' ? (char) (c - ('a' - 'A')) : c;
+    }
+}
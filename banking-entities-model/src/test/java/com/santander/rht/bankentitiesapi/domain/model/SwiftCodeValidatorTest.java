@@ -0,0 +1,63 @@
+package com.santander.rht.bankentitiesapi.domain.model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SwiftCodeValidatorTest {
+    
+    @Test
+    void normalize_NormalizedCode_ReturnsSameInstance() {
+        // Given
+        String code = "SANDESMMXXX";
+        
+        // When & Then
+        assertThat(SwiftCodeValidator.normalize(code)).isSameAs(code);
+        assertThat(SwiftCodeValidator.normalize("SANDESM1")).isEqualTo("SANDESM1");
+    }
+    
+    @Test
+    void normalize_LowerCaseAndWhitespace_ReturnsTrimmedUpperCase() {
+        assertThat(SwiftCodeValidator.normalize("  sandesmmxxx ")).isEqualTo("SANDESMMXXX");
+        assertThat(SwiftCodeValidator.normalize("\tDEUTDEFF\n")).isEqualTo("DEUTDEFF");
+        assertThat(SwiftCodeValidator.normalize("ingbNL2a")).isEqualTo("INGBNL2A");
+    }
+    
+    @Test
+    void normalize_InvalidStructure_ReturnsNull() {
+        assertThat(SwiftCodeValidator.normalize(null)).isNull();
+        assertThat(SwiftCodeValidator.normalize("   ")).isNull();
+        assertThat(SwiftCodeValidator.normalize("SANDESM")).isNull();
+        assertThat(SwiftCodeValidator.normalize("SANDESMMXX")).isNull();
+        assertThat(SwiftCodeValidator.normalize("SANDESMMXXXX")).isNull();
+        assertThat(SwiftCodeValidator.normalize("SAND-SMM")).isNull();
+        assertThat(SwiftCodeValidator.normalize("SAND ESMM")).isNull();
+        assertThat(SwiftCodeValidator.normalize("SANDÉSMM")).isNull();
+        // Country segment must be letters
+        assertThat(SwiftCodeValidator.normalize("SAND1SMM")).isNull();
+    }
+    
+    @Test
+    void normalize_UnassignedCountry_ReturnsNull() {
+        assertThat(SwiftCodeValidator.normalize("DELETEST")).isNull();
+        assertThat(SwiftCodeValidator.normalize("BANKZZMMXXX")).isNull();
+        assertThat(SwiftCodeValidator.normalize("BANKXKPR")).isEqualTo("BANKXKPR");
+    }
+    
+    @Test
+    void isIsoCountry_ChecksAssignedCodes() {
+        assertThat(SwiftCodeValidator.isIsoCountry("ES")).isTrue();
+        assertThat(SwiftCodeValidator.isIsoCountry("de")).isTrue();
+        assertThat(SwiftCodeValidator.isIsoCountry("ZZ")).isFalse();
+        assertThat(SwiftCodeValidator.isIsoCountry("ESP")).isFalse();
+        assertThat(SwiftCodeValidator.isIsoCountry(null)).isFalse();
+    }
+    
+    @Test
+    void hasCountry_ComparesCountrySegmentIgnoringCase() {
+        assertThat(SwiftCodeValidator.hasCountry("SANDESMMXXX", "ES")).isTrue();
+        assertThat(SwiftCodeValidator.hasCountry("SANDESMMXXX", "es")).isTrue();
+        assertThat(SwiftCodeValidator.hasCountry("DEUTDEFF", "ES")).isFalse();
+        assertThat(SwiftCodeValidator.hasCountry("DEUTDEFF", "")).isFalse();
+    }
+}
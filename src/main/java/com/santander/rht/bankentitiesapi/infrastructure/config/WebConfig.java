@@ -1,17 +0,0 @@
-package com.santander.rht.bankentitiesapi.infrastructure.config;
-
-import org.springframework.context.annotation.Bean;
-import org.springframework.context.annotation.Configuration;
-import org.springframework.web.reactive.function.client.WebClient;
-
-/**
- * Configuration for web-related beans
- */
-@Configuration
-public class WebConfig {
-    
-    @Bean
-    public WebClient.Builder webClientBuilder() {
-        return WebClient.builder();
-    }
-}
\ No newline at end of file
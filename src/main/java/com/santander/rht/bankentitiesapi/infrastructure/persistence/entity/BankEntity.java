@@ -1,71 +0,0 @@
-package com.santander.rht.bankentitiesapi.infrastructure.persistence.entity;
-
-import com.santander.rht.bankentitiesapi.domain.model.BankType;
-import jakarta.persistence.*;
-import lombok.AllArgsConstructor;
-import lombok.Builder;
-import lombok.Data;
-import lombok.NoArgsConstructor;
-import org.hibernate.annotations.CreationTimestamp;
-import org.hibernate.annotations.UpdateTimestamp;
-
-import java.time.LocalDateTime;
-
-/**
- * JPA Entity for Bank table
- */
-@Entity
-@Table(name = "banks")
-@Data
-@Builder
-@NoArgsConstructor
-@AllArgsConstructor
-public class BankEntity {
-    
-    @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
-    private Long id;
-    
-    @Column(name = "swift_code", unique = true, nullable = false, length = 11)
-    private String swiftCode;
-    
-    @Column(name = "name", nullable = false, length = 255)
-    private String name;
-    
-    @Column(name = "address", length = 500)
-    private String address;
-    
-    @Column(name = "city", length = 100)
-    private String city;
-    
-    @Column(name = "country", length = 100)
-    private String country;
-    
-    @Column(name = "country_code", length = 2)
-    private String countryCode;
-    
-    @Column(name = "phone_number", length = 20)
-    private String phoneNumber;
-    
-    @Column(name = "email", length = 100)
-    private String email;
-    
-    @Column(name = "website", length = 255)
-    private String website;
-    
-    @Enumerated(EnumType.STRING)
-    @Column(name = "bank_type")
-    private BankType bankType;
-    
-    @Column(name = "active")
-    @Builder.Default
-    private Boolean active = true;
-    
-    @CreationTimestamp
-    @Column(name = "created_at", nullable = false, updatable = false)
-    private LocalDateTime createdAt;
-    
-    @UpdateTimestamp
-    @Column(name = "updated_at")
-    private LocalDateTime updatedAt;
-}
\ No newline at end of file
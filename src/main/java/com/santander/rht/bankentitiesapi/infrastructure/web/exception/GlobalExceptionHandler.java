@@ -1,116 +0,0 @@
-package com.santander.rht.bankentitiesapi.infrastructure.web.exception;
-
-import com.santander.rht.bankentitiesapi.domain.exception.BankNotFoundException;
-import com.santander.rht.bankentitiesapi.domain.exception.DuplicateBankException;
-import com.santander.rht.bankentitiesapi.domain.exception.InvalidBankDataException;
-import com.santander.rht.bankentitiesapi.infrastructure.web.dto.ErrorResponse;
-import lombok.extern.slf4j.Slf4j;
-import org.springframework.http.HttpStatus;
-import org.springframework.http.ResponseEntity;
-import org.springframework.validation.FieldError;
-import org.springframework.web.bind.MethodArgumentNotValidException;
-import org.springframework.web.bind.annotation.ExceptionHandler;
-import org.springframework.web.bind.annotation.RestControllerAdvice;
-import org.springframework.web.context.request.WebRequest;
-
-import java.util.List;
-import java.util.stream.Collectors;
-
-/**
- * Global exception handler for the application
- */
-@RestControllerAdvice
-@Slf4j
-public class GlobalExceptionHandler {
-
-    @ExceptionHandler(BankNotFoundException.class)
-    public ResponseEntity<ErrorResponse> handleBankNotFoundException(BankNotFoundException ex, WebRequest request) {
-        log.error("Bank not found: {}", ex.getMessage());
-
-        ErrorResponse error = ErrorResponse.of(
-                "BANK_NOT_FOUND",
-                ex.getMessage(),
-                HttpStatus.NOT_FOUND.value(),
-                request.getDescription(false).replace("uri=", "")
-        );
-
-        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
-    }
-
-    @ExceptionHandler(DuplicateBankException.class)
-    public ResponseEntity<ErrorResponse> handleDuplicateBankException(DuplicateBankException ex, WebRequest request) {
-        log.error("Duplicate bank: {}", ex.getMessage());
-
-        ErrorResponse error = ErrorResponse.of(
-                "DUPLICATE_BANK",
-                ex.getMessage(),
-                HttpStatus.CONFLICT.value(),
-                request.getDescription(false).replace("uri=", "")
-        );
-
-        return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
-    }
-
-    @ExceptionHandler(InvalidBankDataException.class)
-    public ResponseEntity<ErrorResponse> handleInvalidBankDataException(InvalidBankDataException ex, WebRequest request) {
-        log.error("Invalid bank data: {}", ex.getMessage());
-
-        ErrorResponse error = ErrorResponse.of(
-                "INVALID_BANK_DATA",
-                ex.getMessage(),
-                HttpStatus.BAD_REQUEST.value(),
-                request.getDescription(false).replace("uri=", "")
-        );
-
-        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
-    }
-
-    @ExceptionHandler(MethodArgumentNotValidException.class)
-    public ResponseEntity<ErrorResponse> handleValidationException(MethodArgumentNotValidException ex, WebRequest request) {
-        log.error("Validation error: {}", ex.getMessage());
-
-        List<String> errors = ex.getBindingResult()
-                .getFieldErrors()
-                .stream()
-                .map(FieldError::getDefaultMessage)
-                .collect(Collectors.toList());
-
-        ErrorResponse error = ErrorResponse.of(
-                "VALIDATION_ERROR",
-                "Validation failed for request",
-                HttpStatus.BAD_REQUEST.value(),
-                request.getDescription(false).replace("uri=", ""),
-                errors
-        );
-
-        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
-    }
-
-    @ExceptionHandler(IllegalArgumentException.class)
-    public ResponseEntity<ErrorResponse> handleIllegalArgumentException(IllegalArgumentException ex, WebRequest request) {
-        log.error("Illegal argument: {}", ex.getMessage());
-
-        ErrorResponse error = ErrorResponse.of(
-                "ILLEGAL_ARGUMENT",
-                ex.getMessage(),
-                HttpStatus.BAD_REQUEST.value(),
-                request.getDescription(false).replace("uri=", "")
-        );
-
-        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
-    }
-
-    @ExceptionHandler(Exception.class)
-    public ResponseEntity<ErrorResponse> handleGenericException(Exception ex, WebRequest request) {
-        log.error("Unexpected error: {}", ex.getMessage(), ex);
-
-        ErrorResponse error = ErrorResponse.of(
-                "INTERNAL_SERVER_ERROR",
-                "An unexpected error occurred",
-                HttpStatus.INTERNAL_SERVER_ERROR.value(),
-                request.getDescription(false).replace("uri=", "")
-        );
-
-        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
-    }
-}